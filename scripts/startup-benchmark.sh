@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-successful-payment: from launching the JVM until POST /api/v1/payment
+# first returns 200. Needs the bank simulator running (docker compose up).
+#
+#   scripts/startup-benchmark.sh jar     # ./gradlew bootJar
+#   scripts/startup-benchmark.sh fast    # ./gradlew -PfastStartup cdsArchive
+#
+# RUNS (default 5) cold starts are measured and each one is printed, followed by the median.
+
+set -euo pipefail
+
+MODE=${1:-jar}
+RUNS=${RUNS:-5}
+PORT=${PORT:-8091}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+PAYMENT='{"card_number":"2222405343248877","expiry_month":4,"expiry_year":2030,"currency":"GBP","amount":100,"cvv":"123"}'
+
+case "$MODE" in
+  jar)
+    JAR=$(ls "$ROOT"/build/libs/*-SNAPSHOT.jar)
+    WORKDIR=$ROOT
+    COMMAND=(java -jar "$JAR")
+    ;;
+  fast)
+    WORKDIR=$ROOT/build/fast-startup
+    COMMAND=(java -XX:SharedArchiveFile=app.jsa @jvm.args)
+    ;;
+  *)
+    echo "usage: $0 [jar|fast]" >&2
+    exit 2
+    ;;
+esac
+
+now_ms() {
+  date +%s%3N
+}
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  (cd "$WORKDIR" && exec "${COMMAND[@]}" --server.port="$PORT") > /dev/null 2>&1 &
+  pid=$!
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' -X POST \
+      -H 'Content-Type: application/json' -d "$PAYMENT" \
+      "http://localhost:$PORT/api/v1/payment" || true)" = "200" ]; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "run $run: application exited before serving a payment" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "run $run: first successful payment after ${elapsed} ms"
+  results+=("$elapsed")
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+echo "$MODE: median time-to-first-successful-payment ${median} ms over $RUNS runs"
@@ -0,0 +1,85 @@
+package com.checkout.payment.gateway.admission;
+
+import com.checkout.payment.gateway.controller.PaymentGatewayController;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds payment requests once the gateway is saturated, before the body is read or validated.
+ * Lookups and submissions are admitted through separate lanes so that a burst of submissions
+ * waiting on the bank does not starve cheap lookups, and vice versa. A request that continues on
+ * an {@link ExecutionLane} keeps its slot until its response is complete.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private final AdmissionLane readLane;
+  private final AdmissionLane writeLane;
+  private final ObjectMapper objectMapper;
+  private final long retryAfterSeconds;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    AdmissionLane lane = PaymentGatewayController.isRead(request) ? readLane : writeLane;
+    if (!lane.tryAdmit()) {
+      log.debug("Shed {} {} on {} lane, inFlight={}, queueDelayMs={}", request.getMethod(),
+          request.getRequestURI(), lane.getName(), lane.inFlight(), lane.queueDelayMillis());
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      objectMapper.writeValue(response.getOutputStream(), ErrorResponse.OVERLOADED);
+      return;
+    }
+    boolean async = false;
+    try {
+      filterChain.doFilter(request, response);
+      async = request.isAsyncStarted();
+    } finally {
+      if (async) {
+        // Handed to an execution lane: the slot is held until the response is complete
+        request.getAsyncContext().addListener(new ReleaseOnComplete(lane));
+      } else {
+        lane.release();
+      }
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class ReleaseOnComplete implements AsyncListener {
+
+    private final AdmissionLane lane;
+
+    // Called after timeouts and errors too
+    @Override
+    public void onComplete(AsyncEvent event) {
+      lane.release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.checkout.payment.gateway.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the requests of one kind that are being processed at once.
+ *
+ * <p>A request that finds a free slot is admitted immediately. Otherwise it may wait for one,
+ * but only while the queue is short and recent waits have stayed under the target delay; a
+ * request that would only queue behind a standing backlog is shed straight away, since by the
+ * time it ran its client would likely have given up.
+ */
+public class AdmissionLane {
+
+  private final String name;
+  private final int maxInFlight;
+  private final Semaphore slots;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final int maxQueued;
+  private final long maxQueueNanos;
+  private final long targetQueueNanos;
+  // Exponentially weighted average of the time requests spent waiting for a slot
+  private final AtomicLong queueDelayNanos = new AtomicLong();
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder shed = new LongAdder();
+
+  public AdmissionLane(String name, int maxInFlight, int maxQueued, long maxQueueMs,
+      long targetQueueMs) {
+    this.name = name;
+    this.maxInFlight = maxInFlight;
+    this.slots = new Semaphore(maxInFlight, true);
+    this.maxQueued = maxQueued;
+    this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueMs);
+    this.targetQueueNanos = TimeUnit.MILLISECONDS.toNanos(targetQueueMs);
+  }
+
+  /**
+   * @return whether the request may proceed; if so, {@link #release()} must follow
+   */
+  public boolean tryAdmit() {
+    if (slots.tryAcquire()) {
+      return admit(0);
+    }
+    if (queueDelayNanos.get() > targetQueueNanos) {
+      return reject();
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      return reject();
+    }
+    long start = System.nanoTime();
+    try {
+      if (slots.tryAcquire(maxQueueNanos, TimeUnit.NANOSECONDS)) {
+        return admit(System.nanoTime() - start);
+      }
+      recordDelay(maxQueueNanos);
+      return reject();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return reject();
+    } finally {
+      queued.decrementAndGet();
+    }
+  }
+
+  public void release() {
+    slots.release();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int inFlight() {
+    return maxInFlight - slots.availablePermits();
+  }
+
+  public int queued() {
+    return queued.get();
+  }
+
+  public long queueDelayMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(queueDelayNanos.get());
+  }
+
+  public long admittedCount() {
+    return admitted.sum();
+  }
+
+  public long shedCount() {
+    return shed.sum();
+  }
+
+  private boolean admit(long delayNanos) {
+    admitted.increment();
+    recordDelay(delayNanos);
+    return true;
+  }
+
+  private boolean reject() {
+    shed.increment();
+    return false;
+  }
+
+  private void recordDelay(long delayNanos) {
+    queueDelayNanos.updateAndGet(average -> average + (delayNanos - average) / 8);
+  }
+}
@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.admission;
+
+import com.checkout.payment.gateway.deadline.RequestDeadline;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs one kind of request on threads of its own, so that requests blocked on a slow dependency
+ * hold these threads rather than the container's, and everything else keeps being served.
+ *
+ * <p>Work beyond the lane's threads waits in a bounded queue; once that is full it is rejected
+ * straight away rather than queued without limit. Each task runs under the deadline of the
+ * request that submitted it.
+ */
+public class ExecutionLane {
+
+  private final String name;
+  private final ThreadPoolExecutor executor;
+  // Exponentially weighted average of the time tasks spent queued before a thread took them
+  private final AtomicLong queueDelayNanos = new AtomicLong();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  public ExecutionLane(String name, int threads, int queueCapacity) {
+    this.name = name;
+    BlockingQueue<Runnable> queue = queueCapacity == 0
+        ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueCapacity);
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue,
+        runnable -> {
+          Thread thread = new Thread(runnable, name + "-lane-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * @return completes with the task's result, or exceptionally with what it threw
+   * @throws RejectedExecutionException when every thread is busy and the queue is full
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    long deadline = RequestDeadline.get();
+    boolean fromClient = RequestDeadline.isFromClient();
+    long submitted = System.nanoTime();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        recordDelay(System.nanoTime() - submitted);
+        RequestDeadline.set(deadline, fromClient);
+        try {
+          return task.get();
+        } finally {
+          RequestDeadline.clear();
+          completed.increment();
+        }
+      }, executor);
+    } catch (RejectedExecutionException ex) {
+      rejected.increment();
+      throw ex;
+    }
+  }
+
+  public void stop() {
+    executor.shutdown();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int active() {
+    return executor.getActiveCount();
+  }
+
+  public int queued() {
+    return executor.getQueue().size();
+  }
+
+  public long queueDelayMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(queueDelayNanos.get());
+  }
+
+  public long completedCount() {
+    return completed.sum();
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  private void recordDelay(long delayNanos) {
+    queueDelayNanos.updateAndGet(average -> average + (delayNanos - average) / 8);
+  }
+}
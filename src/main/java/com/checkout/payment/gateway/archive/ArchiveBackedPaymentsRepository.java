@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Falls back to the archive for lookups that miss the live store. Iteration and removal only
+ * concern live payments.
+ */
+@RequiredArgsConstructor
+public class ArchiveBackedPaymentsRepository implements PaymentsRepository {
+
+  private final PaymentsRepository liveRepository;
+  private final PaymentArchive archive;
+
+  @Override
+  public void add(PaymentResponse payment) {
+    liveRepository.add(payment);
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    Optional<PaymentResponse> live = liveRepository.get(id);
+    return live.isPresent() ? live : archive.find(id);
+  }
+
+  @Override
+  public Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    Map<UUID, PaymentResponse> found = liveRepository.getAll(ids);
+    for (UUID id : ids) {
+      if (!found.containsKey(id)) {
+        archive.find(id).ifPresent(payment -> found.put(id, payment));
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    liveRepository.forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    liveRepository.remove(id);
+  }
+}
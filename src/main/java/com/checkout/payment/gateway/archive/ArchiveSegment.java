@@ -0,0 +1,225 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ArchiveException;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A read-only, memory-mapped segment of archived payments.
+ *
+ * <p>Rows are sorted by id, and therefore by creation time. Ids are stored raw. Every other
+ * field is a column of fixed-width bit-packed offsets from a per-column base: creation time,
+ * amount, expiry and last four digits directly, currency and status as codes into small
+ * dictionaries. Settlement currency, settlement amount and FX rate are optional and hold
+ * {@link #NO_VALUE} when a payment was not converted; the rate is stored unscaled at
+ * {@link #FX_RATE_SCALE} decimal places. Scans read the columns straight from the mapping and
+ * never build row objects. The layout is described in {@link ArchiveSegmentWriter}.
+ */
+public class ArchiveSegment {
+
+  static final int MAGIC = 0x50474153;
+  static final short VERSION = 1;
+  static final int NO_LAST_FOUR = 10_000;
+  static final long NO_VALUE = -1;
+  static final int FX_RATE_SCALE = 10;
+
+  static final int TIMESTAMP = 0;
+  static final int AMOUNT = 1;
+  static final int CURRENCY = 2;
+  static final int STATUS = 3;
+  static final int LAST_FOUR = 4;
+  static final int EXPIRY_MONTH = 5;
+  static final int EXPIRY_YEAR = 6;
+  static final int SETTLEMENT_CURRENCY = 7;
+  static final int SETTLEMENT_AMOUNT = 8;
+  static final int FX_RATE = 9;
+  static final int COLUMNS = 10;
+
+  private final Path path;
+  private final MappedByteBuffer buffer;
+  private final int rows;
+  private final String[] currencies;
+  private final PaymentStatus[] statuses;
+  private final int idsPosition;
+  private final int[] positions = new int[COLUMNS];
+  private final int[] widths = new int[COLUMNS];
+  private final long[] bases = new long[COLUMNS];
+
+  private ArchiveSegment(Path path, MappedByteBuffer buffer) {
+    this.path = path;
+    this.buffer = buffer;
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    int magic = buffer.getInt();
+    if (magic != MAGIC || buffer.getShort() != VERSION) {
+      throw new ArchiveException("Not an archive segment: " + path);
+    }
+    rows = buffer.getInt();
+    currencies = readDictionary(buffer);
+    String[] statusNames = readDictionary(buffer);
+    statuses = new PaymentStatus[statusNames.length];
+    for (int i = 0; i < statusNames.length; i++) {
+      statuses[i] = PaymentStatus.valueOf(statusNames[i]);
+    }
+    idsPosition = buffer.position();
+    buffer.position(idsPosition + rows * 16);
+    for (int column = 0; column < COLUMNS; column++) {
+      widths[column] = buffer.get();
+      bases[column] = buffer.getLong();
+      int words = buffer.getInt();
+      positions[column] = buffer.position();
+      buffer.position(positions[column] + words * 8);
+    }
+  }
+
+  public static ArchiveSegment open(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          channel.size()));
+    } catch (IOException ex) {
+      throw new ArchiveException("Could not map archive segment " + path, ex);
+    }
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public int rowCount() {
+    return rows;
+  }
+
+  public long minTimestamp() {
+    return bases[TIMESTAMP];
+  }
+
+  public long maxTimestamp() {
+    return rows == 0 ? bases[TIMESTAMP] : timestampAt(rows - 1);
+  }
+
+  String currencyAt(int code) {
+    return currencies[code];
+  }
+
+  int currencyCount() {
+    return currencies.length;
+  }
+
+  PaymentStatus statusAt(int code) {
+    return statuses[code];
+  }
+
+  int statusCount() {
+    return statuses.length;
+  }
+
+  long timestampAt(int row) {
+    return value(TIMESTAMP, row);
+  }
+
+  long amountAt(int row) {
+    return value(AMOUNT, row);
+  }
+
+  int currencyCodeAt(int row) {
+    return (int) value(CURRENCY, row);
+  }
+
+  int statusCodeAt(int row) {
+    return (int) value(STATUS, row);
+  }
+
+  /**
+   * @return the first row created at or after {@code timestamp}
+   */
+  int firstRowAtOrAfter(long timestamp) {
+    int low = 0;
+    int high = rows;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestampAt(mid) < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  public Optional<PaymentResponse> find(UUID id) {
+    int low = 0;
+    int high = rows - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int comparison = compare(mid, id);
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return Optional.of(rowAt(mid, id));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private int compare(int row, UUID id) {
+    int position = idsPosition + row * 16;
+    int comparison = Long.compareUnsigned(buffer.getLong(position), id.getMostSignificantBits());
+    return comparison != 0 ? comparison
+        : Long.compareUnsigned(buffer.getLong(position + 8), id.getLeastSignificantBits());
+  }
+
+  private PaymentResponse rowAt(int row, UUID id) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(id);
+    payment.setArchived(true);
+    payment.setStatus(statuses[statusCodeAt(row)]);
+    String currency = currencies[currencyCodeAt(row)];
+    payment.setCurrency(currency.isEmpty() ? null : currency);
+    payment.setAmount((int) amountAt(row));
+    payment.setExpiryMonth((int) value(EXPIRY_MONTH, row));
+    payment.setExpiryYear((int) value(EXPIRY_YEAR, row));
+    payment.setCardExpiryDate(String.format("%02d/%02d", payment.getExpiryMonth(),
+        payment.getExpiryYear() % 100));
+    int lastFour = (int) value(LAST_FOUR, row);
+    payment.setLastFourDigits(lastFour == NO_LAST_FOUR ? null : String.format("%04d", lastFour));
+    long settlementCurrency = value(SETTLEMENT_CURRENCY, row);
+    if (settlementCurrency != NO_VALUE) {
+      payment.setSettlementCurrency(currencies[(int) settlementCurrency]);
+    }
+    long settlementAmount = value(SETTLEMENT_AMOUNT, row);
+    if (settlementAmount != NO_VALUE) {
+      payment.setSettlementAmount((int) settlementAmount);
+    }
+    long fxRate = value(FX_RATE, row);
+    if (fxRate != NO_VALUE) {
+      payment.setFxRate(BigDecimal.valueOf(fxRate, FX_RATE_SCALE));
+    }
+    return payment;
+  }
+
+  private long value(int column, int row) {
+    return bases[column] + BitPacking.read(buffer, positions[column], widths[column], row);
+  }
+
+  private static String[] readDictionary(ByteBuffer buffer) {
+    String[] values = new String[buffer.getShort()];
+    for (int i = 0; i < values.length; i++) {
+      byte[] bytes = new byte[buffer.get()];
+      buffer.get(bytes);
+      values[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,211 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ArchiveException;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes archive segments. All values are little-endian:
+ *
+ * <pre>
+ * int     magic, short version, int rows
+ * dict    currencies, dict statuses      (short count, then byte length + UTF-8 per entry)
+ * long[2] id per row                     (most, least significant bits; rows sorted by id)
+ * column  x10                            (byte width, long base, int words, long[words] packed)
+ * </pre>
+ *
+ * <p>Settlement currencies share the currency dictionary.
+ *
+ * <p>Creation times are frame-of-reference encoded like every other column, as offsets from the
+ * segment's earliest one, rather than as deltas between consecutive rows. Deltas would pack
+ * sorted times a few bits tighter, but reading row {@code n} would then mean summing the
+ * {@code n} deltas before it. Summaries binary-search the time column for the first row in
+ * range and split segments into row ranges scanned in parallel, so both need any row's time in
+ * constant time.
+ *
+ * <p>The segment is written to a temporary file and moved into place, so a reader never maps a
+ * partially written segment.
+ */
+public final class ArchiveSegmentWriter {
+
+  static final Comparator<PaymentResponse> BY_ID = (left, right) -> {
+    int comparison = Long.compareUnsigned(left.getId().getMostSignificantBits(),
+        right.getId().getMostSignificantBits());
+    return comparison != 0 ? comparison : Long.compareUnsigned(
+        left.getId().getLeastSignificantBits(), right.getId().getLeastSignificantBits());
+  };
+
+  private ArchiveSegmentWriter() {
+  }
+
+  /**
+   * Writes time-ordered payments to a new segment at {@code path}.
+   */
+  public static void write(Path path, List<PaymentResponse> payments) {
+    List<PaymentResponse> rows = new ArrayList<>(payments);
+    rows.sort(BY_ID);
+    int count = rows.size();
+
+    Map<String, Integer> currencyCodes = new TreeMap<>();
+    rows.forEach(payment -> {
+      currencyCodes.putIfAbsent(currencyOf(payment), 0);
+      if (payment.getSettlementCurrency() != null) {
+        currencyCodes.putIfAbsent(payment.getSettlementCurrency(), 0);
+      }
+    });
+    String[] currencies = currencyCodes.keySet().toArray(new String[0]);
+    for (int i = 0; i < currencies.length; i++) {
+      currencyCodes.put(currencies[i], i);
+    }
+    PaymentStatus[] statuses = PaymentStatus.values();
+
+    long[][] columns = new long[ArchiveSegment.COLUMNS][count];
+    for (int row = 0; row < count; row++) {
+      PaymentResponse payment = rows.get(row);
+      columns[ArchiveSegment.TIMESTAMP][row] =
+          TimeOrderedPaymentIdGenerator.timestampOf(payment.getId());
+      columns[ArchiveSegment.AMOUNT][row] = payment.getAmount();
+      columns[ArchiveSegment.CURRENCY][row] = currencyCodes.get(currencyOf(payment));
+      columns[ArchiveSegment.STATUS][row] = payment.getStatus().ordinal();
+      columns[ArchiveSegment.LAST_FOUR][row] = lastFourOf(payment);
+      columns[ArchiveSegment.EXPIRY_MONTH][row] = payment.getExpiryMonth();
+      columns[ArchiveSegment.EXPIRY_YEAR][row] = payment.getExpiryYear();
+      columns[ArchiveSegment.SETTLEMENT_CURRENCY][row] = payment.getSettlementCurrency() == null
+          ? ArchiveSegment.NO_VALUE : currencyCodes.get(payment.getSettlementCurrency());
+      columns[ArchiveSegment.SETTLEMENT_AMOUNT][row] = payment.getSettlementAmount() == null
+          ? ArchiveSegment.NO_VALUE : payment.getSettlementAmount();
+      columns[ArchiveSegment.FX_RATE][row] = fxRateOf(payment);
+    }
+
+    List<byte[]> dictionary = new ArrayList<>();
+    long size = 4 + 2 + 4 + dictionarySize(currencies, dictionary)
+        + dictionarySize(names(statuses), dictionary) + 16L * count;
+    long[] bases = new long[ArchiveSegment.COLUMNS];
+    int[] widths = new int[ArchiveSegment.COLUMNS];
+    long[][] packed = new long[ArchiveSegment.COLUMNS][];
+    for (int column = 0; column < ArchiveSegment.COLUMNS; column++) {
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (long value : columns[column]) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      bases[column] = count == 0 ? 0 : min;
+      widths[column] = count == 0 ? 0 : BitPacking.bitsRequired(max - min);
+      long[] offsets = columns[column];
+      for (int row = 0; row < count; row++) {
+        offsets[row] -= bases[column];
+      }
+      packed[column] = BitPacking.pack(offsets, widths[column]);
+      size += 1 + 8 + 4 + 8L * packed[column].length;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new ArchiveException("Segment of " + count + " payments exceeds 2GB");
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(ArchiveSegment.MAGIC).putShort(ArchiveSegment.VERSION).putInt(count);
+    putDictionary(buffer, dictionary.subList(0, currencies.length));
+    putDictionary(buffer, dictionary.subList(currencies.length, dictionary.size()));
+    for (PaymentResponse payment : rows) {
+      buffer.putLong(payment.getId().getMostSignificantBits());
+      buffer.putLong(payment.getId().getLeastSignificantBits());
+    }
+    for (int column = 0; column < ArchiveSegment.COLUMNS; column++) {
+      buffer.put((byte) widths[column]).putLong(bases[column]).putInt(packed[column].length);
+      for (long word : packed[column]) {
+        buffer.putLong(word);
+      }
+    }
+    buffer.flip();
+    writeAtomically(path, buffer);
+  }
+
+  private static void writeAtomically(Path path, ByteBuffer buffer) {
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    } catch (IOException ex) {
+      throw new ArchiveException("Could not write archive segment " + path, ex);
+    }
+    try {
+      Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      throw new ArchiveException("Could not publish archive segment " + path, ex);
+    }
+  }
+
+  private static String currencyOf(PaymentResponse payment) {
+    return payment.getCurrency() == null ? "" : payment.getCurrency();
+  }
+
+  private static long fxRateOf(PaymentResponse payment) {
+    BigDecimal rate = payment.getFxRate();
+    if (rate == null) {
+      return ArchiveSegment.NO_VALUE;
+    }
+    try {
+      return rate.setScale(ArchiveSegment.FX_RATE_SCALE, RoundingMode.HALF_EVEN).unscaledValue()
+          .longValueExact();
+    } catch (ArithmeticException ex) {
+      throw new ArchiveException("FX rate out of range for payment " + payment.getId(), ex);
+    }
+  }
+
+  private static int lastFourOf(PaymentResponse payment) {
+    String lastFour = payment.getLastFourDigits();
+    if (lastFour == null || !lastFour.matches("\\d{4}")) {
+      return ArchiveSegment.NO_LAST_FOUR;
+    }
+    return Integer.parseInt(lastFour);
+  }
+
+  private static String[] names(PaymentStatus[] statuses) {
+    String[] names = new String[statuses.length];
+    for (int i = 0; i < statuses.length; i++) {
+      names[i] = statuses[i].name();
+    }
+    return names;
+  }
+
+  private static long dictionarySize(String[] values, List<byte[]> encoded) {
+    long size = 2;
+    for (String value : values) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > Byte.MAX_VALUE) {
+        throw new ArchiveException("Dictionary value too long: " + value);
+      }
+      encoded.add(bytes);
+      size += 1 + bytes.length;
+    }
+    return size;
+  }
+
+  private static void putDictionary(ByteBuffer buffer, List<byte[]> values) {
+    buffer.putShort((short) values.size());
+    for (byte[] value : values) {
+      buffer.put((byte) value.length).put(value);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.checkout.payment.gateway.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width bit packing of non-negative values into little-endian 64-bit words. A value may
+ * straddle two words; reads never allocate.
+ */
+final class BitPacking {
+
+  private BitPacking() {
+  }
+
+  static int bitsRequired(long maxValue) {
+    return maxValue == 0 ? 0 : 64 - Long.numberOfLeadingZeros(maxValue);
+  }
+
+  static int wordsRequired(int count, int width) {
+    return (int) (((long) count * width + 63) >>> 6);
+  }
+
+  static long[] pack(long[] values, int width) {
+    long[] words = new long[wordsRequired(values.length, width)];
+    if (width == 0) {
+      return words;
+    }
+    for (int i = 0; i < values.length; i++) {
+      long bit = (long) i * width;
+      int word = (int) (bit >>> 6);
+      int offset = (int) (bit & 63);
+      words[word] |= values[i] << offset;
+      if (offset + width > 64) {
+        words[word + 1] |= values[i] >>> (64 - offset);
+      }
+    }
+    return words;
+  }
+
+  /**
+   * Reads the {@code index}-th value of a packed column whose words start at {@code position}.
+   */
+  static long read(ByteBuffer buffer, int position, int width, int index) {
+    if (width == 0) {
+      return 0;
+    }
+    long bit = (long) index * width;
+    int word = (int) (bit >>> 6);
+    int offset = (int) (bit & 63);
+    long value = buffer.getLong(position + (word << 3)) >>> offset;
+    if (offset + width > 64) {
+      value |= buffer.getLong(position + ((word + 1) << 3)) << (64 - offset);
+    }
+    return width == 64 ? value : value & ((1L << width) - 1);
+  }
+}
@@ -0,0 +1,211 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ArchiveException;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.ArchivedVolume;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The set of archive segments in one directory.
+ *
+ * <p>Aggregations split the matching rows of every segment into fixed-size ranges and scan them
+ * in parallel on the common fork-join pool. Each range accumulates into flat arrays indexed by
+ * day, currency code and status code; only the non-empty cells are turned into keys when the
+ * partial results are merged.
+ */
+@Slf4j
+public class PaymentArchive {
+
+  static final String SEGMENT_SUFFIX = ".seg";
+  private static final int SCAN_RANGE_ROWS = 1 << 16;
+  private static final long DAY_MILLIS = 86_400_000L;
+
+  private final Path directory;
+  private volatile List<ArchiveSegment> segments;
+
+  public PaymentArchive(Path directory) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+      try (Stream<Path> files = Files.list(directory)) {
+        segments = files
+            .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+            .sorted()
+            .map(ArchiveSegment::open)
+            .toList();
+      }
+    } catch (IOException ex) {
+      throw new ArchiveException("Could not open archive directory " + directory, ex);
+    }
+    log.info("Opened archive {} with {} segments and {} payments", directory, segments.size(),
+        rowCount());
+  }
+
+  /**
+   * Writes the payments to a new segment and makes it visible to lookups and scans. Every
+   * payment must have a time-ordered id.
+   */
+  public synchronized ArchiveSegment append(List<PaymentResponse> payments) {
+    long minTimestamp = payments.stream()
+        .mapToLong(payment -> TimeOrderedPaymentIdGenerator.timestampOf(payment.getId()))
+        .min()
+        .orElse(0);
+    Path path = directory.resolve(String.format("payments-%013d-%06d%s", minTimestamp,
+        segments.size(), SEGMENT_SUFFIX));
+    ArchiveSegmentWriter.write(path, payments);
+    ArchiveSegment segment = ArchiveSegment.open(path);
+    List<ArchiveSegment> updated = new ArrayList<>(segments);
+    updated.add(segment);
+    segments = List.copyOf(updated);
+    return segment;
+  }
+
+  public Optional<PaymentResponse> find(UUID id) {
+    long timestamp = TimeOrderedPaymentIdGenerator.timestampOf(id);
+    if (timestamp < 0) {
+      return Optional.empty();
+    }
+    for (ArchiveSegment segment : segments) {
+      if (timestamp >= segment.minTimestamp() && timestamp <= segment.maxTimestamp()) {
+        Optional<PaymentResponse> found = segment.find(id);
+        if (found.isPresent()) {
+          return found;
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Sums count and amount per UTC day, currency and status over payments created in
+   * {@code [fromMillis, toMillis)}.
+   */
+  public List<ArchivedVolume> summarize(long fromMillis, long toMillis) {
+    List<ScanRange> ranges = new ArrayList<>();
+    for (ArchiveSegment segment : segments) {
+      if (segment.rowCount() == 0 || segment.maxTimestamp() < fromMillis
+          || segment.minTimestamp() >= toMillis) {
+        continue;
+      }
+      int first = segment.firstRowAtOrAfter(fromMillis);
+      int end = segment.firstRowAtOrAfter(toMillis);
+      for (int start = first; start < end; start += SCAN_RANGE_ROWS) {
+        ranges.add(new ScanRange(segment, start, Math.min(end, start + SCAN_RANGE_ROWS)));
+      }
+    }
+    Map<VolumeKey, long[]> totals = ranges.parallelStream()
+        .map(ScanRange::scan)
+        .reduce(PaymentArchive::merge)
+        .orElseGet(HashMap::new);
+    return totals.entrySet().stream()
+        .map(entry -> new ArchivedVolume(LocalDate.ofEpochDay(entry.getKey().day),
+            entry.getKey().currency, entry.getKey().status, entry.getValue()[0],
+            entry.getValue()[1]))
+        .sorted(Comparator.comparing(ArchivedVolume::getDate)
+            .thenComparing(volume -> Objects.toString(volume.getCurrency(), ""))
+            .thenComparing(ArchivedVolume::getStatus))
+        .toList();
+  }
+
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  public long rowCount() {
+    return segments.stream().mapToLong(ArchiveSegment::rowCount).sum();
+  }
+
+  private static Map<VolumeKey, long[]> merge(Map<VolumeKey, long[]> left,
+      Map<VolumeKey, long[]> right) {
+    right.forEach((key, totals) -> left.merge(key, totals, (current, added) -> {
+      current[0] += added[0];
+      current[1] += added[1];
+      return current;
+    }));
+    return left;
+  }
+
+  private static final class ScanRange {
+    private final ArchiveSegment segment;
+    private final int start;
+    private final int end;
+
+    private ScanRange(ArchiveSegment segment, int start, int end) {
+      this.segment = segment;
+      this.start = start;
+      this.end = end;
+    }
+
+    private Map<VolumeKey, long[]> scan() {
+      long firstDay = Math.floorDiv(segment.timestampAt(start), DAY_MILLIS);
+      long lastDay = Math.floorDiv(segment.timestampAt(end - 1), DAY_MILLIS);
+      int currencies = segment.currencyCount();
+      int statuses = segment.statusCount();
+      int cells = (int) (lastDay - firstDay + 1) * currencies * statuses;
+      long[] counts = new long[cells];
+      long[] amounts = new long[cells];
+      for (int row = start; row < end; row++) {
+        int day = (int) (Math.floorDiv(segment.timestampAt(row), DAY_MILLIS) - firstDay);
+        int cell = (day * currencies + segment.currencyCodeAt(row)) * statuses
+            + segment.statusCodeAt(row);
+        counts[cell]++;
+        amounts[cell] += segment.amountAt(row);
+      }
+      Map<VolumeKey, long[]> totals = new HashMap<>();
+      for (int cell = 0; cell < cells; cell++) {
+        if (counts[cell] == 0) {
+          continue;
+        }
+        String currency = segment.currencyAt(cell / statuses % currencies);
+        totals.put(new VolumeKey(firstDay + cell / statuses / currencies,
+                currency.isEmpty() ? null : currency, segment.statusAt(cell % statuses)),
+            new long[]{counts[cell], amounts[cell]});
+      }
+      return totals;
+    }
+  }
+
+  private static final class VolumeKey {
+    private final long day;
+    private final String currency;
+    private final PaymentStatus status;
+
+    private VolumeKey(long day, String currency, PaymentStatus status) {
+      this.day = day;
+      this.currency = currency;
+      this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof VolumeKey)) {
+        return false;
+      }
+      VolumeKey key = (VolumeKey) other;
+      return day == key.day && Objects.equals(currency, key.currency) && status == key.status;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(day, currency, status);
+    }
+  }
+}
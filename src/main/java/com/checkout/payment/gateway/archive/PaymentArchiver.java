@@ -0,0 +1,153 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically moves payments older than the configured age from the live store into the
+ * archive. Payments are removed from the live store only once their segment is on disk, so a
+ * crash in between leaves a payment in both places rather than in neither.
+ *
+ * <p>Segments keep a payment's status but not its captures, voids and refunds, so payments with
+ * any action stay in the live store. Archived payments take no further actions. While a segment
+ * is written and its payments removed, actions on them are held back; each payment is read again
+ * once held, and one that took an action since it was picked stays live.
+ *
+ * <p>Only a node that may write to its store archives. A read replica skips every run: it could
+ * append a segment but not remove the payments from its store, and would append them again on
+ * the next run.
+ */
+@Slf4j
+public class PaymentArchiver {
+
+  private final PaymentsRepository liveRepository;
+  private final PaymentArchive archive;
+  private final Duration maxAge;
+  private final int segmentRows;
+  private final Clock clock;
+  private final BooleanSupplier writable;
+  private final PaymentLifecycle paymentLifecycle;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-archiver");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  public PaymentArchiver(PaymentsRepository liveRepository, PaymentArchive archive,
+      Duration maxAge, int segmentRows, Clock clock) {
+    this(liveRepository, archive, maxAge, segmentRows, clock, () -> true);
+  }
+
+  /**
+   * @param writable whether this node may currently write to {@code liveRepository}
+   */
+  public PaymentArchiver(PaymentsRepository liveRepository, PaymentArchive archive,
+      Duration maxAge, int segmentRows, Clock clock, BooleanSupplier writable) {
+    this(liveRepository, archive, maxAge, segmentRows, clock, writable, null);
+  }
+
+  /**
+   * @param paymentLifecycle applies actions to the payments in {@code liveRepository}, or null
+   * when nothing does
+   */
+  public PaymentArchiver(PaymentsRepository liveRepository, PaymentArchive archive,
+      Duration maxAge, int segmentRows, Clock clock, BooleanSupplier writable,
+      PaymentLifecycle paymentLifecycle) {
+    this.liveRepository = liveRepository;
+    this.archive = archive;
+    this.maxAge = maxAge;
+    this.segmentRows = segmentRows;
+    this.clock = clock;
+    this.writable = writable;
+    this.paymentLifecycle = paymentLifecycle;
+  }
+
+  public void start(Duration interval) {
+    scheduler.scheduleWithFixedDelay(this::archiveSafely, interval.toMillis(),
+        interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * @return the number of payments moved to the archive
+   */
+  public int archive() {
+    if (!writable.getAsBoolean()) {
+      log.debug("Not archiving, this node is a read replica");
+      return 0;
+    }
+    long cutoff = clock.millis() - maxAge.toMillis();
+    List<PaymentResponse> aged = new ArrayList<>();
+    liveRepository.forEach(payment -> {
+      // Only time-ordered ids carry the creation time the archive is organised by
+      long createdAt = TimeOrderedPaymentIdGenerator.timestampOf(payment.getId());
+      if (createdAt >= 0 && createdAt < cutoff && payment.getActions().isEmpty()) {
+        aged.add(payment);
+      }
+    });
+    aged.sort(ArchiveSegmentWriter.BY_ID);
+    int moved = 0;
+    for (int start = 0; start < aged.size(); start += segmentRows) {
+      moved += archive(aged.subList(start, Math.min(aged.size(), start + segmentRows)));
+    }
+    return moved;
+  }
+
+  private int archive(List<PaymentResponse> chunk) {
+    int[] moved = new int[1];
+    whileHeld(chunk.stream().map(PaymentResponse::getId).toList(), held -> {
+      Map<UUID, PaymentResponse> current = liveRepository.getAll(held);
+      List<PaymentResponse> unchanged = new ArrayList<>(held.size());
+      for (PaymentResponse payment : chunk) {
+        PaymentResponse stored = current.get(payment.getId());
+        if (stored != null && !stored.isArchived() && stored.getActions().isEmpty()) {
+          unchanged.add(stored);
+        }
+      }
+      if (unchanged.isEmpty()) {
+        return;
+      }
+      ArchiveSegment segment = archive.append(unchanged);
+      unchanged.forEach(payment -> liveRepository.remove(payment.getId()));
+      log.info("Archived {} payments to {}", unchanged.size(), segment.getPath().getFileName());
+      moved[0] = unchanged.size();
+    });
+    return moved[0];
+  }
+
+  private void whileHeld(List<UUID> ids, Consumer<Set<UUID>> task) {
+    if (paymentLifecycle == null) {
+      task.accept(new HashSet<>(ids));
+    } else {
+      paymentLifecycle.whileHeld(ids, task);
+    }
+  }
+
+  private void archiveSafely() {
+    try {
+      archive();
+    } catch (RuntimeException ex) {
+      log.error("Archiving failed, will retry on next run: {}", ex.getMessage(), ex);
+    }
+  }
+}
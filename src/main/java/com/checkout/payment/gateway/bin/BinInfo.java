@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.bin;
+
+/**
+ * What the BIN range a card number falls in says about the card. A table holds one instance per
+ * distinct combination of attributes, so lookups hand out shared instances.
+ */
+public final class BinInfo {
+
+  public static final BinInfo UNKNOWN = new BinInfo(null, null, null);
+
+  private final String scheme;
+  private final String country;
+  private final String funding;
+
+  /**
+   * @param scheme  card scheme, e.g. VISA
+   * @param country ISO 3166 alpha-2 code of the issuing country, or null
+   * @param funding CREDIT, DEBIT, PREPAID or null
+   */
+  public BinInfo(String scheme, String country, String funding) {
+    this.scheme = scheme;
+    this.country = country;
+    this.funding = funding;
+  }
+
+  public boolean isKnown() {
+    return scheme != null;
+  }
+
+  public String getScheme() {
+    return scheme;
+  }
+
+  public String getCountry() {
+    return country;
+  }
+
+  public String getFunding() {
+    return funding;
+  }
+
+  @Override
+  public String toString() {
+    return "BinInfo{" +
+        "scheme='" + scheme + '\'' +
+        ", country='" + country + '\'' +
+        ", funding='" + funding + '\'' +
+        '}';
+  }
+}
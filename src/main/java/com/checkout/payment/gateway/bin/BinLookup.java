@@ -0,0 +1,14 @@
+package com.checkout.payment.gateway.bin;
+
+/**
+ * Finds the BIN range a card number falls in.
+ */
+public interface BinLookup {
+
+  BinLookup NONE = cardNumber -> BinInfo.UNKNOWN;
+
+  /**
+   * @return the attributes of the card's range, or {@link BinInfo#UNKNOWN}; never null
+   */
+  BinInfo lookup(CharSequence cardNumber);
+}
@@ -0,0 +1,132 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.exception.BinTableException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only, memory-mapped table of non-overlapping BIN ranges.
+ *
+ * <p>Range bounds are card number prefixes widened to {@link #KEY_DIGITS} digits and stored as
+ * sorted columns of longs, next to a column of codes into a dictionary of {@link BinInfo}s. A
+ * lookup turns the first digits of the card number into the same kind of key and binary-searches
+ * the mapping, so it allocates nothing and touches about twenty longs even with a million ranges.
+ * The layout is described in {@link BinTableWriter}.
+ */
+public class BinTable {
+
+  static final int MAGIC = 0x50474254;
+  static final short VERSION = 1;
+  static final int KEY_DIGITS = 12;
+
+  private final Path path;
+  private final MappedByteBuffer buffer;
+  private final int ranges;
+  private final BinInfo[] dictionary;
+  private final int lowsPosition;
+  private final int highsPosition;
+  private final int codesPosition;
+
+  private BinTable(Path path, MappedByteBuffer buffer) {
+    this.path = path;
+    this.buffer = buffer;
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+      throw new BinTableException("Not a BIN table: " + path);
+    }
+    ranges = buffer.getInt();
+    dictionary = new BinInfo[Short.toUnsignedInt(buffer.getShort())];
+    for (int code = 0; code < dictionary.length; code++) {
+      dictionary[code] = new BinInfo(readString(buffer), readString(buffer), readString(buffer));
+    }
+    lowsPosition = buffer.position();
+    highsPosition = lowsPosition + ranges * 8;
+    codesPosition = highsPosition + ranges * 8;
+  }
+
+  public static BinTable open(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new BinTable(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException ex) {
+      throw new BinTableException("Could not map BIN table " + path, ex);
+    }
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public int rangeCount() {
+    return ranges;
+  }
+
+  public BinInfo lookup(CharSequence cardNumber) {
+    long key = key(cardNumber);
+    if (key < 0) {
+      return BinInfo.UNKNOWN;
+    }
+    // Last range starting at or below the key; the card is in it if it does not end below
+    int low = 0;
+    int high = ranges - 1;
+    int found = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (buffer.getLong(lowsPosition + mid * 8) <= key) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    if (found < 0 || buffer.getLong(highsPosition + found * 8) < key) {
+      return BinInfo.UNKNOWN;
+    }
+    return dictionary[Short.toUnsignedInt(buffer.getShort(codesPosition + found * 2))];
+  }
+
+  /**
+   * @return the first {@link #KEY_DIGITS} digits of the card number, padded with zeros, or -1
+   *     when it does not start with a digit or has something other than digits among them
+   */
+  static long key(CharSequence cardNumber) {
+    if (cardNumber == null) {
+      return -1;
+    }
+    int length = cardNumber.length();
+    int index = 0;
+    while (index < length && Character.isWhitespace(cardNumber.charAt(index))) {
+      index++;
+    }
+    long key = 0;
+    int digits = 0;
+    for (; digits < KEY_DIGITS && index < length; digits++, index++) {
+      char c = cardNumber.charAt(index);
+      if (c < '0' || c > '9') {
+        if (digits == 0 || !Character.isWhitespace(c)) {
+          return -1;
+        }
+        break;
+      }
+      key = key * 10 + (c - '0');
+    }
+    if (digits == 0) {
+      return -1;
+    }
+    for (; digits < KEY_DIGITS; digits++) {
+      key *= 10;
+    }
+    return key;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[Byte.toUnsignedInt(buffer.get())];
+    buffer.get(bytes);
+    return bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.exception.BinTableException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Looks cards up in the BIN table compiled from a range file, and swaps in a new table when the
+ * file changes.
+ *
+ * <p>Each version of the range file is compiled next to it into its own table file, named after
+ * the range file's modification time, and mapped. The mapped table is then published with a
+ * single volatile write: lookups in progress finish on the table they started with, and every
+ * later lookup sees the new one. A range file that fails to compile leaves the current table in
+ * force; at startup it is an error.
+ */
+@Slf4j
+public class BinTableLookup implements BinLookup, AutoCloseable {
+
+  static final String TABLE_SUFFIX = ".tbl";
+
+  private final Path rangeFile;
+  private volatile BinTable table;
+  private long rangeFileModifiedAt = -1;
+  private final AtomicLong reloads = new AtomicLong();
+  private final AtomicLong failedReloads = new AtomicLong();
+  private final ScheduledExecutorService reloader =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bin-table-reloader");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  public BinTableLookup(Path rangeFile) {
+    this.rangeFile = rangeFile;
+    if (!reloadIfChanged()) {
+      throw new BinTableException("Could not load BIN ranges from " + rangeFile);
+    }
+  }
+
+  public void start(long reloadIntervalMs) {
+    reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadIntervalMs, reloadIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void close() {
+    reloader.shutdownNow();
+  }
+
+  @Override
+  public BinInfo lookup(CharSequence cardNumber) {
+    return table.lookup(cardNumber);
+  }
+
+  /**
+   * Compiles and swaps in the range file if it was modified since the last load.
+   *
+   * @return whether a table is in force afterwards
+   */
+  public synchronized boolean reloadIfChanged() {
+    try {
+      long modifiedAt = Files.getLastModifiedTime(rangeFile).toMillis();
+      if (modifiedAt == rangeFileModifiedAt) {
+        return true;
+      }
+      Path tablePath = rangeFile.resolveSibling(rangeFile.getFileName() + "." + modifiedAt
+          + TABLE_SUFFIX);
+      // A table compiled by an earlier run from this very version is mapped as is
+      if (!Files.exists(tablePath)) {
+        BinTableWriter.compile(rangeFile, tablePath);
+      }
+      BinTable loaded = BinTable.open(tablePath);
+      BinTable previous = table;
+      table = loaded;
+      rangeFileModifiedAt = modifiedAt;
+      reloads.incrementAndGet();
+      log.info("Loaded {} BIN ranges from {}", loaded.rangeCount(), rangeFile);
+      if (previous != null && !previous.getPath().equals(tablePath)) {
+        deleteQuietly(previous.getPath());
+      }
+    } catch (IOException | BinTableException ex) {
+      failedReloads.incrementAndGet();
+      log.warn("Could not load BIN ranges from {}, keeping current table: {}", rangeFile,
+          ex.getMessage());
+    }
+    return table != null;
+  }
+
+  public int rangeCount() {
+    return table.rangeCount();
+  }
+
+  public long reloadCount() {
+    return reloads.get();
+  }
+
+  public long failedReloadCount() {
+    return failedReloads.get();
+  }
+
+  // The mapping outlives the file, so lookups still on the old table are unaffected
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      log.debug("Could not delete superseded BIN table {}: {}", path, ex.getMessage());
+    }
+  }
+}
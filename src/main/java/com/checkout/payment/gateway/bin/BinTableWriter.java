@@ -0,0 +1,176 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.exception.BinTableException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles BIN range files into BIN tables.
+ *
+ * <p>A range file has one range per line, {@code low,high,scheme,country,funding}, where
+ * {@code low} and {@code high} are card number prefixes of up to {@value BinTable#KEY_DIGITS}
+ * digits and {@code country} and {@code funding} may be empty. Blank lines and lines starting
+ * with {@code #} are ignored. Ranges may come in any order but must not overlap.
+ *
+ * <p>Tables are little-endian:
+ *
+ * <pre>
+ * int     magic, short version, int ranges
+ * dict    short count, then scheme, country, funding per entry (byte length + UTF-8 each)
+ * long[]  low key per range              (sorted)
+ * long[]  high key per range
+ * short[] dictionary code per range
+ * </pre>
+ *
+ * <p>The table is written to a temporary file and moved into place, so a reader never maps a
+ * partially written table.
+ */
+public final class BinTableWriter {
+
+  private BinTableWriter() {
+  }
+
+  /**
+   * Compiles the range file at {@code source} into a new table at {@code table}.
+   *
+   * @return the number of ranges in the table
+   */
+  public static int compile(Path source, Path table) {
+    List<Range> ranges = new ArrayList<>();
+    Map<String, Integer> codes = new LinkedHashMap<>();
+    List<String[]> dictionary = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+      String line;
+      int number = 0;
+      while ((line = reader.readLine()) != null) {
+        number++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] fields = line.split(",", -1);
+        if (fields.length != 5) {
+          throw invalid(source, number, "expected low,high,scheme,country,funding");
+        }
+        long low = bound(fields[0].trim(), '0', source, number);
+        long high = bound(fields[1].trim(), '9', source, number);
+        String scheme = fields[2].trim().toUpperCase(Locale.ROOT);
+        if (low > high || scheme.isEmpty()) {
+          throw invalid(source, number, "empty range or missing scheme");
+        }
+        String[] attributes = {scheme, fields[3].trim().toUpperCase(Locale.ROOT),
+            fields[4].trim().toUpperCase(Locale.ROOT)};
+        Integer code = codes.get(String.join(",", attributes));
+        if (code == null) {
+          code = dictionary.size();
+          codes.put(String.join(",", attributes), code);
+          dictionary.add(attributes);
+        }
+        ranges.add(new Range(low, high, code, number));
+      }
+    } catch (IOException ex) {
+      throw new BinTableException("Could not read BIN ranges from " + source, ex);
+    }
+    if (dictionary.size() > 0xFFFF) {
+      throw new BinTableException("Too many distinct BIN attributes in " + source);
+    }
+    ranges.sort(Comparator.comparingLong(range -> range.low));
+    for (int i = 1; i < ranges.size(); i++) {
+      if (ranges.get(i).low <= ranges.get(i - 1).high) {
+        throw invalid(source, ranges.get(i).line,
+            "overlaps the range on line " + ranges.get(i - 1).line);
+      }
+    }
+
+    List<byte[]> encoded = new ArrayList<>();
+    long size = 4 + 2 + 4 + 2;
+    for (String[] attributes : dictionary) {
+      for (String attribute : attributes) {
+        byte[] bytes = attribute.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFF) {
+          throw new BinTableException("BIN attribute too long in " + source + ": " + attribute);
+        }
+        encoded.add(bytes);
+        size += 1 + bytes.length;
+      }
+    }
+    size += 18L * ranges.size();
+    if (size > Integer.MAX_VALUE) {
+      throw new BinTableException("BIN table of " + ranges.size() + " ranges exceeds 2GB");
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(BinTable.MAGIC).putShort(BinTable.VERSION).putInt(ranges.size());
+    buffer.putShort((short) dictionary.size());
+    for (byte[] bytes : encoded) {
+      buffer.put((byte) bytes.length).put(bytes);
+    }
+    ranges.forEach(range -> buffer.putLong(range.low));
+    ranges.forEach(range -> buffer.putLong(range.high));
+    ranges.forEach(range -> buffer.putShort((short) range.code));
+    buffer.flip();
+    writeAtomically(table, buffer);
+    return ranges.size();
+  }
+
+  // Widens a prefix to a key: low bounds are padded with zeros, high bounds with nines
+  private static long bound(String prefix, char padding, Path source, int line) {
+    if (prefix.isEmpty() || prefix.length() > BinTable.KEY_DIGITS
+        || !prefix.chars().allMatch(c -> c >= '0' && c <= '9')) {
+      throw invalid(source, line, "bounds must be 1-" + BinTable.KEY_DIGITS + " digits");
+    }
+    return Long.parseLong(prefix + String.valueOf(padding).repeat(
+        BinTable.KEY_DIGITS - prefix.length()));
+  }
+
+  private static BinTableException invalid(Path source, int line, String reason) {
+    return new BinTableException("Invalid BIN range on line " + line + " of " + source + ": "
+        + reason);
+  }
+
+  private static void writeAtomically(Path path, ByteBuffer buffer) {
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    } catch (IOException ex) {
+      throw new BinTableException("Could not write BIN table " + path, ex);
+    }
+    try {
+      Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      throw new BinTableException("Could not publish BIN table " + path, ex);
+    }
+  }
+
+  private static final class Range {
+    private final long low;
+    private final long high;
+    private final int code;
+    private final int line;
+
+    private Range(long low, long high, int code, int line) {
+      this.low = low;
+      this.high = high;
+      this.code = code;
+      this.line = line;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One acquirer endpoint together with the live statistics the router picks by.
+ *
+ * <p>Latency is a peak-sensitive moving average: a slower response is taken as is, a faster one
+ * only pulls the average down gradually. Errors feed a moving error rate; while it is above the
+ * limit the acquirer is ejected from routing for a fixed period. Both decay while the acquirer
+ * is not used, so one that was avoided or ejected gets probed again.
+ */
+public class Acquirer {
+
+  private static final double ERROR_WEIGHT = 0.2;
+  private static final double LATENCY_WEIGHT = 0.2;
+  private static final double ERROR_COST_FACTOR = 10;
+  // Keeps an idle or brand-new acquirer from looking free
+  private static final double BASE_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final String name;
+  private final AcquiringBankClient client;
+  private final Set<String> currencies;
+  private final List<String> binPrefixes;
+  private final Set<String> schemes;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  // Guarded by this
+  private double latencyNanos;
+  private long lastSampleNanos;
+  private double errorRate;
+  private long ejectedUntilNanos;
+  private long requests;
+  private long failures;
+
+  /**
+   * @param currencies  currencies this acquirer accepts, or empty for any
+   * @param binPrefixes card number prefixes this acquirer accepts, or empty for any
+   */
+  public Acquirer(String name, AcquiringBankClient client, Set<String> currencies,
+      List<String> binPrefixes) {
+    this(name, client, currencies, binPrefixes, Set.of());
+  }
+
+  /**
+   * @param schemes card schemes this acquirer accepts, as found in the BIN table, or empty for
+   *                any
+   */
+  public Acquirer(String name, AcquiringBankClient client, Set<String> currencies,
+      List<String> binPrefixes, Set<String> schemes) {
+    this.name = name;
+    this.client = client;
+    this.currencies = Set.copyOf(currencies);
+    this.binPrefixes = List.copyOf(binPrefixes);
+    this.schemes = Set.copyOf(schemes);
+  }
+
+  public boolean accepts(AcquiringBankPaymentRequest request) {
+    if (!currencies.isEmpty() && !currencies.contains(request.getCurrency())) {
+      return false;
+    }
+    if (!schemes.isEmpty()
+        && (request.getCardScheme() == null || !schemes.contains(request.getCardScheme()))) {
+      return false;
+    }
+    if (binPrefixes.isEmpty()) {
+      return true;
+    }
+    String cardNumber = request.getCardNumber();
+    return cardNumber != null && binPrefixes.stream().anyMatch(cardNumber::startsWith);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  AcquiringBankClient client() {
+    return client;
+  }
+
+  void begin() {
+    inFlight.incrementAndGet();
+  }
+
+  void end() {
+    inFlight.decrementAndGet();
+  }
+
+  synchronized boolean isEjected(long now) {
+    return now - ejectedUntilNanos < 0;
+  }
+
+  /**
+   * Expected cost of sending one more request here; lower is better.
+   */
+  synchronized double cost(long now, long decayNanos) {
+    double idleFactor = idleFactor(now, decayNanos);
+    return (BASE_LATENCY_NANOS + latencyNanos * idleFactor) * (inFlight.get() + 1)
+        * (1 + ERROR_COST_FACTOR * errorRate * idleFactor);
+  }
+
+  /**
+   * @return whether this sample ejected the acquirer
+   */
+  synchronized boolean record(long now, long elapsedNanos, boolean success, double maxErrorRate,
+      long ejectionNanos, long decayNanos) {
+    double idleFactor = idleFactor(now - elapsedNanos, decayNanos);
+    latencyNanos *= idleFactor;
+    errorRate *= idleFactor;
+    requests++;
+    if (requests == 1 || elapsedNanos > latencyNanos) {
+      latencyNanos = elapsedNanos;
+    } else {
+      latencyNanos += (elapsedNanos - latencyNanos) * LATENCY_WEIGHT;
+    }
+    lastSampleNanos = now;
+    if (!success) {
+      failures++;
+    }
+    errorRate += ((success ? 0 : 1) - errorRate) * ERROR_WEIGHT;
+    if (errorRate > maxErrorRate && !isEjected(now)) {
+      ejectedUntilNanos = now + ejectionNanos;
+      return true;
+    }
+    return false;
+  }
+
+  private double idleFactor(long now, long decayNanos) {
+    long idle = now - lastSampleNanos;
+    return requests == 0 || idle <= 0 ? 1 : Math.exp(-(double) idle / decayNanos);
+  }
+
+  public synchronized double errorRate() {
+    return errorRate;
+  }
+
+  public synchronized long latencyMillis() {
+    return TimeUnit.NANOSECONDS.toMillis((long) latencyNanos);
+  }
+
+  public synchronized long requestCount() {
+    return requests;
+  }
+
+  public synchronized long failureCount() {
+    return failures;
+  }
+}
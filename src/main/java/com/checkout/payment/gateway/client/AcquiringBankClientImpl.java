@@ -1,11 +1,13 @@
 package com.checkout.payment.gateway.client;
 
+import com.checkout.payment.gateway.jfr.BankCallEvent;
 import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
 import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Optional;
@@ -19,18 +21,27 @@ public class AcquiringBankClientImpl implements AcquiringBankClient {
 
   @Override
   public Optional<AcquiringBankPaymentResponse> processPayment(AcquiringBankPaymentRequest request) {
+    BankCallEvent event = new BankCallEvent();
+    event.begin();
     try {
       ResponseEntity<AcquiringBankPaymentResponse> response =
           restTemplate.postForEntity(bankSimulatorUrl, request, AcquiringBankPaymentResponse.class);
 
       if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+        event.record(BankCallEvent.ANSWERED, response.getStatusCode().value());
         return Optional.of(response.getBody());
       } else {
+        event.record(BankCallEvent.REFUSED, response.getStatusCode().value());
         log.warn("Bank returned non-2xx status: {}", response.getStatusCode());
         return Optional.empty();
       }
 
+    } catch (RestClientResponseException ex) {
+      event.record(BankCallEvent.REFUSED, ex.getStatusCode().value());
+      log.warn("Bank call failed: {}", ex.getMessage());
+      return Optional.empty();
     } catch (RestClientException ex) {
+      event.record(BankCallEvent.FAILED, 0);
       log.warn("Bank call failed: {}", ex.getMessage());
       return Optional.empty();
     }
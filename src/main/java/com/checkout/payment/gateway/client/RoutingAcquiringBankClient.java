@@ -0,0 +1,120 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.deadline.RequestDeadline;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spreads payments over several acquirers.
+ *
+ * <p>Each payment goes to the cheaper of two acquirers drawn at random from those that accept
+ * its currency and card, where cost grows with recent latency, in-flight requests and error
+ * rate. Comparing two random choices keeps load spread out without every request piling onto
+ * whichever acquirer looked best a moment ago. Ejected acquirers are skipped unless no other
+ * acquirer can take the payment.
+ *
+ * <p>A payment is never retried on another acquirer: a failed call may still have been
+ * authorised. Calls abandoned at the request deadline do not count against the acquirer.
+ */
+@Slf4j
+public class RoutingAcquiringBankClient implements AcquiringBankClient {
+
+  private final List<Acquirer> acquirers;
+  private final double maxErrorRate;
+  private final long ejectionNanos;
+  private final long decayNanos;
+  private final LongSupplier nanoTime;
+  private final Supplier<Random> random;
+
+  /**
+   * @param maxErrorRate   error rate above which an acquirer is ejected
+   * @param ejectionMs     how long an ejected acquirer receives no traffic
+   * @param decayMs how quickly the statistics of an unused acquirer are forgotten
+   */
+  public RoutingAcquiringBankClient(List<Acquirer> acquirers, double maxErrorRate,
+      long ejectionMs, long decayMs) {
+    this(acquirers, maxErrorRate, ejectionMs, decayMs, System::nanoTime,
+        ThreadLocalRandom::current);
+  }
+
+  RoutingAcquiringBankClient(List<Acquirer> acquirers, double maxErrorRate, long ejectionMs,
+      long decayMs, LongSupplier nanoTime, Supplier<Random> random) {
+    if (acquirers.isEmpty()) {
+      throw new IllegalArgumentException("At least one acquirer is required");
+    }
+    this.acquirers = List.copyOf(acquirers);
+    this.maxErrorRate = maxErrorRate;
+    this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+    this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+    this.nanoTime = nanoTime;
+    this.random = random;
+  }
+
+  @Override
+  public Optional<AcquiringBankPaymentResponse> processPayment(AcquiringBankPaymentRequest request) {
+    Acquirer acquirer = select(request);
+    if (acquirer == null) {
+      log.warn("No acquirer accepts a {} payment with this card", request.getCurrency());
+      return Optional.empty();
+    }
+    acquirer.begin();
+    long start = nanoTime.getAsLong();
+    boolean success = false;
+    try {
+      Optional<AcquiringBankPaymentResponse> response = acquirer.client().processPayment(request);
+      success = response.isPresent();
+      return response;
+    } finally {
+      acquirer.end();
+      long now = nanoTime.getAsLong();
+      // A call cut short by the request deadline says nothing about the acquirer
+      boolean abandoned = !success && RequestDeadline.isExpired();
+      if (!abandoned && acquirer.record(now, now - start, success, maxErrorRate, ejectionNanos,
+          decayNanos)) {
+        log.warn("Ejecting acquirer {} for {} ms, error rate {}", acquirer.getName(),
+            TimeUnit.NANOSECONDS.toMillis(ejectionNanos),
+            String.format("%.2f", acquirer.errorRate()));
+      }
+    }
+  }
+
+  public List<Acquirer> getAcquirers() {
+    return acquirers;
+  }
+
+  Acquirer select(AcquiringBankPaymentRequest request) {
+    long now = nanoTime.getAsLong();
+    List<Acquirer> eligible = new ArrayList<>(acquirers.size());
+    List<Acquirer> ejected = new ArrayList<>(0);
+    for (Acquirer acquirer : acquirers) {
+      if (acquirer.accepts(request)) {
+        (acquirer.isEjected(now) ? ejected : eligible).add(acquirer);
+      }
+    }
+    if (eligible.isEmpty()) {
+      // Every acquirer for this payment is ejected; trying one beats refusing outright
+      eligible = ejected;
+    }
+    if (eligible.size() < 2) {
+      return eligible.isEmpty() ? null : eligible.get(0);
+    }
+    Random random = this.random.get();
+    int first = random.nextInt(eligible.size());
+    int second = random.nextInt(eligible.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    Acquirer left = eligible.get(first);
+    Acquirer right = eligible.get(second);
+    return left.cost(now, decayNanos) <= right.cost(now, decayNanos) ? left : right;
+  }
+}
@@ -0,0 +1,194 @@
+package com.checkout.payment.gateway.cluster;
+
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.exception.ClusterException;
+import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.PaymentActionException;
+import com.checkout.payment.gateway.model.PaymentActionRequest;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.ratelimit.RateLimitFilter;
+import com.checkout.payment.gateway.security.SharedSecretFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Node-to-node channel for forwarded reads, writes and payment actions. A single
+ * {@link HttpClient} is shared by all requests, so connections to each peer are pooled and kept
+ * alive.
+ */
+@Slf4j
+public class ClusterClient {
+
+  static final String PAYMENTS_PATH = "/internal/v1/cluster/payments";
+  static final String LOOKUP_PATH = "/internal/v1/cluster/payments/lookup";
+  static final String ACTIONS_PATH = "/actions";
+  static final String NODES_PATH = "/internal/v1/cluster/nodes";
+
+  private static final TypeReference<List<PaymentResponse>> PAYMENT_LIST =
+      new TypeReference<>() {
+      };
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final Duration timeout;
+  private final String sharedSecret;
+
+  /**
+   * @param sharedSecret presented to the other nodes, whose internal endpoints require it
+   */
+  public ClusterClient(ObjectMapper objectMapper, Duration timeout, String sharedSecret) {
+    this(HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(timeout)
+        .build(), objectMapper, timeout, sharedSecret);
+  }
+
+  ClusterClient(HttpClient httpClient, ObjectMapper objectMapper, Duration timeout,
+      String sharedSecret) {
+    this.httpClient = httpClient;
+    this.objectMapper = objectMapper;
+    this.timeout = timeout;
+    this.sharedSecret = sharedSecret;
+  }
+
+  public void store(ClusterNode owner, PaymentResponse payment) {
+    HttpResponse<String> response = send(owner, post(owner.getUrl() + PAYMENTS_PATH, payment));
+    if (response.statusCode() / 100 != 2) {
+      throw new ClusterException("Node " + owner.getUrl() + " rejected payment "
+          + payment.getId() + " with status " + response.statusCode());
+    }
+  }
+
+  public Optional<PaymentResponse> fetch(ClusterNode owner, UUID id) {
+    HttpRequest request = newRequest(owner.getUrl() + PAYMENTS_PATH + "/" + id)
+        .GET()
+        .build();
+    HttpResponse<String> response = send(owner, request);
+    if (response.statusCode() == 404) {
+      return Optional.empty();
+    }
+    if (response.statusCode() / 100 != 2) {
+      throw new ClusterException("Node " + owner.getUrl() + " failed lookup of payment " + id
+          + " with status " + response.statusCode());
+    }
+    try {
+      return Optional.of(objectMapper.readValue(response.body(), PaymentResponse.class));
+    } catch (JsonProcessingException ex) {
+      throw new ClusterException("Node " + owner.getUrl() + " returned an unreadable payment", ex);
+    }
+  }
+
+  /**
+   * @return the payments the owner holds among {@code ids}
+   */
+  public List<PaymentResponse> fetchAll(ClusterNode owner, List<UUID> ids) {
+    HttpResponse<String> response = send(owner, post(owner.getUrl() + LOOKUP_PATH, ids));
+    if (response.statusCode() / 100 != 2) {
+      throw new ClusterException("Node " + owner.getUrl() + " failed lookup of " + ids.size()
+          + " payments with status " + response.statusCode());
+    }
+    try {
+      return objectMapper.readValue(response.body(), PAYMENT_LIST);
+    } catch (JsonProcessingException ex) {
+      throw new ClusterException("Node " + owner.getUrl() + " returned unreadable payments", ex);
+    }
+  }
+
+  /**
+   * Applies a capture, void or refund on the node that owns the payment.
+   *
+   * @return the payment as the action left it
+   * @throws EventProcessingException when the owner holds no such payment
+   * @throws PaymentActionException when the owner refused the action
+   */
+  public PaymentResponse apply(ClusterNode owner, UUID id, PaymentActionType type,
+      Integer amount, String merchantId) {
+    PaymentActionRequest actionRequest = new PaymentActionRequest();
+    actionRequest.setAmount(amount);
+    HttpRequest.Builder builder = postBuilder(owner.getUrl() + PAYMENTS_PATH + "/" + id
+        + ACTIONS_PATH + "/" + type.name(), actionRequest);
+    if (merchantId != null) {
+      builder.header(RateLimitFilter.MERCHANT_HEADER, merchantId);
+    }
+    HttpResponse<String> response = send(owner, builder.build());
+    try {
+      if (response.statusCode() == 404) {
+        throw new EventProcessingException("Invalid ID, paymentId: " + id);
+      }
+      if (response.statusCode() == 400 || response.statusCode() == 409) {
+        throw new PaymentActionException(
+            objectMapper.readTree(response.body()).path("message").asText(),
+            response.statusCode());
+      }
+      if (response.statusCode() / 100 != 2) {
+        throw new ClusterException("Node " + owner.getUrl() + " failed " + type.getName()
+            + " of payment " + id + " with status " + response.statusCode());
+      }
+      return objectMapper.readValue(response.body(), PaymentResponse.class);
+    } catch (JsonProcessingException ex) {
+      throw new ClusterException("Node " + owner.getUrl() + " returned an unreadable answer to "
+          + type.getName() + " of payment " + id, ex);
+    }
+  }
+
+  public void remove(ClusterNode owner, UUID id) {
+    HttpRequest request = newRequest(owner.getUrl() + PAYMENTS_PATH + "/" + id)
+        .DELETE()
+        .build();
+    HttpResponse<String> response = send(owner, request);
+    if (response.statusCode() / 100 != 2) {
+      throw new ClusterException("Node " + owner.getUrl() + " failed removal of payment " + id
+          + " with status " + response.statusCode());
+    }
+  }
+
+  public void announce(ClusterNode target, ClusterNode joining) {
+    HttpResponse<String> response = send(target, post(target.getUrl() + NODES_PATH, joining));
+    if (response.statusCode() / 100 != 2) {
+      throw new ClusterException("Node " + target.getUrl() + " refused join of "
+          + joining.getUrl() + " with status " + response.statusCode());
+    }
+  }
+
+  private HttpRequest post(String url, Object body) {
+    return postBuilder(url, body).build();
+  }
+
+  private HttpRequest.Builder postBuilder(String url, Object body) {
+    try {
+      return newRequest(url)
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    } catch (JsonProcessingException ex) {
+      throw new ClusterException("Could not serialize request for " + url, ex);
+    }
+  }
+
+  private HttpRequest.Builder newRequest(String url) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .timeout(timeout)
+        .header(SharedSecretFilter.SECRET_HEADER, sharedSecret);
+  }
+
+  private HttpResponse<String> send(ClusterNode node, HttpRequest request) {
+    try {
+      return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    } catch (IOException ex) {
+      throw new ClusterException("Node " + node.getUrl() + " is unreachable", ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ClusterException("Interrupted while calling node " + node.getUrl(), ex);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.checkout.payment.gateway.cluster;
+
+import com.checkout.payment.gateway.exception.ClusterException;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This node's view of the cluster: the current hash ring and the node it runs as.
+ *
+ * <p>The ring is swapped atomically when a node joins. After every swap this node hands off the
+ * payments it stores but no longer owns, on a background thread so that the join request that
+ * triggered it returns immediately.
+ */
+@Slf4j
+public class ClusterMembership {
+
+  private final ClusterNode self;
+  private final AtomicReference<ConsistentHashRing> ring;
+  private final PaymentsRepository localRepository;
+  private final ClusterClient clusterClient;
+  private final ExecutorService rebalancer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "cluster-rebalancer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public ClusterMembership(ClusterNode self, ConsistentHashRing ring,
+      PaymentsRepository localRepository, ClusterClient clusterClient) {
+    this.self = self;
+    this.ring = new AtomicReference<>(ring.withNode(self));
+    this.localRepository = localRepository;
+    this.clusterClient = clusterClient;
+  }
+
+  public ClusterNode self() {
+    return self;
+  }
+
+  public ConsistentHashRing ring() {
+    return ring.get();
+  }
+
+  public boolean isLocal(ClusterNode node) {
+    return self.equals(node);
+  }
+
+  /**
+   * Adds a node to the ring and schedules a rebalance if ownership changed.
+   */
+  public void join(ClusterNode node) {
+    ConsistentHashRing previous = ring.getAndUpdate(current -> current.withNode(node));
+    if (previous.getNodes().contains(node)) {
+      return;
+    }
+    log.info("Node {} joined the cluster, {} nodes in ring", node.getUrl(),
+        ring.get().getNodes().size());
+    rebalancer.execute(this::rebalance);
+  }
+
+  /**
+   * Announces this node to every other node in the ring so they start routing to it.
+   */
+  public void announce() {
+    List<ClusterNode> peers = ring.get().getNodes();
+    for (ClusterNode peer : peers) {
+      if (isLocal(peer)) {
+        continue;
+      }
+      try {
+        clusterClient.announce(peer, self);
+      } catch (ClusterException ex) {
+        log.warn("Could not announce to {}: {}", peer.getUrl(), ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Moves every locally stored payment that is owned by another node to its owner.
+   */
+  public void rebalance() {
+    ConsistentHashRing current = ring.get();
+    int[] moved = new int[1];
+    localRepository.forEach(payment -> {
+      ClusterNode owner = current.ownerOf(payment.getId());
+      if (isLocal(owner)) {
+        return;
+      }
+      try {
+        clusterClient.store(owner, payment);
+        localRepository.remove(payment.getId());
+        moved[0]++;
+      } catch (ClusterException ex) {
+        log.warn("Could not hand off payment {} to {}: {}", payment.getId(), owner.getUrl(),
+            ex.getMessage());
+      }
+    });
+    log.info("Rebalance finished, {} payments handed off", moved[0]);
+  }
+}
@@ -0,0 +1,56 @@
+package com.checkout.payment.gateway.cluster;
+
+import java.util.Objects;
+
+/**
+ * A gateway node, identified by the base URL other nodes use to reach it.
+ */
+public class ClusterNode {
+  private String url;
+
+  public ClusterNode() {
+  }
+
+  public ClusterNode(String url) {
+    this.url = normalize(url);
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = normalize(url);
+  }
+
+  private static String normalize(String url) {
+    if (url == null) {
+      return null;
+    }
+    String trimmed = url.trim();
+    return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ClusterNode)) {
+      return false;
+    }
+    return Objects.equals(url, ((ClusterNode) o).url);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(url);
+  }
+
+  @Override
+  public String toString() {
+    return "ClusterNode{" +
+        "url='" + url + '\'' +
+        '}';
+  }
+}
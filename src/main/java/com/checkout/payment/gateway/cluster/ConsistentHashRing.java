@@ -0,0 +1,114 @@
+package com.checkout.payment.gateway.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable consistent-hash ring mapping payment ids to owner nodes.
+ *
+ * <p>Each node is placed on the ring at {@code virtualNodes} points so that ownership stays even
+ * and a joining node takes over roughly {@code 1/n} of the ids from every existing node. Point
+ * hashes only depend on the node URL, so every gateway computes the same ring for the same
+ * membership.
+ */
+public class ConsistentHashRing {
+
+  private final List<ClusterNode> nodes;
+  private final int virtualNodes;
+  private final long[] points;
+  private final int[] owners;
+
+  public ConsistentHashRing(Collection<ClusterNode> nodes, int virtualNodes) {
+    if (nodes.isEmpty()) {
+      throw new IllegalArgumentException("A hash ring needs at least one node");
+    }
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException("Virtual nodes must be positive but was " + virtualNodes);
+    }
+    this.nodes = List.copyOf(new LinkedHashSet<>(nodes));
+    this.virtualNodes = virtualNodes;
+
+    int size = this.nodes.size() * virtualNodes;
+    long[][] entries = new long[size][];
+    int next = 0;
+    for (int n = 0; n < this.nodes.size(); n++) {
+      String url = this.nodes.get(n).getUrl();
+      for (int v = 0; v < virtualNodes; v++) {
+        entries[next++] = new long[]{hash(url + "#" + v), n};
+      }
+    }
+    Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+    this.points = new long[size];
+    this.owners = new int[size];
+    for (int i = 0; i < size; i++) {
+      points[i] = entries[i][0];
+      owners[i] = (int) entries[i][1];
+    }
+  }
+
+  public ClusterNode ownerOf(UUID id) {
+    long hash = hash(id);
+    int index = Arrays.binarySearch(points, hash);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    if (index == points.length) {
+      index = 0;
+    }
+    return nodes.get(owners[index]);
+  }
+
+  public ConsistentHashRing withNode(ClusterNode node) {
+    if (nodes.contains(node)) {
+      return this;
+    }
+    List<ClusterNode> joined = new ArrayList<>(nodes);
+    joined.add(node);
+    return new ConsistentHashRing(joined, virtualNodes);
+  }
+
+  public ConsistentHashRing withoutNode(ClusterNode node) {
+    if (!nodes.contains(node) || nodes.size() == 1) {
+      return this;
+    }
+    List<ClusterNode> remaining = new ArrayList<>(nodes);
+    remaining.remove(node);
+    return new ConsistentHashRing(remaining, virtualNodes);
+  }
+
+  public List<ClusterNode> getNodes() {
+    return Collections.unmodifiableList(nodes);
+  }
+
+  static long hash(UUID id) {
+    return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+  }
+
+  static long hash(String value) {
+    // FNV-1a, finished with a mixer for better avalanche on short inputs
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  // MurmurHash3 fmix64 finalizer
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
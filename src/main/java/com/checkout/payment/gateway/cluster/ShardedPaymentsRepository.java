@@ -0,0 +1,118 @@
+package com.checkout.payment.gateway.cluster;
+
+import com.checkout.payment.gateway.exception.ClusterException;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes each payment to the node that owns its id on the hash ring.
+ *
+ * <p>A write whose owner cannot be reached is kept locally instead of being lost (the bank has
+ * already processed it); the next rebalance hands it to the owner. For the same reason a failed
+ * remote read falls back to the local store. A remove whose owner cannot be reached still
+ * removes the local copy; any copy on the owner is left for it to archive itself.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardedPaymentsRepository implements PaymentsRepository {
+
+  private final PaymentsRepository localRepository;
+  private final ClusterMembership membership;
+  private final ClusterClient clusterClient;
+
+  @Override
+  public void add(PaymentResponse payment) {
+    ClusterNode owner = membership.ring().ownerOf(payment.getId());
+    if (membership.isLocal(owner)) {
+      localRepository.add(payment);
+      return;
+    }
+    try {
+      clusterClient.store(owner, payment);
+    } catch (ClusterException ex) {
+      log.warn("Owner {} unavailable for paymentId={}, keeping it locally: {}", owner.getUrl(),
+          payment.getId(), ex.getMessage());
+      localRepository.add(payment);
+    }
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    ClusterNode owner = membership.ring().ownerOf(id);
+    if (membership.isLocal(owner)) {
+      return localRepository.get(id);
+    }
+    try {
+      Optional<PaymentResponse> remote = clusterClient.fetch(owner, id);
+      return remote.isPresent() ? remote : localRepository.get(id);
+    } catch (ClusterException ex) {
+      log.warn("Owner {} unavailable for lookup of paymentId={}: {}", owner.getUrl(), id,
+          ex.getMessage());
+      return localRepository.get(id);
+    }
+  }
+
+  // One request per owner for all of its ids; the local shard is read directly
+  @Override
+  public Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    Map<ClusterNode, List<UUID>> byOwner = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      byOwner.computeIfAbsent(membership.ring().ownerOf(id), owner -> new ArrayList<>()).add(id);
+    }
+    Map<UUID, PaymentResponse> found = new HashMap<>();
+    List<UUID> fallback = new ArrayList<>();
+    byOwner.forEach((owner, ownedIds) -> {
+      if (membership.isLocal(owner)) {
+        found.putAll(localRepository.getAll(ownedIds));
+        return;
+      }
+      try {
+        List<PaymentResponse> remote = clusterClient.fetchAll(owner, ownedIds);
+        remote.forEach(payment -> found.put(payment.getId(), payment));
+        if (remote.size() < ownedIds.size()) {
+          ownedIds.stream().filter(id -> !found.containsKey(id)).forEach(fallback::add);
+        }
+      } catch (ClusterException ex) {
+        log.warn("Owner {} unavailable for lookup of {} payments: {}", owner.getUrl(),
+            ownedIds.size(), ex.getMessage());
+        fallback.addAll(ownedIds);
+      }
+    });
+    if (!fallback.isEmpty()) {
+      found.putAll(localRepository.getAll(fallback));
+    }
+    return found;
+  }
+
+  // Only visits payments stored on this node; every node iterates its own shard
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    localRepository.forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    ClusterNode owner = membership.ring().ownerOf(id);
+    localRepository.remove(id);
+    if (membership.isLocal(owner)) {
+      return;
+    }
+    try {
+      clusterClient.remove(owner, id);
+    } catch (ClusterException ex) {
+      log.warn("Owner {} unavailable for removal of paymentId={}: {}", owner.getUrl(), id,
+          ex.getMessage());
+    }
+  }
+}
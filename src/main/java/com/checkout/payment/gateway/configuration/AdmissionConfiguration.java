@@ -0,0 +1,83 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.admission.AdmissionControlFilter;
+import com.checkout.payment.gateway.admission.AdmissionLane;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfiguration {
+
+  @Bean
+  public AdmissionLane readAdmissionLane(
+      @Value("${admission.read.max-in-flight:256}") int maxInFlight,
+      @Value("${admission.read.max-queued:1024}") int maxQueued,
+      @Value("${admission.read.max-queue-ms:200}") long maxQueueMs,
+      @Value("${admission.read.target-queue-ms:50}") long targetQueueMs,
+      MeterRegistry meterRegistry) {
+    return register(meterRegistry,
+        new AdmissionLane("read", maxInFlight, maxQueued, maxQueueMs, targetQueueMs));
+  }
+
+  @Bean
+  public AdmissionLane writeAdmissionLane(
+      @Value("${admission.write.max-in-flight:64}") int maxInFlight,
+      @Value("${admission.write.max-queued:128}") int maxQueued,
+      @Value("${admission.write.max-queue-ms:50}") long maxQueueMs,
+      @Value("${admission.write.target-queue-ms:10}") long targetQueueMs,
+      MeterRegistry meterRegistry) {
+    return register(meterRegistry,
+        new AdmissionLane("write", maxInFlight, maxQueued, maxQueueMs, targetQueueMs));
+  }
+
+  @Bean
+  public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+      @Qualifier("readAdmissionLane") AdmissionLane readAdmissionLane,
+      @Qualifier("writeAdmissionLane") AdmissionLane writeAdmissionLane,
+      ObjectMapper objectMapper,
+      @Value("${admission.retry-after-seconds:1}") long retryAfterSeconds) {
+    FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+        new AdmissionControlFilter(readAdmissionLane, writeAdmissionLane, objectMapper,
+            retryAfterSeconds));
+    registration.addUrlPatterns("/api/v1/payment", "/api/v1/payment/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+
+  private static AdmissionLane register(MeterRegistry meterRegistry, AdmissionLane lane) {
+    Gauge.builder("admission.in-flight", lane, AdmissionLane::inFlight)
+        .description("Requests admitted and not yet complete")
+        .tag("lane", lane.getName())
+        .register(meterRegistry);
+    Gauge.builder("admission.queued", lane, AdmissionLane::queued)
+        .description("Requests waiting to be admitted")
+        .tag("lane", lane.getName())
+        .register(meterRegistry);
+    Gauge.builder("admission.queue.delay", lane, AdmissionLane::queueDelayMillis)
+        .description("Average time recent requests waited to be admitted")
+        .tag("lane", lane.getName())
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+    FunctionCounter.builder("admission.requests", lane, AdmissionLane::admittedCount)
+        .description("Requests by admission lane and outcome")
+        .tag("lane", lane.getName())
+        .tag("result", "admitted")
+        .register(meterRegistry);
+    FunctionCounter.builder("admission.requests", lane, AdmissionLane::shedCount)
+        .description("Requests by admission lane and outcome")
+        .tag("lane", lane.getName())
+        .tag("result", "shed")
+        .register(meterRegistry);
+    return lane;
+  }
+}
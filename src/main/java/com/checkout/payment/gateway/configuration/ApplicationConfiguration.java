@@ -1,27 +1,88 @@
 package com.checkout.payment.gateway.configuration;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import com.checkout.payment.gateway.client.Acquirer;
 import com.checkout.payment.gateway.client.AcquiringBankClient;
 import com.checkout.payment.gateway.client.AcquiringBankClientImpl;
+import com.checkout.payment.gateway.client.RoutingAcquiringBankClient;
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.deadline.DeadlineAwareRequestFactory;
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.id.PaymentIdGenerator;
+import com.checkout.payment.gateway.id.RandomPaymentIdGenerator;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.validation.PaymentRequestMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class ApplicationConfiguration {
 
+  // Timeouts come from the budget per call: bank.*-timeout-ms, cut to the request deadline
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
+  public RestTemplate restTemplate(RestTemplateBuilder builder, BankCallBudget bankCallBudget) {
     return builder
-        .setConnectTimeout(Duration.ofMillis(10000))
-        .setReadTimeout(Duration.ofMillis(10000))
+        .requestFactory(() -> new DeadlineAwareRequestFactory(bankCallBudget))
         .build();
   }
 
+  // Routes over bank.acquirers when set; otherwise every payment goes to bank.simulator.url
   @Bean
-  public AcquiringBankClient acquiringBankClient(RestTemplate restTemplate, @Value("${bank.simulator.url}") String url) {
-    return new AcquiringBankClientImpl(restTemplate, url);
+  public AcquiringBankClient acquiringBankClient(RestTemplate restTemplate,
+      @Value("${bank.simulator.url}") String url,
+      @Value("${bank.acquirers:}") String acquirerNames,
+      @Value("${bank.routing.max-error-rate:0.5}") double maxErrorRate,
+      @Value("${bank.routing.ejection-ms:10000}") long ejectionMs,
+      @Value("${bank.routing.decay-ms:10000}") long decayMs,
+      Environment environment) {
+    List<String> names = list(acquirerNames);
+    if (names.isEmpty()) {
+      return new AcquiringBankClientImpl(restTemplate, url);
+    }
+    List<Acquirer> acquirers = new ArrayList<>();
+    for (String name : names) {
+      String prefix = "bank.acquirer." + name + ".";
+      String acquirerUrl = environment.getRequiredProperty(prefix + "url");
+      acquirers.add(new Acquirer(name, new AcquiringBankClientImpl(restTemplate, acquirerUrl),
+          new LinkedHashSet<>(list(environment.getProperty(prefix + "currencies", ""))),
+          list(environment.getProperty(prefix + "bins", "")),
+          new LinkedHashSet<>(list(environment.getProperty(prefix + "schemes", "")
+              .toUpperCase(Locale.ROOT)))));
+    }
+    return new RoutingAcquiringBankClient(acquirers, maxErrorRate, ejectionMs, decayMs);
+  }
+
+  // Registered ahead of the Jackson converter: payment submissions are parsed and validated
+  // in one pass
+  @Bean
+  public PaymentRequestMessageConverter paymentRequestMessageConverter(ObjectMapper objectMapper,
+      @Value("${payment.request.max-bytes:4096}") long maxBytes,
+      CurrencyConverter currencyConverter) {
+    return new PaymentRequestMessageConverter(objectMapper.getFactory(), maxBytes,
+        currencyConverter::canConvert);
+  }
+
+  @Bean
+  public PaymentIdGenerator paymentIdGenerator(
+      @Value("${payment.id.generator:time-ordered}") String generator,
+      @Value("${gateway.node-id:0}") int nodeId) {
+    if ("random".equals(generator)) {
+      return new RandomPaymentIdGenerator();
+    }
+    return new TimeOrderedPaymentIdGenerator(nodeId);
+  }
+
+  private static List<String> list(String value) {
+    return Arrays.stream(value.split(",")).map(String::trim).filter(item -> !item.isEmpty())
+        .toList();
   }
 }
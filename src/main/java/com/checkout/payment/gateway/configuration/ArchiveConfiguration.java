@@ -0,0 +1,51 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.archive.PaymentArchive;
+import com.checkout.payment.gateway.archive.PaymentArchiver;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.replication.ReplicationNode;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true")
+public class ArchiveConfiguration {
+
+  @Bean
+  public PaymentArchive paymentArchive(@Value("${archive.directory:archive}") String directory) {
+    return new PaymentArchive(Path.of(directory));
+  }
+
+  // Archives this node's own store; in cluster mode every node archives its shard, and with
+  // replication only the current leader does
+  @Bean(destroyMethod = "stop")
+  public PaymentArchiver paymentArchiver(
+      @Qualifier("localPaymentsRepository") PaymentsRepository localPaymentsRepository,
+      PaymentArchive paymentArchive,
+      ObjectProvider<ReplicationNode> replicationNode,
+      PaymentLifecycle paymentLifecycle,
+      @Value("${archive.max-age-hours:720}") long maxAgeHours,
+      @Value("${archive.segment-rows:1000000}") int segmentRows) {
+    ReplicationNode node = replicationNode.getIfAvailable();
+    return new PaymentArchiver(localPaymentsRepository, paymentArchive,
+        Duration.ofHours(maxAgeHours), segmentRows, Clock.systemUTC(),
+        node == null ? () -> true : node::isLeader, paymentLifecycle);
+  }
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> archiverStarter(
+      PaymentArchiver paymentArchiver,
+      @Value("${archive.interval-minutes:60}") long intervalMinutes) {
+    return event -> paymentArchiver.start(Duration.ofMinutes(intervalMinutes));
+  }
+}
@@ -0,0 +1,62 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.bin.BinLookup;
+import com.checkout.payment.gateway.bin.BinTableLookup;
+import com.checkout.payment.gateway.validation.CardBinValidator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BinConfiguration {
+
+  // Looks cards up in bin.ranges-file when set; otherwise every card is of unknown range
+  @Bean
+  public BinLookup binLookup(
+      @Value("${bin.ranges-file:}") String rangesFile,
+      @Value("${bin.reload-interval-ms:10000}") long reloadIntervalMs,
+      MeterRegistry meterRegistry) {
+    if (rangesFile.isBlank()) {
+      return BinLookup.NONE;
+    }
+    BinTableLookup binLookup = new BinTableLookup(Path.of(rangesFile));
+    binLookup.start(reloadIntervalMs);
+    Gauge.builder("bin.table.ranges", binLookup, BinTableLookup::rangeCount)
+        .description("BIN ranges in the table in force")
+        .register(meterRegistry);
+    FunctionCounter.builder("bin.table.reloads", binLookup, BinTableLookup::reloadCount)
+        .description("BIN range file loads by outcome")
+        .tag("result", "loaded")
+        .register(meterRegistry);
+    FunctionCounter.builder("bin.table.reloads", binLookup, BinTableLookup::failedReloadCount)
+        .description("BIN range file loads by outcome")
+        .tag("result", "failed")
+        .register(meterRegistry);
+    return binLookup;
+  }
+
+  // Unknown ranges are only rejected when there is a table to know them from
+  @Bean
+  public CardBinValidator cardBinValidator(BinLookup binLookup,
+      @Value("${bin.accepted-schemes:}") String acceptedSchemes,
+      @Value("${bin.accepted-funding:}") String acceptedFunding,
+      @Value("${bin.reject-unknown:false}") boolean rejectUnknown) {
+    return new CardBinValidator(binLookup, set(acceptedSchemes), set(acceptedFunding),
+        rejectUnknown && binLookup != BinLookup.NONE);
+  }
+
+  private static Set<String> set(String value) {
+    return Arrays.stream(value.split(",")).map(item -> item.trim().toUpperCase(Locale.ROOT))
+        .filter(item -> !item.isEmpty())
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+}
@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.cluster.ClusterClient;
+import com.checkout.payment.gateway.cluster.ClusterMembership;
+import com.checkout.payment.gateway.cluster.ClusterNode;
+import com.checkout.payment.gateway.cluster.ConsistentHashRing;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.security.SharedSecretFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterConfiguration {
+
+  @Bean
+  public ClusterClient clusterClient(ObjectMapper objectMapper,
+      @Value("${cluster.timeout-ms:2000}") long timeoutMs,
+      @Value("${internal.shared-secret:}") String sharedSecret) {
+    return new ClusterClient(objectMapper, Duration.ofMillis(timeoutMs), sharedSecret);
+  }
+
+  // The node-to-node endpoints share the public port, so they only answer callers presenting
+  // internal.shared-secret; the application does not start without one
+  @Bean
+  public FilterRegistrationBean<SharedSecretFilter> clusterSecretFilter(
+      @Value("${internal.shared-secret:}") String sharedSecret, ObjectMapper objectMapper) {
+    FilterRegistrationBean<SharedSecretFilter> registration = new FilterRegistrationBean<>(
+        new SharedSecretFilter(sharedSecret, objectMapper));
+    registration.setName("clusterSecretFilter");
+    registration.addUrlPatterns("/internal/v1/cluster/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  @Bean
+  public ClusterMembership clusterMembership(
+      @Value("${cluster.self-url}") String selfUrl,
+      @Value("${cluster.nodes:}") List<String> nodeUrls,
+      @Value("${cluster.virtual-nodes:128}") int virtualNodes,
+      @Qualifier("localPaymentsRepository") PaymentsRepository localPaymentsRepository,
+      ClusterClient clusterClient) {
+    ClusterNode self = new ClusterNode(selfUrl);
+    List<ClusterNode> nodes = nodeUrls.stream()
+        .filter(url -> !url.isBlank())
+        .map(ClusterNode::new)
+        .toList();
+    ConsistentHashRing ring = new ConsistentHashRing(nodes.isEmpty() ? List.of(self) : nodes,
+        virtualNodes);
+    return new ClusterMembership(self, ring, localPaymentsRepository, clusterClient);
+  }
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> clusterAnnouncer(
+      ClusterMembership clusterMembership) {
+    return event -> clusterMembership.announce();
+  }
+}
@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.deadline.DeadlineFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class DeadlineConfiguration {
+
+  @Bean
+  public BankCallBudget bankCallBudget(
+      @Value("${bank.connect-timeout-ms:10000}") int connectTimeoutMs,
+      @Value("${bank.read-timeout-ms:10000}") int readTimeoutMs,
+      @Value("${deadline.min-bank-budget-ms:200}") long minBankBudgetMs,
+      MeterRegistry meterRegistry) {
+    BankCallBudget budget = new BankCallBudget(connectTimeoutMs, readTimeoutMs, minBankBudgetMs);
+    FunctionCounter.builder("payments.deadline.bank.calls", budget, BankCallBudget::skippedCount)
+        .description("Bank calls not made because the request deadline was too close")
+        .tag("result", "skipped")
+        .register(meterRegistry);
+    FunctionCounter.builder("payments.deadline.bank.calls", budget,
+            BankCallBudget::shortenedCount)
+        .description("Bank calls made with timeouts cut to the request deadline")
+        .tag("result", "shortened")
+        .register(meterRegistry);
+    FunctionCounter.builder("payments.deadline.bank.wait.saved", budget,
+            BankCallBudget::savedMillis)
+        .description("Upper bound of bank waiting avoided by request deadlines")
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+    FunctionCounter.builder("payments.deadline.exceeded", budget, BankCallBudget::exceededCount)
+        .description("Payment requests answered 504 because their deadline passed")
+        .register(meterRegistry);
+    return budget;
+  }
+
+  // Ahead of admission control, so time spent queueing counts against the deadline
+  @Bean
+  public FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+      @Value("${deadline.max-ms:10000}") long maxMs) {
+    FilterRegistrationBean<DeadlineFilter> registration =
+        new FilterRegistrationBean<>(new DeadlineFilter(maxMs));
+    registration.addUrlPatterns("/api/v1/payment");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.admission.ExecutionLane;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutionLaneConfiguration {
+
+  // Payment submissions wait on the bank here; lookups stay on the container's threads
+  @Bean(destroyMethod = "stop")
+  public ExecutionLane bankExecutionLane(
+      @Value("${lane.bank.threads:64}") int threads,
+      @Value("${lane.bank.queue-capacity:64}") int queueCapacity,
+      MeterRegistry meterRegistry) {
+    ExecutionLane lane = new ExecutionLane("bank", threads, queueCapacity);
+    Gauge.builder("lanes.active", lane, ExecutionLane::active)
+        .description("Lane threads running a request")
+        .tag("lane", lane.getName())
+        .register(meterRegistry);
+    Gauge.builder("lanes.queued", lane, ExecutionLane::queued)
+        .description("Requests waiting for a lane thread")
+        .tag("lane", lane.getName())
+        .register(meterRegistry);
+    Gauge.builder("lanes.queue.delay", lane, ExecutionLane::queueDelayMillis)
+        .description("Average time recent requests waited for a lane thread")
+        .tag("lane", lane.getName())
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+    FunctionCounter.builder("lanes.requests", lane, ExecutionLane::completedCount)
+        .description("Requests by lane and outcome")
+        .tag("lane", lane.getName())
+        .tag("result", "completed")
+        .register(meterRegistry);
+    FunctionCounter.builder("lanes.requests", lane, ExecutionLane::rejectedCount)
+        .description("Requests by lane and outcome")
+        .tag("lane", lane.getName())
+        .tag("result", "rejected")
+        .register(meterRegistry);
+    return lane;
+  }
+}
@@ -0,0 +1,52 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FxConfiguration {
+
+  // Converts other currencies at the rates in fx.rates-file when set; otherwise only the
+  // settlement currencies are accepted
+  @Bean(destroyMethod = "stop")
+  public CurrencyConverter currencyConverter(
+      @Value("${fx.settlement-currency:USD}") String settlementCurrency,
+      @Value("${fx.rates-file:}") String ratesFile,
+      @Value("${fx.reload-interval-ms:10000}") long reloadIntervalMs,
+      MeterRegistry meterRegistry) {
+    String currency = settlementCurrency.trim().toUpperCase(Locale.ROOT);
+    if (!PaymentRequestValidator.isSettlementCurrency(currency)) {
+      throw new IllegalArgumentException("fx.settlement-currency must be USD, GBP or EUR");
+    }
+    CurrencyConverter currencyConverter = new CurrencyConverter(currency,
+        ratesFile.isBlank() ? null : Path.of(ratesFile));
+    currencyConverter.start(reloadIntervalMs);
+    Gauge.builder("fx.rates.currencies", currencyConverter, CurrencyConverter::currencyCount)
+        .description("Currencies in the exchange rates in force")
+        .register(meterRegistry);
+    FunctionCounter.builder("fx.rates.reloads", currencyConverter,
+            CurrencyConverter::reloadCount)
+        .description("Exchange rates file loads by outcome")
+        .tag("result", "loaded")
+        .register(meterRegistry);
+    FunctionCounter.builder("fx.rates.reloads", currencyConverter,
+            CurrencyConverter::failedReloadCount)
+        .description("Exchange rates file loads by outcome")
+        .tag("result", "failed")
+        .register(meterRegistry);
+    return currencyConverter;
+  }
+
+  @Bean
+  public PaymentRequestValidator paymentRequestValidator(CurrencyConverter currencyConverter) {
+    return new PaymentRequestValidator(currencyConverter::canConvert);
+  }
+}
@@ -0,0 +1,23 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.repository.JdbcPaymentsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@ConditionalOnProperty(name = "repository.type", havingValue = "jdbc")
+public class JdbcRepositoryConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public JdbcPaymentsRepository jdbcPaymentsRepository(JdbcTemplate jdbcTemplate,
+      @Value("${repository.jdbc.queue-capacity:10000}") int queueCapacity,
+      @Value("${repository.jdbc.batch-size:500}") int batchSize,
+      @Value("${repository.jdbc.flush-interval-ms:50}") long flushIntervalMs,
+      @Value("${repository.jdbc.enqueue-timeout-ms:100}") long enqueueTimeoutMs) {
+    return new JdbcPaymentsRepository(jdbcTemplate, queueCapacity, batchSize, flushIntervalMs,
+        enqueueTimeoutMs);
+  }
+}
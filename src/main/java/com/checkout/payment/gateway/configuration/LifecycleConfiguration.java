@@ -0,0 +1,26 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.cluster.ClusterClient;
+import com.checkout.payment.gateway.cluster.ClusterMembership;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.checkout.payment.gateway.webhook.PaymentEventPublisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LifecycleConfiguration {
+
+  // In cluster mode actions are forwarded to the node that owns the payment
+  @Bean
+  public PaymentLifecycle paymentLifecycle(PaymentsRepository paymentsRepository,
+      PaymentResponseEncoder paymentResponseEncoder,
+      PaymentEventPublisher paymentEventPublisher,
+      ObjectProvider<ClusterMembership> clusterMembership,
+      ObjectProvider<ClusterClient> clusterClient) {
+    return new PaymentLifecycle(paymentsRepository, paymentResponseEncoder,
+        paymentEventPublisher, clusterMembership.getIfAvailable(), clusterClient.getIfAvailable());
+  }
+}
@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.ratelimit.MerchantRateLimiter;
+import com.checkout.payment.gateway.ratelimit.RateLimit;
+import com.checkout.payment.gateway.ratelimit.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+  @Bean(destroyMethod = "stop")
+  public MerchantRateLimiter merchantRateLimiter(
+      @Value("${ratelimit.default.capacity:100}") long capacity,
+      @Value("${ratelimit.default.refill-per-second:50}") double refillPerSecond,
+      @Value("${ratelimit.anonymous-limit:}") String anonymousLimit,
+      @Value("${ratelimit.limits-file:}") String limitsFile,
+      @Value("${ratelimit.max-merchants:10000}") int maxMerchants,
+      @Value("${ratelimit.idle-eviction-ms:600000}") long idleEvictionMs,
+      @Value("${ratelimit.reload-interval-ms:5000}") long reloadIntervalMs) {
+    MerchantRateLimiter rateLimiter = new MerchantRateLimiter(
+        new RateLimit(capacity, refillPerSecond),
+        anonymousLimit.isBlank() ? null : RateLimit.parse(anonymousLimit),
+        limitsFile.isBlank() ? null : Path.of(limitsFile), maxMerchants, idleEvictionMs);
+    rateLimiter.start(reloadIntervalMs);
+    return rateLimiter;
+  }
+
+  // Runs ahead of admission control so a throttled merchant never takes a processing slot
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+      MerchantRateLimiter merchantRateLimiter, ObjectMapper objectMapper) {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+        new RateLimitFilter(merchantRateLimiter, objectMapper));
+    registration.addUrlPatterns("/api/v1/payment");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+    return registration;
+  }
+}
@@ -0,0 +1,96 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.enums.ReplicationRole;
+import com.checkout.payment.gateway.replication.ReplicaRequestInterceptor;
+import com.checkout.payment.gateway.replication.ReplicationClient;
+import com.checkout.payment.gateway.replication.ReplicationFollower;
+import com.checkout.payment.gateway.replication.ReplicationLeader;
+import com.checkout.payment.gateway.replication.ReplicationNode;
+import com.checkout.payment.gateway.replication.ReplicationSettings;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.security.SharedSecretFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnExpression("'${replication.role:none}' != 'none'")
+public class ReplicationConfiguration {
+
+  @Bean
+  public ReplicationClient replicationClient(ObjectMapper objectMapper,
+      @Value("${replication.timeout-ms:2000}") long timeoutMs,
+      @Value("${internal.shared-secret:}") String sharedSecret) {
+    return new ReplicationClient(objectMapper, Duration.ofMillis(timeoutMs), sharedSecret);
+  }
+
+  // Shipping and promotion share the public port, so like the cluster endpoints they only
+  // answer callers presenting internal.shared-secret
+  @Bean
+  public FilterRegistrationBean<SharedSecretFilter> replicationSecretFilter(
+      @Value("${internal.shared-secret:}") String sharedSecret, ObjectMapper objectMapper) {
+    FilterRegistrationBean<SharedSecretFilter> registration = new FilterRegistrationBean<>(
+        new SharedSecretFilter(sharedSecret, objectMapper));
+    registration.setName("replicationSecretFilter");
+    registration.addUrlPatterns("/internal/v1/replication/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  @Bean
+  public ReplicationSettings replicationSettings(
+      @Value("${replication.ack-mode:async}") String ackMode,
+      @Value("${replication.sync-acks:1}") int syncAcks,
+      @Value("${replication.sync-timeout-ms:1000}") long syncTimeoutMs,
+      @Value("${replication.heartbeat-ms:500}") long heartbeatMs,
+      @Value("${replication.batch-size:500}") int batchSize,
+      @Value("${replication.log-capacity:100000}") int logCapacity) {
+    ReplicationSettings settings = new ReplicationSettings();
+    settings.setSync("sync".equalsIgnoreCase(ackMode));
+    settings.setSyncAcks(syncAcks);
+    settings.setSyncTimeoutMs(syncTimeoutMs);
+    settings.setHeartbeatMs(heartbeatMs);
+    settings.setBatchSize(batchSize);
+    settings.setLogCapacity(logCapacity);
+    return settings;
+  }
+
+  // Replication reads and writes the raw store, below the replicating decorator
+  @Bean
+  public ReplicationNode replicationNode(
+      @Value("${replication.role}") String role,
+      @Value("${replication.self-url}") String selfUrl,
+      @Value("${replication.followers:}") List<String> followerUrls,
+      @Qualifier("storagePaymentsRepository") PaymentsRepository storageRepository,
+      ReplicationClient replicationClient,
+      ReplicationSettings replicationSettings) {
+    ReplicationRole initialRole = ReplicationRole.valueOf(role.toUpperCase(Locale.ROOT));
+    return new ReplicationNode(initialRole, new ReplicationFollower(storageRepository),
+        () -> new ReplicationLeader(selfUrl, followerUrls, storageRepository,
+            replicationClient, replicationSettings));
+  }
+
+  @Bean
+  public WebMvcConfigurer replicaRequestConfigurer(ReplicationNode replicationNode,
+      ObjectMapper objectMapper,
+      @Value("${replication.max-staleness-ms:5000}") long maxStalenessMs) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(
+                new ReplicaRequestInterceptor(replicationNode, objectMapper, maxStalenessMs))
+            .addPathPatterns("/api/v1/**");
+      }
+    };
+  }
+}
@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.archive.ArchiveBackedPaymentsRepository;
+import com.checkout.payment.gateway.archive.PaymentArchive;
+import com.checkout.payment.gateway.cluster.ClusterClient;
+import com.checkout.payment.gateway.cluster.ClusterMembership;
+import com.checkout.payment.gateway.cluster.ShardedPaymentsRepository;
+import com.checkout.payment.gateway.replication.ReplicatingPaymentsRepository;
+import com.checkout.payment.gateway.replication.ReplicationNode;
+import com.checkout.payment.gateway.repository.BloomFilteredPaymentsRepository;
+import com.checkout.payment.gateway.repository.FlightRecordedPaymentsRepository;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.repository.JdbcPaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.repository.ScalableBloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.ToDoubleFunction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class RepositoryConfiguration {
+
+  // Where payments are kept: the database with repository.type=jdbc, otherwise memory. Writes
+  // to it are timed for flight recordings
+  @Bean
+  public PaymentsRepository storagePaymentsRepository(
+      ObjectProvider<JdbcPaymentsRepository> jdbcPaymentsRepository,
+      @Value("${repository.id-filter.enabled:true}") boolean idFilterEnabled,
+      @Value("${repository.id-filter.initial-capacity:1000000}") int idFilterCapacity,
+      @Value("${repository.id-filter.false-positive-rate:0.01}") double idFilterRate,
+      MeterRegistry meterRegistry) {
+    PaymentsRepository repository = new FlightRecordedPaymentsRepository(
+        jdbcPaymentsRepository.getIfAvailable(InMemoryPaymentsRepository::new));
+    if (!idFilterEnabled) {
+      return repository;
+    }
+    BloomFilteredPaymentsRepository filtered = new BloomFilteredPaymentsRepository(repository,
+        new ScalableBloomFilter(idFilterCapacity, idFilterRate));
+    Gauge.builder("payments.id.filter.false.positive.rate", filtered,
+            BloomFilteredPaymentsRepository::observedFalsePositiveRate)
+        .description("Share of lookups for unknown ids that the filter let through")
+        .register(meterRegistry);
+    Gauge.builder("payments.id.filter.expected.false.positive.rate", filtered,
+            bloomFiltered -> bloomFiltered.getFilter().expectedFalsePositiveRate())
+        .description("False-positive rate expected from the ids in the filter")
+        .register(meterRegistry);
+    lookupCounter(meterRegistry, filtered, "filtered",
+        BloomFilteredPaymentsRepository::filteredMissCount);
+    lookupCounter(meterRegistry, filtered, "false_positive",
+        BloomFilteredPaymentsRepository::falsePositiveCount);
+    lookupCounter(meterRegistry, filtered, "hit", BloomFilteredPaymentsRepository::hitCount);
+    return filtered;
+  }
+
+  // This node's own store, replicated to followers and backed by the archive when those are
+  // enabled; cluster endpoints read and write it directly
+  @Bean
+  public PaymentsRepository localPaymentsRepository(
+      @Qualifier("storagePaymentsRepository") PaymentsRepository storageRepository,
+      ObjectProvider<ReplicationNode> replicationNode,
+      ObjectProvider<PaymentArchive> paymentArchive) {
+    PaymentsRepository repository = storageRepository;
+    ReplicationNode node = replicationNode.getIfAvailable();
+    if (node != null) {
+      repository = new ReplicatingPaymentsRepository(repository, node);
+    }
+    PaymentArchive archive = paymentArchive.getIfAvailable();
+    if (archive != null) {
+      repository = new ArchiveBackedPaymentsRepository(repository, archive);
+    }
+    return repository;
+  }
+
+  @Bean
+  @Primary
+  public PaymentsRepository paymentsRepository(
+      @Qualifier("localPaymentsRepository") PaymentsRepository localPaymentsRepository,
+      ObjectProvider<ClusterMembership> clusterMembership,
+      ObjectProvider<ClusterClient> clusterClient) {
+    ClusterMembership membership = clusterMembership.getIfAvailable();
+    if (membership != null) {
+      return new ShardedPaymentsRepository(localPaymentsRepository, membership,
+          clusterClient.getObject());
+    }
+    return localPaymentsRepository;
+  }
+
+  private static void lookupCounter(MeterRegistry meterRegistry,
+      BloomFilteredPaymentsRepository repository, String result,
+      ToDoubleFunction<BloomFilteredPaymentsRepository> count) {
+    FunctionCounter.builder("payments.id.filter.lookups", repository, count)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
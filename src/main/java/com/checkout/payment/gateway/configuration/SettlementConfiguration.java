@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.settlement.SettlementJob;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalTime;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "settlement.enabled", havingValue = "true")
+public class SettlementConfiguration {
+
+  // Settles this node's own store; in cluster mode every node settles its shard
+  @Bean(destroyMethod = "stop")
+  public SettlementJob settlementJob(
+      @Qualifier("localPaymentsRepository") PaymentsRepository localPaymentsRepository,
+      @Value("${settlement.directory:settlement}") String directory,
+      @Value("${settlement.parallelism:0}") int parallelism,
+      @Value("${settlement.close-delay-minutes:15}") long closeDelayMinutes) {
+    int threads = parallelism > 0 ? parallelism
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new SettlementJob(localPaymentsRepository, Path.of(directory), threads,
+        Duration.ofMinutes(closeDelayMinutes), Clock.systemUTC());
+  }
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> settlementStarter(SettlementJob settlementJob,
+      @Value("${settlement.run-at:00:30}") String runAt) {
+    return event -> settlementJob.start(LocalTime.parse(runAt));
+  }
+}
@@ -0,0 +1,79 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.id.PaymentIdGenerator;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.checkout.payment.gateway.validation.CardBinValidator;
+import com.checkout.payment.gateway.validation.PaymentRequestMessageConverter;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.checkout.payment.gateway.velocity.CardVelocityCheck;
+import com.checkout.payment.gateway.warmup.JitWarmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class StartupConfiguration {
+
+  // Ends the class-data-sharing training run once the context is up. Checked at run time rather
+  // than through a condition, since AOT processing fixes the bean set at build time
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> exitAfterReady(
+      @Value("${startup.exit-after-ready:false}") boolean exitAfterReady) {
+    return event -> {
+      if (exitAfterReady) {
+        log.info("Application ready after {}, exiting as requested", event.getTimeTaken());
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+      }
+    };
+  }
+
+  // Runners finish before the application reports itself ready to accept traffic, so readiness
+  // waits for the warm-up. A failed warm-up only costs the time it took
+  @Bean
+  public ApplicationRunner jitWarmup(
+      @Value("${startup.warmup-payments:0}") int warmupPayments,
+      ObjectMapper objectMapper,
+      PaymentRequestMessageConverter paymentRequestMessageConverter,
+      PaymentRequestValidator paymentRequestValidator,
+      PaymentIdGenerator paymentIdGenerator,
+      PaymentResponseEncoder paymentResponseEncoder,
+      BankCallBudget bankCallBudget,
+      CardBinValidator cardBinValidator,
+      CurrencyConverter currencyConverter,
+      CardVelocityCheck cardVelocityCheck,
+      LoggingSystem loggingSystem) {
+    return args -> {
+      if (warmupPayments <= 0) {
+        return;
+      }
+      JitWarmup warmup = new JitWarmup(objectMapper, paymentRequestMessageConverter,
+          paymentRequestValidator, paymentIdGenerator, paymentResponseEncoder, bankCallBudget,
+          cardBinValidator, currencyConverter, cardVelocityCheck);
+      // The service logs every payment; synthetic ones are kept out of the log
+      String serviceLogger = PaymentGatewayService.class.getName();
+      LoggerConfiguration configured = loggingSystem.getLoggerConfiguration(serviceLogger);
+      LogLevel serviceLevel = configured == null ? null : configured.getConfiguredLevel();
+      loggingSystem.setLogLevel(serviceLogger, LogLevel.ERROR);
+      try {
+        warmup.run(warmupPayments);
+      } catch (RuntimeException ex) {
+        log.warn("JIT warm-up failed, starting without it: {}", ex.getMessage());
+      } finally {
+        loggingSystem.setLogLevel(serviceLogger, serviceLevel);
+      }
+    };
+  }
+}
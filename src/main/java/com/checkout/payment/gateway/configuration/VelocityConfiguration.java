@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.velocity.CardVelocityCheck;
+import com.checkout.payment.gateway.velocity.SketchCardVelocityCheck;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class VelocityConfiguration {
+
+  // Counts every validated payment per card over velocity.window-ms; off with
+  // velocity.enabled=false
+  @Bean
+  public CardVelocityCheck cardVelocityCheck(
+      @Value("${velocity.enabled:true}") boolean enabled,
+      @Value("${velocity.window-ms:600000}") long windowMs,
+      @Value("${velocity.buckets:10}") int buckets,
+      @Value("${velocity.sketch-depth:4}") int depth,
+      @Value("${velocity.sketch-width:4096}") int width,
+      @Value("${velocity.max-attempts:20}") long maxAttempts,
+      @Value("${velocity.max-amount:10000000}") long maxAmount,
+      MeterRegistry meterRegistry) {
+    if (!enabled) {
+      return CardVelocityCheck.NONE;
+    }
+    SketchCardVelocityCheck check = new SketchCardVelocityCheck(windowMs, buckets, depth, width,
+        maxAttempts, maxAmount);
+    FunctionCounter.builder("velocity.flagged", check,
+            SketchCardVelocityCheck::flaggedAttemptsCount)
+        .description("Payments stopped by card velocity, by exceeded limit")
+        .tag("limit", "attempts")
+        .register(meterRegistry);
+    FunctionCounter.builder("velocity.flagged", check,
+            SketchCardVelocityCheck::flaggedAmountsCount)
+        .description("Payments stopped by card velocity, by exceeded limit")
+        .tag("limit", "amount")
+        .register(meterRegistry);
+    return check;
+  }
+}
@@ -0,0 +1,94 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.webhook.PaymentEventPublisher;
+import com.checkout.payment.gateway.webhook.WebhookDispatcher;
+import com.checkout.payment.gateway.webhook.WebhookEndpoint;
+import com.checkout.payment.gateway.webhook.WebhookSettings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class WebhookConfiguration {
+
+  @Bean
+  public WebhookSettings webhookSettings(
+      @Value("${webhook.queue-capacity:10000}") int queueCapacity,
+      @Value("${webhook.batch-size:100}") int batchSize,
+      @Value("${webhook.linger-ms:200}") long lingerMs,
+      @Value("${webhook.max-in-flight:16}") int maxInFlight,
+      @Value("${webhook.timeout-ms:5000}") long timeoutMs,
+      @Value("${webhook.max-attempts:8}") int maxAttempts,
+      @Value("${webhook.initial-backoff-ms:1000}") long initialBackoffMs,
+      @Value("${webhook.max-backoff-ms:60000}") long maxBackoffMs,
+      @Value("${webhook.dead-letter-file:webhooks-dead-letter.jsonl}") String deadLetterFile) {
+    WebhookSettings settings = new WebhookSettings();
+    settings.setQueueCapacity(queueCapacity);
+    settings.setBatchSize(batchSize);
+    settings.setLingerMs(lingerMs);
+    settings.setMaxInFlight(maxInFlight);
+    settings.setTimeoutMs(timeoutMs);
+    settings.setMaxAttempts(maxAttempts);
+    settings.setInitialBackoffMs(initialBackoffMs);
+    settings.setMaxBackoffMs(maxBackoffMs);
+    settings.setDeadLetterFile(Path.of(deadLetterFile));
+    return settings;
+  }
+
+  // Delivers over webhook.merchants when set; otherwise outcomes are only available by lookup
+  @Bean
+  public PaymentEventPublisher paymentEventPublisher(
+      @Value("${webhook.merchants:}") String merchantIds,
+      WebhookSettings webhookSettings,
+      ObjectMapper objectMapper,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    List<String> merchants = Arrays.stream(merchantIds.split(",")).map(String::trim)
+        .filter(merchant -> !merchant.isEmpty())
+        .toList();
+    if (merchants.isEmpty()) {
+      return PaymentEventPublisher.NONE;
+    }
+    List<WebhookEndpoint> endpoints = new ArrayList<>();
+    for (String merchant : merchants) {
+      String prefix = "webhook.merchant." + merchant + ".";
+      endpoints.add(new WebhookEndpoint(merchant,
+          URI.create(environment.getRequiredProperty(prefix + "url")),
+          environment.getRequiredProperty(prefix + "secret").getBytes(StandardCharsets.UTF_8)));
+    }
+    WebhookDispatcher dispatcher = new WebhookDispatcher(endpoints, webhookSettings,
+        objectMapper);
+    eventCounter(meterRegistry, dispatcher, "delivered", WebhookDispatcher::deliveredCount);
+    eventCounter(meterRegistry, dispatcher, "dead-lettered",
+        WebhookDispatcher::deadLetteredCount);
+    eventCounter(meterRegistry, dispatcher, "dropped", WebhookDispatcher::droppedCount);
+    FunctionCounter.builder("webhooks.batches.retried", dispatcher,
+            WebhookDispatcher::retriedCount)
+        .description("Webhook batch deliveries scheduled for another attempt")
+        .register(meterRegistry);
+    Gauge.builder("webhooks.queue.size", dispatcher, WebhookDispatcher::queuedCount)
+        .description("Webhook events waiting to be batched")
+        .register(meterRegistry);
+    return dispatcher;
+  }
+
+  private static void eventCounter(MeterRegistry meterRegistry, WebhookDispatcher dispatcher,
+      String result, ToDoubleFunction<WebhookDispatcher> count) {
+    FunctionCounter.builder("webhooks.events", dispatcher, count)
+        .description("Webhook events by delivery outcome")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,35 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.archive.PaymentArchive;
+import com.checkout.payment.gateway.model.ArchivedVolume;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+  private final PaymentArchive paymentArchive;
+
+  // Both dates are inclusive UTC days
+  @GetMapping("/volumes")
+  public ResponseEntity<List<ArchivedVolume>> getVolumes(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    long fromMillis = from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    long toMillis = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    return new ResponseEntity<>(paymentArchive.summarize(fromMillis, toMillis), HttpStatus.OK);
+  }
+}
@@ -0,0 +1,95 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.cluster.ClusterMembership;
+import com.checkout.payment.gateway.cluster.ClusterNode;
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.model.PaymentActionRequest;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.ratelimit.RateLimitFilter;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Node-to-node endpoints used for forwarded reads, writes and payment actions and for membership
+ * changes. Reads and writes operate on this node's local store only. None of these must be
+ * exposed outside the cluster network.
+ */
+@RestController
+@RequestMapping("/internal/v1/cluster")
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+  private final PaymentsRepository localPaymentsRepository;
+  private final ClusterMembership clusterMembership;
+  private final PaymentLifecycle paymentLifecycle;
+
+  public ClusterController(
+      @Qualifier("localPaymentsRepository") PaymentsRepository localPaymentsRepository,
+      ClusterMembership clusterMembership, PaymentLifecycle paymentLifecycle) {
+    this.localPaymentsRepository = localPaymentsRepository;
+    this.clusterMembership = clusterMembership;
+    this.paymentLifecycle = paymentLifecycle;
+  }
+
+  @PostMapping("/payments")
+  public ResponseEntity<Void> storePayment(@RequestBody PaymentResponse payment) {
+    localPaymentsRepository.add(payment);
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  @GetMapping("/payments/{id}")
+  public ResponseEntity<PaymentResponse> getPayment(@PathVariable UUID id) {
+    return localPaymentsRepository.get(id)
+        .map(payment -> new ResponseEntity<>(payment, HttpStatus.OK))
+        .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+  }
+
+  @PostMapping("/payments/lookup")
+  public ResponseEntity<Collection<PaymentResponse>> getPayments(@RequestBody List<UUID> ids) {
+    return new ResponseEntity<>(localPaymentsRepository.getAll(ids).values(), HttpStatus.OK);
+  }
+
+  // Forwarded by the other nodes; refusals are answered by the common exception handler
+  @PostMapping("/payments/{id}/actions/{type}")
+  public ResponseEntity<PaymentResponse> applyAction(@PathVariable UUID id,
+      @PathVariable PaymentActionType type,
+      @RequestBody(required = false) PaymentActionRequest actionRequest,
+      @RequestHeader(value = RateLimitFilter.MERCHANT_HEADER, required = false)
+      String merchantId) {
+    Integer amount = actionRequest == null ? null : actionRequest.getAmount();
+    return new ResponseEntity<>(paymentLifecycle.applyLocally(id, type, amount, merchantId),
+        HttpStatus.OK);
+  }
+
+  @DeleteMapping("/payments/{id}")
+  public ResponseEntity<Void> removePayment(@PathVariable UUID id) {
+    localPaymentsRepository.remove(id);
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  @PostMapping("/nodes")
+  public ResponseEntity<List<ClusterNode>> join(@RequestBody ClusterNode node) {
+    clusterMembership.join(node);
+    return new ResponseEntity<>(clusterMembership.ring().getNodes(), HttpStatus.OK);
+  }
+
+  @GetMapping("/nodes")
+  public ResponseEntity<List<ClusterNode>> getNodes() {
+    return new ResponseEntity<>(clusterMembership.ring().getNodes(), HttpStatus.OK);
+  }
+}
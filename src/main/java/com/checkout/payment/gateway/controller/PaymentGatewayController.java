@@ -1,42 +1,185 @@
 package com.checkout.payment.gateway.controller;
 
+import com.checkout.payment.gateway.admission.ExecutionLane;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.model.BulkLookupRequest;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.model.PaymentActionRequest;
 import com.checkout.payment.gateway.model.PaymentRequest;
 import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.model.PaymentStatisticsResponse;
+import com.checkout.payment.gateway.ratelimit.RateLimitFilter;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentLookup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1")
 public class PaymentGatewayController {
 
+  public static final String LOOKUP_PATH = "/api/v1/payment/lookup";
+  static final int MAX_LOOKUP_IDS = 10_000;
+  private static final byte[] LOOKUP_START = "{\"payments\":[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] LOOKUP_MISSING = "],\"missing\":[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] LOOKUP_END = "]}".getBytes(StandardCharsets.UTF_8);
+
   private final PaymentGatewayService paymentGatewayService;
+  private final PaymentLifecycle paymentLifecycle;
+  private final ObjectMapper objectMapper;
+  private final ExecutionLane bankLane;
 
+  // Unknown ids are answered directly rather than through an exception and its handler
   @GetMapping("/payment/{id}")
-  public ResponseEntity<PaymentResponse> getPaymentById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+  public ResponseEntity<Object> getPaymentById(@PathVariable UUID id) {
+    return paymentGatewayService.findPaymentById(id)
+        .map(payment -> paymentBody(payment, HttpStatus.OK))
+        .orElseGet(() -> new ResponseEntity<>(ErrorResponse.PAYMENT_NOT_FOUND,
+            HttpStatus.NOT_FOUND));
   }
 
+  // Runs on the bank lane, so the request thread is free again while the bank is called
   @PostMapping("/payment")
-  public ResponseEntity<PaymentResponse> executePayment(@RequestBody PaymentRequest paymentRequest) {
-    PaymentResponse response = paymentGatewayService.processPayment(paymentRequest);
-    
-    // REJECTED status -> validation failed -> return 400 Bad Request
-    // AUTHORIZED , DECLINED -> successful processing -> return 200 OK
-    HttpStatus httpStatus = response.getStatus() == PaymentStatus.REJECTED 
-        ? HttpStatus.BAD_REQUEST 
-        : HttpStatus.OK;
-    
-    return new ResponseEntity<>(response, httpStatus);
+  public CompletableFuture<ResponseEntity<Object>> executePayment(
+      @RequestBody PaymentRequest paymentRequest,
+      @RequestHeader(value = RateLimitFilter.MERCHANT_HEADER, required = false)
+      String merchantId) {
+    return bankLane.submit(() -> {
+      PaymentResponse response = paymentGatewayService.processPayment(paymentRequest, merchantId);
+
+      // REJECTED status -> validation failed -> return 400 Bad Request
+      // AUTHORIZED , DECLINED -> successful processing -> return 200 OK
+      HttpStatus httpStatus = response.getStatus() == PaymentStatus.REJECTED
+          ? HttpStatus.BAD_REQUEST
+          : HttpStatus.OK;
+
+      return paymentBody(response, httpStatus);
+    });
+  }
+
+  /**
+   * Streams {@code {"payments":[...],"missing":[...]}}. Each payment is written out as soon as
+   * its batch is resolved, from its pre-serialized bytes where it has them, so the response is
+   * never held in memory as a whole.
+   *
+   * <p>The first batch is resolved before the response starts, so a store that cannot be read is
+   * answered with an error status. A later batch that fails can no longer change the status; the
+   * response is aborted instead of being completed with a body that merely looks short.
+   */
+  @PostMapping("/payment/lookup")
+  public ResponseEntity<StreamingResponseBody> lookupPayments(
+      @RequestBody BulkLookupRequest lookupRequest) {
+    List<UUID> ids = lookupRequest.getIds();
+    if (ids == null || ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS || ids.contains(null)) {
+      ErrorResponse error = new ErrorResponse(
+          "ids must list between 1 and " + MAX_LOOKUP_IDS + " payment ids");
+      return ResponseEntity.badRequest()
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(out -> objectMapper.writeValue(out, error));
+    }
+    PaymentLookup lookup = paymentGatewayService.lookupPayments(ids);
+    List<PaymentResponse> firstBatch = lookup.nextBatch();
+    StreamingResponseBody body = out -> {
+      out.write(LOOKUP_START);
+      boolean first = true;
+      for (List<PaymentResponse> batch = firstBatch; batch != null; batch = lookup.nextBatch()) {
+        for (PaymentResponse payment : batch) {
+          if (!first) {
+            out.write(',');
+          }
+          first = false;
+          byte[] json = payment.getSerializedJson();
+          out.write(json != null ? json : objectMapper.writeValueAsBytes(payment));
+        }
+        // Commits the response, so that a later batch failing aborts it; see
+        // CommonExceptionHandler
+        out.flush();
+      }
+      out.write(LOOKUP_MISSING);
+      List<UUID> missing = lookup.getMissing();
+      for (int i = 0; i < missing.size(); i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        out.write(("\"" + missing.get(i) + "\"").getBytes(StandardCharsets.UTF_8));
+      }
+      out.write(LOOKUP_END);
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  @PostMapping("/payment/{id}/capture")
+  public ResponseEntity<Object> capturePayment(@PathVariable UUID id,
+      @RequestBody(required = false) PaymentActionRequest actionRequest,
+      @RequestHeader(value = RateLimitFilter.MERCHANT_HEADER, required = false)
+      String merchantId) {
+    return paymentBody(paymentLifecycle.capture(id, amountOf(actionRequest), merchantId),
+        HttpStatus.OK);
+  }
+
+  @PostMapping("/payment/{id}/void")
+  public ResponseEntity<Object> voidPayment(@PathVariable UUID id,
+      @RequestHeader(value = RateLimitFilter.MERCHANT_HEADER, required = false)
+      String merchantId) {
+    return paymentBody(paymentLifecycle.voidPayment(id, merchantId), HttpStatus.OK);
+  }
+
+  @PostMapping("/payment/{id}/refund")
+  public ResponseEntity<Object> refundPayment(@PathVariable UUID id,
+      @RequestBody(required = false) PaymentActionRequest actionRequest,
+      @RequestHeader(value = RateLimitFilter.MERCHANT_HEADER, required = false)
+      String merchantId) {
+    return paymentBody(paymentLifecycle.refund(id, amountOf(actionRequest), merchantId),
+        HttpStatus.OK);
+  }
+
+  /**
+   * @return whether the request only reads payments; a bulk lookup is a read sent as a POST,
+   * since its ids would not fit in a URL
+   */
+  public static boolean isRead(HttpServletRequest request) {
+    return HttpMethod.GET.matches(request.getMethod())
+        || LOOKUP_PATH.equals(request.getRequestURI());
+  }
+
+  // No body, or no amount in it, means the whole amount still available
+  private static Integer amountOf(PaymentActionRequest actionRequest) {
+    return actionRequest == null ? null : actionRequest.getAmount();
+  }
+
+  // Pre-serialized bytes go out through the byte array converter, skipping Jackson
+  private static ResponseEntity<Object> paymentBody(PaymentResponse payment, HttpStatus status) {
+    byte[] json = payment.getSerializedJson();
+    if (json == null) {
+      return new ResponseEntity<>(payment, status);
+    }
+    return ResponseEntity.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .contentLength(json.length)
+        .body(json);
+  }
+
+  @GetMapping("/statistics")
+  public ResponseEntity<PaymentStatisticsResponse> getStatistics() {
+    return new ResponseEntity<>(paymentGatewayService.getStatistics(), HttpStatus.OK);
   }
 }
@@ -0,0 +1,61 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.ReplicationStatusResponse;
+import com.checkout.payment.gateway.replication.ReplicationAck;
+import com.checkout.payment.gateway.replication.ReplicationBatch;
+import com.checkout.payment.gateway.replication.ReplicationFollower;
+import com.checkout.payment.gateway.replication.ReplicationLeader;
+import com.checkout.payment.gateway.replication.ReplicationNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Leader-to-follower shipping and operator endpoints. Like the cluster endpoints these must not
+ * be exposed outside the internal network, and only answer callers presenting the shared secret.
+ */
+@RestController
+@RequestMapping("/internal/v1/replication")
+@ConditionalOnExpression("'${replication.role:none}' != 'none'")
+@RequiredArgsConstructor
+public class ReplicationController {
+
+  private final ReplicationNode replicationNode;
+
+  @PostMapping("/batches")
+  public ResponseEntity<ReplicationAck> applyBatch(@RequestBody ReplicationBatch batch) {
+    if (replicationNode.isLeader()) {
+      return new ResponseEntity<>(HttpStatus.CONFLICT);
+    }
+    return new ResponseEntity<>(replicationNode.follower().apply(batch), HttpStatus.OK);
+  }
+
+  @PostMapping("/promote")
+  public ResponseEntity<ReplicationStatusResponse> promote() {
+    replicationNode.promote();
+    return getStatus();
+  }
+
+  @GetMapping("/status")
+  public ResponseEntity<ReplicationStatusResponse> getStatus() {
+    ReplicationStatusResponse status = new ReplicationStatusResponse();
+    status.setRole(replicationNode.role());
+    if (replicationNode.isLeader()) {
+      ReplicationLeader leader = replicationNode.leader();
+      status.setSequence(leader.lastSequence());
+      status.setFollowers(leader.followerUrls());
+    } else {
+      ReplicationFollower follower = replicationNode.follower();
+      status.setLeaderUrl(follower.getLeaderUrl());
+      status.setSequence(follower.getAppliedSequence());
+      status.setStalenessMs(follower.stalenessMillis());
+    }
+    return new ResponseEntity<>(status, HttpStatus.OK);
+  }
+}
@@ -0,0 +1,34 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.settlement.SettlementJob;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/internal/v1/settlements")
+@ConditionalOnProperty(name = "settlement.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SettlementController {
+
+  private final SettlementJob settlementJob;
+
+  // Re-runs replace the files of an earlier run for the same day
+  @PostMapping("/{date}")
+  public ResponseEntity<Object> settle(
+      @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    if (!settlementJob.isClosed(date)) {
+      return new ResponseEntity<>(
+          new ErrorResponse("Settlement day " + date + " is not closed yet"), HttpStatus.CONFLICT);
+    }
+    return new ResponseEntity<>(settlementJob.settle(date), HttpStatus.OK);
+  }
+}
@@ -0,0 +1,89 @@
+package com.checkout.payment.gateway.deadline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fits bank calls into the deadline of the current request: the call's timeouts are cut to the
+ * time left, and a call is not made at all when less than the minimum budget remains, since its
+ * answer could not reach the client in time.
+ *
+ * <p>Keeps count of the bank waiting this avoids: the full read timeout for every skipped call,
+ * and the cut for every shortened one. The latter is an upper bound, as a shortened call that
+ * gets its answer in time saves nothing. Only calls cut to a deadline the client asked for count
+ * as shortened; the server maximum is usually close to the read timeout, so cutting to it saves
+ * nothing worth reporting.
+ */
+public class BankCallBudget {
+
+  private final int connectTimeoutMs;
+  private final int readTimeoutMs;
+  private final long minBudgetNanos;
+  private final LongAdder skipped = new LongAdder();
+  private final LongAdder shortened = new LongAdder();
+  private final LongAdder savedMillis = new LongAdder();
+  private final LongAdder exceeded = new LongAdder();
+
+  public BankCallBudget(int connectTimeoutMs, int readTimeoutMs, long minBudgetMs) {
+    this.connectTimeoutMs = connectTimeoutMs;
+    this.readTimeoutMs = readTimeoutMs;
+    this.minBudgetNanos = TimeUnit.MILLISECONDS.toNanos(minBudgetMs);
+  }
+
+  /**
+   * @return whether too little of the deadline is left for a bank call, which is then counted
+   * as skipped
+   */
+  public boolean isExhausted() {
+    if (RequestDeadline.remainingNanos() >= minBudgetNanos) {
+      return false;
+    }
+    skipped.increment();
+    savedMillis.add(readTimeoutMs);
+    return true;
+  }
+
+  public int connectTimeoutMillis() {
+    return (int) Math.min(connectTimeoutMs, remainingMillis());
+  }
+
+  public int readTimeoutMillis() {
+    long remaining = remainingMillis();
+    if (remaining >= readTimeoutMs) {
+      return readTimeoutMs;
+    }
+    if (RequestDeadline.isFromClient()) {
+      shortened.increment();
+      savedMillis.add(readTimeoutMs - remaining);
+    }
+    return (int) remaining;
+  }
+
+  /**
+   * Counts a request answered with a timeout because its deadline passed.
+   */
+  public void recordExceeded() {
+    exceeded.increment();
+  }
+
+  public long skippedCount() {
+    return skipped.sum();
+  }
+
+  public long shortenedCount() {
+    return shortened.sum();
+  }
+
+  public long savedMillis() {
+    return savedMillis.sum();
+  }
+
+  public long exceededCount() {
+    return exceeded.sum();
+  }
+
+  // At least 1ms: a timeout of 0 means no timeout at all to HttpURLConnection
+  private static long remainingMillis() {
+    return Math.max(1, TimeUnit.NANOSECONDS.toMillis(RequestDeadline.remainingNanos()));
+  }
+}
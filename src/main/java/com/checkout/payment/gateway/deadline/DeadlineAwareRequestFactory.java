@@ -0,0 +1,24 @@
+package com.checkout.payment.gateway.deadline;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * Opens connections with timeouts cut to the deadline of the request being served, so that a
+ * bank call is abandoned once its client has stopped waiting for it.
+ */
+@RequiredArgsConstructor
+public class DeadlineAwareRequestFactory extends SimpleClientHttpRequestFactory {
+
+  private final BankCallBudget budget;
+
+  @Override
+  protected void prepareConnection(HttpURLConnection connection, String httpMethod)
+      throws IOException {
+    super.prepareConnection(connection, httpMethod);
+    connection.setConnectTimeout(budget.connectTimeoutMillis());
+    connection.setReadTimeout(budget.readTimeoutMillis());
+  }
+}
@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Gives each payment request a deadline: the time budget in the client's
+ * {@value #TIMEOUT_HEADER} header, counted from arrival, capped at the server maximum. Requests
+ * without a valid budget get the maximum. The budget is relative rather than a point in time, so
+ * clock skew between client and gateway does not matter. A deadline below the maximum is marked
+ * as the client's own, see {@link RequestDeadline#isFromClient()}.
+ */
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+  public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+  private final long maxNanos;
+
+  public DeadlineFilter(long maxMs) {
+    this.maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMs);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    long arrival = System.nanoTime();
+    long clientBudget = clientBudgetNanos(request.getHeader(TIMEOUT_HEADER));
+    if (clientBudget < maxNanos) {
+      RequestDeadline.set(arrival + clientBudget, true);
+    } else {
+      RequestDeadline.set(arrival + maxNanos, false);
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestDeadline.clear();
+    }
+  }
+
+  // Long.MAX_VALUE when the header is missing or invalid
+  private static long clientBudgetNanos(String header) {
+    if (header == null) {
+      return Long.MAX_VALUE;
+    }
+    try {
+      long budgetMs = Long.parseLong(header.trim());
+      if (budgetMs >= 0) {
+        return TimeUnit.MILLISECONDS.toNanos(budgetMs);
+      }
+    } catch (NumberFormatException ex) {
+      // Treated like a missing header below
+    }
+    log.debug("Ignoring invalid {} header: {}", TIMEOUT_HEADER, header);
+    return Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.deadline;
+
+/**
+ * The time by which the client of the request on the current thread stops waiting for an
+ * answer, set by {@link DeadlineFilter}. Work on the request thread reads it to avoid waiting
+ * for results that nobody will read; outside a request there is no deadline.
+ */
+public final class RequestDeadline {
+
+  private static final long NONE = Long.MAX_VALUE;
+  // A mutable holder per thread, so setting a deadline on every request does not box a Long;
+  // the second slot is 1 when the deadline is the client's own rather than the server maximum
+  private static final ThreadLocal<long[]> DEADLINE_NANOS =
+      ThreadLocal.withInitial(() -> new long[]{NONE, 0});
+
+  private RequestDeadline() {
+  }
+
+  /**
+   * @param deadlineNanos deadline on the {@link System#nanoTime()} scale
+   */
+  public static void set(long deadlineNanos) {
+    set(deadlineNanos, false);
+  }
+
+  /**
+   * @param deadlineNanos deadline on the {@link System#nanoTime()} scale
+   * @param fromClient whether the client asked for this deadline, as opposed to getting the
+   * server maximum
+   */
+  public static void set(long deadlineNanos, boolean fromClient) {
+    long[] deadline = DEADLINE_NANOS.get();
+    deadline[0] = deadlineNanos;
+    deadline[1] = fromClient ? 1 : 0;
+  }
+
+  /**
+   * @return the current thread's deadline, for work on the request that continues on another
+   * thread to {@link #set(long)} there; {@link Long#MAX_VALUE} when there is none
+   */
+  public static long get() {
+    return DEADLINE_NANOS.get()[0];
+  }
+
+  /**
+   * @return whether the current thread's deadline is one the client asked for
+   */
+  public static boolean isFromClient() {
+    return DEADLINE_NANOS.get()[1] == 1;
+  }
+
+  public static void clear() {
+    set(NONE, false);
+  }
+
+  /**
+   * @return nanoseconds left before the deadline, negative once it passed, or
+   * {@link Long#MAX_VALUE} when the current thread has no deadline
+   */
+  public static long remainingNanos() {
+    long deadline = DEADLINE_NANOS.get()[0];
+    return deadline == NONE ? NONE : deadline - System.nanoTime();
+  }
+
+  public static boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+}
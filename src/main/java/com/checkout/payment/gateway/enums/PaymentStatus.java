@@ -3,9 +3,15 @@ package com.checkout.payment.gateway.enums;
 import com.fasterxml.jackson.annotation.JsonValue;
 
 public enum PaymentStatus {
+  // Outcomes of a submission, then the statuses captures, voids and refunds lead to
   AUTHORIZED("Authorized"),
   DECLINED("Declined"),
-  REJECTED("Rejected");
+  REJECTED("Rejected"),
+  PARTIALLY_CAPTURED("Partially Captured"),
+  CAPTURED("Captured"),
+  VOIDED("Voided"),
+  PARTIALLY_REFUNDED("Partially Refunded"),
+  REFUNDED("Refunded");
 
   private final String name;
 
@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum ReplicationRole {
+  LEADER("leader"),
+  FOLLOWER("follower");
+
+  private final String name;
+
+  ReplicationRole(String name) {
+    this.name = name;
+  }
+
+  @JsonValue
+  public String getName() {
+    return this.name;
+  }
+}
@@ -0,0 +1,26 @@
+package com.checkout.payment.gateway.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum ValidationRule {
+  REQUEST("request"),
+  CARD_NUMBER("card_number"),
+  EXPIRY_MONTH("expiry_month"),
+  EXPIRY_DATE("expiry_date"),
+  CURRENCY("currency"),
+  AMOUNT("amount"),
+  CVV("cvv"),
+  CARD_BIN("card_bin"),
+  VELOCITY("velocity");
+
+  private final String name;
+
+  ValidationRule(String name) {
+    this.name = name;
+  }
+
+  @JsonValue
+  public String getName() {
+    return this.name;
+  }
+}
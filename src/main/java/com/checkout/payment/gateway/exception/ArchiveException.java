@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Exception thrown when an archive segment cannot be written or read.
+ */
+public class ArchiveException extends RuntimeException {
+
+  public ArchiveException(String message) {
+    super(message);
+  }
+
+  public ArchiveException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
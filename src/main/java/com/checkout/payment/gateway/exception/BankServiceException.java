@@ -3,12 +3,15 @@ package com.checkout.payment.gateway.exception;
 /**
  * Exception thrown when the acquiring bank service is unavailable or fails.
  * This includes scenarios like 503 Service Unavailable or network errors.
+ *
+ * <p>An unavailable bank is an expected condition: no stack trace is captured, and the instance
+ * is immutable so it can be preallocated and shared.
  */
 public class BankServiceException extends RuntimeException {
     private final int httpStatus;
 
     public BankServiceException(String message, int httpStatus) {
-        super(message);
+        super(message, null, false, false);
         this.httpStatus = httpStatus;
     }
 
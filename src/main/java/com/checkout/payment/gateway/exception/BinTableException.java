@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Exception thrown when a BIN range file cannot be compiled or a BIN table cannot be mapped.
+ */
+public class BinTableException extends RuntimeException {
+
+  public BinTableException(String message) {
+    super(message);
+  }
+
+  public BinTableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Exception thrown when a request to another gateway node fails.
+ */
+public class ClusterException extends RuntimeException {
+
+  public ClusterException(String message) {
+    super(message);
+  }
+
+  public ClusterException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
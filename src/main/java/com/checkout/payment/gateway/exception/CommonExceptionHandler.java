@@ -1,37 +1,108 @@
 package com.checkout.payment.gateway.exception;
 
 import com.checkout.payment.gateway.model.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Slf4j
 @ControllerAdvice
 public class CommonExceptionHandler {
 
+  private final String retryAfterSeconds;
+
+  // Overloaded lanes answer with the same hint as admission control
+  public CommonExceptionHandler(
+      @Value("${admission.retry-after-seconds:1}") long retryAfterSeconds) {
+    this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+  }
+
+  // Expected outcomes are logged without stack traces; unknown ids are routine for pollers
   @ExceptionHandler(EventProcessingException.class)
   public ResponseEntity<ErrorResponse> handleEventProcessingException(EventProcessingException ex) {
-    log.error("EventProcessingException: {}", ex.getMessage(), ex);
-    return new ResponseEntity<>(new ErrorResponse("Payment not found"),
-        HttpStatus.NOT_FOUND);
+    log.debug("EventProcessingException: {}", ex.getMessage());
+    return new ResponseEntity<>(ErrorResponse.PAYMENT_NOT_FOUND, HttpStatus.NOT_FOUND);
   }
 
   @ExceptionHandler(BankServiceException.class)
   public ResponseEntity<ErrorResponse> handleBankServiceException(BankServiceException ex) {
-    log.error("BankServiceException: {}", ex.getMessage(), ex);
+    if (ex.getCause() != null) {
+      log.error("BankServiceException: {}", ex.getMessage(), ex);
+    } else {
+      log.warn("BankServiceException: {}", ex.getMessage());
+    }
     // Use the HTTP status from the exception (e.g., 503 for Service Unavailable)
-    HttpStatus status = ex.getHttpStatus() == 503 
-        ? HttpStatus.SERVICE_UNAVAILABLE 
-        : HttpStatus.INTERNAL_SERVER_ERROR;
+    HttpStatus status = switch (ex.getHttpStatus()) {
+      case 503 -> HttpStatus.SERVICE_UNAVAILABLE;
+      case 504 -> HttpStatus.GATEWAY_TIMEOUT;
+      default -> HttpStatus.INTERNAL_SERVER_ERROR;
+    };
+    return new ResponseEntity<>(ErrorResponse.of(ex.getMessage()), status);
+  }
+
+  @ExceptionHandler(PaymentActionException.class)
+  public ResponseEntity<ErrorResponse> handlePaymentActionException(PaymentActionException ex) {
+    log.debug("PaymentActionException: {}", ex.getMessage());
+    HttpStatus status = ex.getHttpStatus() == 400 ? HttpStatus.BAD_REQUEST : HttpStatus.CONFLICT;
     return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), status);
   }
 
+  // Bodies bound by Jackson, such as bulk lookups; payment submissions are parsed leniently
+  @ExceptionHandler(HttpMessageNotReadableException.class)
+  public ResponseEntity<ErrorResponse> handleUnreadableBody(HttpMessageNotReadableException ex) {
+    log.debug("Unreadable request body: {}", ex.getMessage());
+    return new ResponseEntity<>(ErrorResponse.MALFORMED_REQUEST, HttpStatus.BAD_REQUEST);
+  }
+
+  // An execution lane with every thread busy and its queue full
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex) {
+    log.debug("RejectedExecutionException: {}", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+        .body(ErrorResponse.OVERLOADED);
+  }
+
+  @ExceptionHandler(ReplicationException.class)
+  public ResponseEntity<ErrorResponse> handleReplicationException(ReplicationException ex) {
+    log.warn("ReplicationException: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  // The node that owns a payment could not be reached to apply an action on it
+  @ExceptionHandler(ClusterException.class)
+  public ResponseEntity<ErrorResponse> handleClusterException(ClusterException ex) {
+    log.warn("ClusterException: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
+    // A response already under way, such as a streamed bulk lookup, cannot take an error body
+    // any more. Rethrown, the exception makes the container abort it, so the client sees that it
+    // is incomplete rather than a short body that parses
+    if (isResponseCommitted()) {
+      log.error("Unexpected exception after the response was committed: {}", ex.getMessage(), ex);
+      throw ex instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex);
+    }
     log.error("Unexpected exception occurred: {}", ex.getMessage(), ex);
-    return new ResponseEntity<>( new ErrorResponse("Internal server error occurred"),
-        HttpStatus.INTERNAL_SERVER_ERROR);
+    return new ResponseEntity<>(ErrorResponse.INTERNAL_ERROR, HttpStatus.INTERNAL_SERVER_ERROR);
+  }
+
+  private static boolean isResponseCommitted() {
+    HttpServletResponse response = RequestContextHolder.getRequestAttributes()
+        instanceof ServletRequestAttributes attributes ? attributes.getResponse() : null;
+    return response != null && response.isCommitted();
   }
 }
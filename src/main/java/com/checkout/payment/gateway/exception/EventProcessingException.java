@@ -1,7 +1,11 @@
 package com.checkout.payment.gateway.exception;
 
+/**
+ * Thrown for lookups of payments that do not exist. This is an expected outcome, so no stack
+ * trace is captured.
+ */
 public class EventProcessingException extends RuntimeException{
   public EventProcessingException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Thrown when a capture, void or refund cannot be applied to a payment: 400 for an amount that
+ * is not positive, 409 for an action the payment's current state does not allow. Both are
+ * expected outcomes, so no stack trace is captured.
+ */
+public class PaymentActionException extends RuntimeException {
+  private final int httpStatus;
+
+  public PaymentActionException(String message, int httpStatus) {
+    super(message, null, false, false);
+    this.httpStatus = httpStatus;
+  }
+
+  public int getHttpStatus() {
+    return httpStatus;
+  }
+}
@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Exception thrown when replication between a leader and its followers fails, or when a write
+ * reaches a node that is not the leader.
+ */
+public class ReplicationException extends RuntimeException {
+
+  public ReplicationException(String message) {
+    super(message);
+  }
+
+  public ReplicationException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Exception thrown when a settlement cannot be produced.
+ */
+public class SettlementException extends RuntimeException {
+
+  public SettlementException(String message) {
+    super(message);
+  }
+
+  public SettlementException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
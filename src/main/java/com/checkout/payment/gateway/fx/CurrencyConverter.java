@@ -0,0 +1,127 @@
+package com.checkout.payment.gateway.fx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Converts payments in currencies the acquirers do not settle in into the settlement currency.
+ *
+ * <p>The rates in force are one immutable {@link FxRateTable}, published through an atomic
+ * reference: a conversion reads the reference once and never locks, and a reload swaps in a
+ * whole new table. The rates file, if any, is re-read whenever it changes; a file that fails to
+ * parse leaves the previous rates in force.
+ */
+@Slf4j
+public class CurrencyConverter {
+
+  private final String settlementCurrency;
+  private final Path ratesFile;
+  private final AtomicReference<FxRateTable> rates = new AtomicReference<>(FxRateTable.EMPTY);
+  private volatile long ratesFileModifiedAt = -1;
+  private final AtomicLong reloads = new AtomicLong();
+  private final AtomicLong failedReloads = new AtomicLong();
+  private final ScheduledExecutorService reloader =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fx-rates-reloader");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * @param settlementCurrency currency other currencies are converted into
+   * @param ratesFile          rates file, or null to convert nothing
+   */
+  public CurrencyConverter(String settlementCurrency, Path ratesFile) {
+    this.settlementCurrency = settlementCurrency;
+    this.ratesFile = ratesFile;
+    reloadIfChanged();
+  }
+
+  public void start(long reloadIntervalMs) {
+    if (ratesFile != null) {
+      reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadIntervalMs, reloadIntervalMs,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public void stop() {
+    reloader.shutdownNow();
+  }
+
+  /**
+   * @param currency upper-case currency code
+   */
+  public boolean canConvert(String currency) {
+    FxRateTable table = rates.get();
+    return table.numberOf(currency) >= 0 && table.numberOf(settlementCurrency) >= 0;
+  }
+
+  /**
+   * Converts an amount into the settlement currency.
+   *
+   * @param currency upper-case currency code of the amount
+   * @param amount   amount in minor units of {@code currency}
+   * @return the converted amount, or null if there is no rate for {@code currency}
+   */
+  public FxConversion convert(String currency, int amount) {
+    FxRateTable table = rates.get();
+    int from = table.numberOf(currency);
+    int to = table.numberOf(settlementCurrency);
+    if (from < 0 || to < 0) {
+      return null;
+    }
+    return new FxConversion(settlementCurrency, table.convert(amount, from, to),
+        table.rate(from, to));
+  }
+
+  /**
+   * Re-reads the rates file if it was modified since the last read.
+   */
+  public void reloadIfChanged() {
+    if (ratesFile == null) {
+      return;
+    }
+    try {
+      long modifiedAt = Files.getLastModifiedTime(ratesFile).toMillis();
+      if (modifiedAt == ratesFileModifiedAt) {
+        return;
+      }
+      try (Reader reader = Files.newBufferedReader(ratesFile)) {
+        FxRateTable loaded = FxRateTable.read(reader);
+        rates.set(loaded);
+        ratesFileModifiedAt = modifiedAt;
+        reloads.incrementAndGet();
+        log.info("Loaded exchange rates for {} currencies from {}", loaded.currencyCount(),
+            ratesFile);
+      }
+    } catch (IOException | IllegalArgumentException ex) {
+      failedReloads.incrementAndGet();
+      log.warn("Could not load exchange rates from {}, keeping current rates: {}", ratesFile,
+          ex.getMessage());
+    }
+  }
+
+  public String getSettlementCurrency() {
+    return settlementCurrency;
+  }
+
+  public int currencyCount() {
+    return rates.get().currencyCount();
+  }
+
+  public long reloadCount() {
+    return reloads.get();
+  }
+
+  public long failedReloadCount() {
+    return failedReloads.get();
+  }
+}
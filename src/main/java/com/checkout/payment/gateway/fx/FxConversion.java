@@ -0,0 +1,45 @@
+package com.checkout.payment.gateway.fx;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount converted into the settlement currency, and the rate it was converted at.
+ */
+public final class FxConversion {
+
+  private final String currency;
+  private final long amount;
+  private final BigDecimal rate;
+
+  /**
+   * @param currency currency converted into
+   * @param amount   converted amount, in minor units of {@code currency}
+   * @param rate     units of {@code currency} one unit of the original currency bought
+   */
+  public FxConversion(String currency, long amount, BigDecimal rate) {
+    this.currency = currency;
+    this.amount = amount;
+    this.rate = rate;
+  }
+
+  public String getCurrency() {
+    return currency;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public BigDecimal getRate() {
+    return rate;
+  }
+
+  @Override
+  public String toString() {
+    return "FxConversion{" +
+        "currency='" + currency + '\'' +
+        ", amount=" + amount +
+        ", rate=" + rate +
+        '}';
+  }
+}
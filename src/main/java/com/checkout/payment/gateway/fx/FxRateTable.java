@@ -0,0 +1,163 @@
+package com.checkout.payment.gateway.fx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * An immutable table of exchange rates between every pair of the currencies it lists.
+ *
+ * <p>A 26 x 26 x 26 array maps each three-letter code straight to the currency's number, and
+ * every cross rate is computed once, when the table is built, into a flat array indexed by
+ * currency numbers. Each cross rate is kept twice: as the rate between major units, which is
+ * what gets recorded, and as a factor from minor units of one currency to minor units of the
+ * other, scaled by 10^{@value #SCALE}. Converting multiplies the amount by that factor in
+ * integer arithmetic and rounds half-even, so a lookup neither hashes, locks nor allocates.
+ *
+ * <p>Rates files are properties files. {@code base} names the base currency, and every other
+ * key is a currency mapped to how many units of it one unit of the base buys.
+ */
+public final class FxRateTable {
+
+  public static final FxRateTable EMPTY = new FxRateTable(new String[0], new BigDecimal[0]);
+
+  static final String BASE_KEY = "base";
+  static final int SCALE = 10;
+  private static final long ONE = 10_000_000_000L;
+  private static final BigInteger ONE_BIG = BigInteger.valueOf(ONE);
+  private static final MathContext PRECISION = new MathContext(20, RoundingMode.HALF_EVEN);
+
+  private final String[] currencies;
+  // Currency number + 1 per code, 0 for currencies not in the table
+  private final short[] numbers = new short[26 * 26 * 26];
+  private final BigDecimal[] rates;
+  private final long[] factors;
+
+  private FxRateTable(String[] currencies, BigDecimal[] unitsPerBase) {
+    int count = currencies.length;
+    this.currencies = currencies;
+    this.rates = new BigDecimal[count * count];
+    this.factors = new long[count * count];
+    for (int from = 0; from < count; from++) {
+      numbers[slot(currencies[from])] = (short) (from + 1);
+      int fromDigits = Currency.getInstance(currencies[from]).getDefaultFractionDigits();
+      for (int to = 0; to < count; to++) {
+        BigDecimal rate = unitsPerBase[to].divide(unitsPerBase[from], PRECISION);
+        int toDigits = Currency.getInstance(currencies[to]).getDefaultFractionDigits();
+        rates[from * count + to] = rate.setScale(SCALE, RoundingMode.HALF_EVEN)
+            .stripTrailingZeros();
+        factors[from * count + to] = rate.movePointRight(SCALE + toDigits - fromDigits)
+            .setScale(0, RoundingMode.HALF_EVEN)
+            .longValueExact();
+      }
+    }
+  }
+
+  public static FxRateTable read(Reader reader) throws IOException {
+    Properties properties = new Properties();
+    properties.load(reader);
+    String base = properties.getProperty(BASE_KEY);
+    if (base == null) {
+      throw new IllegalArgumentException("Rates file has no " + BASE_KEY + " currency");
+    }
+    List<String> currencies = new ArrayList<>();
+    List<BigDecimal> unitsPerBase = new ArrayList<>();
+    currencies.add(currencyCode(base));
+    unitsPerBase.add(BigDecimal.ONE);
+    for (String key : properties.stringPropertyNames()) {
+      if (BASE_KEY.equals(key)) {
+        continue;
+      }
+      String currency = currencyCode(key);
+      BigDecimal rate = new BigDecimal(properties.getProperty(key).trim());
+      if (rate.signum() <= 0) {
+        throw new IllegalArgumentException("Rate for " + currency + " must be positive");
+      }
+      if (currencies.contains(currency)) {
+        throw new IllegalArgumentException("Rate for " + currency + " is listed twice");
+      }
+      currencies.add(currency);
+      unitsPerBase.add(rate);
+    }
+    try {
+      return new FxRateTable(currencies.toArray(new String[0]),
+          unitsPerBase.toArray(new BigDecimal[0]));
+    } catch (ArithmeticException ex) {
+      throw new IllegalArgumentException("Rates are too far apart to convert between", ex);
+    }
+  }
+
+  /**
+   * @return the currency's number in this table, or -1 if the table has no rate for it
+   */
+  public int numberOf(String currency) {
+    if (currency == null || currency.length() != 3) {
+      return -1;
+    }
+    int slot = 0;
+    for (int i = 0; i < 3; i++) {
+      char c = currency.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        return -1;
+      }
+      slot = slot * 26 + (c - 'A');
+    }
+    return numbers[slot] - 1;
+  }
+
+  /**
+   * @return how many units of currency {@code to} one unit of currency {@code from} buys
+   */
+  public BigDecimal rate(int from, int to) {
+    return rates[from * currencies.length + to];
+  }
+
+  /**
+   * Converts an amount in minor units of one currency into minor units of another, rounding
+   * half-even.
+   */
+  public long convert(long amount, int from, int to) {
+    long factor = factors[from * currencies.length + to];
+    long high = Math.multiplyHigh(amount, factor);
+    long low = amount * factor;
+    if (high != (low >> 63)) {
+      // Past 64 bits only for huge amounts into currencies with a much smaller unit
+      return new BigDecimal(BigInteger.valueOf(amount).multiply(BigInteger.valueOf(factor)))
+          .divide(new BigDecimal(ONE_BIG), 0, RoundingMode.HALF_EVEN)
+          .longValueExact();
+    }
+    long quotient = low / ONE;
+    long remainder = low % ONE;
+    if (remainder * 2 > ONE || remainder * 2 == ONE && (quotient & 1) == 1) {
+      quotient++;
+    } else if (remainder * 2 < -ONE || remainder * 2 == -ONE && (quotient & 1) == 1) {
+      quotient--;
+    }
+    return quotient;
+  }
+
+  public int currencyCount() {
+    return currencies.length;
+  }
+
+  private static String currencyCode(String value) {
+    String code = value.trim().toUpperCase(Locale.ROOT);
+    Currency currency = Currency.getInstance(code);
+    if (currency.getDefaultFractionDigits() < 0) {
+      throw new IllegalArgumentException("Currency " + code + " has no minor unit");
+    }
+    return code;
+  }
+
+  private static int slot(String code) {
+    return ((code.charAt(0) - 'A') * 26 + code.charAt(1) - 'A') * 26 + code.charAt(2) - 'A';
+  }
+}
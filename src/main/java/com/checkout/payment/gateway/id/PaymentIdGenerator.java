@@ -0,0 +1,13 @@
+package com.checkout.payment.gateway.id;
+
+import java.util.UUID;
+
+public interface PaymentIdGenerator {
+
+  /**
+   * Generates the id of a new payment.
+   *
+   * @return a unique payment id
+   */
+  UUID nextId();
+}
@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.id;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) payment ids, backed by the shared {@link java.security.SecureRandom} of
+ * {@link UUID#randomUUID()}.
+ */
+public class RandomPaymentIdGenerator implements PaymentIdGenerator {
+
+  @Override
+  public UUID nextId() {
+    return UUID.randomUUID();
+  }
+}
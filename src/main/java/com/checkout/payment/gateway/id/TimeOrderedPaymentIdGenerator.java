@@ -0,0 +1,94 @@
+package com.checkout.payment.gateway.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered payment ids in the UUIDv7 layout.
+ *
+ * <pre>
+ *  48 bits  unix epoch milliseconds
+ *   4 bits  version (7)
+ *  12 bits  node id
+ *   2 bits  variant (IETF)
+ *  14 bits  per-thread sequence within the millisecond
+ *  48 bits  random
+ * </pre>
+ *
+ * <p>Each thread keeps its own last timestamp and sequence, and randomness comes from
+ * {@link ThreadLocalRandom}, so generating an id never touches shared state. Ids from one thread
+ * are strictly increasing; ids from different threads are ordered by millisecond.
+ */
+public class TimeOrderedPaymentIdGenerator implements PaymentIdGenerator {
+
+  public static final int MAX_NODE_ID = (1 << 12) - 1;
+
+  private static final int VERSION = 7;
+  private static final int SEQUENCE_BITS = 14;
+  private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+  private static final int RANDOM_BITS = 48;
+  private static final long RANDOM_MASK = (1L << RANDOM_BITS) - 1;
+  private static final long VARIANT = 0b10L << 62;
+
+  private final int nodeId;
+  private final LongSupplier clock;
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  public TimeOrderedPaymentIdGenerator(int nodeId) {
+    this(nodeId, System::currentTimeMillis);
+  }
+
+  public TimeOrderedPaymentIdGenerator(int nodeId, LongSupplier clock) {
+    if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+      throw new IllegalArgumentException(
+          "Node id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+    }
+    this.nodeId = nodeId;
+    this.clock = clock;
+  }
+
+  @Override
+  public UUID nextId() {
+    State current = state.get();
+    long now = clock.getAsLong();
+    if (now > current.lastMillis) {
+      current.lastMillis = now;
+      current.sequence = 0;
+    } else if (current.sequence < MAX_SEQUENCE) {
+      current.sequence++;
+    } else {
+      // Sequence exhausted (or clock moved backwards): borrow the next millisecond
+      current.lastMillis++;
+      current.sequence = 0;
+    }
+
+    long msb = (current.lastMillis << 16) | ((long) VERSION << 12) | nodeId;
+    long random = ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+    long lsb = VARIANT | ((long) current.sequence << RANDOM_BITS) | random;
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * @return the creation time in epoch milliseconds of a time-ordered id, or -1 for any other id
+   */
+  public static long timestampOf(UUID id) {
+    return isTimeOrdered(id) ? id.getMostSignificantBits() >>> 16 : -1;
+  }
+
+  /**
+   * @return the node id encoded in a time-ordered id, or -1 for any other id
+   */
+  public static int nodeIdOf(UUID id) {
+    return isTimeOrdered(id) ? (int) (id.getMostSignificantBits() & MAX_NODE_ID) : -1;
+  }
+
+  public static boolean isTimeOrdered(UUID id) {
+    return id.version() == VERSION && id.variant() == 2;
+  }
+
+  private static final class State {
+    private long lastMillis = -1;
+    private int sequence;
+  }
+}
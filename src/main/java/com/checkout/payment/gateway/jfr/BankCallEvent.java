@@ -0,0 +1,45 @@
+package com.checkout.payment.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to an acquiring bank.
+ */
+@Name(BankCallEvent.NAME)
+@Label("Bank Call")
+@Category({"Payment Gateway", "Bank"})
+@Description("A call to an acquiring bank")
+@StackTrace(false)
+public class BankCallEvent extends Event {
+
+  public static final String NAME = "com.checkout.payment.BankCall";
+
+  public static final String ANSWERED = "answered";
+  public static final String REFUSED = "refused";
+  public static final String FAILED = "failed";
+
+  @Label("Outcome")
+  @Description("answered, refused (non-2xx status or no body) or failed (no response)")
+  private String outcome;
+
+  @Label("HTTP Status")
+  @Description("Status code of the bank's response, 0 when there was none")
+  private int httpStatus;
+
+  /**
+   * Ends the event and commits it when it is being recorded.
+   */
+  public void record(String outcome, int httpStatus) {
+    end();
+    if (shouldCommit()) {
+      this.outcome = outcome;
+      this.httpStatus = httpStatus;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.jfr;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import java.util.UUID;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One payment submission, from its arrival in the service to its outcome.
+ */
+@Name(PaymentProcessedEvent.NAME)
+@Label("Payment Processed")
+@Category({"Payment Gateway", "Payments"})
+@Description("A payment submission, from its arrival in the service to its outcome")
+@StackTrace(false)
+public class PaymentProcessedEvent extends Event {
+
+  public static final String NAME = "com.checkout.payment.PaymentProcessed";
+
+  // Recorded for submissions that ended in an exception, such as a failed bank call
+  static final String FAILED = "FAILED";
+
+  @Label("Payment Id")
+  private String paymentId;
+
+  @Label("Status")
+  private String status;
+
+  /**
+   * Ends the event and commits it when it is being recorded.
+   *
+   * @param status the payment's status, or null when processing it failed
+   */
+  public void record(UUID paymentId, PaymentStatus status) {
+    end();
+    if (shouldCommit()) {
+      this.paymentId = paymentId.toString();
+      this.status = status == null ? FAILED : status.name();
+      commit();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.checkout.payment.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One payment written to the store.
+ */
+@Name(RepositoryWriteEvent.NAME)
+@Label("Repository Write")
+@Category({"Payment Gateway", "Repository"})
+@Description("A payment written to the store")
+@StackTrace(false)
+public class RepositoryWriteEvent extends Event {
+
+  public static final String NAME = "com.checkout.payment.RepositoryWrite";
+
+  @Label("Size")
+  @Description("Size of the payment's serialized JSON, 0 when it was not serialized up front")
+  @DataAmount
+  private long size;
+
+  /**
+   * Ends the event and commits it when it is being recorded.
+   */
+  public void record(long size) {
+    end();
+    if (shouldCommit()) {
+      this.size = size;
+      commit();
+    }
+  }
+}
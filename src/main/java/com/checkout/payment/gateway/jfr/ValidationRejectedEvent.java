@@ -0,0 +1,33 @@
+package com.checkout.payment.gateway.jfr;
+
+import com.checkout.payment.gateway.enums.ValidationRule;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A payment rejected before reaching the bank.
+ */
+@Name(ValidationRejectedEvent.NAME)
+@Label("Validation Rejected")
+@Category({"Payment Gateway", "Payments"})
+@Description("A payment rejected before reaching the bank")
+@StackTrace(false)
+public class ValidationRejectedEvent extends Event {
+
+  public static final String NAME = "com.checkout.payment.ValidationRejected";
+
+  @Label("Rule")
+  private String rule;
+
+  public static void record(ValidationRule rule) {
+    ValidationRejectedEvent event = new ValidationRejectedEvent();
+    if (event.shouldCommit()) {
+      event.rule = rule.getName();
+      event.commit();
+    }
+  }
+}
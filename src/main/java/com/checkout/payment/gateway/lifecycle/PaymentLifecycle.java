@@ -0,0 +1,338 @@
+package com.checkout.payment.gateway.lifecycle;
+
+import com.checkout.payment.gateway.cluster.ClusterClient;
+import com.checkout.payment.gateway.cluster.ClusterMembership;
+import com.checkout.payment.gateway.cluster.ClusterNode;
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.PaymentActionException;
+import com.checkout.payment.gateway.model.PaymentAction;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.checkout.payment.gateway.webhook.PaymentEventPublisher;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Captures, voids and refunds authorized payments.
+ *
+ * <p>Each payment keeps an append-only list of the actions applied to it. Its stored
+ * {@link PaymentResponse} is the current state materialized from that list: the status and the
+ * captured and refunded totals are updated as each action is appended, so reads never replay
+ * the list. A published view is never changed; an action builds the next view, with itself
+ * appended, and installs it by compare-and-set on a cell per payment. Concurrent actions on the
+ * same payment retry against the view that won instead of taking a lock.
+ *
+ * <p>A cell only exists while actions on its payment are in flight. Every thread whose action
+ * was installed keeps writing the newest view to the repository until the view it wrote is still
+ * the newest, and the last one to leave retires the cell. The repository therefore always ends
+ * up holding the newest view, and the next action starts again from it.
+ *
+ * <p>A cell is installed empty and then filled by the thread that installed it, so the
+ * repository read, which may be a query or a call to another node, holds no lock of the map.
+ * Actions on the same payment wait for it to be filled; actions on other payments do not.
+ *
+ * <p>Cells are local to a node. In cluster mode an action is therefore applied by the node that
+ * owns the payment, and other nodes forward it there, so that a single cell orders every action
+ * on a payment.
+ */
+@Slf4j
+public class PaymentLifecycle {
+
+  private static final State RETIRED = new State(null, 0);
+
+  private final PaymentsRepository paymentsRepository;
+  private final PaymentResponseEncoder paymentResponseEncoder;
+  private final PaymentEventPublisher paymentEventPublisher;
+  // Both null outside cluster mode
+  private final ClusterMembership clusterMembership;
+  private final ClusterClient clusterClient;
+  private final Map<UUID, CompletableFuture<AtomicReference<State>>> cells =
+      new ConcurrentHashMap<>();
+
+  public PaymentLifecycle(PaymentsRepository paymentsRepository,
+      PaymentResponseEncoder paymentResponseEncoder,
+      PaymentEventPublisher paymentEventPublisher) {
+    this(paymentsRepository, paymentResponseEncoder, paymentEventPublisher, null, null);
+  }
+
+  public PaymentLifecycle(PaymentsRepository paymentsRepository,
+      PaymentResponseEncoder paymentResponseEncoder,
+      PaymentEventPublisher paymentEventPublisher, ClusterMembership clusterMembership,
+      ClusterClient clusterClient) {
+    this.paymentsRepository = paymentsRepository;
+    this.paymentResponseEncoder = paymentResponseEncoder;
+    this.paymentEventPublisher = paymentEventPublisher;
+    this.clusterMembership = clusterMembership;
+    this.clusterClient = clusterClient;
+  }
+
+  /**
+   * @param amount amount to capture, or null for everything not captured yet
+   */
+  public PaymentResponse capture(UUID id, Integer amount, String merchantId) {
+    return apply(id, PaymentActionType.CAPTURE, amount, merchantId);
+  }
+
+  /**
+   * Releases an authorization nothing was captured from.
+   */
+  public PaymentResponse voidPayment(UUID id, String merchantId) {
+    return apply(id, PaymentActionType.VOID, null, merchantId);
+  }
+
+  /**
+   * @param amount amount to refund, or null for everything captured and not refunded yet
+   */
+  public PaymentResponse refund(UUID id, Integer amount, String merchantId) {
+    return apply(id, PaymentActionType.REFUND, amount, merchantId);
+  }
+
+  /**
+   * Runs {@code task} while no action can start on the given payments, so that they can be moved
+   * out of the store without losing an action applied in the meantime. A payment with an action
+   * in flight is not held. Actions that arrive while the task runs wait for it, then load the
+   * payment again.
+   *
+   * @param task receives the ids of the payments held
+   */
+  public void whileHeld(Collection<UUID> ids, Consumer<Set<UUID>> task) {
+    CompletableFuture<AtomicReference<State>> hold = new CompletableFuture<>();
+    Set<UUID> held = new HashSet<>();
+    try {
+      for (UUID id : ids) {
+        if (cells.putIfAbsent(id, hold) == null) {
+          held.add(id);
+        }
+      }
+      task.accept(held);
+    } finally {
+      held.forEach(id -> cells.remove(id, hold));
+      hold.complete(new AtomicReference<>(RETIRED));
+    }
+  }
+
+  int cellCount() {
+    return cells.size();
+  }
+
+  private PaymentResponse apply(UUID id, PaymentActionType type, Integer amount,
+      String merchantId) {
+    if (clusterMembership != null) {
+      ClusterNode owner = clusterMembership.ring().ownerOf(id);
+      if (!clusterMembership.isLocal(owner)) {
+        return clusterClient.apply(owner, id, type, amount, merchantId);
+      }
+    }
+    return applyLocally(id, type, amount, merchantId);
+  }
+
+  /**
+   * Applies an action on this node; other nodes forward here the actions on payments this node
+   * owns.
+   */
+  public PaymentResponse applyLocally(UUID id, PaymentActionType type, Integer amount,
+      String merchantId) {
+    if (amount != null && amount <= 0) {
+      throw new PaymentActionException("Amount must be positive", 400);
+    }
+    while (true) {
+      CompletableFuture<AtomicReference<State>> entry = cells.get(id);
+      if (entry == null) {
+        // Only installed once the previous cell is gone, after its last write, so the load
+        // reads that write
+        CompletableFuture<AtomicReference<State>> loading = new CompletableFuture<>();
+        entry = cells.putIfAbsent(id, loading);
+        if (entry == null) {
+          entry = loading;
+          load(id, loading);
+        }
+      }
+      AtomicReference<State> cell = await(entry);
+      State current = cell.get();
+      if (current == RETIRED) {
+        cells.remove(id, entry);
+        continue;
+      }
+      PaymentResponse next;
+      try {
+        next = next(current.view, type, amount, Instant.now().toString());
+      } catch (PaymentActionException ex) {
+        // A cell loaded for an action that is refused has nobody left to retire it
+        if (current.writers == 0 && cell.compareAndSet(current, RETIRED)) {
+          cells.remove(id, entry);
+        }
+        throw ex;
+      }
+      paymentResponseEncoder.encode(next);
+      if (cell.compareAndSet(current, new State(next, current.writers + 1))) {
+        store(id, entry, cell);
+        log.info("{} applied to paymentId={}, status={}", type.getName(), id, next.getStatus());
+        paymentEventPublisher.publish(merchantId, next);
+        return next;
+      }
+    }
+  }
+
+  // A failed load removes the cell again, and every action waiting on it fails the same way
+  private void load(UUID id, CompletableFuture<AtomicReference<State>> loading) {
+    try {
+      PaymentResponse payment = paymentsRepository.get(id)
+          .filter(stored -> stored.getStatus() != PaymentStatus.REJECTED)
+          .orElseThrow(() -> new EventProcessingException("Invalid ID, paymentId: " + id));
+      loading.complete(new AtomicReference<>(new State(payment, 0)));
+    } catch (Throwable ex) {
+      cells.remove(id, loading);
+      loading.completeExceptionally(ex);
+    }
+  }
+
+  private static AtomicReference<State> await(CompletableFuture<AtomicReference<State>> entry) {
+    try {
+      return entry.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (ex.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  // Writes until the view written is the newest, then leaves the cell, retiring it if last
+  private void store(UUID id, CompletableFuture<AtomicReference<State>> entry,
+      AtomicReference<State> cell) {
+    try {
+      PaymentResponse written = null;
+      PaymentResponse newest = cell.get().view;
+      while (newest != written) {
+        paymentsRepository.add(newest);
+        written = newest;
+        newest = cell.get().view;
+      }
+    } finally {
+      while (true) {
+        State state = cell.get();
+        State left = state.writers == 1 ? RETIRED : new State(state.view, state.writers - 1);
+        if (cell.compareAndSet(state, left)) {
+          if (left == RETIRED) {
+            cells.remove(id, entry);
+          }
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the view that results from appending an action to a payment.
+   *
+   * @throws PaymentActionException when the payment's state does not allow the action
+   */
+  static PaymentResponse next(PaymentResponse payment, PaymentActionType type, Integer amount,
+      String processedOn) {
+    if (payment.isArchived()) {
+      throw new PaymentActionException("Payment is archived and can no longer be changed", 409);
+    }
+    PaymentStatus status = payment.getStatus();
+    int captured = payment.getCapturedAmount();
+    int refunded = payment.getRefundedAmount();
+    int applied;
+    PaymentResponse next = copyOf(payment);
+    switch (type) {
+      case CAPTURE -> {
+        if (status != PaymentStatus.AUTHORIZED && status != PaymentStatus.PARTIALLY_CAPTURED) {
+          throw notAllowed(status, "captured");
+        }
+        applied = within(amount, payment.getAmount() - captured, "capture");
+        next.setCapturedAmount(captured + applied);
+        next.setStatus(captured + applied == payment.getAmount()
+            ? PaymentStatus.CAPTURED : PaymentStatus.PARTIALLY_CAPTURED);
+      }
+      case VOID -> {
+        if (status != PaymentStatus.AUTHORIZED) {
+          throw notAllowed(status, "voided");
+        }
+        applied = payment.getAmount();
+        next.setStatus(PaymentStatus.VOIDED);
+      }
+      case REFUND -> {
+        if (status != PaymentStatus.PARTIALLY_CAPTURED && status != PaymentStatus.CAPTURED
+            && status != PaymentStatus.PARTIALLY_REFUNDED) {
+          throw notAllowed(status, "refunded");
+        }
+        applied = within(amount, captured - refunded, "refund");
+        next.setRefundedAmount(refunded + applied);
+        next.setStatus(refunded + applied == captured
+            ? PaymentStatus.REFUNDED : PaymentStatus.PARTIALLY_REFUNDED);
+      }
+      default -> throw new IllegalArgumentException("Unknown action " + type);
+    }
+    List<PaymentAction> actions = new ArrayList<>(payment.getActions().size() + 1);
+    actions.addAll(payment.getActions());
+    actions.add(new PaymentAction(type, applied, processedOn));
+    next.setActions(List.copyOf(actions));
+    return next;
+  }
+
+  private static int within(Integer amount, int available, String action) {
+    if (amount == null) {
+      return available;
+    }
+    if (amount > available) {
+      throw new PaymentActionException("Cannot " + action + " " + amount + ", only " + available
+          + " is left to " + action, 409);
+    }
+    return amount;
+  }
+
+  private static PaymentActionException notAllowed(PaymentStatus status, String action) {
+    return new PaymentActionException("Payment is " + status.getName() + " and cannot be "
+        + action, 409);
+  }
+
+  private static PaymentResponse copyOf(PaymentResponse payment) {
+    PaymentResponse copy = new PaymentResponse();
+    copy.setId(payment.getId());
+    copy.setStatus(payment.getStatus());
+    copy.setLastFourDigits(payment.getLastFourDigits());
+    copy.setCardExpiryDate(payment.getCardExpiryDate());
+    copy.setExpiryMonth(payment.getExpiryMonth());
+    copy.setExpiryYear(payment.getExpiryYear());
+    copy.setCurrency(payment.getCurrency());
+    copy.setAmount(payment.getAmount());
+    copy.setSettlementCurrency(payment.getSettlementCurrency());
+    copy.setSettlementAmount(payment.getSettlementAmount());
+    copy.setFxRate(payment.getFxRate());
+    copy.setCapturedAmount(payment.getCapturedAmount());
+    copy.setRefundedAmount(payment.getRefundedAmount());
+    return copy;
+  }
+
+  private static final class State {
+    private final PaymentResponse view;
+    // Threads whose action was installed and that have not finished writing
+    private final int writers;
+
+    private State(PaymentResponse view, int writers) {
+      this.view = view;
+      this.writers = writers;
+    }
+  }
+}
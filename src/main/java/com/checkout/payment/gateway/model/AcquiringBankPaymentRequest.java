@@ -1,5 +1,6 @@
 package com.checkout.payment.gateway.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class AcquiringBankPaymentRequest {
@@ -13,6 +14,10 @@ public class AcquiringBankPaymentRequest {
   private int amount;
   private String cvv;
 
+  // Scheme from the card's BIN range, used to route the payment; never sent to the bank
+  @JsonIgnore
+  private String cardScheme;
+
   public String getCardNumber() {
     return cardNumber;
   }
@@ -53,6 +58,14 @@ public class AcquiringBankPaymentRequest {
     this.cvv = cvv;
   }
 
+  public String getCardScheme() {
+    return cardScheme;
+  }
+
+  public void setCardScheme(String cardScheme) {
+    this.cardScheme = cardScheme;
+  }
+
   @Override
   public String toString() {
     String maskedCard = "****";
@@ -70,6 +83,7 @@ public class AcquiringBankPaymentRequest {
         ", currency='" + currency + '\'' +
         ", amount=" + amount +
         ", cvv=****" +
+        ", cardScheme='" + cardScheme + '\'' +
         '}';
   }
 }
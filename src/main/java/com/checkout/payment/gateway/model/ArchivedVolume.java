@@ -0,0 +1,75 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import java.time.LocalDate;
+
+public class ArchivedVolume {
+  private LocalDate date;
+  private String currency;
+  private PaymentStatus status;
+  private long count;
+  private long amount;
+
+  public ArchivedVolume() {
+  }
+
+  public ArchivedVolume(LocalDate date, String currency, PaymentStatus status, long count,
+      long amount) {
+    this.date = date;
+    this.currency = currency;
+    this.status = status;
+    this.count = count;
+    this.amount = amount;
+  }
+
+  public LocalDate getDate() {
+    return date;
+  }
+
+  public void setDate(LocalDate date) {
+    this.date = date;
+  }
+
+  public String getCurrency() {
+    return currency;
+  }
+
+  public void setCurrency(String currency) {
+    this.currency = currency;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(PaymentStatus status) {
+    this.status = status;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(long amount) {
+    this.amount = amount;
+  }
+
+  @Override
+  public String toString() {
+    return "ArchivedVolume{" +
+        "date=" + date +
+        ", currency='" + currency + '\'' +
+        ", status=" + status +
+        ", count=" + count +
+        ", amount=" + amount +
+        '}';
+  }
+}
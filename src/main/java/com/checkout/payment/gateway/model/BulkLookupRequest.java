@@ -0,0 +1,23 @@
+package com.checkout.payment.gateway.model;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkLookupRequest {
+  private List<UUID> ids;
+
+  public List<UUID> getIds() {
+    return ids;
+  }
+
+  public void setIds(List<UUID> ids) {
+    this.ids = ids;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkLookupRequest{" +
+        "idCount=" + (ids == null ? 0 : ids.size()) +
+        '}';
+  }
+}
@@ -1,12 +1,39 @@
 package com.checkout.payment.gateway.model;
 
 public class ErrorResponse {
+
+  // Immutable, so the bodies of frequent expected errors are shared rather than allocated
+  public static final ErrorResponse PAYMENT_NOT_FOUND = new ErrorResponse("Payment not found");
+  public static final ErrorResponse BANK_UNAVAILABLE = new ErrorResponse(
+      "Acquiring bank service is currently unavailable. Please try again later.");
+  public static final ErrorResponse DEADLINE_EXCEEDED = new ErrorResponse(
+      "The payment could not be completed within the request timeout.");
+  public static final ErrorResponse MALFORMED_REQUEST =
+      new ErrorResponse("Request body is malformed");
+  public static final ErrorResponse OVERLOADED =
+      new ErrorResponse("Gateway is overloaded, please retry later");
+  public static final ErrorResponse INTERNAL_ERROR =
+      new ErrorResponse("Internal server error occurred");
+
   private final String message;
 
   public ErrorResponse(String message) {
     this.message = message;
   }
 
+  /**
+   * @return the shared instance for a known message, or a new response
+   */
+  public static ErrorResponse of(String message) {
+    if (BANK_UNAVAILABLE.message.equals(message)) {
+      return BANK_UNAVAILABLE;
+    }
+    if (DEADLINE_EXCEEDED.message.equals(message)) {
+      return DEADLINE_EXCEEDED;
+    }
+    return new ErrorResponse(message);
+  }
+
   public String getMessage() {
     return message;
   }
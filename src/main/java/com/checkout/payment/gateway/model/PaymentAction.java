@@ -0,0 +1,55 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentActionType;
+
+/**
+ * One capture, void or refund applied to a payment. Never changed once it is part of a
+ * payment's history.
+ */
+public class PaymentAction {
+  private PaymentActionType type;
+  private int amount;
+  private String processedOn;
+
+  public PaymentAction() {
+  }
+
+  public PaymentAction(PaymentActionType type, int amount, String processedOn) {
+    this.type = type;
+    this.amount = amount;
+    this.processedOn = processedOn;
+  }
+
+  public PaymentActionType getType() {
+    return type;
+  }
+
+  public void setType(PaymentActionType type) {
+    this.type = type;
+  }
+
+  public int getAmount() {
+    return amount;
+  }
+
+  public void setAmount(int amount) {
+    this.amount = amount;
+  }
+
+  public String getProcessedOn() {
+    return processedOn;
+  }
+
+  public void setProcessedOn(String processedOn) {
+    this.processedOn = processedOn;
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentAction{" +
+        "type=" + type +
+        ", amount=" + amount +
+        ", processedOn='" + processedOn + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,24 @@
+package com.checkout.payment.gateway.model;
+
+/**
+ * Body of a capture or refund; without an amount, everything still capturable or refundable is
+ * captured or refunded.
+ */
+public class PaymentActionRequest {
+  private Integer amount;
+
+  public Integer getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Integer amount) {
+    this.amount = amount;
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentActionRequest{" +
+        "amount=" + amount +
+        '}';
+  }
+}
@@ -1,6 +1,7 @@
 package com.checkout.payment.gateway.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.checkout.payment.gateway.validation.ValidationFailure;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 
@@ -15,6 +16,11 @@ public class PaymentRequest implements Serializable {
   private String currency;
   private int amount;
   private String cvv;
+  // Set by PaymentRequestParser, which PaymentRequestMessageConverter uses to read the body: the
+  // first violation met while parsing, after which the rest of the body was not read, or whether
+  // every field was read and passed validation
+  private transient ValidationFailure parseFailure;
+  private transient boolean validated;
 
   public String getCardNumber() {
     return cardNumber;
@@ -73,6 +79,24 @@ public class PaymentRequest implements Serializable {
     this.cvv = cvv;
   }
 
+  @JsonIgnore
+  public ValidationFailure getParseFailure() {
+    return parseFailure;
+  }
+
+  public void setParseFailure(ValidationFailure parseFailure) {
+    this.parseFailure = parseFailure;
+  }
+
+  @JsonIgnore
+  public boolean isValidated() {
+    return validated;
+  }
+
+  public void setValidated(boolean validated) {
+    this.validated = validated;
+  }
+
   @JsonIgnore
   public String getExpiryDate() {
     // MM/YYYY Bank simulator format
@@ -2,7 +2,10 @@ package com.checkout.payment.gateway.model;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 public class PaymentResponse {
@@ -16,6 +19,27 @@ public class PaymentResponse {
   private int expiryYear;
   private String currency;
   private int amount;
+  // Set only when the payment was converted into the currency the acquirer settles in
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String settlementCurrency;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer settlementAmount;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private BigDecimal fxRate;
+  // Running totals of the actions below, so reads never replay them
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  private int capturedAmount;
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  private int refundedAmount;
+  // Captures, voids and refunds, oldest first; only ever appended to
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  private List<PaymentAction> actions = List.of();
+  // Read back from an archive segment; archived payments take no further actions
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  private boolean archived;
+  // The response body as sent to clients, when encoded up front; see PaymentResponseEncoder
+  @JsonIgnore
+  private byte[] serializedJson;
 
   public UUID getId() {
     return id;
@@ -81,6 +105,70 @@ public class PaymentResponse {
     this.amount = amount;
   }
 
+  public String getSettlementCurrency() {
+    return settlementCurrency;
+  }
+
+  public void setSettlementCurrency(String settlementCurrency) {
+    this.settlementCurrency = settlementCurrency;
+  }
+
+  public Integer getSettlementAmount() {
+    return settlementAmount;
+  }
+
+  public void setSettlementAmount(Integer settlementAmount) {
+    this.settlementAmount = settlementAmount;
+  }
+
+  public BigDecimal getFxRate() {
+    return fxRate;
+  }
+
+  public void setFxRate(BigDecimal fxRate) {
+    this.fxRate = fxRate;
+  }
+
+  public int getCapturedAmount() {
+    return capturedAmount;
+  }
+
+  public void setCapturedAmount(int capturedAmount) {
+    this.capturedAmount = capturedAmount;
+  }
+
+  public int getRefundedAmount() {
+    return refundedAmount;
+  }
+
+  public void setRefundedAmount(int refundedAmount) {
+    this.refundedAmount = refundedAmount;
+  }
+
+  public List<PaymentAction> getActions() {
+    return actions;
+  }
+
+  public void setActions(List<PaymentAction> actions) {
+    this.actions = actions == null ? List.of() : actions;
+  }
+
+  public boolean isArchived() {
+    return archived;
+  }
+
+  public void setArchived(boolean archived) {
+    this.archived = archived;
+  }
+
+  public byte[] getSerializedJson() {
+    return serializedJson;
+  }
+
+  public void setSerializedJson(byte[] serializedJson) {
+    this.serializedJson = serializedJson;
+  }
+
   @Override
   public String toString() {
     return "PaymentResponse{" +
@@ -92,6 +180,13 @@ public class PaymentResponse {
         ", expiryYear=" + expiryYear +
         ", currency='" + currency + '\'' +
         ", amount=" + amount +
+        ", settlementCurrency='" + settlementCurrency + '\'' +
+        ", settlementAmount=" + settlementAmount +
+        ", fxRate=" + fxRate +
+        ", capturedAmount=" + capturedAmount +
+        ", refundedAmount=" + refundedAmount +
+        ", actions=" + actions +
+        ", archived=" + archived +
         '}';
   }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.checkout.payment.gateway.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class PaymentStatisticsResponse {
+  private Instant asOf;
+  private Map<String, StatisticsTotals> byCurrency;
+  private Map<String, StatisticsTotals> byStatus;
+  private Map<String, Long> rejectionsByRule;
+  private long bankFailures;
+  private Map<String, WindowStatistics> windows;
+
+  public Instant getAsOf() {
+    return asOf;
+  }
+
+  public void setAsOf(Instant asOf) {
+    this.asOf = asOf;
+  }
+
+  public Map<String, StatisticsTotals> getByCurrency() {
+    return byCurrency;
+  }
+
+  public void setByCurrency(Map<String, StatisticsTotals> byCurrency) {
+    this.byCurrency = byCurrency;
+  }
+
+  public Map<String, StatisticsTotals> getByStatus() {
+    return byStatus;
+  }
+
+  public void setByStatus(Map<String, StatisticsTotals> byStatus) {
+    this.byStatus = byStatus;
+  }
+
+  public Map<String, Long> getRejectionsByRule() {
+    return rejectionsByRule;
+  }
+
+  public void setRejectionsByRule(Map<String, Long> rejectionsByRule) {
+    this.rejectionsByRule = rejectionsByRule;
+  }
+
+  public long getBankFailures() {
+    return bankFailures;
+  }
+
+  public void setBankFailures(long bankFailures) {
+    this.bankFailures = bankFailures;
+  }
+
+  public Map<String, WindowStatistics> getWindows() {
+    return windows;
+  }
+
+  public void setWindows(Map<String, WindowStatistics> windows) {
+    this.windows = windows;
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentStatisticsResponse{" +
+        "asOf=" + asOf +
+        ", byCurrency=" + byCurrency +
+        ", byStatus=" + byStatus +
+        ", rejectionsByRule=" + rejectionsByRule +
+        ", bankFailures=" + bankFailures +
+        ", windows=" + windows +
+        '}';
+  }
+}
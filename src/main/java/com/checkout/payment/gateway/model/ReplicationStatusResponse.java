@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.ReplicationRole;
+import java.util.List;
+
+public class ReplicationStatusResponse {
+  private ReplicationRole role;
+  private String leaderUrl;
+  private long sequence;
+  private Long stalenessMs;
+  private List<String> followers;
+
+  public ReplicationRole getRole() {
+    return role;
+  }
+
+  public void setRole(ReplicationRole role) {
+    this.role = role;
+  }
+
+  public String getLeaderUrl() {
+    return leaderUrl;
+  }
+
+  public void setLeaderUrl(String leaderUrl) {
+    this.leaderUrl = leaderUrl;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public void setSequence(long sequence) {
+    this.sequence = sequence;
+  }
+
+  public Long getStalenessMs() {
+    return stalenessMs;
+  }
+
+  public void setStalenessMs(Long stalenessMs) {
+    this.stalenessMs = stalenessMs;
+  }
+
+  public List<String> getFollowers() {
+    return followers;
+  }
+
+  public void setFollowers(List<String> followers) {
+    this.followers = followers;
+  }
+
+  @Override
+  public String toString() {
+    return "ReplicationStatusResponse{" +
+        "role=" + role +
+        ", leaderUrl='" + leaderUrl + '\'' +
+        ", sequence=" + sequence +
+        ", stalenessMs=" + stalenessMs +
+        ", followers=" + followers +
+        '}';
+  }
+}
@@ -0,0 +1,73 @@
+package com.checkout.payment.gateway.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class SettlementReport {
+  private LocalDate date;
+  private long paymentCount;
+  private List<SettlementTotal> totals;
+  private String totalsFile;
+  private String itemsFile;
+  private long durationMs;
+
+  public LocalDate getDate() {
+    return date;
+  }
+
+  public void setDate(LocalDate date) {
+    this.date = date;
+  }
+
+  public long getPaymentCount() {
+    return paymentCount;
+  }
+
+  public void setPaymentCount(long paymentCount) {
+    this.paymentCount = paymentCount;
+  }
+
+  public List<SettlementTotal> getTotals() {
+    return totals;
+  }
+
+  public void setTotals(List<SettlementTotal> totals) {
+    this.totals = totals;
+  }
+
+  public String getTotalsFile() {
+    return totalsFile;
+  }
+
+  public void setTotalsFile(String totalsFile) {
+    this.totalsFile = totalsFile;
+  }
+
+  public String getItemsFile() {
+    return itemsFile;
+  }
+
+  public void setItemsFile(String itemsFile) {
+    this.itemsFile = itemsFile;
+  }
+
+  public long getDurationMs() {
+    return durationMs;
+  }
+
+  public void setDurationMs(long durationMs) {
+    this.durationMs = durationMs;
+  }
+
+  @Override
+  public String toString() {
+    return "SettlementReport{" +
+        "date=" + date +
+        ", paymentCount=" + paymentCount +
+        ", totals=" + totals +
+        ", totalsFile='" + totalsFile + '\'' +
+        ", itemsFile='" + itemsFile + '\'' +
+        ", durationMs=" + durationMs +
+        '}';
+  }
+}
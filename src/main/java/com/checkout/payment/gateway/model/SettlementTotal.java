@@ -0,0 +1,62 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+
+public class SettlementTotal {
+  private String currency;
+  private PaymentStatus status;
+  private long count;
+  private long amount;
+
+  public SettlementTotal() {
+  }
+
+  public SettlementTotal(String currency, PaymentStatus status, long count, long amount) {
+    this.currency = currency;
+    this.status = status;
+    this.count = count;
+    this.amount = amount;
+  }
+
+  public String getCurrency() {
+    return currency;
+  }
+
+  public void setCurrency(String currency) {
+    this.currency = currency;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(PaymentStatus status) {
+    this.status = status;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(long amount) {
+    this.amount = amount;
+  }
+
+  @Override
+  public String toString() {
+    return "SettlementTotal{" +
+        "currency='" + currency + '\'' +
+        ", status=" + status +
+        ", count=" + count +
+        ", amount=" + amount +
+        '}';
+  }
+}
@@ -0,0 +1,38 @@
+package com.checkout.payment.gateway.model;
+
+public class StatisticsTotals {
+  private long count;
+  private long amount;
+
+  public StatisticsTotals() {
+  }
+
+  public StatisticsTotals(long count, long amount) {
+    this.count = count;
+    this.amount = amount;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(long amount) {
+    this.amount = amount;
+  }
+
+  @Override
+  public String toString() {
+    return "StatisticsTotals{" +
+        "count=" + count +
+        ", amount=" + amount +
+        '}';
+  }
+}
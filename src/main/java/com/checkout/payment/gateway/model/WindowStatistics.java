@@ -0,0 +1,32 @@
+package com.checkout.payment.gateway.model;
+
+import java.util.Map;
+
+public class WindowStatistics {
+  private Map<String, StatisticsTotals> byStatus;
+  private long bankFailures;
+
+  public Map<String, StatisticsTotals> getByStatus() {
+    return byStatus;
+  }
+
+  public void setByStatus(Map<String, StatisticsTotals> byStatus) {
+    this.byStatus = byStatus;
+  }
+
+  public long getBankFailures() {
+    return bankFailures;
+  }
+
+  public void setBankFailures(long bankFailures) {
+    this.bankFailures = bankFailures;
+  }
+
+  @Override
+  public String toString() {
+    return "WindowStatistics{" +
+        "byStatus=" + byStatus +
+        ", bankFailures=" + bankFailures +
+        '}';
+  }
+}
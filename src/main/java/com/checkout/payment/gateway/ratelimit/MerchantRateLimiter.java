@@ -0,0 +1,152 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-merchant token buckets.
+ *
+ * <p>The bucket map is bounded: buckets idle for longer than the eviction timeout are dropped
+ * by a background sweep (an idle bucket has refilled, so nothing is lost), and merchants seen
+ * while the map is full share one overflow bucket with the default limit. The limits file, if
+ * any, is re-read whenever it changes; a file that fails to parse leaves the previous limits in
+ * force.
+ *
+ * <p>Requests without a merchant id are not limited unless an anonymous limit is configured, in
+ * which case they share a bucket of their own.
+ */
+@Slf4j
+public class MerchantRateLimiter {
+
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final AtomicReference<RateLimitPolicy> policy;
+  private final RateLimit configuredDefault;
+  private final Path limitsFile;
+  private final int maxMerchants;
+  private final long idleEvictionNanos;
+  private final LongSupplier nanoTime;
+  private final TokenBucket overflowBucket;
+  private final RateLimit anonymousLimit;
+  private final TokenBucket anonymousBucket;
+  private volatile long limitsFileModifiedAt = -1;
+  private final ScheduledExecutorService maintenance =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-maintenance");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * @param anonymousLimit limit for requests without a merchant id, or null for none
+   */
+  public MerchantRateLimiter(RateLimit defaultLimit, RateLimit anonymousLimit, Path limitsFile,
+      int maxMerchants, long idleEvictionMs) {
+    this(defaultLimit, anonymousLimit, limitsFile, maxMerchants, idleEvictionMs,
+        System::nanoTime);
+  }
+
+  MerchantRateLimiter(RateLimit defaultLimit, Path limitsFile, int maxMerchants,
+      long idleEvictionMs, LongSupplier nanoTime) {
+    this(defaultLimit, null, limitsFile, maxMerchants, idleEvictionMs, nanoTime);
+  }
+
+  MerchantRateLimiter(RateLimit defaultLimit, RateLimit anonymousLimit, Path limitsFile,
+      int maxMerchants, long idleEvictionMs, LongSupplier nanoTime) {
+    this.configuredDefault = defaultLimit;
+    this.policy = new AtomicReference<>(new RateLimitPolicy(defaultLimit, Map.of()));
+    this.limitsFile = limitsFile;
+    this.maxMerchants = maxMerchants;
+    this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+    this.nanoTime = nanoTime;
+    this.overflowBucket = new TokenBucket(defaultLimit, nanoTime.getAsLong());
+    this.anonymousLimit = anonymousLimit;
+    this.anonymousBucket = anonymousLimit == null ? null
+        : new TokenBucket(anonymousLimit, nanoTime.getAsLong());
+    reloadIfChanged();
+  }
+
+  public void start(long reloadIntervalMs) {
+    maintenance.scheduleWithFixedDelay(() -> {
+      reloadIfChanged();
+      evictIdle();
+    }, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    maintenance.shutdownNow();
+  }
+
+  public RateLimitDecision tryAcquire(String merchantId) {
+    long now = nanoTime.getAsLong();
+    RateLimitPolicy current = policy.get();
+    TokenBucket bucket = buckets.get(merchantId);
+    if (bucket == null) {
+      if (buckets.size() >= maxMerchants) {
+        return overflowBucket.tryConsume(current.getDefaultLimit(), now);
+      }
+      bucket = buckets.computeIfAbsent(merchantId,
+          id -> new TokenBucket(current.limitFor(id), now));
+    }
+    return bucket.tryConsume(current.limitFor(merchantId), now);
+  }
+
+  /**
+   * @return the decision for a request without a merchant id, or null when those are not limited
+   */
+  public RateLimitDecision tryAcquireAnonymous() {
+    return anonymousBucket == null ? null
+        : anonymousBucket.tryConsume(anonymousLimit, nanoTime.getAsLong());
+  }
+
+  /**
+   * Re-reads the limits file if it was modified since the last read.
+   */
+  public void reloadIfChanged() {
+    if (limitsFile == null) {
+      return;
+    }
+    try {
+      long modifiedAt = Files.getLastModifiedTime(limitsFile).toMillis();
+      if (modifiedAt == limitsFileModifiedAt) {
+        return;
+      }
+      try (Reader reader = Files.newBufferedReader(limitsFile)) {
+        RateLimitPolicy loaded = RateLimitPolicy.read(reader, configuredDefault);
+        policy.set(loaded);
+        limitsFileModifiedAt = modifiedAt;
+        log.info("Loaded rate limits for {} merchants from {}, default {}",
+            loaded.merchantCount(), limitsFile, loaded.getDefaultLimit());
+      }
+    } catch (IOException | IllegalArgumentException ex) {
+      log.warn("Could not load rate limits from {}, keeping current limits: {}", limitsFile,
+          ex.getMessage());
+    }
+  }
+
+  public void evictIdle() {
+    long now = nanoTime.getAsLong();
+    buckets.forEach((merchantId, bucket) -> {
+      if (now - bucket.lastUsedNanos() > idleEvictionNanos) {
+        buckets.remove(merchantId, bucket);
+      }
+    });
+  }
+
+  public int trackedMerchants() {
+    return buckets.size();
+  }
+
+  public RateLimitPolicy policy() {
+    return policy.get();
+  }
+}
@@ -0,0 +1,67 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.util.Objects;
+
+/**
+ * A token-bucket limit: bursts of up to {@code capacity} requests, sustained at
+ * {@code refillPerSecond}.
+ */
+public class RateLimit {
+  private final long capacity;
+  private final double refillPerSecond;
+
+  public RateLimit(long capacity, double refillPerSecond) {
+    if (capacity < 1 || refillPerSecond <= 0) {
+      throw new IllegalArgumentException(
+          "Rate limit needs a positive capacity and refill rate: " + capacity + ","
+              + refillPerSecond);
+    }
+    this.capacity = capacity;
+    this.refillPerSecond = refillPerSecond;
+  }
+
+  /**
+   * Parses {@code capacity,refillPerSecond}, e.g. {@code 100,50}.
+   */
+  public static RateLimit parse(String value) {
+    String[] parts = value.split(",");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Expected capacity,refillPerSecond but got " + value);
+    }
+    return new RateLimit(Long.parseLong(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public double getRefillPerSecond() {
+    return refillPerSecond;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof RateLimit)) {
+      return false;
+    }
+    RateLimit limit = (RateLimit) other;
+    return capacity == limit.capacity
+        && Double.compare(refillPerSecond, limit.refillPerSecond) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(capacity, refillPerSecond);
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimit{" +
+        "capacity=" + capacity +
+        ", refillPerSecond=" + refillPerSecond +
+        '}';
+  }
+}
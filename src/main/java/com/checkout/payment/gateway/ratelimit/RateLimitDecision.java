@@ -0,0 +1,42 @@
+package com.checkout.payment.gateway.ratelimit;
+
+public class RateLimitDecision {
+  private final boolean allowed;
+  private final long limit;
+  private final long remaining;
+  private final long nanosUntilNextToken;
+
+  public RateLimitDecision(boolean allowed, long limit, long remaining,
+      long nanosUntilNextToken) {
+    this.allowed = allowed;
+    this.limit = limit;
+    this.remaining = remaining;
+    this.nanosUntilNextToken = nanosUntilNextToken;
+  }
+
+  public boolean isAllowed() {
+    return allowed;
+  }
+
+  public long getLimit() {
+    return limit;
+  }
+
+  public long getRemaining() {
+    return remaining;
+  }
+
+  public long getNanosUntilNextToken() {
+    return nanosUntilNextToken;
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimitDecision{" +
+        "allowed=" + allowed +
+        ", limit=" + limit +
+        ", remaining=" + remaining +
+        ", nanosUntilNextToken=" + nanosUntilNextToken +
+        '}';
+  }
+}
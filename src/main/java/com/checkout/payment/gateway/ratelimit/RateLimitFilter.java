@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies the merchant's rate limit to payment submissions before they reach the service.
+ * Requests without a merchant id are only limited when an anonymous limit is configured.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  public static final String MERCHANT_HEADER = "X-Merchant-Id";
+  static final String ANONYMOUS_MERCHANT = "anonymous";
+  static final String LIMIT_HEADER = "X-RateLimit-Limit";
+  static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+  static final String RESET_HEADER = "X-RateLimit-Reset";
+
+  private final MerchantRateLimiter rateLimiter;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.POST.matches(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String merchantId = request.getHeader(MERCHANT_HEADER);
+    RateLimitDecision decision;
+    if (merchantId == null || merchantId.isBlank()) {
+      merchantId = ANONYMOUS_MERCHANT;
+      decision = rateLimiter.tryAcquireAnonymous();
+      if (decision == null) {
+        filterChain.doFilter(request, response);
+        return;
+      }
+    } else {
+      decision = rateLimiter.tryAcquire(merchantId);
+    }
+    response.setHeader(LIMIT_HEADER, Long.toString(decision.getLimit()));
+    response.setHeader(REMAINING_HEADER, Long.toString(decision.getRemaining()));
+    if (decision.isAllowed()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    long waitMillis = TimeUnit.NANOSECONDS.toMillis(decision.getNanosUntilNextToken()) + 1;
+    long resetEpochSeconds = (System.currentTimeMillis() + waitMillis + 999) / 1000;
+    log.debug("Rate limited merchantId={}, next token in {}ms", merchantId, waitMillis);
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(RESET_HEADER, Long.toString(resetEpochSeconds));
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMillis + 999) / 1000));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(),
+        new ErrorResponse("Rate limit exceeded for merchant " + merchantId));
+  }
+}
@@ -0,0 +1,59 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The limits in force: one per listed merchant and a default for everyone else.
+ *
+ * <p>Limits files are properties files mapping a merchant id, or {@code default}, to
+ * {@code capacity,refillPerSecond}.
+ */
+public class RateLimitPolicy {
+
+  static final String DEFAULT_KEY = "default";
+
+  private final RateLimit defaultLimit;
+  private final Map<String, RateLimit> merchantLimits;
+
+  public RateLimitPolicy(RateLimit defaultLimit, Map<String, RateLimit> merchantLimits) {
+    this.defaultLimit = defaultLimit;
+    this.merchantLimits = Map.copyOf(merchantLimits);
+  }
+
+  /**
+   * Reads a limits file; merchants it does not list, and the default if it is not listed, fall
+   * back to {@code fallbackDefault}.
+   */
+  public static RateLimitPolicy read(Reader reader, RateLimit fallbackDefault)
+      throws IOException {
+    Properties properties = new Properties();
+    properties.load(reader);
+    RateLimit defaultLimit = fallbackDefault;
+    Map<String, RateLimit> merchantLimits = new HashMap<>();
+    for (String merchantId : properties.stringPropertyNames()) {
+      RateLimit limit = RateLimit.parse(properties.getProperty(merchantId));
+      if (DEFAULT_KEY.equals(merchantId)) {
+        defaultLimit = limit;
+      } else {
+        merchantLimits.put(merchantId, limit);
+      }
+    }
+    return new RateLimitPolicy(defaultLimit, merchantLimits);
+  }
+
+  public RateLimit limitFor(String merchantId) {
+    return merchantLimits.getOrDefault(merchantId, defaultLimit);
+  }
+
+  public RateLimit getDefaultLimit() {
+    return defaultLimit;
+  }
+
+  public int merchantCount() {
+    return merchantLimits.size();
+  }
+}
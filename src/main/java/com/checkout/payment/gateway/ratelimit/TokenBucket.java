@@ -0,0 +1,54 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free token bucket. Refill and consumption happen together in one compare-and-set of an
+ * immutable state, so concurrent requests never see tokens refilled twice or spent twice.
+ *
+ * <p>The limit is passed on every call rather than held, so that reloaded limits apply to
+ * existing buckets without resetting them.
+ */
+final class TokenBucket {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private final AtomicReference<State> state;
+  private volatile long lastUsedNanos;
+
+  TokenBucket(RateLimit limit, long nowNanos) {
+    this.state = new AtomicReference<>(new State(limit.getCapacity(), nowNanos));
+    this.lastUsedNanos = nowNanos;
+  }
+
+  RateLimitDecision tryConsume(RateLimit limit, long nowNanos) {
+    lastUsedNanos = nowNanos;
+    double refillPerNano = limit.getRefillPerSecond() / NANOS_PER_SECOND;
+    while (true) {
+      State current = state.get();
+      long elapsed = Math.max(0, nowNanos - current.refilledAt);
+      double tokens = Math.min(limit.getCapacity(), current.tokens + elapsed * refillPerNano);
+      boolean allowed = tokens >= 1;
+      State next = new State(allowed ? tokens - 1 : tokens,
+          Math.max(nowNanos, current.refilledAt));
+      if (state.compareAndSet(current, next)) {
+        long wait = allowed ? 0 : (long) Math.ceil((1 - tokens) / refillPerNano);
+        return new RateLimitDecision(allowed, limit.getCapacity(), (long) next.tokens, wait);
+      }
+    }
+  }
+
+  long lastUsedNanos() {
+    return lastUsedNanos;
+  }
+
+  private static final class State {
+    private final double tokens;
+    private final long refilledAt;
+
+    private State(double tokens, long refilledAt) {
+      this.tokens = tokens;
+      this.refilledAt = refilledAt;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.controller.PaymentGatewayController;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Turns a follower into a read replica of the public API: writes are refused with a pointer to
+ * the leader, and reads report how stale the replica is, or are refused once it lags too far.
+ */
+@RequiredArgsConstructor
+public class ReplicaRequestInterceptor implements HandlerInterceptor {
+
+  static final String LEADER_HEADER = "X-Replication-Leader";
+  static final String STALENESS_HEADER = "X-Replica-Staleness-Ms";
+
+  private final ReplicationNode replicationNode;
+  private final ObjectMapper objectMapper;
+  private final long maxStalenessMs;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) throws IOException {
+    // An async dispatch delivers the result of a request that was let through already
+    if (request.getDispatcherType() == DispatcherType.ASYNC || replicationNode.isLeader()) {
+      return true;
+    }
+    ReplicationFollower follower = replicationNode.follower();
+    if (follower.getLeaderUrl() != null) {
+      response.setHeader(LEADER_HEADER, follower.getLeaderUrl());
+    }
+    if (!PaymentGatewayController.isRead(request)) {
+      return reject(response, "This node is a read replica, send writes to the leader");
+    }
+    long staleness = follower.stalenessMillis();
+    if (staleness > maxStalenessMs) {
+      return reject(response, "Read replica is too far behind the leader");
+    }
+    response.setHeader(STALENESS_HEADER, Long.toString(staleness));
+    return true;
+  }
+
+  private boolean reject(HttpServletResponse response, String message) throws IOException {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    return false;
+  }
+}
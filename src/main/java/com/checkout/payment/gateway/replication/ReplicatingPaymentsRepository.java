@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Applies writes locally and then logs them for the followers. Writes are refused on a follower,
+ * whose store only changes through replication.
+ */
+@RequiredArgsConstructor
+public class ReplicatingPaymentsRepository implements PaymentsRepository {
+
+  private final PaymentsRepository localRepository;
+  private final ReplicationNode replicationNode;
+
+  @Override
+  public void add(PaymentResponse payment) {
+    ReplicationLeader leader = replicationNode.leader();
+    localRepository.add(payment);
+    leader.replicate(ReplicationEntry.add(payment));
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    return localRepository.get(id);
+  }
+
+  @Override
+  public Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    return localRepository.getAll(ids);
+  }
+
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    localRepository.forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    ReplicationLeader leader = replicationNode.leader();
+    localRepository.remove(id);
+    leader.replicate(ReplicationEntry.remove(id));
+  }
+}
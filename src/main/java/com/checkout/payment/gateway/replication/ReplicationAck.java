@@ -0,0 +1,38 @@
+package com.checkout.payment.gateway.replication;
+
+public class ReplicationAck {
+  private long appliedSequence;
+  private boolean snapshotRequired;
+
+  public ReplicationAck() {
+  }
+
+  public ReplicationAck(long appliedSequence, boolean snapshotRequired) {
+    this.appliedSequence = appliedSequence;
+    this.snapshotRequired = snapshotRequired;
+  }
+
+  public long getAppliedSequence() {
+    return appliedSequence;
+  }
+
+  public void setAppliedSequence(long appliedSequence) {
+    this.appliedSequence = appliedSequence;
+  }
+
+  public boolean isSnapshotRequired() {
+    return snapshotRequired;
+  }
+
+  public void setSnapshotRequired(boolean snapshotRequired) {
+    this.snapshotRequired = snapshotRequired;
+  }
+
+  @Override
+  public String toString() {
+    return "ReplicationAck{" +
+        "appliedSequence=" + appliedSequence +
+        ", snapshotRequired=" + snapshotRequired +
+        '}';
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkout.payment.gateway.replication;
+
+import java.util.List;
+
+/**
+ * A batch of log entries sent by a leader. An empty incremental batch is a heartbeat.
+ *
+ * <p>Snapshot batches carry the leader's full store so that a new or diverged follower can be
+ * rebuilt; the first one has {@code snapshotStart} set and the follower discards what it held,
+ * and the last one has {@code snapshotComplete} set and the follower resumes from
+ * {@code leaderSequence}.
+ *
+ * <p>{@code leaderSequence} is the sequence a follower is up to date with once it has applied
+ * the batch. {@code lagMillis} is how far the leader had moved on past that when the batch was
+ * sent: the age of the first entry the batch leaves out, or 0 when it reaches the end of the
+ * log. Both are measured on the leader, so clock skew does not matter.
+ */
+public class ReplicationBatch {
+  private String leaderUrl;
+  private long epoch;
+  private long leaderSequence;
+  private long lagMillis;
+  private boolean snapshot;
+  private boolean snapshotStart;
+  private boolean snapshotComplete;
+  private List<ReplicationEntry> entries;
+
+  public String getLeaderUrl() {
+    return leaderUrl;
+  }
+
+  public void setLeaderUrl(String leaderUrl) {
+    this.leaderUrl = leaderUrl;
+  }
+
+  public long getEpoch() {
+    return epoch;
+  }
+
+  public void setEpoch(long epoch) {
+    this.epoch = epoch;
+  }
+
+  public long getLeaderSequence() {
+    return leaderSequence;
+  }
+
+  public void setLeaderSequence(long leaderSequence) {
+    this.leaderSequence = leaderSequence;
+  }
+
+  public long getLagMillis() {
+    return lagMillis;
+  }
+
+  public void setLagMillis(long lagMillis) {
+    this.lagMillis = lagMillis;
+  }
+
+  public boolean isSnapshot() {
+    return snapshot;
+  }
+
+  public void setSnapshot(boolean snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  public boolean isSnapshotStart() {
+    return snapshotStart;
+  }
+
+  public void setSnapshotStart(boolean snapshotStart) {
+    this.snapshotStart = snapshotStart;
+  }
+
+  public boolean isSnapshotComplete() {
+    return snapshotComplete;
+  }
+
+  public void setSnapshotComplete(boolean snapshotComplete) {
+    this.snapshotComplete = snapshotComplete;
+  }
+
+  public List<ReplicationEntry> getEntries() {
+    return entries;
+  }
+
+  public void setEntries(List<ReplicationEntry> entries) {
+    this.entries = entries;
+  }
+
+  @Override
+  public String toString() {
+    return "ReplicationBatch{" +
+        "leaderUrl='" + leaderUrl + '\'' +
+        ", epoch=" + epoch +
+        ", leaderSequence=" + leaderSequence +
+        ", lagMillis=" + lagMillis +
+        ", snapshot=" + snapshot +
+        ", snapshotStart=" + snapshotStart +
+        ", snapshotComplete=" + snapshotComplete +
+        ", entries=" + (entries == null ? 0 : entries.size()) +
+        '}';
+  }
+}
@@ -0,0 +1,64 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.exception.ReplicationException;
+import com.checkout.payment.gateway.security.SharedSecretFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Ships log batches to followers over one shared, connection-pooling {@link HttpClient}.
+ */
+public class ReplicationClient implements ReplicationTransport {
+
+  static final String BATCHES_PATH = "/internal/v1/replication/batches";
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final Duration timeout;
+  private final String sharedSecret;
+
+  /**
+   * @param sharedSecret presented to followers, whose internal endpoints require it
+   */
+  public ReplicationClient(ObjectMapper objectMapper, Duration timeout, String sharedSecret) {
+    this.httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(timeout)
+        .build();
+    this.objectMapper = objectMapper;
+    this.timeout = timeout;
+    this.sharedSecret = sharedSecret;
+  }
+
+  @Override
+  public ReplicationAck ship(String followerUrl, ReplicationBatch batch) {
+    try {
+      HttpRequest request = HttpRequest.newBuilder(URI.create(followerUrl + BATCHES_PATH))
+          .timeout(timeout)
+          .header("Content-Type", "application/json")
+          .header(SharedSecretFilter.SECRET_HEADER, sharedSecret)
+          .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+          .build();
+      HttpResponse<byte[]> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+      if (response.statusCode() / 100 != 2) {
+        throw new ReplicationException("Follower " + followerUrl + " rejected batch with status "
+            + response.statusCode());
+      }
+      return objectMapper.readValue(response.body(), ReplicationAck.class);
+    } catch (JsonProcessingException ex) {
+      throw new ReplicationException("Unreadable replication exchange with " + followerUrl, ex);
+    } catch (IOException ex) {
+      throw new ReplicationException("Follower " + followerUrl + " is unreachable", ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ReplicationException("Interrupted while shipping to " + followerUrl, ex);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.UUID;
+
+/**
+ * One change shipped from a leader to its followers. Applying an entry is idempotent: an ADD
+ * overwrites the payment with the same id and a REMOVE of a missing payment does nothing.
+ */
+public class ReplicationEntry {
+
+  public enum Operation {
+    ADD,
+    REMOVE
+  }
+
+  private long sequence;
+  // Leader's wall-clock time when the entry was logged
+  private long loggedAt;
+  private Operation operation;
+  private UUID paymentId;
+  private PaymentResponse payment;
+
+  public static ReplicationEntry add(PaymentResponse payment) {
+    ReplicationEntry entry = new ReplicationEntry();
+    entry.setOperation(Operation.ADD);
+    entry.setPaymentId(payment.getId());
+    entry.setPayment(payment);
+    return entry;
+  }
+
+  public static ReplicationEntry remove(UUID id) {
+    ReplicationEntry entry = new ReplicationEntry();
+    entry.setOperation(Operation.REMOVE);
+    entry.setPaymentId(id);
+    return entry;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public void setSequence(long sequence) {
+    this.sequence = sequence;
+  }
+
+  public long getLoggedAt() {
+    return loggedAt;
+  }
+
+  public void setLoggedAt(long loggedAt) {
+    this.loggedAt = loggedAt;
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public void setOperation(Operation operation) {
+    this.operation = operation;
+  }
+
+  public UUID getPaymentId() {
+    return paymentId;
+  }
+
+  public void setPaymentId(UUID paymentId) {
+    this.paymentId = paymentId;
+  }
+
+  public PaymentResponse getPayment() {
+    return payment;
+  }
+
+  public void setPayment(PaymentResponse payment) {
+    this.payment = payment;
+  }
+
+  @Override
+  public String toString() {
+    return "ReplicationEntry{" +
+        "sequence=" + sequence +
+        ", operation=" + operation +
+        ", paymentId=" + paymentId +
+        '}';
+  }
+}
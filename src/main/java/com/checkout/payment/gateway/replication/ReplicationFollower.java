@@ -0,0 +1,112 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies batches shipped by the leader to this node's store.
+ *
+ * <p>Batches are applied one at a time. A batch from a new epoch (the leader restarted or another
+ * node was promoted) or one that leaves a gap after the last applied sequence is refused with a
+ * request for a snapshot, so the follower never serves a store with holes in it. A snapshot
+ * replaces what the follower held, so payments the leader removed meanwhile do not linger.
+ */
+@Slf4j
+public class ReplicationFollower {
+
+  private final PaymentsRepository store;
+  private final Clock clock;
+  private long epoch;
+  private long appliedSequence = -1;
+  private volatile String leaderUrl;
+  private volatile long caughtUpAt = -1;
+
+  public ReplicationFollower(PaymentsRepository store) {
+    this(store, Clock.systemUTC());
+  }
+
+  public ReplicationFollower(PaymentsRepository store, Clock clock) {
+    this.store = store;
+    this.clock = clock;
+  }
+
+  public synchronized ReplicationAck apply(ReplicationBatch batch) {
+    if (batch.getEpoch() != epoch) {
+      log.info("Following leader {} at epoch {}", batch.getLeaderUrl(), batch.getEpoch());
+      epoch = batch.getEpoch();
+      appliedSequence = -1;
+    }
+    leaderUrl = batch.getLeaderUrl();
+    if (batch.isSnapshot()) {
+      if (batch.isSnapshotStart()) {
+        clearStore();
+      }
+      applyEntries(batch);
+      if (batch.isSnapshotComplete()) {
+        appliedSequence = batch.getLeaderSequence();
+      }
+    } else if (appliedSequence < 0 || !continues(batch)) {
+      return new ReplicationAck(appliedSequence, true);
+    } else {
+      for (ReplicationEntry entry : batch.getEntries()) {
+        if (entry.getSequence() > appliedSequence) {
+          apply(entry);
+          appliedSequence = entry.getSequence();
+        }
+      }
+    }
+    if (appliedSequence >= 0 && appliedSequence >= batch.getLeaderSequence()) {
+      caughtUpAt = clock.millis() - batch.getLagMillis();
+    }
+    return new ReplicationAck(appliedSequence, false);
+  }
+
+  /**
+   * @return milliseconds since the leader last held what this follower holds now, or
+   *     {@link Long#MAX_VALUE} while it has no complete copy of the leader's store
+   */
+  public long stalenessMillis() {
+    long at = caughtUpAt;
+    return at < 0 ? Long.MAX_VALUE : Math.max(0, clock.millis() - at);
+  }
+
+  public String getLeaderUrl() {
+    return leaderUrl;
+  }
+
+  public synchronized long getAppliedSequence() {
+    return appliedSequence;
+  }
+
+  private boolean continues(ReplicationBatch batch) {
+    return batch.getEntries().isEmpty()
+        || batch.getEntries().get(0).getSequence() <= appliedSequence + 1;
+  }
+
+  // Reads are refused until the snapshot is complete, rather than served from a partial store
+  private void clearStore() {
+    log.info("Discarding local store for a snapshot from {}", leaderUrl);
+    appliedSequence = -1;
+    caughtUpAt = -1;
+    List<UUID> ids = new ArrayList<>();
+    store.forEach(payment -> ids.add(payment.getId()));
+    ids.forEach(store::remove);
+  }
+
+  private void applyEntries(ReplicationBatch batch) {
+    for (ReplicationEntry entry : batch.getEntries()) {
+      apply(entry);
+    }
+  }
+
+  private void apply(ReplicationEntry entry) {
+    switch (entry.getOperation()) {
+      case ADD -> store.add(entry.getPayment());
+      case REMOVE -> store.remove(entry.getPaymentId());
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.exception.ReplicationException;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ships this node's changes to its followers.
+ *
+ * <p>Every follower has its own shipping thread and cursor, so a slow or dead follower only
+ * delays itself. In synchronous mode {@link #replicate} additionally waits until the configured
+ * number of followers acknowledged the entry.
+ */
+@Slf4j
+public class ReplicationLeader {
+
+  private final String selfUrl;
+  private final long epoch;
+  private final ReplicationLog replicationLog;
+  private final PaymentsRepository store;
+  private final ReplicationTransport transport;
+  private final ReplicationSettings settings;
+  private final List<FollowerChannel> channels = new ArrayList<>();
+  private final Object ackMonitor = new Object();
+  private volatile boolean running;
+
+  public ReplicationLeader(String selfUrl, List<String> followerUrls, PaymentsRepository store,
+      ReplicationTransport transport, ReplicationSettings settings) {
+    this.selfUrl = selfUrl;
+    this.epoch = System.currentTimeMillis();
+    this.replicationLog = new ReplicationLog(settings.getLogCapacity());
+    this.store = store;
+    this.transport = transport;
+    this.settings = settings;
+    for (String url : followerUrls) {
+      if (!url.isBlank() && !url.equals(selfUrl)) {
+        channels.add(new FollowerChannel(url));
+      }
+    }
+  }
+
+  public void start() {
+    running = true;
+    for (FollowerChannel channel : channels) {
+      Thread thread = new Thread(channel, "replication-" + channel.url);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  public void stop() {
+    running = false;
+  }
+
+  /**
+   * Appends an entry to the log and, in synchronous mode, waits for follower acknowledgements.
+   * A timed-out wait is logged but does not fail the write, which is already durable locally.
+   */
+  public long replicate(ReplicationEntry entry) {
+    long sequence = replicationLog.append(entry);
+    int required = Math.min(settings.getSyncAcks(), channels.size());
+    if (settings.isSync() && required > 0 && !awaitAcks(sequence, required)) {
+      log.warn("Replication of sequence {} was not acknowledged by {} followers within {}ms",
+          sequence, required, settings.getSyncTimeoutMs());
+    }
+    return sequence;
+  }
+
+  public List<String> followerUrls() {
+    return channels.stream().map(channel -> channel.url).toList();
+  }
+
+  public long lastSequence() {
+    return replicationLog.lastSequence();
+  }
+
+  private boolean awaitAcks(long sequence, int required) {
+    long deadline = System.nanoTime() + settings.getSyncTimeoutMs() * 1_000_000L;
+    synchronized (ackMonitor) {
+      while (acknowledged(sequence) < required) {
+        long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+        if (remainingMs <= 0) {
+          return false;
+        }
+        try {
+          ackMonitor.wait(remainingMs);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private int acknowledged(long sequence) {
+    int count = 0;
+    for (FollowerChannel channel : channels) {
+      if (!channel.snapshotRequired && channel.ackedSequence >= sequence) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void onAck(FollowerChannel channel, ReplicationAck ack) {
+    if (ack.isSnapshotRequired()) {
+      channel.snapshotRequired = true;
+      return;
+    }
+    channel.ackedSequence = ack.getAppliedSequence();
+    synchronized (ackMonitor) {
+      ackMonitor.notifyAll();
+    }
+    long minimum = Long.MAX_VALUE;
+    for (FollowerChannel each : channels) {
+      minimum = Math.min(minimum, each.snapshotRequired ? 0 : each.ackedSequence);
+    }
+    if (minimum > 0) {
+      replicationLog.truncateThrough(minimum);
+    }
+  }
+
+  private ReplicationBatch batch(List<ReplicationEntry> entries, boolean snapshot,
+      long leaderSequence) {
+    ReplicationBatch batch = new ReplicationBatch();
+    batch.setLeaderUrl(selfUrl);
+    batch.setEpoch(epoch);
+    batch.setLeaderSequence(leaderSequence);
+    batch.setSnapshot(snapshot);
+    batch.setEntries(entries);
+    return batch;
+  }
+
+  private final class FollowerChannel implements Runnable {
+    private final String url;
+    private volatile long ackedSequence;
+    private volatile boolean snapshotRequired = true;
+    private long lastShippedAt;
+
+    private FollowerChannel(String url) {
+      this.url = url;
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        try {
+          if (snapshotRequired || !replicationLog.canResumeFrom(ackedSequence)) {
+            shipSnapshot();
+          } else {
+            shipIncrement();
+          }
+        } catch (ReplicationException ex) {
+          log.debug("Shipping to {} failed: {}", url, ex.getMessage());
+          pause(settings.getRetryBackoffMs());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+
+    private void shipSnapshot() {
+      // Everything logged up to here is already in the store, so the snapshot covers it
+      long snapshotSequence = replicationLog.lastSequence();
+      List<ReplicationEntry> chunk = new ArrayList<>();
+      boolean[] start = {true};
+      store.forEach(payment -> {
+        chunk.add(ReplicationEntry.add(payment));
+        if (chunk.size() == settings.getBatchSize()) {
+          ReplicationBatch batch = batch(new ArrayList<>(chunk), true, snapshotSequence);
+          batch.setSnapshotStart(start[0]);
+          send(batch);
+          start[0] = false;
+          chunk.clear();
+        }
+      });
+      ReplicationBatch last = batch(chunk, true, snapshotSequence);
+      last.setSnapshotStart(start[0]);
+      last.setSnapshotComplete(true);
+      last.setLagMillis(lagAfter(snapshotSequence));
+      ReplicationAck ack = send(last);
+      snapshotRequired = ack.isSnapshotRequired();
+      onAck(this, ack);
+      log.info("Snapshot through sequence {} shipped to {}", snapshotSequence, url);
+    }
+
+    private void shipIncrement() throws InterruptedException {
+      List<ReplicationEntry> entries =
+          replicationLog.readAfter(ackedSequence, settings.getBatchSize());
+      long sinceLastShip = System.currentTimeMillis() - lastShippedAt;
+      if (entries.isEmpty() && sinceLastShip < settings.getHeartbeatMs()) {
+        replicationLog.awaitAppend(ackedSequence, settings.getHeartbeatMs() - sinceLastShip);
+        return;
+      }
+      // Lag is measured against what was shipped, not the log's head, which keeps moving
+      long shippedThrough = entries.isEmpty()
+          ? ackedSequence : entries.get(entries.size() - 1).getSequence();
+      ReplicationBatch batch = batch(entries, false, shippedThrough);
+      batch.setLagMillis(lagAfter(shippedThrough));
+      onAck(this, send(batch));
+    }
+
+    private long lagAfter(long shippedThrough) {
+      long nextLoggedAt = replicationLog.loggedAt(shippedThrough + 1);
+      return nextLoggedAt < 0 ? 0 : Math.max(0, System.currentTimeMillis() - nextLoggedAt);
+    }
+
+    private ReplicationAck send(ReplicationBatch batch) {
+      ReplicationAck ack = transport.ship(url, batch);
+      lastShippedAt = System.currentTimeMillis();
+      return ack;
+    }
+
+    private void pause(long millis) {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+    }
+  }
+}
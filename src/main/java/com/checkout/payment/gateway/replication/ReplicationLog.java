@@ -0,0 +1,97 @@
+package com.checkout.payment.gateway.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The leader's in-memory log of changes not yet acknowledged by every follower.
+ *
+ * <p>Sequence numbers are allocated atomically but entries may become visible out of order, so
+ * readers only ever consume the contiguous run following their cursor. The log is capped: when a
+ * follower falls further behind than the capacity, it is rebuilt from a snapshot instead.
+ */
+public class ReplicationLog {
+
+  private final ConcurrentSkipListMap<Long, ReplicationEntry> entries =
+      new ConcurrentSkipListMap<>();
+  private final AtomicLong lastSequence = new AtomicLong();
+  private final int capacity;
+  private final Object appendMonitor = new Object();
+
+  public ReplicationLog(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public long append(ReplicationEntry entry) {
+    long sequence = lastSequence.incrementAndGet();
+    entry.setSequence(sequence);
+    entry.setLoggedAt(System.currentTimeMillis());
+    entries.put(sequence, entry);
+    if (sequence > capacity) {
+      entries.headMap(sequence - capacity, true).clear();
+    }
+    synchronized (appendMonitor) {
+      appendMonitor.notifyAll();
+    }
+    return sequence;
+  }
+
+  /**
+   * @return up to {@code max} consecutive entries following {@code afterSequence}
+   */
+  public List<ReplicationEntry> readAfter(long afterSequence, int max) {
+    List<ReplicationEntry> batch = new ArrayList<>();
+    long expected = afterSequence + 1;
+    for (Map.Entry<Long, ReplicationEntry> entry : entries.tailMap(afterSequence, false)
+        .entrySet()) {
+      if (entry.getKey() != expected || batch.size() == max) {
+        break;
+      }
+      batch.add(entry.getValue());
+      expected++;
+    }
+    return batch;
+  }
+
+  /**
+   * @return whether a follower at {@code afterSequence} can still catch up from the log
+   */
+  public boolean canResumeFrom(long afterSequence) {
+    if (afterSequence >= lastSequence.get()) {
+      return true;
+    }
+    Map.Entry<Long, ReplicationEntry> first = entries.firstEntry();
+    return first != null && first.getKey() <= afterSequence + 1;
+  }
+
+  /**
+   * @return when the entry with {@code sequence} was logged, or -1 if it is not in the log
+   */
+  public long loggedAt(long sequence) {
+    ReplicationEntry entry = entries.get(sequence);
+    return entry == null ? -1 : entry.getLoggedAt();
+  }
+
+  public void truncateThrough(long sequence) {
+    entries.headMap(sequence, true).clear();
+  }
+
+  public long lastSequence() {
+    return lastSequence.get();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public void awaitAppend(long afterSequence, long timeoutMs) throws InterruptedException {
+    synchronized (appendMonitor) {
+      if (lastSequence.get() <= afterSequence) {
+        appendMonitor.wait(timeoutMs);
+      }
+    }
+  }
+}
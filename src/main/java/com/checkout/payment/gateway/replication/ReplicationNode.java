@@ -0,0 +1,64 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.enums.ReplicationRole;
+import com.checkout.payment.gateway.exception.ReplicationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This node's place in the replication group. Followers serve reads from their replicated store
+ * and become leader only when an operator promotes them.
+ */
+@Slf4j
+public class ReplicationNode {
+
+  private final AtomicReference<ReplicationLeader> leader = new AtomicReference<>();
+  private final ReplicationFollower follower;
+  private final Supplier<ReplicationLeader> leaderFactory;
+
+  public ReplicationNode(ReplicationRole initialRole, ReplicationFollower follower,
+      Supplier<ReplicationLeader> leaderFactory) {
+    this.follower = follower;
+    this.leaderFactory = leaderFactory;
+    if (initialRole == ReplicationRole.LEADER) {
+      promote();
+    }
+  }
+
+  public ReplicationRole role() {
+    return leader.get() != null ? ReplicationRole.LEADER : ReplicationRole.FOLLOWER;
+  }
+
+  public boolean isLeader() {
+    return leader.get() != null;
+  }
+
+  /**
+   * @return the leader, failing when this node is a follower
+   */
+  public ReplicationLeader leader() {
+    ReplicationLeader current = leader.get();
+    if (current == null) {
+      throw new ReplicationException("This node is a read replica of " + follower.getLeaderUrl());
+    }
+    return current;
+  }
+
+  public ReplicationFollower follower() {
+    return follower;
+  }
+
+  /**
+   * Makes this node the leader. Its followers are rebuilt from snapshots under the new epoch.
+   */
+  public synchronized void promote() {
+    if (leader.get() != null) {
+      return;
+    }
+    ReplicationLeader promoted = leaderFactory.get();
+    promoted.start();
+    leader.set(promoted);
+    log.info("Promoted to replication leader, shipping to {}", promoted.followerUrls());
+  }
+}
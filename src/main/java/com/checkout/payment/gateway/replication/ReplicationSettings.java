@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.replication;
+
+public class ReplicationSettings {
+  private boolean sync;
+  private int syncAcks = 1;
+  private long syncTimeoutMs = 1000;
+  private long heartbeatMs = 500;
+  private int batchSize = 500;
+  private int logCapacity = 100_000;
+  private long retryBackoffMs = 1000;
+
+  public boolean isSync() {
+    return sync;
+  }
+
+  public void setSync(boolean sync) {
+    this.sync = sync;
+  }
+
+  public int getSyncAcks() {
+    return syncAcks;
+  }
+
+  public void setSyncAcks(int syncAcks) {
+    this.syncAcks = syncAcks;
+  }
+
+  public long getSyncTimeoutMs() {
+    return syncTimeoutMs;
+  }
+
+  public void setSyncTimeoutMs(long syncTimeoutMs) {
+    this.syncTimeoutMs = syncTimeoutMs;
+  }
+
+  public long getHeartbeatMs() {
+    return heartbeatMs;
+  }
+
+  public void setHeartbeatMs(long heartbeatMs) {
+    this.heartbeatMs = heartbeatMs;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public int getLogCapacity() {
+    return logCapacity;
+  }
+
+  public void setLogCapacity(int logCapacity) {
+    this.logCapacity = logCapacity;
+  }
+
+  public long getRetryBackoffMs() {
+    return retryBackoffMs;
+  }
+
+  public void setRetryBackoffMs(long retryBackoffMs) {
+    this.retryBackoffMs = retryBackoffMs;
+  }
+
+  @Override
+  public String toString() {
+    return "ReplicationSettings{" +
+        "sync=" + sync +
+        ", syncAcks=" + syncAcks +
+        ", syncTimeoutMs=" + syncTimeoutMs +
+        ", heartbeatMs=" + heartbeatMs +
+        ", batchSize=" + batchSize +
+        ", logCapacity=" + logCapacity +
+        ", retryBackoffMs=" + retryBackoffMs +
+        '}';
+  }
+}
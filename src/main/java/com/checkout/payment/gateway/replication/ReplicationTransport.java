@@ -0,0 +1,14 @@
+package com.checkout.payment.gateway.replication;
+
+public interface ReplicationTransport {
+
+  /**
+   * Delivers a batch to a follower and returns its acknowledgement.
+   *
+   * @param followerUrl base URL of the follower
+   * @param batch       entries to apply, empty for a heartbeat
+   * @return the follower's acknowledgement
+   * @throws com.checkout.payment.gateway.exception.ReplicationException when delivery fails
+   */
+  ReplicationAck ship(String followerUrl, ReplicationBatch batch);
+}
@@ -0,0 +1,117 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers lookups for ids that were never stored without asking the underlying store.
+ *
+ * <p>Every id added goes into a {@link ScalableBloomFilter}, which is first filled from the
+ * store's current contents. Removed ids stay in the filter, so their lookups reach the store as
+ * before.
+ */
+@Slf4j
+public class BloomFilteredPaymentsRepository implements PaymentsRepository {
+
+  private final PaymentsRepository repository;
+  private final ScalableBloomFilter filter;
+  private final LongAdder filteredMisses = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+
+  public BloomFilteredPaymentsRepository(PaymentsRepository repository,
+      ScalableBloomFilter filter) {
+    this.repository = repository;
+    this.filter = filter;
+    long start = System.nanoTime();
+    LongAdder loaded = new LongAdder();
+    repository.forEach(payment -> {
+      filter.put(payment.getId());
+      loaded.increment();
+    });
+    log.info("Built payment id filter from {} stored payments in {} ms", loaded.sum(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  @Override
+  public void add(PaymentResponse payment) {
+    // Into the filter first, so a lookup racing the write still reaches the store
+    filter.put(payment.getId());
+    repository.add(payment);
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    if (!filter.mightContain(id)) {
+      filteredMisses.increment();
+      return Optional.empty();
+    }
+    Optional<PaymentResponse> payment = repository.get(id);
+    (payment.isPresent() ? hits : falsePositives).increment();
+    return payment;
+  }
+
+  // Only the ids the filter lets through reach the store, in one batch
+  @Override
+  public Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    List<UUID> candidates = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      if (filter.mightContain(id)) {
+        candidates.add(id);
+      }
+    }
+    filteredMisses.add(ids.size() - candidates.size());
+    if (candidates.isEmpty()) {
+      return new HashMap<>();
+    }
+    Map<UUID, PaymentResponse> found = repository.getAll(candidates);
+    hits.add(found.size());
+    falsePositives.add(candidates.size() - found.size());
+    return found;
+  }
+
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    repository.forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    repository.remove(id);
+  }
+
+  public ScalableBloomFilter getFilter() {
+    return filter;
+  }
+
+  /**
+   * @return of the lookups for ids not in the store, the share the filter let through; removed
+   * payments count as false positives here
+   */
+  public double observedFalsePositiveRate() {
+    long passed = falsePositives.sum();
+    long misses = passed + filteredMisses.sum();
+    return misses == 0 ? 0 : (double) passed / misses;
+  }
+
+  public long filteredMissCount() {
+    return filteredMisses.sum();
+  }
+
+  public long falsePositiveCount() {
+    return falsePositives.sum();
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+}
@@ -0,0 +1,51 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.jfr.RepositoryWriteEvent;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Times every write to the underlying store as a {@link RepositoryWriteEvent}; while no flight
+ * recording is running, a write costs one extra call.
+ */
+public class FlightRecordedPaymentsRepository implements PaymentsRepository {
+
+  private final PaymentsRepository repository;
+
+  public FlightRecordedPaymentsRepository(PaymentsRepository repository) {
+    this.repository = repository;
+  }
+
+  @Override
+  public void add(PaymentResponse payment) {
+    RepositoryWriteEvent event = new RepositoryWriteEvent();
+    event.begin();
+    repository.add(payment);
+    byte[] json = payment.getSerializedJson();
+    event.record(json == null ? 0 : json.length);
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    return repository.get(id);
+  }
+
+  @Override
+  public Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    return repository.getAll(ids);
+  }
+
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    repository.forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    repository.remove(id);
+  }
+}
@@ -0,0 +1,34 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class InMemoryPaymentsRepository implements PaymentsRepository {
+
+  private final Map<UUID, PaymentResponse> payments = new ConcurrentHashMap<>();
+
+  @Override
+  public void add(PaymentResponse payment) {
+    payments.put(payment.getId(), payment);
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    return Optional.ofNullable(payments.get(id));
+  }
+
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    payments.values().forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    payments.remove(id);
+  }
+
+}
@@ -0,0 +1,322 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentAction;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stores payments in the {@code payments} table, written behind the caller.
+ *
+ * <p>{@link #add} and {@link #remove} record the change in an in-memory overlay and queue it; a
+ * single writer thread drains the queue and applies the changes in JDBC batches, once
+ * {@code batchSize} changes are waiting or {@code flushIntervalMs} after the first one. Reads
+ * consult the overlay first, so a payment is readable as soon as {@code add} returns. An entry
+ * leaves the overlay once it is in the table, unless it was changed again in the meantime.
+ *
+ * <p>When the queue stays full for {@code enqueueTimeoutMs}, for instance because the database
+ * is slow and the writer falls behind, the caller writes its change synchronously instead and
+ * sees any database error. Writes are serialised and only apply a change that is still the
+ * payment's entry in the overlay, so a queued change that a synchronous write overtook is
+ * skipped rather than written over the newer row.
+ */
+@Slf4j
+public class JdbcPaymentsRepository implements PaymentsRepository {
+
+  private static final String DELETE = "DELETE FROM payments WHERE id = ?";
+  private static final String INSERT = "INSERT INTO payments (id, status, last_four_digits, "
+      + "card_expiry_date, expiry_month, expiry_year, currency, amount, settlement_currency, "
+      + "settlement_amount, fx_rate, captured_amount, refunded_amount, actions) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String SELECT = "SELECT id, status, last_four_digits, card_expiry_date, "
+      + "expiry_month, expiry_year, currency, amount, settlement_currency, settlement_amount, "
+      + "fx_rate, captured_amount, refunded_amount, actions FROM payments";
+  // Ids per IN list of a batched lookup
+  private static final int LOOKUP_BATCH_SIZE = 500;
+  private static final long RETRY_BACKOFF_MS = 1000;
+  // Bounds each wait so the writer notices close() without being interrupted mid-statement
+  private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  // Overlay marker for a payment removed but not yet deleted from the table
+  private static final PaymentResponse REMOVED = new PaymentResponse();
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final long enqueueTimeoutMs;
+  private final Map<UUID, PaymentResponse> overlay = new ConcurrentHashMap<>();
+  private final BlockingQueue<Change> queue;
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  public JdbcPaymentsRepository(JdbcTemplate jdbcTemplate, int queueCapacity, int batchSize,
+      long flushIntervalMs, long enqueueTimeoutMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(
+        new JdbcTransactionManager(jdbcTemplate.getDataSource()));
+    this.batchSize = batchSize;
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    this.enqueueTimeoutMs = enqueueTimeoutMs;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.writer = new Thread(this::writeBehind, "payments-write-behind");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  @Override
+  public void add(PaymentResponse payment) {
+    submit(new Change(payment.getId(), payment));
+  }
+
+  @Override
+  public Optional<PaymentResponse> get(UUID id) {
+    PaymentResponse pending = overlay.get(id);
+    if (pending != null) {
+      return pending == REMOVED ? Optional.empty() : Optional.of(pending);
+    }
+    List<PaymentResponse> rows = jdbcTemplate.query(SELECT + " WHERE id = ?",
+        (resultSet, row) -> toPayment(resultSet), id);
+    return rows.stream().findFirst();
+  }
+
+  // Ids not pending in the overlay are read with one IN query per batch
+  @Override
+  public Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    Map<UUID, PaymentResponse> found = new HashMap<>();
+    List<UUID> unwritten = new ArrayList<>();
+    for (UUID id : ids) {
+      PaymentResponse pending = overlay.get(id);
+      if (pending == null) {
+        unwritten.add(id);
+      } else if (pending != REMOVED) {
+        found.put(id, pending);
+      }
+    }
+    for (int from = 0; from < unwritten.size(); from += LOOKUP_BATCH_SIZE) {
+      List<UUID> batch = unwritten.subList(from,
+          Math.min(from + LOOKUP_BATCH_SIZE, unwritten.size()));
+      String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+      jdbcTemplate.query(SELECT + " WHERE id IN (" + placeholders + ")", resultSet -> {
+        PaymentResponse payment = toPayment(resultSet);
+        found.put(payment.getId(), payment);
+      }, batch.toArray());
+    }
+    return found;
+  }
+
+  @Override
+  public void forEach(Consumer<PaymentResponse> action) {
+    jdbcTemplate.query(SELECT, resultSet -> {
+      PaymentResponse payment = toPayment(resultSet);
+      if (!overlay.containsKey(payment.getId())) {
+        action.accept(payment);
+      }
+    });
+    overlay.values().stream().filter(payment -> payment != REMOVED).forEach(action);
+  }
+
+  @Override
+  public void remove(UUID id) {
+    submit(new Change(id, REMOVED));
+  }
+
+  public int pendingCount() {
+    return queue.size();
+  }
+
+  /**
+   * Stops the writer after it has written every queued change.
+   */
+  public void close() {
+    running = false;
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(30));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    if (!queue.isEmpty()) {
+      log.error("Closed with {} payment changes not written", queue.size());
+    }
+  }
+
+  private void submit(Change change) {
+    overlay.put(change.id, change.payment);
+    try {
+      if (queue.offer(change, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    log.warn("Write-behind queue full, writing payment {} synchronously", change.id);
+    write(List.of(change));
+  }
+
+  private void writeBehind() {
+    List<Change> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        Change first = queue.poll(POLL_NANOS, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running) {
+          queue.drainTo(batch, batchSize - batch.size());
+          long remaining = deadline - System.nanoTime();
+          if (batch.size() >= batchSize || remaining <= 0) {
+            break;
+          }
+          Change next = queue.poll(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+          if (next != null) {
+            batch.add(next);
+          }
+        }
+      } catch (InterruptedException ex) {
+        // Nothing interrupts the writer on purpose; keep draining the queue
+      }
+      flush(batch);
+    }
+  }
+
+  private void flush(List<Change> batch) {
+    while (!batch.isEmpty()) {
+      try {
+        write(batch);
+        batch.clear();
+      } catch (DataAccessException ex) {
+        if (!running) {
+          log.error("Dropping {} payment changes on shutdown: {}", batch.size(),
+              ex.getMessage());
+          batch.clear();
+          return;
+        }
+        log.error("Could not write {} payment changes, retrying: {}", batch.size(),
+            ex.getMessage());
+        try {
+          Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException interrupted) {
+          // As in writeBehind, only an unexpected interrupt gets here; retry straight away
+        }
+      }
+    }
+  }
+
+  // Applies the changes still current in the overlay: delete every touched row, then insert the
+  // survivors. Synchronized so a change checked here cannot commit after a newer one.
+  private synchronized void write(List<Change> changes) {
+    Map<UUID, Change> latest = new LinkedHashMap<>();
+    for (Change change : changes) {
+      if (overlay.get(change.id) == change.payment) {
+        latest.put(change.id, change);
+      }
+    }
+    if (latest.isEmpty()) {
+      return;
+    }
+    List<Object[]> deletes = new ArrayList<>(latest.size());
+    List<Object[]> inserts = new ArrayList<>(latest.size());
+    for (Change change : latest.values()) {
+      deletes.add(new Object[]{change.id});
+      if (change.payment != REMOVED) {
+        PaymentResponse payment = change.payment;
+        inserts.add(new Object[]{payment.getId(), payment.getStatus().name(),
+            payment.getLastFourDigits(), payment.getCardExpiryDate(), payment.getExpiryMonth(),
+            payment.getExpiryYear(), payment.getCurrency(), payment.getAmount(),
+            payment.getSettlementCurrency(), payment.getSettlementAmount(),
+            payment.getFxRate(), payment.getCapturedAmount(), payment.getRefundedAmount(),
+            encodeActions(payment.getActions())});
+      }
+    }
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.batchUpdate(DELETE, deletes);
+      if (!inserts.isEmpty()) {
+        jdbcTemplate.batchUpdate(INSERT, inserts);
+      }
+    });
+    for (Change change : changes) {
+      overlay.remove(change.id, change.payment);
+    }
+  }
+
+  private static PaymentResponse toPayment(ResultSet resultSet) throws SQLException {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(resultSet.getObject("id", UUID.class));
+    payment.setStatus(PaymentStatus.valueOf(resultSet.getString("status")));
+    payment.setLastFourDigits(resultSet.getString("last_four_digits"));
+    payment.setCardExpiryDate(resultSet.getString("card_expiry_date"));
+    payment.setExpiryMonth(resultSet.getInt("expiry_month"));
+    payment.setExpiryYear(resultSet.getInt("expiry_year"));
+    payment.setCurrency(resultSet.getString("currency"));
+    payment.setAmount(resultSet.getInt("amount"));
+    payment.setSettlementCurrency(resultSet.getString("settlement_currency"));
+    payment.setSettlementAmount(resultSet.getObject("settlement_amount", Integer.class));
+    payment.setFxRate(resultSet.getBigDecimal("fx_rate"));
+    payment.setCapturedAmount(resultSet.getInt("captured_amount"));
+    payment.setRefundedAmount(resultSet.getInt("refunded_amount"));
+    payment.setActions(decodeActions(resultSet.getString("actions")));
+    return payment;
+  }
+
+  // One type:amount:processedOn entry per action, oldest first, separated by semicolons
+  private static String encodeActions(List<PaymentAction> actions) {
+    if (actions.isEmpty()) {
+      return null;
+    }
+    StringBuilder encoded = new StringBuilder();
+    for (PaymentAction action : actions) {
+      if (encoded.length() > 0) {
+        encoded.append(';');
+      }
+      encoded.append(action.getType().name()).append(':').append(action.getAmount())
+          .append(':').append(action.getProcessedOn());
+    }
+    return encoded.toString();
+  }
+
+  private static List<PaymentAction> decodeActions(String encoded) {
+    if (encoded == null || encoded.isEmpty()) {
+      return List.of();
+    }
+    List<PaymentAction> actions = new ArrayList<>();
+    for (String entry : encoded.split(";")) {
+      // The timestamp has colons of its own
+      String[] fields = entry.split(":", 3);
+      actions.add(new PaymentAction(PaymentActionType.valueOf(fields[0]),
+          Integer.parseInt(fields[1]), fields[2]));
+    }
+    return List.copyOf(actions);
+  }
+
+  private static final class Change {
+    private final UUID id;
+    private final PaymentResponse payment;
+
+    private Change(UUID id, PaymentResponse payment) {
+      this.id = id;
+      this.payment = payment;
+    }
+  }
+}
@@ -1,22 +1,58 @@
 package com.checkout.payment.gateway.repository;
 
 import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.stereotype.Repository;
+import java.util.function.Consumer;
 
-@Repository
-public class PaymentsRepository {
+public interface PaymentsRepository {
 
-  private final HashMap<UUID, PaymentResponse> payments = new HashMap<>();
+  /**
+   * Stores a payment, replacing any payment previously stored under the same id.
+   *
+   * @param payment the payment to store
+   */
+  void add(PaymentResponse payment);
 
-  public void add(PaymentResponse payment) {
-    payments.put(payment.getId(), payment);
-  }
+  /**
+   * Looks up a payment by id.
+   *
+   * @param id the payment id
+   * @return Optional of the stored payment, Optional.empty() when no payment has this id
+   */
+  Optional<PaymentResponse> get(UUID id);
 
-  public Optional<PaymentResponse> get(UUID id) {
-    return Optional.ofNullable(payments.get(id));
+  /**
+   * Looks up several payments with one access to the store where the store supports it; by
+   * default, one lookup per id.
+   *
+   * @param ids the payment ids
+   * @return a new, modifiable map of the stored payments by id; ids with no payment have no
+   * entry
+   */
+  default Map<UUID, PaymentResponse> getAll(Collection<UUID> ids) {
+    Map<UUID, PaymentResponse> found = new HashMap<>();
+    for (UUID id : ids) {
+      get(id).ifPresent(payment -> found.put(id, payment));
+    }
+    return found;
   }
 
+  /**
+   * Visits every payment held by this store. Iteration is weakly consistent: payments added or
+   * removed while it runs may or may not be visited.
+   *
+   * @param action callback invoked once per payment
+   */
+  void forEach(Consumer<PaymentResponse> action);
+
+  /**
+   * Removes a payment; does nothing when no payment has this id.
+   *
+   * @param id the payment id
+   */
+  void remove(UUID id);
 }
@@ -0,0 +1,156 @@
+package com.checkout.payment.gateway.repository;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of payment ids that grows with the number of ids put into it.
+ *
+ * <p>Ids go into the newest of a series of fixed-size stages. Once a stage holds its capacity, a
+ * stage twice as large with half the false-positive rate is added, so the combined rate stays
+ * under the configured one however many ids arrive. Bits are set with atomic ORs, so puts and
+ * lookups run concurrently without locks; only adding a stage synchronizes. An id is reported
+ * as present from the moment its put returns.
+ */
+public class ScalableBloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final double falsePositiveRate;
+  private volatile Stage[] stages;
+
+  /**
+   * @param initialCapacity   ids the first stage holds at {@code falsePositiveRate / 2}
+   * @param falsePositiveRate upper bound on the rate over all stages
+   */
+  public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+    if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Invalid Bloom filter sizing: " + initialCapacity + ", "
+          + falsePositiveRate);
+    }
+    this.falsePositiveRate = falsePositiveRate;
+    this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate / 2)};
+  }
+
+  public void put(UUID id) {
+    long first = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    long second = mix(first + id.getLeastSignificantBits()) | 1;
+    Stage[] current = stages;
+    Stage stage = current[current.length - 1];
+    stage.put(first, second);
+    if (stage.count.incrementAndGet() == stage.capacity) {
+      grow(current.length);
+    }
+  }
+
+  public boolean mightContain(UUID id) {
+    long first = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    long second = mix(first + id.getLeastSignificantBits()) | 1;
+    for (Stage stage : stages) {
+      if (stage.mightContain(first, second)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the false-positive rate expected from the ids put so far
+   */
+  public double expectedFalsePositiveRate() {
+    double none = 1;
+    for (Stage stage : stages) {
+      none *= 1 - stage.expectedFalsePositiveRate();
+    }
+    return 1 - none;
+  }
+
+  public double getFalsePositiveRate() {
+    return falsePositiveRate;
+  }
+
+  public int stageCount() {
+    return stages.length;
+  }
+
+  public long bitCount() {
+    long bits = 0;
+    for (Stage stage : stages) {
+      bits += stage.bits;
+    }
+    return bits;
+  }
+
+  private synchronized void grow(int fullStages) {
+    Stage[] current = stages;
+    if (current.length != fullStages) {
+      return;
+    }
+    Stage last = current[current.length - 1];
+    Stage[] grown = new Stage[current.length + 1];
+    System.arraycopy(current, 0, grown, 0, current.length);
+    grown[current.length] = new Stage(
+        (int) Math.min(Integer.MAX_VALUE / 2, (long) last.capacity * 2), last.targetRate / 2);
+    stages = grown;
+  }
+
+  // Murmur3 finalizer: payment ids are mostly timestamp and counter bits, so spread them first
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  private static final class Stage {
+    private final int capacity;
+    private final double targetRate;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLongArray words;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private Stage(int capacity, double targetRate) {
+      this.capacity = capacity;
+      this.targetRate = targetRate;
+      long optimalBits = (long) Math.ceil(-capacity * Math.log(targetRate) / (LN2 * LN2));
+      this.bits = Math.max(64, (optimalBits + 63) & ~63L);
+      this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+      if (bits / 64 > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Bloom filter stage too large: " + bits + " bits");
+      }
+      this.words = new AtomicLongArray((int) (bits / 64));
+    }
+
+    // Double hashing: the i-th bit is first + i * second, as in Kirsch and Mitzenmacher
+    private void put(long first, long second) {
+      long hash = first;
+      for (int i = 0; i < hashes; i++, hash += second) {
+        long bit = Math.floorMod(hash, bits);
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        if ((words.get(index) & mask) == 0) {
+          words.getAndAccumulate(index, mask, (word, added) -> word | added);
+        }
+      }
+    }
+
+    private boolean mightContain(long first, long second) {
+      long hash = first;
+      for (int i = 0; i < hashes; i++, hash += second) {
+        long bit = Math.floorMod(hash, bits);
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private double expectedFalsePositiveRate() {
+      return Math.pow(1 - Math.exp(-(double) hashes * count.get() / bits), hashes);
+    }
+  }
+}
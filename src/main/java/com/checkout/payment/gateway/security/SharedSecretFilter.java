@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.security;
+
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Refuses node-to-node requests that do not carry the shared secret of the gateway's nodes. The
+ * internal endpoints are served on the same port as the public API, so without it any client
+ * could store or remove payments, add a node of its own, overwrite a follower's store or promote
+ * a follower.
+ */
+@Slf4j
+public class SharedSecretFilter extends OncePerRequestFilter {
+
+  public static final String SECRET_HEADER = "X-Internal-Secret";
+
+  private static final ErrorResponse FORBIDDEN =
+      new ErrorResponse("Internal endpoints require the shared secret");
+
+  private final byte[] secret;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * @throws IllegalArgumentException when no secret is configured, so that internal endpoints
+   * are never served unprotected
+   */
+  public SharedSecretFilter(String secret, ObjectMapper objectMapper) {
+    if (secret == null || secret.isBlank()) {
+      throw new IllegalArgumentException(
+          "internal.shared-secret must be set when cluster or replication endpoints are served");
+    }
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String presented = request.getHeader(SECRET_HEADER);
+    // Compared in constant time, so the secret cannot be guessed byte by byte from timings
+    if (presented != null
+        && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    log.warn("Refused {} {} from {} without the shared secret", request.getMethod(),
+        request.getRequestURI(), request.getRemoteAddr());
+    response.setStatus(HttpStatus.FORBIDDEN.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), FORBIDDEN);
+  }
+}
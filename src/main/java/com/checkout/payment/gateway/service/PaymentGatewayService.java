@@ -1,19 +1,35 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.bin.BinInfo;
 import com.checkout.payment.gateway.client.AcquiringBankClient;
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.deadline.RequestDeadline;
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.fx.FxConversion;
+import com.checkout.payment.gateway.id.PaymentIdGenerator;
+import com.checkout.payment.gateway.jfr.PaymentProcessedEvent;
+import com.checkout.payment.gateway.jfr.ValidationRejectedEvent;
 import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
 import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
+import com.checkout.payment.gateway.model.ErrorResponse;
 import com.checkout.payment.gateway.model.PaymentRequest;
 import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.model.PaymentStatisticsResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.validation.CardBinValidator;
 import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.checkout.payment.gateway.validation.ValidationFailure;
+import com.checkout.payment.gateway.velocity.CardVelocityCheck;
+import com.checkout.payment.gateway.webhook.PaymentEventPublisher;
 import com.checkout.payment.gateway.exception.EventProcessingException;
 import com.checkout.payment.gateway.exception.BankServiceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,22 +39,92 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PaymentGatewayService {
 
+  // Stackless and immutable, so one instance serves every bank outage
+  private static final BankServiceException BANK_UNAVAILABLE = new BankServiceException(
+      ErrorResponse.BANK_UNAVAILABLE.getMessage(), 503);
+  private static final BankServiceException DEADLINE_EXCEEDED = new BankServiceException(
+      ErrorResponse.DEADLINE_EXCEEDED.getMessage(), 504);
+  // Ids per repository access of a bulk lookup; found payments are written out between batches
+  private static final int LOOKUP_BATCH_SIZE = 500;
+
   private final AcquiringBankClient acquiringBankClient;
   private final PaymentsRepository paymentsRepository;
   private final PaymentRequestValidator paymentRequestValidator;
+  private final PaymentStatistics paymentStatistics;
+  private final PaymentIdGenerator paymentIdGenerator;
+  private final PaymentResponseEncoder paymentResponseEncoder;
+  private final BankCallBudget bankCallBudget;
+  private final PaymentEventPublisher paymentEventPublisher;
+  private final CardBinValidator cardBinValidator;
+  private final CurrencyConverter currencyConverter;
+  private final CardVelocityCheck cardVelocityCheck;
 
   public PaymentResponse processPayment(PaymentRequest paymentRequest) {
-    UUID paymentId = UUID.randomUUID();
+    return processPayment(paymentRequest, null);
+  }
 
+  /**
+   * @param merchantId merchant submitting the payment, told about its outcome by webhook when
+   *                   subscribed; may be null
+   */
+  public PaymentResponse processPayment(PaymentRequest paymentRequest, String merchantId) {
+    UUID paymentId = paymentIdGenerator.nextId();
+    PaymentProcessedEvent event = new PaymentProcessedEvent();
+    event.begin();
+    PaymentStatus status = null;
+    try {
+      PaymentResponse response = processPayment(paymentRequest, merchantId, paymentId);
+      status = response.getStatus();
+      return response;
+    } finally {
+      event.record(paymentId, status);
+    }
+  }
+
+  private PaymentResponse processPayment(PaymentRequest paymentRequest, String merchantId,
+      UUID paymentId) {
     // Validating request before calling Bank simulator
-    String reason = paymentRequestValidator.validatePaymentRequest(paymentRequest);
-    if (reason != null) {
-      log.warn("Rejected (validation) paymentId={}, reason={}", paymentId, reason);
-      return buildResponse(paymentRequest, paymentId, PaymentStatus.REJECTED);
+    ValidationFailure failure = validate(paymentRequest);
+    // The card's BIN range decides whether it is accepted and where it is routed
+    BinInfo bin = BinInfo.UNKNOWN;
+    if (failure == null) {
+      bin = cardBinValidator.lookup(paymentRequest.getCardNumber());
+      failure = cardBinValidator.validate(bin);
+    }
+    // Currencies the acquirers do not settle in are converted at the rates in force
+    FxConversion conversion = null;
+    if (failure == null) {
+      String currency = normalizeCurrency(paymentRequest.getCurrency());
+      if (!PaymentRequestValidator.isSettlementCurrency(currency)) {
+        conversion = currencyConverter.convert(currency, paymentRequest.getAmount());
+        failure = validateConversion(currency, conversion);
+      }
+    }
+    // Cards making too many attempts, or attempts for too much, are stopped before a bank call
+    // is spent on them
+    if (failure == null) {
+      failure = cardVelocityCheck.check(paymentRequest.getCardNumber(),
+          conversion == null ? paymentRequest.getAmount() : conversion.getAmount());
+    }
+    if (failure != null) {
+      log.warn("Rejected (validation) paymentId={}, rule={}, reason={}", paymentId,
+          failure.getRule(), failure.getReason());
+      PaymentResponse rejected = buildResponse(paymentRequest, paymentId, PaymentStatus.REJECTED);
+      paymentStatistics.recordRejection(failure.getRule());
+      ValidationRejectedEvent.record(failure.getRule());
+      paymentStatistics.recordPayment(PaymentStatus.REJECTED, null, rejected.getAmount());
+      return rejected;
     }
 
     // Build bank request for when request is valid
-    AcquiringBankPaymentRequest bankReq = buildBankRequest(paymentRequest);
+    AcquiringBankPaymentRequest bankReq = buildBankRequest(paymentRequest, bin, conversion);
+
+    // Nothing is sent to the bank when its answer could not reach the client in time
+    if (bankCallBudget.isExhausted()) {
+      log.warn("Request deadline too close to call the bank for paymentId={}", paymentId);
+      bankCallBudget.recordExceeded();
+      throw DEADLINE_EXCEEDED;
+    }
 
     // Call bank simulator
     Optional<AcquiringBankPaymentResponse> bankRes = acquiringBankClient.processPayment(bankReq);
@@ -47,10 +133,14 @@ public class PaymentGatewayService {
     // If bank call failed (e.g., 503, network error), throw exception
     // REJECTED status is ONLY for validation failures, not bank failures
     AcquiringBankPaymentResponse bankResponse = bankRes.orElseThrow(() -> {
-      log.error("Bank service unavailable or failed for paymentId={}", paymentId);
-      return new BankServiceException(
-          "Acquiring bank service is currently unavailable. Please try again later.",
-          503);
+      if (RequestDeadline.isExpired()) {
+        log.warn("Request deadline passed waiting for the bank for paymentId={}", paymentId);
+        bankCallBudget.recordExceeded();
+        return DEADLINE_EXCEEDED;
+      }
+      log.warn("Bank service unavailable or failed for paymentId={}", paymentId);
+      paymentStatistics.recordBankFailure();
+      return BANK_UNAVAILABLE;
     });
 
     // Map bank response outcomes
@@ -60,17 +150,64 @@ public class PaymentGatewayService {
 
     // Build & store response (only AUTHORIZED and DECLINED are stored, not REJECTED)
     PaymentResponse response = buildResponse(paymentRequest, paymentId, status);
+    if (conversion != null) {
+      response.setSettlementCurrency(conversion.getCurrency());
+      response.setSettlementAmount((int) conversion.getAmount());
+      response.setFxRate(conversion.getRate());
+    }
+    paymentResponseEncoder.encode(response);
     paymentsRepository.add(response);
+    paymentEventPublisher.publish(merchantId, response);
+    paymentStatistics.recordPayment(status, response.getCurrency(), response.getAmount());
     return response;
   }
 
+  /**
+   * Looks up a stored payment without throwing; rejected payments are never visible.
+   */
+  public Optional<PaymentResponse> findPaymentById(UUID id) {
+    return paymentsRepository.get(id)
+        .filter(payment -> payment.getStatus() != PaymentStatus.REJECTED);
+  }
+
+  /**
+   * Starts a lookup of many payments; nothing is read until its first batch is asked for.
+   */
+  public PaymentLookup lookupPayments(List<UUID> ids) {
+    return new PaymentLookup(ids, paymentsRepository, LOOKUP_BATCH_SIZE);
+  }
+
   public PaymentResponse getPaymentById(UUID id) {
-    PaymentResponse found = paymentsRepository.get(id)
-        .orElseThrow(() -> createInvalidIdException(id));
-    if (found.getStatus() == PaymentStatus.REJECTED) {
-      throw createInvalidIdException(id);
+    return findPaymentById(id).orElseThrow(() -> createInvalidIdException(id));
+  }
+
+  public PaymentStatisticsResponse getStatistics() {
+    return paymentStatistics.snapshot();
+  }
+
+  // Requests read from JSON arrive validated, or with the violation that stopped their parsing
+  private ValidationFailure validate(PaymentRequest paymentRequest) {
+    if (paymentRequest != null && paymentRequest.getParseFailure() != null) {
+      return paymentRequest.getParseFailure();
+    }
+    if (paymentRequest != null && paymentRequest.isValidated()) {
+      return null;
     }
-    return found;
+    return paymentRequestValidator.validate(paymentRequest);
+  }
+
+  private ValidationFailure validateConversion(String currency, FxConversion conversion) {
+    if (conversion == null) {
+      return new ValidationFailure(ValidationRule.CURRENCY, "Currency is not supported: "
+          + currency + " (no exchange rate into " + currencyConverter.getSettlementCurrency()
+          + ")");
+    }
+    if (conversion.getAmount() <= 0 || conversion.getAmount() > Integer.MAX_VALUE) {
+      return new ValidationFailure(ValidationRule.AMOUNT, "Amount is invalid once converted: "
+          + conversion.getAmount() + " " + conversion.getCurrency()
+          + " (This must be a positive integer)");
+    }
+    return null;
   }
 
   private EventProcessingException createInvalidIdException(UUID id) {
@@ -78,13 +215,19 @@ public class PaymentGatewayService {
   }
 
   // helper to map API request -> bank request
-  private AcquiringBankPaymentRequest buildBankRequest(PaymentRequest r) {
+  private AcquiringBankPaymentRequest buildBankRequest(PaymentRequest r, BinInfo bin,
+      FxConversion conversion) {
     AcquiringBankPaymentRequest req = new AcquiringBankPaymentRequest();
     req.setCardNumber(r.getCardNumber());
     req.setExpiryDate(r.getExpiryDate());  // bank simulator format -> "MM/YYYY"
     req.setCurrency(normalizeCurrency(r.getCurrency()));
     req.setAmount(r.getAmount());
     req.setCvv(r.getCvv());
+    req.setCardScheme(bin.getScheme());
+    if (conversion != null) {
+      req.setCurrency(conversion.getCurrency());
+      req.setAmount((int) conversion.getAmount());
+    }
 
     return req;
   }
@@ -0,0 +1,61 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A bulk lookup that reads its ids a batch per repository access, so the payments of one batch
+ * can be written out before the next is read. Repeated ids are looked up once, and rejected
+ * payments count as missing.
+ */
+public class PaymentLookup {
+
+  private final List<UUID> ids;
+  private final PaymentsRepository paymentsRepository;
+  private final int batchSize;
+  private final List<UUID> missing = new ArrayList<>();
+  private int resolved;
+
+  public PaymentLookup(List<UUID> ids, PaymentsRepository paymentsRepository, int batchSize) {
+    this.ids = new ArrayList<>(new LinkedHashSet<>(ids));
+    this.paymentsRepository = paymentsRepository;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * @return the payments found in the next batch, in the order their ids were given, or null
+   * once every batch has been read
+   */
+  public List<PaymentResponse> nextBatch() {
+    if (resolved == ids.size()) {
+      return null;
+    }
+    List<UUID> batch = ids.subList(resolved, Math.min(resolved + batchSize, ids.size()));
+    Map<UUID, PaymentResponse> payments = paymentsRepository.getAll(batch);
+    List<PaymentResponse> found = new ArrayList<>(batch.size());
+    for (UUID id : batch) {
+      PaymentResponse payment = payments.get(id);
+      if (payment == null || payment.getStatus() == PaymentStatus.REJECTED) {
+        missing.add(id);
+      } else {
+        found.add(payment);
+      }
+    }
+    resolved += batch.size();
+    return found;
+  }
+
+  /**
+   * @return the ids with no visible payment in the batches read so far, in the order they were
+   * given
+   */
+  public List<UUID> getMissing() {
+    return missing;
+  }
+}
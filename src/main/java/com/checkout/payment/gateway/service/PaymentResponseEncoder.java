@@ -0,0 +1,42 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes a stored payment once, when it is final, so lookups can send the bytes as they
+ * are instead of mapping the object again on every read.
+ *
+ * <p>The bytes live on the {@link PaymentResponse} itself and are not part of its JSON, so they
+ * only survive in stores that keep the object: payments read back from a database, a replica,
+ * another cluster node or the archive are serialized as usual.
+ */
+@Slf4j
+@Component
+public class PaymentResponseEncoder {
+
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+
+  public PaymentResponseEncoder(ObjectMapper objectMapper,
+      @Value("${payment.response.preserialize:true}") boolean enabled) {
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+  }
+
+  public void encode(PaymentResponse payment) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      payment.setSerializedJson(objectMapper.writeValueAsBytes(payment));
+    } catch (JsonProcessingException ex) {
+      // Lookups fall back to serializing the object
+      log.warn("Could not pre-serialize payment {}: {}", payment.getId(), ex.getMessage());
+    }
+  }
+}
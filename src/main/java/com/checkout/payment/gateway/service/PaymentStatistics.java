@@ -0,0 +1,201 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.model.PaymentStatisticsResponse;
+import com.checkout.payment.gateway.model.StatisticsTotals;
+import com.checkout.payment.gateway.model.WindowStatistics;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live payment totals, maintained incrementally on the request path.
+ *
+ * <p>Every counter is a {@link LongAdder}, so concurrent writers update separate cells instead of
+ * contending on a single word. Rolling windows are kept in a ring of one-second slots that is
+ * recycled lazily by the first writer of a new second; a write racing a slot rollover may be lost,
+ * which is acceptable for operational statistics.
+ */
+@Component
+public class PaymentStatistics {
+
+  // Longest rolling window is one hour, one slot per second
+  private static final int SLOT_COUNT = 3600;
+  private static final Map<String, Integer> WINDOWS = windows();
+  // Outcomes of a submission; captures, voids and refunds are not counted here. Their ordinals
+  // index the slot arrays, so they must stay the first statuses declared.
+  private static final PaymentStatus[] STATUSES = {
+      PaymentStatus.AUTHORIZED, PaymentStatus.DECLINED, PaymentStatus.REJECTED};
+
+  private final Clock clock;
+  private final Map<String, Totals> byCurrency = new ConcurrentHashMap<>();
+  private final Map<PaymentStatus, Totals> byStatus = new EnumMap<>(PaymentStatus.class);
+  private final Map<ValidationRule, LongAdder> rejectionsByRule =
+      new EnumMap<>(ValidationRule.class);
+  private final LongAdder bankFailures = new LongAdder();
+  private final Slot[] slots = new Slot[SLOT_COUNT];
+
+  public PaymentStatistics() {
+    this(Clock.systemUTC());
+  }
+
+  public PaymentStatistics(Clock clock) {
+    this.clock = clock;
+    for (PaymentStatus status : STATUSES) {
+      byStatus.put(status, new Totals());
+    }
+    for (ValidationRule rule : ValidationRule.values()) {
+      rejectionsByRule.put(rule, new LongAdder());
+    }
+    for (int i = 0; i < SLOT_COUNT; i++) {
+      slots[i] = new Slot();
+    }
+  }
+
+  /**
+   * Records the outcome of a submitted payment. Rejected payments are only counted: their
+   * currency and amount are unvalidated client input, which must neither grow the currency map
+   * nor inflate the volume totals.
+   */
+  public void recordPayment(PaymentStatus status, String currency, int amount) {
+    Slot slot = currentSlot();
+    if (status == PaymentStatus.REJECTED) {
+      byStatus.get(status).add(0);
+      slot.counts[status.ordinal()].increment();
+      return;
+    }
+    byStatus.get(status).add(amount);
+    if (currency != null) {
+      byCurrency.computeIfAbsent(currency, c -> new Totals()).add(amount);
+    }
+    slot.counts[status.ordinal()].increment();
+    slot.amounts[status.ordinal()].add(amount);
+  }
+
+  public void recordRejection(ValidationRule rule) {
+    rejectionsByRule.get(rule).increment();
+  }
+
+  public void recordBankFailure() {
+    bankFailures.increment();
+    currentSlot().bankFailures.increment();
+  }
+
+  /**
+   * Builds a snapshot of all totals and rolling windows, evaluated against a single instant.
+   */
+  public PaymentStatisticsResponse snapshot() {
+    long nowMillis = clock.millis();
+    long nowSecond = nowMillis / 1000;
+
+    PaymentStatisticsResponse response = new PaymentStatisticsResponse();
+    response.setAsOf(Instant.ofEpochMilli(nowMillis));
+
+    Map<String, StatisticsTotals> currencies = new TreeMap<>();
+    byCurrency.forEach((currency, totals) -> currencies.put(currency, totals.toView()));
+    response.setByCurrency(currencies);
+
+    Map<String, StatisticsTotals> statuses = new LinkedHashMap<>();
+    byStatus.forEach((status, totals) -> statuses.put(status.getName(), totals.toView()));
+    response.setByStatus(statuses);
+
+    Map<String, Long> rejections = new LinkedHashMap<>();
+    rejectionsByRule.forEach((rule, count) -> rejections.put(rule.getName(), count.sum()));
+    response.setRejectionsByRule(rejections);
+    response.setBankFailures(bankFailures.sum());
+
+    Map<String, WindowStatistics> windows = new LinkedHashMap<>();
+    WINDOWS.forEach((name, seconds) -> windows.put(name, window(nowSecond, seconds)));
+    response.setWindows(windows);
+    return response;
+  }
+
+  private WindowStatistics window(long nowSecond, int seconds) {
+    long[] counts = new long[STATUSES.length];
+    long[] amounts = new long[STATUSES.length];
+    long failures = 0;
+    for (Slot slot : slots) {
+      long second = slot.second.get();
+      if (second > nowSecond - seconds && second <= nowSecond) {
+        for (int i = 0; i < STATUSES.length; i++) {
+          counts[i] += slot.counts[i].sum();
+          amounts[i] += slot.amounts[i].sum();
+        }
+        failures += slot.bankFailures.sum();
+      }
+    }
+
+    Map<String, StatisticsTotals> statuses = new LinkedHashMap<>();
+    for (PaymentStatus status : STATUSES) {
+      statuses.put(status.getName(),
+          new StatisticsTotals(counts[status.ordinal()], amounts[status.ordinal()]));
+    }
+    WindowStatistics window = new WindowStatistics();
+    window.setByStatus(statuses);
+    window.setBankFailures(failures);
+    return window;
+  }
+
+  private Slot currentSlot() {
+    long second = clock.millis() / 1000;
+    Slot slot = slots[(int) (second % SLOT_COUNT)];
+    long seen = slot.second.get();
+    if (seen < second && slot.second.compareAndSet(seen, second)) {
+      slot.reset();
+    }
+    return slot;
+  }
+
+  private static Map<String, Integer> windows() {
+    Map<String, Integer> windows = new LinkedHashMap<>();
+    windows.put("1m", 60);
+    windows.put("5m", 300);
+    windows.put("1h", 3600);
+    return windows;
+  }
+
+  private static final class Totals {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder amount = new LongAdder();
+
+    void add(int value) {
+      count.increment();
+      amount.add(value);
+    }
+
+    StatisticsTotals toView() {
+      return new StatisticsTotals(count.sum(), amount.sum());
+    }
+  }
+
+  private static final class Slot {
+    private final AtomicLong second = new AtomicLong(-1);
+    private final LongAdder[] counts = adders();
+    private final LongAdder[] amounts = adders();
+    private final LongAdder bankFailures = new LongAdder();
+
+    void reset() {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i].reset();
+        amounts[i].reset();
+      }
+      bankFailures.reset();
+    }
+
+    private static LongAdder[] adders() {
+      LongAdder[] adders = new LongAdder[STATUSES.length];
+      for (int i = 0; i < adders.length; i++) {
+        adders[i] = new LongAdder();
+      }
+      return adders;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package com.checkout.payment.gateway.settlement;
+
+import com.checkout.payment.gateway.exception.SettlementException;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.model.SettlementReport;
+import com.checkout.payment.gateway.model.SettlementTotal;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Produces the settlement of one UTC day: a totals file per currency and status and a line-item
+ * file with every payment created that day, ordered by id.
+ *
+ * <p>The snapshot is defined by creation time, which every time-ordered id carries: a day is
+ * only settled once it ended at least {@code closeDelay} ago, longer than a payment can take
+ * between getting its id and being stored. From then on the set of payments in the day no longer
+ * changes, so the job can read the store while it keeps taking traffic. Payments with random ids
+ * have no creation time and are left out.
+ *
+ * <p>The snapshot is sorted and settled on a dedicated fork-join pool; every partition writes
+ * its own part file, which are then concatenated into the line-item file with
+ * {@link FileChannel#transferTo}. Both files are moved into place only once complete.
+ */
+@Slf4j
+public class SettlementJob {
+
+  static final int PARTITION_ROWS = 1 << 16;
+  private static final String ITEMS_HEADER = "id,created_at,status,currency,amount,"
+      + "last_four_digits,expiry_month,expiry_year\n";
+
+  private final PaymentsRepository repository;
+  private final Path directory;
+  private final Duration closeDelay;
+  private final Clock clock;
+  private final ForkJoinPool pool;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "settlement");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  public SettlementJob(PaymentsRepository repository, Path directory, int parallelism,
+      Duration closeDelay, Clock clock) {
+    this.repository = repository;
+    this.directory = directory;
+    this.closeDelay = closeDelay;
+    this.clock = clock;
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Settles the previous UTC day every day at {@code runAt} UTC.
+   */
+  public void start(LocalTime runAt) {
+    ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+    ZonedDateTime next = now.with(runAt);
+    if (!next.isAfter(now)) {
+      next = next.plusDays(1);
+    }
+    scheduler.scheduleAtFixedRate(this::settlePreviousDay,
+        Duration.between(now, next).toMillis(), TimeUnit.DAYS.toMillis(1),
+        TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    scheduler.shutdownNow();
+    pool.shutdownNow();
+  }
+
+  public boolean isClosed(LocalDate date) {
+    return clock.millis() >= dayStart(date.plusDays(1)) + closeDelay.toMillis();
+  }
+
+  public synchronized SettlementReport settle(LocalDate date) {
+    if (!isClosed(date)) {
+      throw new SettlementException("Settlement day " + date + " is not closed yet");
+    }
+    long started = System.nanoTime();
+    long from = dayStart(date);
+    long to = dayStart(date.plusDays(1));
+    List<PaymentResponse> snapshot = new ArrayList<>();
+    AtomicLong untimed = new AtomicLong();
+    repository.forEach(payment -> {
+      long createdAt = TimeOrderedPaymentIdGenerator.timestampOf(payment.getId());
+      if (createdAt < 0) {
+        untimed.incrementAndGet();
+      } else if (createdAt >= from && createdAt < to) {
+        snapshot.add(payment);
+      }
+    });
+    if (untimed.get() > 0) {
+      log.warn("{} payments without a time-ordered id are not settled", untimed.get());
+    }
+    PaymentResponse[] payments = snapshot.toArray(new PaymentResponse[0]);
+    Arrays.parallelSort(payments, Comparator.comparing(PaymentResponse::getId));
+
+    Path work = null;
+    try {
+      Files.createDirectories(directory);
+      work = Files.createTempDirectory(directory, "settlement-" + date + "-");
+      Map<SettlementPartition.TotalKey, long[]> totals = pool.invoke(
+          new SettlementPartition(payments, 0, payments.length, work));
+      List<SettlementTotal> totalList = totals.entrySet().stream()
+          .map(entry -> new SettlementTotal(entry.getKey().getCurrency(),
+              entry.getKey().getStatus(), entry.getValue()[0], entry.getValue()[1]))
+          .sorted(Comparator.comparing(
+                  (SettlementTotal total) -> Objects.toString(total.getCurrency(), ""))
+              .thenComparing(SettlementTotal::getStatus))
+          .toList();
+
+      Path items = publish(concatenateParts(work), "settlement-" + date + "-items.csv");
+      Path totalsFile = publish(writeTotals(work, totalList),
+          "settlement-" + date + "-totals.csv");
+
+      SettlementReport report = new SettlementReport();
+      report.setDate(date);
+      report.setPaymentCount(payments.length);
+      report.setTotals(totalList);
+      report.setItemsFile(items.toString());
+      report.setTotalsFile(totalsFile.toString());
+      report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+      log.info("Settled {} payments for {} in {} ms", payments.length, date,
+          report.getDurationMs());
+      return report;
+    } catch (IOException ex) {
+      throw new SettlementException("Could not write settlement for " + date, ex);
+    } finally {
+      deleteQuietly(work);
+    }
+  }
+
+  private void settlePreviousDay() {
+    LocalDate previousDay = LocalDate.now(clock.withZone(ZoneOffset.UTC)).minusDays(1);
+    try {
+      settle(previousDay);
+    } catch (RuntimeException ex) {
+      log.error("Settlement for {} failed: {}", previousDay, ex.getMessage(), ex);
+    }
+  }
+
+  private Path concatenateParts(Path work) throws IOException {
+    Path items = work.resolve("items.csv");
+    List<Path> parts;
+    try (Stream<Path> files = Files.list(work)) {
+      parts = files
+          .filter(file -> file.getFileName().toString()
+              .startsWith(SettlementPartition.PART_PREFIX))
+          .sorted()
+          .toList();
+    }
+    try (FileChannel target = FileChannel.open(items, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE)) {
+      write(target, ITEMS_HEADER);
+      for (Path part : parts) {
+        try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+          long size = source.size();
+          for (long position = 0; position < size; ) {
+            position += source.transferTo(position, size - position, target);
+          }
+        }
+      }
+      target.force(true);
+    }
+    return items;
+  }
+
+  private Path writeTotals(Path work, List<SettlementTotal> totals) throws IOException {
+    StringBuilder csv = new StringBuilder("currency,status,count,amount\n");
+    for (SettlementTotal total : totals) {
+      csv.append(Objects.toString(total.getCurrency(), "")).append(',')
+          .append(total.getStatus().getName()).append(',')
+          .append(total.getCount()).append(',')
+          .append(total.getAmount()).append('\n');
+    }
+    Path file = work.resolve("totals.csv");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE)) {
+      write(channel, csv.toString());
+      channel.force(true);
+    }
+    return file;
+  }
+
+  private Path publish(Path file, String name) throws IOException {
+    return Files.move(file, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void write(FileChannel channel, String text) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static void deleteQuietly(Path work) {
+    if (work == null) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(work)) {
+      for (Path file : files.toList()) {
+        Files.deleteIfExists(file);
+      }
+      Files.deleteIfExists(work);
+    } catch (IOException ex) {
+      log.warn("Could not remove settlement work directory {}: {}", work, ex.getMessage());
+    }
+  }
+
+  private static long dayStart(LocalDate date) {
+    return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,167 @@
+package com.checkout.payment.gateway.settlement;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.SettlementException;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Settles a range of the sorted snapshot: splits it in halves down to
+ * {@link SettlementJob#PARTITION_ROWS} payments, and for each such partition sums the totals and
+ * writes its line items to a part file named after its first row, so that the part files in
+ * name order hold the items in snapshot order.
+ */
+class SettlementPartition extends RecursiveTask<Map<SettlementPartition.TotalKey, long[]>> {
+
+  static final String PART_PREFIX = "part-";
+  private static final int BUFFER_BYTES = 1 << 20;
+  private static final int MAX_FIELD_CHARS = 40;
+  // Eight fields, each followed by a separator
+  private static final int MAX_LINE_BYTES = 8 * (MAX_FIELD_CHARS + 1);
+
+  private final PaymentResponse[] payments;
+  private final int start;
+  private final int end;
+  private final Path workDirectory;
+
+  SettlementPartition(PaymentResponse[] payments, int start, int end, Path workDirectory) {
+    this.payments = payments;
+    this.start = start;
+    this.end = end;
+    this.workDirectory = workDirectory;
+  }
+
+  @Override
+  protected Map<TotalKey, long[]> compute() {
+    if (end - start <= SettlementJob.PARTITION_ROWS) {
+      return settle();
+    }
+    // Split on a partition boundary so part files line up with PARTITION_ROWS
+    int middle = start + (end - start) / 2 / SettlementJob.PARTITION_ROWS
+        * SettlementJob.PARTITION_ROWS;
+    if (middle == start) {
+      middle = start + SettlementJob.PARTITION_ROWS;
+    }
+    SettlementPartition left = new SettlementPartition(payments, start, middle, workDirectory);
+    SettlementPartition right = new SettlementPartition(payments, middle, end, workDirectory);
+    left.fork();
+    Map<TotalKey, long[]> totals = right.compute();
+    return merge(totals, left.join());
+  }
+
+  static Map<TotalKey, long[]> merge(Map<TotalKey, long[]> left, Map<TotalKey, long[]> right) {
+    right.forEach((key, totals) -> left.merge(key, totals, (current, added) -> {
+      current[0] += added[0];
+      current[1] += added[1];
+      return current;
+    }));
+    return left;
+  }
+
+  private Map<TotalKey, long[]> settle() {
+    Map<TotalKey, long[]> totals = new HashMap<>();
+    Path part = workDirectory.resolve(String.format("%s%010d", PART_PREFIX, start));
+    try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+      for (int row = start; row < end; row++) {
+        PaymentResponse payment = payments[row];
+        long[] total = totals.computeIfAbsent(
+            new TotalKey(payment.getCurrency(), payment.getStatus()), key -> new long[2]);
+        total[0]++;
+        total[1] += payment.getAmount();
+        if (buffer.remaining() < MAX_LINE_BYTES) {
+          drain(channel, buffer);
+        }
+        putLine(buffer, payment);
+      }
+      drain(channel, buffer);
+    } catch (IOException ex) {
+      throw new SettlementException("Could not write settlement part " + part, ex);
+    }
+    return totals;
+  }
+
+  // id,created_at,status,currency,amount,last_four_digits,expiry_month,expiry_year
+  private static void putLine(ByteBuffer buffer, PaymentResponse payment) {
+    putAscii(buffer, payment.getId().toString());
+    buffer.put((byte) ',');
+    putAscii(buffer, Instant.ofEpochMilli(
+        TimeOrderedPaymentIdGenerator.timestampOf(payment.getId())).toString());
+    buffer.put((byte) ',');
+    putAscii(buffer, payment.getStatus().getName());
+    buffer.put((byte) ',');
+    putAscii(buffer, Objects.toString(payment.getCurrency(), ""));
+    buffer.put((byte) ',');
+    putAscii(buffer, Integer.toString(payment.getAmount()));
+    buffer.put((byte) ',');
+    putAscii(buffer, Objects.toString(payment.getLastFourDigits(), ""));
+    buffer.put((byte) ',');
+    putAscii(buffer, Integer.toString(payment.getExpiryMonth()));
+    buffer.put((byte) ',');
+    putAscii(buffer, Integer.toString(payment.getExpiryYear()));
+    buffer.put((byte) '\n');
+  }
+
+  // Every field is validated ASCII; anything else is replaced rather than breaking the layout
+  private static void putAscii(ByteBuffer buffer, String value) {
+    int length = Math.min(value.length(), MAX_FIELD_CHARS);
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      buffer.put(c < 0x80 && c != ',' && c != '\n' ? (byte) c : (byte) '?');
+    }
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  static final class TotalKey {
+    private final String currency;
+    private final PaymentStatus status;
+
+    TotalKey(String currency, PaymentStatus status) {
+      this.currency = currency;
+      this.status = status;
+    }
+
+    String getCurrency() {
+      return currency;
+    }
+
+    PaymentStatus getStatus() {
+      return status;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof TotalKey)) {
+        return false;
+      }
+      TotalKey key = (TotalKey) other;
+      return Objects.equals(currency, key.currency) && status == key.status;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(currency, status);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.bin.BinInfo;
+import com.checkout.payment.gateway.bin.BinLookup;
+import com.checkout.payment.gateway.enums.ValidationRule;
+import java.util.Set;
+
+/**
+ * Validates a card against its BIN range: the scheme and funding type must be among those
+ * accepted, and with {@code rejectUnknown} the card must fall in a known range at all.
+ */
+public class CardBinValidator {
+
+  private final BinLookup binLookup;
+  private final Set<String> acceptedSchemes;
+  private final Set<String> acceptedFunding;
+  private final boolean rejectUnknown;
+
+  /**
+   * @param acceptedSchemes schemes accepted, or empty for any
+   * @param acceptedFunding funding types accepted, or empty for any
+   */
+  public CardBinValidator(BinLookup binLookup, Set<String> acceptedSchemes,
+      Set<String> acceptedFunding, boolean rejectUnknown) {
+    this.binLookup = binLookup;
+    this.acceptedSchemes = Set.copyOf(acceptedSchemes);
+    this.acceptedFunding = Set.copyOf(acceptedFunding);
+    this.rejectUnknown = rejectUnknown;
+  }
+
+  public BinInfo lookup(String cardNumber) {
+    return binLookup.lookup(cardNumber);
+  }
+
+  /**
+   * @return the violated rule and its rejection reason if the card is not accepted, null if it is
+   */
+  public ValidationFailure validate(BinInfo bin) {
+    if (!bin.isKnown()) {
+      return rejectUnknown ? new ValidationFailure(ValidationRule.CARD_BIN,
+          "Card number is not in a known BIN range") : null;
+    }
+    if (!acceptedSchemes.isEmpty() && !acceptedSchemes.contains(bin.getScheme())) {
+      return new ValidationFailure(ValidationRule.CARD_BIN, "Card scheme is not supported: "
+          + bin.getScheme() + " (supported schemes are: " + String.join(", ", acceptedSchemes)
+          + ")");
+    }
+    if (!acceptedFunding.isEmpty()
+        && (bin.getFunding() == null || !acceptedFunding.contains(bin.getFunding()))) {
+      return new ValidationFailure(ValidationRule.CARD_BIN, "Card funding type is not supported: "
+          + bin.getFunding() + " (supported funding types are: "
+          + String.join(", ", acceptedFunding) + ")");
+    }
+    return null;
+  }
+}
@@ -0,0 +1,122 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.model.PaymentRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Predicate;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+/**
+ * Reads payment submissions with {@link PaymentRequestParser} instead of data binding, so that
+ * invalid requests are rejected before the whole body has been parsed.
+ *
+ * <p>Bodies are capped at {@code maxBytes} while they are read: a body declared larger fails on
+ * its first read, and one that turns out larger fails as soon as the limit is passed, so an
+ * oversized body is never buffered. Every body that reaches the converter, however malformed,
+ * yields a request, and its problems come back as a rejected payment.
+ */
+public class PaymentRequestMessageConverter extends AbstractHttpMessageConverter<PaymentRequest> {
+
+  private final JsonFactory jsonFactory;
+  private final long maxBytes;
+  private final Predicate<String> convertible;
+
+  public PaymentRequestMessageConverter(JsonFactory jsonFactory, long maxBytes) {
+    this(jsonFactory, maxBytes, currency -> false);
+  }
+
+  /**
+   * @param convertible whether an upper-case currency code outside the settlement currencies can
+   *                    be converted into one of them
+   */
+  public PaymentRequestMessageConverter(JsonFactory jsonFactory, long maxBytes,
+      Predicate<String> convertible) {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    this.jsonFactory = jsonFactory;
+    this.maxBytes = maxBytes;
+    this.convertible = convertible;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PaymentRequest.class == clazz;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected PaymentRequest readInternal(Class<? extends PaymentRequest> clazz,
+      HttpInputMessage inputMessage) throws IOException {
+    InputStream body = new LimitedInputStream(inputMessage.getBody(),
+        inputMessage.getHeaders().getContentLength(), maxBytes);
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      return PaymentRequestParser.parse(parser, convertible);
+    }
+  }
+
+  @Override
+  protected void writeInternal(PaymentRequest request, HttpOutputMessage outputMessage) {
+    throw new UnsupportedOperationException("Payment requests are only read");
+  }
+
+  static class BodyTooLargeException extends IOException {
+
+    BodyTooLargeException(long maxBytes) {
+      super("Payment request body exceeds " + maxBytes + " bytes");
+    }
+  }
+
+  private static final class LimitedInputStream extends InputStream {
+    private final InputStream delegate;
+    private final long declaredLength;
+    private final long maxBytes;
+    private long read;
+
+    private LimitedInputStream(InputStream delegate, long declaredLength, long maxBytes) {
+      this.delegate = delegate;
+      this.declaredLength = declaredLength;
+      this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+      checkLimit(0);
+      int value = delegate.read();
+      if (value >= 0) {
+        checkLimit(1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      checkLimit(0);
+      // Never asks for more than one byte past the limit
+      int count = delegate.read(buffer, offset, (int) Math.min(length, maxBytes - read + 1));
+      if (count > 0) {
+        checkLimit(count);
+      }
+      return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    private void checkLimit(int count) throws BodyTooLargeException {
+      read += count;
+      if (declaredLength > maxBytes || read > maxBytes) {
+        throw new BodyTooLargeException(maxBytes);
+      }
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.model.PaymentRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * Reads a payment request token by token, applying each field's validation rule as soon as the
+ * field has been read, and stops at the first violation: the rest of the body is never parsed,
+ * and the violation travels on the request as its {@link PaymentRequest#getParseFailure()}.
+ * Unknown fields are skipped without being materialized. A body that is not a valid JSON
+ * object, or that is too large, violates the {@link ValidationRule#REQUEST} rule.
+ *
+ * <p>A request in which every field was read and valid is marked validated, so it is not
+ * validated a second time. Fields are checked in the order they appear in the body, so a body
+ * with several violations may be rejected for another one than {@link PaymentRequestValidator}
+ * would report first.
+ */
+final class PaymentRequestParser {
+
+  private static final int CARD_NUMBER = 1;
+  private static final int EXPIRY_MONTH = 1 << 1;
+  private static final int EXPIRY_YEAR = 1 << 2;
+  private static final int CURRENCY = 1 << 3;
+  private static final int AMOUNT = 1 << 4;
+  private static final int CVV = 1 << 5;
+  private static final int ALL_FIELDS = (1 << 6) - 1;
+
+  private PaymentRequestParser() {
+  }
+
+  /**
+   * @param convertible whether a currency outside the settlement currencies can be converted
+   */
+  static PaymentRequest parse(JsonParser parser, Predicate<String> convertible)
+      throws IOException {
+    PaymentRequest request = new PaymentRequest();
+    ValidationFailure failure;
+    try {
+      failure = read(parser, request, convertible);
+    } catch (StreamReadException ex) {
+      failure = new ValidationFailure(ValidationRule.REQUEST,
+          "Payment request body is not valid JSON: " + ex.getOriginalMessage());
+    } catch (PaymentRequestMessageConverter.BodyTooLargeException ex) {
+      failure = new ValidationFailure(ValidationRule.REQUEST, ex.getMessage());
+    }
+    request.setParseFailure(failure);
+    return request;
+  }
+
+  private static ValidationFailure read(JsonParser parser, PaymentRequest request,
+      Predicate<String> convertible) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return new ValidationFailure(ValidationRule.REQUEST,
+          "Payment request body must be a JSON object");
+    }
+    int seen = 0;
+    for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME;
+        token = parser.nextToken()) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      ValidationFailure failure;
+      switch (field) {
+        case "card_number" -> {
+          failure = readCardNumber(parser, value, request);
+          seen |= CARD_NUMBER;
+        }
+        case "expiry_month" -> {
+          Integer month = intValue(parser, value);
+          if (month == null) {
+            return typeFailure(ValidationRule.EXPIRY_MONTH, field);
+          }
+          request.setExpiryMonth(month);
+          seen |= EXPIRY_MONTH;
+          failure = failure(ValidationRule.EXPIRY_MONTH,
+              PaymentRequestValidator.validateExpiryMonth(month));
+          if (failure == null) {
+            failure = expiryDate(request, seen);
+          }
+        }
+        case "expiry_year" -> {
+          Integer year = intValue(parser, value);
+          if (year == null) {
+            return typeFailure(ValidationRule.EXPIRY_DATE, field);
+          }
+          request.setExpiryYear(year);
+          seen |= EXPIRY_YEAR;
+          failure = expiryDate(request, seen);
+        }
+        case "currency" -> {
+          if (!isScalar(value)) {
+            return typeFailure(ValidationRule.CURRENCY, field);
+          }
+          request.setCurrency(parser.getValueAsString());
+          seen |= CURRENCY;
+          failure = failure(ValidationRule.CURRENCY,
+              PaymentRequestValidator.validateCurrency(request.getCurrency(), convertible));
+        }
+        case "amount" -> {
+          Integer amount = intValue(parser, value);
+          if (amount == null) {
+            return typeFailure(ValidationRule.AMOUNT, field);
+          }
+          request.setAmount(amount);
+          seen |= AMOUNT;
+          failure = failure(ValidationRule.AMOUNT,
+              PaymentRequestValidator.validateAmount(amount));
+        }
+        case "cvv" -> {
+          if (!isScalar(value)) {
+            return typeFailure(ValidationRule.CVV, field);
+          }
+          request.setCvv(parser.getValueAsString());
+          seen |= CVV;
+          failure = failure(ValidationRule.CVV,
+              PaymentRequestValidator.validateCvv(request.getCvv()));
+        }
+        default -> {
+          parser.skipChildren();
+          failure = null;
+        }
+      }
+      if (failure != null) {
+        return failure;
+      }
+    }
+    request.setValidated(seen == ALL_FIELDS);
+    return null;
+  }
+
+  // Checks digits and length on the parser's buffer; only a valid number becomes a String
+  private static ValidationFailure readCardNumber(JsonParser parser, JsonToken value,
+      PaymentRequest request) throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return failure(ValidationRule.CARD_NUMBER,
+          PaymentRequestValidator.validateCardNumber(null));
+    }
+    if (!isScalar(value)) {
+      return typeFailure(ValidationRule.CARD_NUMBER, "card_number");
+    }
+    char[] text = parser.getTextCharacters();
+    int start = parser.getTextOffset();
+    int end = start + parser.getTextLength();
+    int first = start;
+    int last = end;
+    while (first < last && Character.isWhitespace(text[first])) {
+      first++;
+    }
+    while (last > first && Character.isWhitespace(text[last - 1])) {
+      last--;
+    }
+    boolean valid = last - first >= 14 && last - first <= 19;
+    for (int i = first; valid && i < last; i++) {
+      valid = text[i] >= '0' && text[i] <= '9';
+    }
+    if (!valid) {
+      return failure(ValidationRule.CARD_NUMBER,
+          PaymentRequestValidator.validateCardNumber(parser.getText()));
+    }
+    request.setCardNumber(new String(text, start, end - start));
+    return null;
+  }
+
+  private static ValidationFailure expiryDate(PaymentRequest request, int seen) {
+    if ((seen & (EXPIRY_MONTH | EXPIRY_YEAR)) != (EXPIRY_MONTH | EXPIRY_YEAR)) {
+      return null;
+    }
+    return failure(ValidationRule.EXPIRY_DATE, PaymentRequestValidator.validateExpiryDate(
+        request.getExpiryMonth(), request.getExpiryYear()));
+  }
+
+  /**
+   * @return the integer value of a number, numeric string or null (as 0), or null for anything
+   * else, including fractions and numbers outside the int range
+   */
+  private static Integer intValue(JsonParser parser, JsonToken value) throws IOException {
+    switch (value) {
+      case VALUE_NUMBER_INT:
+        return parser.getNumberType() == JsonParser.NumberType.INT ? parser.getIntValue() : null;
+      case VALUE_NULL:
+        return 0;
+      case VALUE_STRING:
+        try {
+          return Integer.parseInt(parser.getText().trim());
+        } catch (NumberFormatException ex) {
+          return null;
+        }
+      default:
+        return null;
+    }
+  }
+
+  private static boolean isScalar(JsonToken value) {
+    return value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NULL
+        || value == JsonToken.VALUE_NUMBER_INT;
+  }
+
+  private static ValidationFailure failure(ValidationRule rule, String reason) {
+    return reason == null ? null : new ValidationFailure(rule, reason);
+  }
+
+  private static ValidationFailure typeFailure(ValidationRule rule, String field) {
+    return new ValidationFailure(rule, "Field " + field + " has an invalid type");
+  }
+}
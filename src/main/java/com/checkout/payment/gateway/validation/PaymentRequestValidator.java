@@ -1,17 +1,39 @@
 package com.checkout.payment.gateway.validation;
 
+import com.checkout.payment.gateway.enums.ValidationRule;
 import com.checkout.payment.gateway.model.PaymentRequest;
 import java.time.YearMonth;
 import java.util.Locale;
 import java.util.Set;
-import org.springframework.stereotype.Component;
+import java.util.function.Predicate;
 
-@Component
 public class PaymentRequestValidator {
 
-  // Validating on 3 currencies
+  // Validating on 3 currencies; others are accepted when they can be converted into one of them
   private static final Set<String> VALID_CURRENCIES = Set.of("USD", "GBP", "EUR");
 
+  private final Predicate<String> convertible;
+
+  public PaymentRequestValidator() {
+    this(currency -> false);
+  }
+
+  /**
+   * @param convertible whether an upper-case currency code outside the 3 settlement currencies
+   *                    can be converted into one of them
+   */
+  public PaymentRequestValidator(Predicate<String> convertible) {
+    this.convertible = convertible;
+  }
+
+  /**
+   * @param currencyCode upper-case currency code
+   * @return whether acquirers settle payments in this currency without conversion
+   */
+  public static boolean isSettlementCurrency(String currencyCode) {
+    return currencyCode != null && VALID_CURRENCIES.contains(currencyCode);
+  }
+
   /**
    * Validates the payment request and returns a rejection reason if invalid, or
    * null if valid.
@@ -20,46 +42,57 @@ public class PaymentRequestValidator {
    * @return rejection reason string if invalid, null if valid
    */
   public String validatePaymentRequest(PaymentRequest request) {
+    ValidationFailure failure = validate(request);
+    return failure == null ? null : failure.getReason();
+  }
+
+  /**
+   * Validates the payment request and returns the first rule it violates, or null if valid.
+   *
+   * @param request the payment request to validate
+   * @return the violated rule and its rejection reason if invalid, null if valid
+   */
+  public ValidationFailure validate(PaymentRequest request) {
     if (request == null) {
-      return "Payment request is null";
+      return new ValidationFailure(ValidationRule.REQUEST, "Payment request is null");
     }
 
     String cardNumberValidation = validateCardNumber(request.getCardNumber());
     if (cardNumberValidation != null) {
-      return cardNumberValidation;
+      return new ValidationFailure(ValidationRule.CARD_NUMBER, cardNumberValidation);
     }
 
     // Expiry month: 1-12
     String expiryMonthValidation = validateExpiryMonth(request.getExpiryMonth());
     if (expiryMonthValidation != null) {
-      return expiryMonthValidation;
+      return new ValidationFailure(ValidationRule.EXPIRY_MONTH, expiryMonthValidation);
     }
 
     // Expiry year + month combo to be in the future
     String expiryDateValidation = validateExpiryDate(request.getExpiryMonth(),
         request.getExpiryYear());
     if (expiryDateValidation != null) {
-      return expiryDateValidation;
+      return new ValidationFailure(ValidationRule.EXPIRY_DATE, expiryDateValidation);
     }
     // validating currency against the 3 currencies set for the system
-    String currencyValidation = validateCurrency(request.getCurrency());
+    String currencyValidation = validateCurrency(request.getCurrency(), convertible);
 
     if (currencyValidation != null) {
-      return currencyValidation;
+      return new ValidationFailure(ValidationRule.CURRENCY, currencyValidation);
     }
 
     // Amount: must be positive integer
     String amountValidation = validateAmount(request.getAmount());
 
     if (amountValidation != null) {
-      return amountValidation;
+      return new ValidationFailure(ValidationRule.AMOUNT, amountValidation);
     }
 
     // CVV: must be 3-4 characters long, numeric only
     String cvvValidation = validateCvv(request.getCvv());
 
     if (cvvValidation != null) {
-      return cvvValidation;
+      return new ValidationFailure(ValidationRule.CVV, cvvValidation);
     }
 
     return null;
@@ -71,7 +104,7 @@ public class PaymentRequestValidator {
    * @param cardNumber
    * @return String reason if invalid or null if valid
    */
-  private String validateCardNumber(String cardNumber) {
+  static String validateCardNumber(String cardNumber) {
     if (cardNumber == null || cardNumber.trim().isEmpty()) {
       return "Card number is required but was null or empty";
     }
@@ -91,7 +124,7 @@ public class PaymentRequestValidator {
     return null;
   }
 
-  private String validateExpiryMonth(int expiryMonth) {
+  static String validateExpiryMonth(int expiryMonth) {
     if (expiryMonth < 1) {
       return "Expiry month is invalid: " + expiryMonth + " (This must be between 1-12)";
     }
@@ -101,7 +134,7 @@ public class PaymentRequestValidator {
     return null;
   }
 
-  private String validateExpiryDate(int expiryMonth, int expiryYear) {
+  static String validateExpiryDate(int expiryMonth, int expiryYear) {
     int currentYear = YearMonth.now().getYear();
     int currentMonth = YearMonth.now().getMonthValue();
     if (expiryYear < currentYear) {
@@ -115,7 +148,7 @@ public class PaymentRequestValidator {
     return null;
   }
 
-  private String validateCurrency(String currency) {
+  static String validateCurrency(String currency, Predicate<String> convertible) {
     if (currency == null || currency.isBlank()) {
       return "Currency is required but was null/empty";
     }
@@ -127,21 +160,21 @@ public class PaymentRequestValidator {
           + " characters (Currency must be exactly 3 characters)";
     }
 
-    if (!VALID_CURRENCIES.contains(currencyCode)) {
+    if (!VALID_CURRENCIES.contains(currencyCode) && !convertible.test(currencyCode)) {
       return "Currency is not supported: " + currencyCode
           + " (supported currencies are: " + String.join(", ", VALID_CURRENCIES) + ")";
     }
     return null;
   }
 
-  private String validateAmount(int amount) {
+  static String validateAmount(int amount) {
     if (amount <= 0) {
       return "Amount is invalid: " + amount + " ( This must be a positive integer)";
     }
     return null;
   }
 
-  private String validateCvv(String cvv) {
+  static String validateCvv(String cvv) {
 
     if (cvv == null || cvv.isEmpty()) {
       return "CVV is required but was null or empty";
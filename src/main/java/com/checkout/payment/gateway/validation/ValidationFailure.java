@@ -0,0 +1,33 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.ValidationRule;
+
+/**
+ * The first validation rule a payment request violated, together with the human readable
+ * rejection reason.
+ */
+public class ValidationFailure {
+  private final ValidationRule rule;
+  private final String reason;
+
+  public ValidationFailure(ValidationRule rule, String reason) {
+    this.rule = rule;
+    this.reason = reason;
+  }
+
+  public ValidationRule getRule() {
+    return rule;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+
+  @Override
+  public String toString() {
+    return "ValidationFailure{" +
+        "rule=" + rule +
+        ", reason='" + reason + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,27 @@
+package com.checkout.payment.gateway.velocity;
+
+import com.checkout.payment.gateway.validation.ValidationFailure;
+
+/**
+ * Stops cards making too many payment attempts, or attempts for too much in total, within a
+ * short window.
+ */
+public interface CardVelocityCheck {
+
+  CardVelocityCheck NONE = (cardNumber, amount) -> null;
+
+  /**
+   * Counts a payment attempt against its card and checks the card's recent activity.
+   *
+   * @param amount attempted amount in minor units
+   * @return the velocity rule the card is over, or null if it may go on to the bank
+   */
+  ValidationFailure check(String cardNumber, long amount);
+
+  /**
+   * @return a check with the same limits and none of this one's history
+   */
+  default CardVelocityCheck withoutHistory() {
+    return this;
+  }
+}
@@ -0,0 +1,100 @@
+package com.checkout.payment.gateway.velocity;
+
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.validation.ValidationFailure;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Checks card velocity against a {@link SlidingWindowSketch}, keyed on a seeded hash of the
+ * card number's digits; card numbers themselves are never kept.
+ *
+ * <p>Estimates can only overstate a card's activity, so a card may occasionally be stopped a
+ * little early when the sketch is crowded, but never late. Amounts are summed in minor units
+ * whatever their currency.
+ */
+public class SketchCardVelocityCheck implements CardVelocityCheck {
+
+  private final long windowMillis;
+  private final int buckets;
+  private final int depth;
+  private final int width;
+  private final long maxAttempts;
+  private final long maxAmount;
+  private final LongSupplier clock;
+  private final SlidingWindowSketch sketch;
+  private final long seed = ThreadLocalRandom.current().nextLong();
+  private final LongAdder flaggedAttempts = new LongAdder();
+  private final LongAdder flaggedAmounts = new LongAdder();
+
+  public SketchCardVelocityCheck(long windowMillis, int buckets, int depth, int width,
+      long maxAttempts, long maxAmount) {
+    this(windowMillis, buckets, depth, width, maxAttempts, maxAmount, System::currentTimeMillis);
+  }
+
+  SketchCardVelocityCheck(long windowMillis, int buckets, int depth, int width,
+      long maxAttempts, long maxAmount, LongSupplier clock) {
+    this.windowMillis = windowMillis;
+    this.buckets = buckets;
+    this.depth = depth;
+    this.width = width;
+    this.maxAttempts = maxAttempts;
+    this.maxAmount = maxAmount;
+    this.clock = clock;
+    this.sketch = new SlidingWindowSketch(windowMillis, buckets, depth, width);
+  }
+
+  @Override
+  public ValidationFailure check(String cardNumber, long amount) {
+    long hash = hash(cardNumber);
+    long now = clock.getAsLong();
+    sketch.add(hash, amount, now);
+    if (sketch.estimateCount(hash, now) > maxAttempts) {
+      flaggedAttempts.increment();
+      return new ValidationFailure(ValidationRule.VELOCITY, "Card exceeded " + maxAttempts
+          + " payment attempts in " + windowMillis / 1000 + " seconds");
+    }
+    if (sketch.estimateAmount(hash, now) > maxAmount) {
+      flaggedAmounts.increment();
+      return new ValidationFailure(ValidationRule.VELOCITY, "Card exceeded an amount of "
+          + maxAmount + " in " + windowMillis / 1000 + " seconds");
+    }
+    return null;
+  }
+
+  @Override
+  public CardVelocityCheck withoutHistory() {
+    return new SketchCardVelocityCheck(windowMillis, buckets, depth, width, maxAttempts,
+        maxAmount, clock);
+  }
+
+  public long flaggedAttemptsCount() {
+    return flaggedAttempts.sum();
+  }
+
+  public long flaggedAmountsCount() {
+    return flaggedAmounts.sum();
+  }
+
+  public int counterCount() {
+    return sketch.counterCount();
+  }
+
+  // FNV-1a over the digits, so spacing does not make a card look new, then a Murmur3 finalizer
+  private long hash(String cardNumber) {
+    long hash = seed ^ 0xcbf29ce484222325L;
+    for (int i = 0; i < cardNumber.length(); i++) {
+      char c = cardNumber.charAt(i);
+      if (c >= '0' && c <= '9') {
+        hash = (hash ^ c) * 0x100000001b3L;
+      }
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,126 @@
+package com.checkout.payment.gateway.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate per-key attempt counts and amount totals over a sliding time window, in memory
+ * fixed at construction however many keys are seen.
+ *
+ * <p>The window is split into buckets, each a count-min sketch: {@code depth} rows of
+ * {@code width} counters, a key adding to one counter per row, picked by double hashing. A
+ * key's estimate in a bucket is the smallest of its counters, and its estimate over the window
+ * the sum of those of the buckets still inside it. Collisions only ever add, so estimates never
+ * fall below the true figures.
+ *
+ * <p>Buckets are reused in a ring. The first update to fall into a bucket's next period claims
+ * it by compare-and-set and clears it; updates that race the clearing may be lost. Apart from
+ * that, updates and estimates are plain atomic array operations and take no lock.
+ */
+public class SlidingWindowSketch {
+
+  private final int buckets;
+  private final int depth;
+  private final int widthMask;
+  private final long bucketMillis;
+  // Period each bucket currently holds, as nowMillis / bucketMillis
+  private final AtomicLongArray periods;
+  private final AtomicLongArray counts;
+  private final AtomicLongArray amounts;
+
+  /**
+   * @param width counters per row, rounded up to a power of two
+   */
+  public SlidingWindowSketch(long windowMillis, int buckets, int depth, int width) {
+    if (buckets < 1 || depth < 1 || width < 1 || windowMillis < buckets) {
+      throw new IllegalArgumentException("Sketch needs a window of at least one ms per bucket, "
+          + "and at least one bucket, row and counter");
+    }
+    int roundedWidth = Integer.highestOneBit(width) == width ? width
+        : Integer.highestOneBit(width) << 1;
+    this.buckets = buckets;
+    this.depth = depth;
+    this.widthMask = roundedWidth - 1;
+    this.bucketMillis = windowMillis / buckets;
+    this.periods = new AtomicLongArray(buckets);
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      periods.set(bucket, Long.MIN_VALUE);
+    }
+    this.counts = new AtomicLongArray(buckets * depth * roundedWidth);
+    this.amounts = new AtomicLongArray(buckets * depth * roundedWidth);
+  }
+
+  /**
+   * Counts one attempt of {@code amount} for the key.
+   *
+   * @param hash well-mixed 64-bit hash of the key
+   */
+  public void add(long hash, long amount, long nowMillis) {
+    long period = nowMillis / bucketMillis;
+    int bucket = claim(period);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32) | 1;
+    for (int row = 0; row < depth; row++) {
+      int counter = counter(bucket, row, first + row * second);
+      counts.getAndIncrement(counter);
+      amounts.getAndAdd(counter, amount);
+    }
+  }
+
+  /**
+   * @return at least the number of attempts counted for the key within the window
+   */
+  public long estimateCount(long hash, long nowMillis) {
+    return estimate(counts, hash, nowMillis);
+  }
+
+  /**
+   * @return at least the total amount counted for the key within the window
+   */
+  public long estimateAmount(long hash, long nowMillis) {
+    return estimate(amounts, hash, nowMillis);
+  }
+
+  /**
+   * @return the number of counters, across both the count and the amount sketches
+   */
+  public int counterCount() {
+    return counts.length() + amounts.length();
+  }
+
+  private long estimate(AtomicLongArray counters, long hash, long nowMillis) {
+    long period = nowMillis / bucketMillis;
+    int first = (int) hash;
+    int second = (int) (hash >>> 32) | 1;
+    long total = 0;
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      long bucketPeriod = periods.get(bucket);
+      if (bucketPeriod > period || bucketPeriod <= period - buckets) {
+        continue;
+      }
+      long smallest = Long.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        smallest = Math.min(smallest, counters.get(counter(bucket, row, first + row * second)));
+      }
+      total += smallest;
+    }
+    return total;
+  }
+
+  private int claim(long period) {
+    int bucket = (int) Math.floorMod(period, (long) buckets);
+    long current = periods.get(bucket);
+    if (current < period && periods.compareAndSet(bucket, current, period)) {
+      int from = bucket * depth * (widthMask + 1);
+      int to = from + depth * (widthMask + 1);
+      for (int counter = from; counter < to; counter++) {
+        counts.set(counter, 0);
+        amounts.set(counter, 0);
+      }
+    }
+    return bucket;
+  }
+
+  private int counter(int bucket, int row, int hash) {
+    return (bucket * depth + row) * (widthMask + 1) + (hash & widthMask);
+  }
+}
@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.warmup;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts the methods the JIT has compiled so far, from HotSpot's {@code Compiler.codelist}
+ * diagnostic command.
+ */
+final class CompiledMethods {
+
+  private static final String GATEWAY_PACKAGE = "com.checkout.payment.gateway.";
+  private static final String OPTIMIZED_LEVEL = "4";
+
+  private final long total;
+  private final long gateway;
+  private final long gatewayOptimized;
+
+  private CompiledMethods(long total, long gateway, long gatewayOptimized) {
+    this.total = total;
+    this.gateway = gateway;
+    this.gatewayOptimized = gatewayOptimized;
+  }
+
+  /**
+   * @return the current counts, or null on JVMs without the diagnostic command
+   */
+  static CompiledMethods count() {
+    String codelist;
+    try {
+      codelist = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+          new ObjectName("com.sun.management:type=DiagnosticCommand"), "compilerCodelist",
+          new Object[] {null}, new String[] {String[].class.getName()});
+    } catch (JMException | RuntimeException ex) {
+      return null;
+    }
+    long total = 0;
+    long gateway = 0;
+    long gatewayOptimized = 0;
+    // One line per compiled method: "<id> <tier> <state> <method><signature> [<addresses>]"
+    for (String line : codelist.split("\n")) {
+      String[] fields = line.split(" ", 5);
+      if (fields.length < 4) {
+        continue;
+      }
+      total++;
+      if (fields[3].startsWith(GATEWAY_PACKAGE)) {
+        gateway++;
+        if (OPTIMIZED_LEVEL.equals(fields[1])) {
+          gatewayOptimized++;
+        }
+      }
+    }
+    return new CompiledMethods(total, gateway, gatewayOptimized);
+  }
+
+  long getTotal() {
+    return total;
+  }
+
+  long getGateway() {
+    return gateway;
+  }
+
+  long getGatewayOptimized() {
+    return gatewayOptimized;
+  }
+}
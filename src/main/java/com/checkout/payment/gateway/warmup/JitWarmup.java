@@ -0,0 +1,160 @@
+package com.checkout.payment.gateway.warmup;
+
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.id.PaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentRequest;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.model.PaymentStatisticsResponse;
+import com.checkout.payment.gateway.repository.FlightRecordedPaymentsRepository;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.checkout.payment.gateway.service.PaymentStatistics;
+import com.checkout.payment.gateway.validation.CardBinValidator;
+import com.checkout.payment.gateway.validation.PaymentRequestMessageConverter;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.checkout.payment.gateway.velocity.CardVelocityCheck;
+import com.checkout.payment.gateway.webhook.PaymentEventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+
+/**
+ * Pushes synthetic payments through the in-process payment pipeline so the JIT compiles it
+ * before real traffic arrives.
+ *
+ * <p>Each payment is read from JSON by the real request converter, processed by a
+ * {@link PaymentGatewayService} built from the application's own validator, encoder, BIN and
+ * currency components, then looked up and written back out as JSON. Only the parts with
+ * effects are swapped: the bank is answered in process, payments go to a throwaway in-memory
+ * store, statistics to a throwaway {@link PaymentStatistics}, velocity to a check with no
+ * history, and no webhook is sent. Every payment uses a card of its own, so none is stopped
+ * for velocity; one in ten is invalid, so the rejection path gets compiled too.
+ */
+@Slf4j
+public class JitWarmup {
+
+  private static final String[] CURRENCIES = {"USD", "GBP", "EUR"};
+
+  private final ObjectMapper objectMapper;
+  private final PaymentRequestMessageConverter requestConverter;
+  private final PaymentsRepository repository =
+      new FlightRecordedPaymentsRepository(new InMemoryPaymentsRepository());
+  private final PaymentStatistics statistics = new PaymentStatistics();
+  private final PaymentGatewayService service;
+
+  public JitWarmup(ObjectMapper objectMapper, PaymentRequestMessageConverter requestConverter,
+      PaymentRequestValidator paymentRequestValidator, PaymentIdGenerator paymentIdGenerator,
+      PaymentResponseEncoder paymentResponseEncoder, BankCallBudget bankCallBudget,
+      CardBinValidator cardBinValidator, CurrencyConverter currencyConverter,
+      CardVelocityCheck cardVelocityCheck) {
+    this.objectMapper = objectMapper;
+    this.requestConverter = requestConverter;
+    this.service = new PaymentGatewayService(new WarmupBankClient(objectMapper), repository,
+        paymentRequestValidator, statistics, paymentIdGenerator, paymentResponseEncoder,
+        bankCallBudget, PaymentEventPublisher.NONE, cardBinValidator, currencyConverter,
+        cardVelocityCheck.withoutHistory());
+  }
+
+  /**
+   * @return the outcomes of the synthetic payments
+   */
+  public PaymentStatisticsResponse run(int payments) {
+    CompiledMethods before = CompiledMethods.count();
+    long compilationBefore = compilationMillis();
+    long start = System.nanoTime();
+    int expiryYear = Year.now().getValue() + 2;
+    for (int i = 0; i < payments; i++) {
+      try {
+        PaymentResponse payment = service.processPayment(read(request(i, expiryYear)));
+        if (payment.getStatus() != PaymentStatus.REJECTED) {
+          service.findPaymentById(payment.getId()).ifPresent(this::write);
+          repository.remove(payment.getId());
+        }
+      } catch (BankServiceException ex) {
+        // Only a bank answer that could not be read ends up here; the next payment carries on
+      }
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    CompiledMethods after = CompiledMethods.count();
+    if (after == null) {
+      log.info("JIT warm-up processed {} payments in {} ms, {} ms of it compiling", payments,
+          elapsedMillis, compilationMillis() - compilationBefore);
+    } else {
+      log.info("JIT warm-up processed {} payments in {} ms, {} ms of it compiling; {} methods "
+              + "compiled ({} during warm-up), {} of them the gateway's ({} fully optimized)",
+          payments, elapsedMillis, compilationMillis() - compilationBefore, after.getTotal(),
+          after.getTotal() - before.getTotal(), after.getGateway(),
+          after.getGatewayOptimized());
+    }
+    return statistics.snapshot();
+  }
+
+  // Odd card endings are authorized and even ones declined; every tenth CVV is too short
+  static byte[] request(int i, int expiryYear) {
+    String json = "{\"card_number\":\"222240" + String.format("%010d", i) + "\","
+        + "\"expiry_month\":" + (1 + i % 12) + ","
+        + "\"expiry_year\":" + expiryYear + ","
+        + "\"currency\":\"" + CURRENCIES[i % CURRENCIES.length] + "\","
+        + "\"amount\":" + (1 + i % 100_000) + ","
+        + "\"cvv\":\"" + (i % 10 == 9 ? "12" : "123") + "\"}";
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private PaymentRequest read(byte[] body) {
+    try {
+      return requestConverter.read(PaymentRequest.class, new SyntheticRequest(body));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void write(PaymentResponse payment) {
+    try {
+      objectMapper.writeValueAsBytes(payment);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static long compilationMillis() {
+    CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+        ? compilation.getTotalCompilationTime() : 0;
+  }
+
+  private static class SyntheticRequest implements HttpInputMessage {
+
+    private final byte[] body;
+    private final HttpHeaders headers = new HttpHeaders();
+
+    SyntheticRequest(byte[] body) {
+      this.body = body;
+      headers.setContentLength(body.length);
+    }
+
+    @Override
+    public InputStream getBody() {
+      return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
+}
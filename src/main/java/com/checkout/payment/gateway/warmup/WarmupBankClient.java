@@ -0,0 +1,42 @@
+package com.checkout.payment.gateway.warmup;
+
+import com.checkout.payment.gateway.client.AcquiringBankClient;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Answers like the bank simulator without leaving the process: cards ending in an odd digit are
+ * authorized, the others declined. Requests and answers still go through JSON, as they would on
+ * the wire.
+ */
+class WarmupBankClient implements AcquiringBankClient {
+
+  private static final byte[] AUTHORIZED =
+      "{\"authorized\":true,\"authorization_code\":\"0bb07405-6d44-4b50-a14f-7ae0beff13ad\"}"
+          .getBytes();
+  private static final byte[] DECLINED =
+      "{\"authorized\":false,\"authorization_code\":\"\"}".getBytes();
+
+  private final ObjectMapper objectMapper;
+
+  WarmupBankClient(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public Optional<AcquiringBankPaymentResponse> processPayment(
+      AcquiringBankPaymentRequest request) {
+    try {
+      objectMapper.writeValueAsBytes(request);
+      String cardNumber = request.getCardNumber();
+      boolean odd = (cardNumber.charAt(cardNumber.length() - 1) - '0') % 2 == 1;
+      return Optional.of(objectMapper.readValue(odd ? AUTHORIZED : DECLINED,
+          AcquiringBankPaymentResponse.class));
+    } catch (IOException ex) {
+      return Optional.empty();
+    }
+  }
+}
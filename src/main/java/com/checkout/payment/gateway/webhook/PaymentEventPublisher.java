@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.webhook;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+
+/**
+ * Tells merchants about the outcome of their payments, and about every capture, void and refund
+ * applied to them afterwards.
+ */
+public interface PaymentEventPublisher {
+
+  PaymentEventPublisher NONE = (merchantId, payment) -> {
+  };
+
+  /**
+   * Hands the outcome of a stored payment over for delivery; never blocks on the delivery.
+   *
+   * @param merchantId merchant that submitted the payment, or null when unknown
+   */
+  void publish(String merchantId, PaymentResponse payment);
+}
@@ -0,0 +1,34 @@
+package com.checkout.payment.gateway.webhook;
+
+import java.util.List;
+import java.util.UUID;
+
+public class WebhookBatch {
+  // Stays the same across delivery attempts, so receivers can drop repeats
+  private UUID id;
+  private List<WebhookEvent> events;
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public List<WebhookEvent> getEvents() {
+    return events;
+  }
+
+  public void setEvents(List<WebhookEvent> events) {
+    this.events = events;
+  }
+
+  @Override
+  public String toString() {
+    return "WebhookBatch{" +
+        "id=" + id +
+        ", events=" + (events == null ? 0 : events.size()) +
+        '}';
+  }
+}
@@ -0,0 +1,357 @@
+package com.checkout.payment.gateway.webhook;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers payment outcomes to the webhook endpoints of their merchants.
+ *
+ * <p>{@link #publish} only puts the event on a bounded queue. A single dispatcher thread groups
+ * queued events per endpoint and sends a batch once it holds {@code batchSize} events or its
+ * oldest event has waited {@code lingerMs}. Batches go out over one shared, connection-pooling
+ * {@link HttpClient}, at most {@code maxInFlight} at a time, signed with the endpoint's secret
+ * (see {@link #sign}).
+ *
+ * <p>A batch that fails is retried with exponential backoff and jitter, keeping its id so the
+ * receiver can drop repeats. After {@code maxAttempts}, on shutdown, or when the queue is full,
+ * events are appended to the dead-letter file, one JSON line per batch, for replay. The file is
+ * written by its own thread from a queue as large as the event queue, so neither
+ * {@link #publish} nor the HTTP client's threads wait for the disk; batches that find that queue
+ * full too are only logged and counted as dropped.
+ */
+@Slf4j
+public class WebhookDispatcher implements PaymentEventPublisher {
+
+  static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+  static final String BATCH_HEADER = "X-Webhook-Id";
+  private static final String HMAC = "HmacSHA256";
+  // Bounds each wait so the dispatcher notices close() without being interrupted
+  private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final Map<String, WebhookEndpoint> endpoints;
+  private final WebhookSettings settings;
+  private final ObjectMapper objectMapper;
+  private final HttpClient httpClient;
+  private final BlockingQueue<Pending> queue;
+  private final Semaphore inFlight;
+  private final long lingerNanos;
+  private final Set<Retry> retrying = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService retries =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "webhook-retry");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private final ThreadPoolExecutor deadLetters;
+  private final Thread dispatcher;
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder retried = new LongAdder();
+  private final LongAdder deadLettered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private volatile boolean running = true;
+
+  public WebhookDispatcher(List<WebhookEndpoint> endpoints, WebhookSettings settings,
+      ObjectMapper objectMapper) {
+    this.endpoints = new LinkedHashMap<>();
+    endpoints.forEach(endpoint -> this.endpoints.put(endpoint.getMerchantId(), endpoint));
+    this.settings = settings;
+    this.objectMapper = objectMapper;
+    this.httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofMillis(settings.getTimeoutMs()))
+        .build();
+    this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+    this.inFlight = new Semaphore(settings.getMaxInFlight());
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLingerMs());
+    this.deadLetters = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(settings.getQueueCapacity()), runnable -> {
+          Thread thread = new Thread(runnable, "webhook-dead-letter");
+          thread.setDaemon(true);
+          return thread;
+        });
+    this.dispatcher = new Thread(this::dispatch, "webhook-dispatcher");
+    this.dispatcher.setDaemon(true);
+    this.dispatcher.start();
+  }
+
+  @Override
+  public void publish(String merchantId, PaymentResponse payment) {
+    WebhookEndpoint endpoint = merchantId == null ? null : endpoints.get(merchantId);
+    if (endpoint == null) {
+      return;
+    }
+    WebhookEvent event = new WebhookEvent();
+    event.setId(UUID.randomUUID());
+    event.setType("payment." + payment.getStatus().name().toLowerCase(Locale.ROOT));
+    event.setCreatedAt(Instant.now().toString());
+    event.setPayment(payment);
+    if (!running || !queue.offer(new Pending(endpoint, event))) {
+      String reason = running ? "queue full" : "shutdown";
+      log.warn("Webhook {}, dead-lettering event for payment {}", reason, payment.getId());
+      deadLetter(endpoint, batchOf(List.of(event)), 0, reason);
+    }
+  }
+
+  public int queuedCount() {
+    return queue.size();
+  }
+
+  public long deliveredCount() {
+    return delivered.sum();
+  }
+
+  public long retriedCount() {
+    return retried.sum();
+  }
+
+  public long deadLetteredCount() {
+    return deadLettered.sum();
+  }
+
+  public long droppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Sends what is queued, waits for batches in flight, dead-letters batches still waiting for a
+   * retry, and waits for the dead-letter file to be written.
+   */
+  public void close() {
+    running = false;
+    long timeoutMs = settings.getTimeoutMs() * 2;
+    try {
+      dispatcher.join(timeoutMs);
+      if (inFlight.tryAcquire(settings.getMaxInFlight(), timeoutMs, TimeUnit.MILLISECONDS)) {
+        inFlight.release(settings.getMaxInFlight());
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    retries.shutdownNow();
+    for (Retry retry : retrying) {
+      if (retrying.remove(retry)) {
+        deadLetter(retry.endpoint, retry.batch, retry.attempt - 1, "shutdown");
+      }
+    }
+    deadLetters.shutdown();
+    try {
+      deadLetters.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return the signature header value: {@code t=<epoch seconds>,v1=<hex HMAC-SHA256>} of
+   * {@code <epoch seconds>.<body>}, so that a captured request cannot be replayed much later
+   */
+  static String sign(byte[] secret, long epochSeconds, byte[] body) {
+    try {
+      Mac mac = Mac.getInstance(HMAC);
+      mac.init(new SecretKeySpec(secret, HMAC));
+      mac.update((epochSeconds + ".").getBytes(StandardCharsets.US_ASCII));
+      return "t=" + epochSeconds + ",v1=" + HexFormat.of().formatHex(mac.doFinal(body));
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+    }
+  }
+
+  private void dispatch() {
+    Map<WebhookEndpoint, Open> open = new LinkedHashMap<>();
+    while (running || !queue.isEmpty() || !open.isEmpty()) {
+      try {
+        Pending pending = queue.poll(Math.min(POLL_NANOS, lingerNanos), TimeUnit.NANOSECONDS);
+        while (pending != null) {
+          Open batch = open.computeIfAbsent(pending.endpoint, endpoint -> new Open());
+          batch.events.add(pending.event);
+          if (batch.events.size() >= settings.getBatchSize()) {
+            open.remove(pending.endpoint);
+            send(pending.endpoint, batchOf(batch.events), 1);
+          }
+          pending = queue.poll();
+        }
+      } catch (InterruptedException ex) {
+        // Nothing interrupts the dispatcher on purpose; keep draining the queue
+      }
+      long now = System.nanoTime();
+      for (Iterator<Map.Entry<WebhookEndpoint, Open>> it = open.entrySet().iterator();
+          it.hasNext(); ) {
+        Map.Entry<WebhookEndpoint, Open> entry = it.next();
+        if (!running || now - entry.getValue().openedNanos >= lingerNanos) {
+          it.remove();
+          send(entry.getKey(), batchOf(entry.getValue().events), 1);
+        }
+      }
+    }
+  }
+
+  private void send(WebhookEndpoint endpoint, WebhookBatch batch, int attempt) {
+    byte[] body;
+    try {
+      body = objectMapper.writeValueAsBytes(batch);
+    } catch (JsonProcessingException ex) {
+      deadLetter(endpoint, batch, attempt - 1, "unserializable: " + ex.getMessage());
+      return;
+    }
+    inFlight.acquireUninterruptibly();
+    HttpRequest request = HttpRequest.newBuilder(endpoint.getUrl())
+        .timeout(Duration.ofMillis(settings.getTimeoutMs()))
+        .header("Content-Type", "application/json")
+        .header(BATCH_HEADER, batch.getId().toString())
+        .header(SIGNATURE_HEADER,
+            sign(endpoint.getSecret(), Instant.now().getEpochSecond(), body))
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+        .build();
+    httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .whenComplete((response, error) -> {
+          inFlight.release();
+          if (error == null && response.statusCode() / 100 == 2) {
+            delivered.add(batch.getEvents().size());
+            return;
+          }
+          String reason = error != null ? error.toString() : "HTTP " + response.statusCode();
+          failed(endpoint, batch, attempt, reason);
+        });
+  }
+
+  private void failed(WebhookEndpoint endpoint, WebhookBatch batch, int attempt, String reason) {
+    if (attempt >= settings.getMaxAttempts() || !running) {
+      log.warn("Giving up on webhook batch {} to {} after {} attempts: {}", batch.getId(),
+          endpoint.getMerchantId(), attempt, reason);
+      deadLetter(endpoint, batch, attempt, reason);
+      return;
+    }
+    long delayMs = backoffMs(attempt);
+    log.debug("Webhook batch {} to {} failed ({}), retrying in {} ms", batch.getId(),
+        endpoint.getMerchantId(), reason, delayMs);
+    Retry retry = new Retry(endpoint, batch, attempt + 1);
+    retrying.add(retry);
+    retried.increment();
+    try {
+      retries.schedule(retry, delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException ex) {
+      if (retrying.remove(retry)) {
+        deadLetter(endpoint, batch, attempt, reason);
+      }
+    }
+  }
+
+  // Doubles per attempt up to the maximum; the upper half is random to spread retries out
+  private long backoffMs(int attempt) {
+    long ceiling = Math.min(settings.getMaxBackoffMs(),
+        settings.getInitialBackoffMs() << Math.min(attempt - 1, 30));
+    return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+  }
+
+  private void deadLetter(WebhookEndpoint endpoint, WebhookBatch batch, int attempts,
+      String reason) {
+    try {
+      deadLetters.execute(() -> writeDeadLetter(endpoint, batch, attempts, reason));
+    } catch (RejectedExecutionException ex) {
+      // The dead-letter queue is full, or the dispatcher closed
+      log.error("Dropping webhook batch {} to {} ({}): cannot dead-letter it", batch.getId(),
+          endpoint.getMerchantId(), reason);
+      dropped.add(batch.getEvents().size());
+    }
+  }
+
+  // Only runs on the dead-letter thread, which keeps appends to the file in order
+  private void writeDeadLetter(WebhookEndpoint endpoint, WebhookBatch batch, int attempts,
+      String reason) {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("merchantId", endpoint.getMerchantId());
+    line.put("url", endpoint.getUrl().toString());
+    line.put("attempts", attempts);
+    line.put("reason", reason);
+    line.put("failedAt", Instant.now().toString());
+    line.put("batch", batch);
+    Path file = settings.getDeadLetterFile();
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(line);
+      byte[] record = new byte[json.length + 1];
+      System.arraycopy(json, 0, record, 0, json.length);
+      record[json.length] = '\n';
+      Files.write(file, record, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException ex) {
+      log.error("Could not dead-letter webhook batch {} to {}: {}", batch.getId(), file,
+          ex.getMessage());
+    }
+    deadLettered.add(batch.getEvents().size());
+  }
+
+  private static WebhookBatch batchOf(List<WebhookEvent> events) {
+    WebhookBatch batch = new WebhookBatch();
+    batch.setId(UUID.randomUUID());
+    batch.setEvents(events);
+    return batch;
+  }
+
+  private static final class Pending {
+    private final WebhookEndpoint endpoint;
+    private final WebhookEvent event;
+
+    private Pending(WebhookEndpoint endpoint, WebhookEvent event) {
+      this.endpoint = endpoint;
+      this.event = event;
+    }
+  }
+
+  private static final class Open {
+    private final long openedNanos = System.nanoTime();
+    private final List<WebhookEvent> events = new ArrayList<>();
+  }
+
+  private final class Retry implements Runnable {
+    private final WebhookEndpoint endpoint;
+    private final WebhookBatch batch;
+    private final int attempt;
+
+    private Retry(WebhookEndpoint endpoint, WebhookBatch batch, int attempt) {
+      this.endpoint = endpoint;
+      this.batch = batch;
+      this.attempt = attempt;
+    }
+
+    @Override
+    public void run() {
+      if (retrying.remove(this)) {
+        send(endpoint, batch, attempt);
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.webhook;
+
+import java.net.URI;
+
+/**
+ * Where a merchant receives its webhooks, and the secret their signatures are made with.
+ */
+public class WebhookEndpoint {
+
+  private final String merchantId;
+  private final URI url;
+  private final byte[] secret;
+
+  public WebhookEndpoint(String merchantId, URI url, byte[] secret) {
+    this.merchantId = merchantId;
+    this.url = url;
+    this.secret = secret.clone();
+  }
+
+  public String getMerchantId() {
+    return merchantId;
+  }
+
+  public URI getUrl() {
+    return url;
+  }
+
+  byte[] getSecret() {
+    return secret;
+  }
+
+  @Override
+  public String toString() {
+    return "WebhookEndpoint{" +
+        "merchantId='" + merchantId + '\'' +
+        ", url=" + url +
+        '}';
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkout.payment.gateway.webhook;
+
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.UUID;
+
+public class WebhookEvent {
+  private UUID id;
+  // payment.authorized or payment.declined, then payment.captured, payment.refunded and so on
+  private String type;
+  private String createdAt;
+  private PaymentResponse payment;
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(String createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public PaymentResponse getPayment() {
+    return payment;
+  }
+
+  public void setPayment(PaymentResponse payment) {
+    this.payment = payment;
+  }
+
+  @Override
+  public String toString() {
+    return "WebhookEvent{" +
+        "id=" + id +
+        ", type='" + type + '\'' +
+        ", createdAt='" + createdAt + '\'' +
+        ", paymentId=" + (payment == null ? null : payment.getId()) +
+        '}';
+  }
+}
@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.webhook;
+
+import java.nio.file.Path;
+
+public class WebhookSettings {
+  private int queueCapacity = 10_000;
+  private int batchSize = 100;
+  private long lingerMs = 200;
+  private int maxInFlight = 16;
+  private long timeoutMs = 5000;
+  private int maxAttempts = 8;
+  private long initialBackoffMs = 1000;
+  private long maxBackoffMs = 60_000;
+  private Path deadLetterFile = Path.of("webhooks-dead-letter.jsonl");
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public long getLingerMs() {
+    return lingerMs;
+  }
+
+  public void setLingerMs(long lingerMs) {
+    this.lingerMs = lingerMs;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public long getTimeoutMs() {
+    return timeoutMs;
+  }
+
+  public void setTimeoutMs(long timeoutMs) {
+    this.timeoutMs = timeoutMs;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getInitialBackoffMs() {
+    return initialBackoffMs;
+  }
+
+  public void setInitialBackoffMs(long initialBackoffMs) {
+    this.initialBackoffMs = initialBackoffMs;
+  }
+
+  public long getMaxBackoffMs() {
+    return maxBackoffMs;
+  }
+
+  public void setMaxBackoffMs(long maxBackoffMs) {
+    this.maxBackoffMs = maxBackoffMs;
+  }
+
+  public Path getDeadLetterFile() {
+    return deadLetterFile;
+  }
+
+  public void setDeadLetterFile(Path deadLetterFile) {
+    this.deadLetterFile = deadLetterFile;
+  }
+
+  @Override
+  public String toString() {
+    return "WebhookSettings{" +
+        "queueCapacity=" + queueCapacity +
+        ", batchSize=" + batchSize +
+        ", lingerMs=" + lingerMs +
+        ", maxInFlight=" + maxInFlight +
+        ", timeoutMs=" + timeoutMs +
+        ", maxAttempts=" + maxAttempts +
+        ", initialBackoffMs=" + initialBackoffMs +
+        ", maxBackoffMs=" + maxBackoffMs +
+        ", deadLetterFile=" + deadLetterFile +
+        '}';
+  }
+}
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS payments (
+  id                  UUID PRIMARY KEY,
+  status              VARCHAR(32) NOT NULL,
+  last_four_digits    VARCHAR(4),
+  card_expiry_date    VARCHAR(7),
+  expiry_month        INT NOT NULL,
+  expiry_year         INT NOT NULL,
+  currency            VARCHAR(3),
+  amount              INT NOT NULL,
+  settlement_currency VARCHAR(3),
+  settlement_amount   INT,
+  fx_rate             DECIMAL(30, 10),
+  captured_amount     INT NOT NULL DEFAULT 0,
+  refunded_amount     INT NOT NULL DEFAULT 0,
+  actions             VARCHAR
+);
@@ -0,0 +1,127 @@
+package com.checkout.payment.gateway.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+
+  private final AdmissionLane readLane = new AdmissionLane("read", 1, 0, 0, 0);
+  private final AdmissionLane writeLane = new AdmissionLane("write", 1, 0, 0, 0);
+  private final AdmissionControlFilter filter =
+      new AdmissionControlFilter(readLane, writeLane, new ObjectMapper(), 2);
+
+  @Test
+  void testSaturatedWriteLane_ShouldShedPostWithRetryAfter() throws Exception {
+    assertTrue(writeLane.tryAdmit());
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/payment"), response, chain);
+
+    assertEquals(503, response.getStatus());
+    assertEquals("2", response.getHeader("Retry-After"));
+    assertTrue(response.getContentAsString().contains("overloaded"));
+    assertNull(chain.getRequest());
+    assertEquals(1, writeLane.shedCount());
+  }
+
+  @Test
+  void testSaturatedWriteLane_ShouldStillAdmitLookups() throws Exception {
+    assertTrue(writeLane.tryAdmit());
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/payment/1"), response, chain);
+
+    assertEquals(200, response.getStatus());
+    assertNotNull(chain.getRequest());
+    assertEquals(0, readLane.inFlight());
+  }
+
+  @Test
+  void testSaturatedWriteLane_ShouldStillAdmitBulkLookups() throws Exception {
+    assertTrue(writeLane.tryAdmit());
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/payment/lookup"), response,
+        chain);
+
+    assertEquals(200, response.getStatus());
+    assertNotNull(chain.getRequest());
+    assertEquals(1, readLane.admittedCount());
+  }
+
+  @Test
+  void testAdmittedRequest_ShouldReleaseItsSlot() throws Exception {
+    filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/payment"),
+        new MockHttpServletResponse(), new MockFilterChain());
+
+    assertEquals(0, writeLane.inFlight());
+    assertEquals(1, writeLane.admittedCount());
+  }
+
+  @Test
+  void testAsyncRequest_ShouldHoldItsSlotUntilComplete() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payment");
+    request.setAsyncSupported(true);
+    MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest req, HttpServletResponse res) {
+        req.startAsync();
+      }
+    });
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertEquals(1, writeLane.inFlight());
+    request.getAsyncContext().complete();
+    assertEquals(0, writeLane.inFlight());
+  }
+
+  @Test
+  void testQueuedRequest_ShouldBeAdmittedWhenSlotFreesInTime() throws Exception {
+    AdmissionLane lane = new AdmissionLane("write", 1, 1, 5_000, 5_000);
+    assertTrue(lane.tryAdmit());
+
+    CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(lane::tryAdmit);
+    while (lane.queued() == 0) {
+      Thread.onSpinWait();
+    }
+    assertFalse(lane.tryAdmit());
+    lane.release();
+
+    assertTrue(waiting.get(5, TimeUnit.SECONDS));
+    assertEquals(2, lane.admittedCount());
+    assertEquals(1, lane.shedCount());
+  }
+
+  @Test
+  void testStandingQueueDelay_ShouldShedWithoutWaiting() {
+    AdmissionLane lane = new AdmissionLane("write", 1, 10, 20, 1);
+    assertTrue(lane.tryAdmit());
+    // Every timed-out wait pushes the average queue delay towards the 20ms wait limit
+    while (lane.queueDelayMillis() <= 1) {
+      assertFalse(lane.tryAdmit());
+    }
+
+    long start = System.nanoTime();
+    assertFalse(lane.tryAdmit());
+
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(20));
+  }
+}
@@ -0,0 +1,79 @@
+package com.checkout.payment.gateway.admission;
+
+import com.checkout.payment.gateway.deadline.RequestDeadline;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionLaneTest {
+
+  private final ExecutionLane lane = new ExecutionLane("bank", 1, 1);
+
+  @AfterEach
+  void tearDown() {
+    RequestDeadline.clear();
+    lane.stop();
+  }
+
+  @Test
+  void testSubmit_ShouldRunOnLaneThreadUnderSubmittersDeadline() throws Exception {
+    RequestDeadline.set(System.nanoTime() + TimeUnit.SECONDS.toNanos(5), true);
+
+    long remaining = lane.submit(RequestDeadline::remainingNanos).get(5, TimeUnit.SECONDS);
+    boolean fromClient = lane.submit(RequestDeadline::isFromClient).get(5, TimeUnit.SECONDS);
+    String thread = lane.submit(() -> Thread.currentThread().getName())
+        .get(5, TimeUnit.SECONDS);
+
+    assertTrue(remaining > 0 && remaining <= TimeUnit.SECONDS.toNanos(5));
+    assertTrue(fromClient);
+    assertEquals("bank-lane-1", thread);
+    assertNotEquals(Thread.currentThread().getName(), thread);
+    assertEquals(3, lane.completedCount());
+  }
+
+  @Test
+  void testSubmit_ShouldRejectOnceThreadsAndQueueAreFull() throws Exception {
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Boolean> busy = lane.submit(() -> {
+      running.countDown();
+      try {
+        return release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued = lane.submit(() -> "queued");
+
+    assertThrows(RejectedExecutionException.class, () -> lane.submit(() -> "rejected"));
+    assertEquals(1, lane.active());
+    assertEquals(1, lane.queued());
+
+    release.countDown();
+    assertTrue(busy.get(5, TimeUnit.SECONDS));
+    assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    assertEquals(1, lane.rejectedCount());
+  }
+
+  @Test
+  void testSubmit_ShouldCompleteExceptionallyWithWhatTheTaskThrew() {
+    CompletableFuture<Object> failed = lane.submit(() -> {
+      throw new IllegalStateException("bank unavailable");
+    });
+
+    ExecutionException ex = assertThrows(ExecutionException.class,
+        () -> failed.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+  }
+}
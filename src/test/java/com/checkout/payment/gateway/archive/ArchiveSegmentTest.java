@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ArchiveSegmentTest {
+
+  @TempDir
+  Path directory;
+
+  private final TimeOrderedPaymentIdGenerator generator =
+      new TimeOrderedPaymentIdGenerator(1, () -> 1_767_225_600_000L);
+
+  @Test
+  void testFind_ShouldRestoreSettlementFieldsOfConvertedPayments() {
+    PaymentResponse converted = createPayment("GBP", 1050);
+    converted.setSettlementCurrency("JPY");
+    converted.setSettlementAmount(199_500);
+    converted.setFxRate(new BigDecimal("190.0000000000"));
+    PaymentResponse fractional = createPayment("USD", 2000);
+    fractional.setSettlementCurrency("GBP");
+    fractional.setSettlementAmount(1577);
+    fractional.setFxRate(new BigDecimal("0.7883456789"));
+    PaymentResponse unconverted = createPayment("EUR", 700);
+    Path path = directory.resolve("converted.seg");
+
+    ArchiveSegmentWriter.write(path, List.of(unconverted, fractional, converted));
+    ArchiveSegment segment = ArchiveSegment.open(path);
+
+    assertSameSettlement(converted, segment.find(converted.getId()).orElseThrow());
+    assertSameSettlement(fractional, segment.find(fractional.getId()).orElseThrow());
+    PaymentResponse restored = segment.find(unconverted.getId()).orElseThrow();
+    assertEquals("EUR", restored.getCurrency());
+    assertNull(restored.getSettlementCurrency());
+    assertNull(restored.getSettlementAmount());
+    assertNull(restored.getFxRate());
+  }
+
+  private void assertSameSettlement(PaymentResponse expected, PaymentResponse actual) {
+    assertEquals(expected.getCurrency(), actual.getCurrency());
+    assertEquals(expected.getAmount(), actual.getAmount());
+    assertEquals(expected.getSettlementCurrency(), actual.getSettlementCurrency());
+    assertEquals(expected.getSettlementAmount(), actual.getSettlementAmount());
+    assertEquals(expected.getFxRate(), actual.getFxRate());
+  }
+
+  private PaymentResponse createPayment(String currency, int amount) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(generator.nextId());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCurrency(currency);
+    payment.setAmount(amount);
+    payment.setLastFourDigits("4321");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCardExpiryDate("04/30");
+    return payment;
+  }
+}
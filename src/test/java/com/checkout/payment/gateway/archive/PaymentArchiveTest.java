@@ -0,0 +1,289 @@
+package com.checkout.payment.gateway.archive;
+
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.PaymentActionException;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.model.ArchivedVolume;
+import com.checkout.payment.gateway.model.PaymentAction;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentArchiveTest {
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+
+  @TempDir
+  Path directory;
+
+  private final AtomicLong now = new AtomicLong();
+  private TimeOrderedPaymentIdGenerator generator;
+
+  @BeforeEach
+  void setUp() {
+    now.set(FIRST_DAY.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+    generator = new TimeOrderedPaymentIdGenerator(1, now::get);
+  }
+
+  @Test
+  void testFind_ShouldRestoreEveryFieldAfterReopening() {
+    PaymentResponse authorized = createPayment("GBP", PaymentStatus.AUTHORIZED, 1050, "0042");
+    PaymentResponse declined = createPayment("USD", PaymentStatus.DECLINED, 7, "8877");
+    new PaymentArchive(directory).append(List.of(declined, authorized));
+
+    PaymentArchive reopened = new PaymentArchive(directory);
+
+    assertEquals(1, reopened.segmentCount());
+    assertSamePayment(authorized, reopened.find(authorized.getId()));
+    assertSamePayment(declined, reopened.find(declined.getId()));
+    assertFalse(reopened.find(generator.nextId()).isPresent());
+    assertFalse(reopened.find(UUID.randomUUID()).isPresent());
+  }
+
+  @Test
+  void testSummarize_ShouldSumPerDayCurrencyAndStatusAcrossSegments() {
+    List<PaymentResponse> firstSegment = new ArrayList<>();
+    List<PaymentResponse> secondSegment = new ArrayList<>();
+    // Enough rows for the segments to be scanned as several parallel ranges
+    for (int i = 0; i < 150_000; i++) {
+      now.set(dayStart(i / 50_000) + i % 50_000);
+      String currency = i % 2 == 0 ? "GBP" : "EUR";
+      PaymentStatus status = i % 5 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED;
+      PaymentResponse payment = createPayment(currency, status, i % 1000 + 1, "1234");
+      (i < 80_000 ? firstSegment : secondSegment).add(payment);
+    }
+    PaymentArchive archive = new PaymentArchive(directory);
+    archive.append(firstSegment);
+    archive.append(secondSegment);
+
+    List<ArchivedVolume> volumes = archive.summarize(dayStart(0), dayStart(3));
+
+    long[] expectedCount = new long[12];
+    long[] expectedAmount = new long[12];
+    for (int i = 0; i < 150_000; i++) {
+      int cell = (i / 50_000) * 4 + (i % 2) * 2 + (i % 5 == 0 ? 1 : 0);
+      expectedCount[cell]++;
+      expectedAmount[cell] += i % 1000 + 1;
+    }
+    assertEquals(12, volumes.size());
+    for (ArchivedVolume volume : volumes) {
+      int cell = (int) (volume.getDate().toEpochDay() - FIRST_DAY.toEpochDay()) * 4
+          + ("GBP".equals(volume.getCurrency()) ? 0 : 2)
+          + (volume.getStatus() == PaymentStatus.DECLINED ? 1 : 0);
+      assertEquals(expectedCount[cell], volume.getCount());
+      assertEquals(expectedAmount[cell], volume.getAmount());
+    }
+  }
+
+  @Test
+  void testSummarize_ShouldOnlyIncludePaymentsInRange() {
+    now.set(dayStart(0));
+    PaymentResponse before = createPayment("GBP", PaymentStatus.AUTHORIZED, 100, "1234");
+    now.set(dayStart(1) + 5);
+    PaymentResponse inside = createPayment("GBP", PaymentStatus.AUTHORIZED, 200, "1234");
+    now.set(dayStart(2));
+    PaymentResponse after = createPayment("GBP", PaymentStatus.AUTHORIZED, 400, "1234");
+    PaymentArchive archive = new PaymentArchive(directory);
+    archive.append(List.of(before, inside, after));
+
+    List<ArchivedVolume> volumes = archive.summarize(dayStart(1), dayStart(2));
+
+    assertEquals(1, volumes.size());
+    assertEquals(FIRST_DAY.plusDays(1), volumes.get(0).getDate());
+    assertEquals(1, volumes.get(0).getCount());
+    assertEquals(200, volumes.get(0).getAmount());
+  }
+
+  @Test
+  void testArchiver_ShouldMoveOnlyAgedPaymentsAndKeepThemReadable() {
+    InMemoryPaymentsRepository live = new InMemoryPaymentsRepository();
+    PaymentArchive archive = new PaymentArchive(directory);
+    ArchiveBackedPaymentsRepository repository = new ArchiveBackedPaymentsRepository(live,
+        archive);
+    PaymentResponse aged = createPayment("GBP", PaymentStatus.AUTHORIZED, 100, "1234");
+    now.addAndGet(Duration.ofDays(2).toMillis());
+    PaymentResponse recent = createPayment("GBP", PaymentStatus.AUTHORIZED, 200, "1234");
+    PaymentResponse randomId = createPayment("GBP", PaymentStatus.AUTHORIZED, 300, "1234");
+    randomId.setId(UUID.randomUUID());
+    repository.add(aged);
+    repository.add(recent);
+    repository.add(randomId);
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(now.get()), ZoneOffset.UTC);
+
+    int archived = new PaymentArchiver(repository, archive, Duration.ofDays(1), 1000, clock)
+        .archive();
+
+    assertEquals(1, archived);
+    assertFalse(live.get(aged.getId()).isPresent());
+    assertTrue(live.get(recent.getId()).isPresent());
+    assertTrue(live.get(randomId.getId()).isPresent());
+    assertSamePayment(aged, repository.get(aged.getId()));
+    assertTrue(repository.get(aged.getId()).orElseThrow().isArchived());
+    assertFalse(repository.get(recent.getId()).orElseThrow().isArchived());
+  }
+
+  @Test
+  void testArchiver_ShouldKeepPaymentsWithActionsLive() {
+    InMemoryPaymentsRepository live = new InMemoryPaymentsRepository();
+    PaymentArchive archive = new PaymentArchive(directory);
+    PaymentResponse untouched = createPayment("GBP", PaymentStatus.AUTHORIZED, 100, "1234");
+    PaymentResponse captured = createPayment("GBP", PaymentStatus.CAPTURED, 200, "1234");
+    captured.setCapturedAmount(200);
+    captured.setActions(List.of(new PaymentAction(PaymentActionType.CAPTURE, 200,
+        "2026-01-01T00:00:00Z")));
+    live.add(untouched);
+    live.add(captured);
+    now.addAndGet(Duration.ofDays(2).toMillis());
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(now.get()), ZoneOffset.UTC);
+
+    int archived = new PaymentArchiver(live, archive, Duration.ofDays(1), 1000, clock).archive();
+
+    assertEquals(1, archived);
+    assertFalse(live.get(untouched.getId()).isPresent());
+    assertTrue(archive.find(untouched.getId()).isPresent());
+    assertSame(captured, live.get(captured.getId()).orElseThrow());
+    assertFalse(archive.find(captured.getId()).isPresent());
+  }
+
+  @Test
+  void testArchiver_ShouldSkipRunsWhileTheStoreIsNotWritable() {
+    InMemoryPaymentsRepository live = new InMemoryPaymentsRepository();
+    PaymentArchive archive = new PaymentArchive(directory);
+    PaymentResponse aged = createPayment("GBP", PaymentStatus.AUTHORIZED, 100, "1234");
+    live.add(aged);
+    now.addAndGet(Duration.ofDays(2).toMillis());
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(now.get()), ZoneOffset.UTC);
+    AtomicBoolean leader = new AtomicBoolean();
+    PaymentArchiver archiver = new PaymentArchiver(live, archive, Duration.ofDays(1), 1000,
+        clock, leader::get);
+
+    assertEquals(0, archiver.archive());
+    assertEquals(0, archiver.archive());
+    assertEquals(0, archive.segmentCount());
+    assertTrue(live.get(aged.getId()).isPresent());
+
+    leader.set(true);
+
+    assertEquals(1, archiver.archive());
+    assertEquals(1, archive.segmentCount());
+    assertFalse(live.get(aged.getId()).isPresent());
+  }
+
+  @Test
+  void testArchiver_ShouldNotLoseActionsAppliedWhileArchiving() throws Exception {
+    PaymentArchive archive = new PaymentArchive(directory);
+    PaymentResponse pickedThenCaptured =
+        createPayment("GBP", PaymentStatus.AUTHORIZED, 100, "1234");
+    PaymentResponse capturedWhileRemoved =
+        createPayment("GBP", PaymentStatus.AUTHORIZED, 200, "1234");
+    AtomicReference<PaymentLifecycle> lifecycle = new AtomicReference<>();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    AtomicReference<Future<PaymentResponse>> lateCapture = new AtomicReference<>();
+    InMemoryPaymentsRepository live = new InMemoryPaymentsRepository() {
+      @Override
+      public void forEach(Consumer<PaymentResponse> action) {
+        super.forEach(action);
+        // Captured after the archiver picked it
+        lifecycle.get().capture(pickedThenCaptured.getId(), null, null);
+      }
+
+      @Override
+      public void remove(UUID id) {
+        if (id.equals(capturedWhileRemoved.getId())) {
+          lateCapture.set(executor.submit(() -> lifecycle.get().capture(id, null, null)));
+          try {
+            lateCapture.get().get(200, TimeUnit.MILLISECONDS);
+          } catch (Exception ex) {
+            // Held back until the archiver is done with the payment
+          }
+        }
+        super.remove(id);
+      }
+    };
+    ArchiveBackedPaymentsRepository repository = new ArchiveBackedPaymentsRepository(live,
+        archive);
+    lifecycle.set(new PaymentLifecycle(repository,
+        new PaymentResponseEncoder(new ObjectMapper(), true), (merchantId, payment) -> {
+        }));
+    live.add(pickedThenCaptured);
+    live.add(capturedWhileRemoved);
+    now.addAndGet(Duration.ofDays(2).toMillis());
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(now.get()), ZoneOffset.UTC);
+
+    int archived = new PaymentArchiver(repository, archive, Duration.ofDays(1), 1000, clock,
+        () -> true, lifecycle.get()).archive();
+
+    ExecutionException refused = assertThrows(ExecutionException.class,
+        () -> lateCapture.get().get(5, TimeUnit.SECONDS));
+    executor.shutdown();
+    assertEquals(1, archived);
+    assertEquals(PaymentStatus.CAPTURED, live.get(pickedThenCaptured.getId()).orElseThrow()
+        .getStatus());
+    assertFalse(archive.find(pickedThenCaptured.getId()).isPresent());
+    assertEquals(409, ((PaymentActionException) refused.getCause()).getHttpStatus());
+    assertFalse(live.get(capturedWhileRemoved.getId()).isPresent());
+    assertTrue(repository.get(capturedWhileRemoved.getId()).orElseThrow().isArchived());
+  }
+
+  private long dayStart(int day) {
+    return FIRST_DAY.plusDays(day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  private void assertSamePayment(PaymentResponse expected, Optional<PaymentResponse> actual) {
+    assertTrue(actual.isPresent());
+    assertEquals(expected.getId(), actual.get().getId());
+    assertEquals(expected.getStatus(), actual.get().getStatus());
+    assertEquals(expected.getCurrency(), actual.get().getCurrency());
+    assertEquals(expected.getAmount(), actual.get().getAmount());
+    assertEquals(expected.getLastFourDigits(), actual.get().getLastFourDigits());
+    assertEquals(expected.getExpiryMonth(), actual.get().getExpiryMonth());
+    assertEquals(expected.getExpiryYear(), actual.get().getExpiryYear());
+    assertEquals(expected.getCardExpiryDate(), actual.get().getCardExpiryDate());
+  }
+
+  private PaymentResponse createPayment(String currency, PaymentStatus status, int amount,
+      String lastFour) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(generator.nextId());
+    payment.setStatus(status);
+    payment.setCurrency(currency);
+    payment.setAmount(amount);
+    payment.setLastFourDigits(lastFour);
+    payment.setExpiryMonth(amount % 12 + 1);
+    payment.setExpiryYear(2030 + amount % 3);
+    payment.setCardExpiryDate(String.format("%02d/%02d", payment.getExpiryMonth(),
+        payment.getExpiryYear() % 100));
+    return payment;
+  }
+}
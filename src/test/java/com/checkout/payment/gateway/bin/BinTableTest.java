@@ -0,0 +1,141 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.exception.BinTableException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinTableTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testLookup_ShouldFindRangeOfCardNumber() throws IOException {
+    BinTable table = compile(
+        "# low,high,scheme,country,funding",
+        "51,55,mastercard,US,credit",
+        "",
+        "411111,411111,VISA,GB,DEBIT",
+        "2221,2720,MASTERCARD,US,CREDIT",
+        "34,34,AMEX,,",
+        "37,37,AMEX,,");
+
+    assertEquals(5, table.rangeCount());
+    BinInfo visa = table.lookup("4111111111111111");
+    assertEquals("VISA", visa.getScheme());
+    assertEquals("GB", visa.getCountry());
+    assertEquals("DEBIT", visa.getFunding());
+    assertEquals("MASTERCARD", table.lookup("2222405343248877").getScheme());
+    assertEquals("MASTERCARD", table.lookup("2720999999999999").getScheme());
+    assertEquals("MASTERCARD", table.lookup("5555555555554444").getScheme());
+    assertEquals("AMEX", table.lookup(" 378282246310005 ").getScheme());
+    assertEquals(null, table.lookup("378282246310005").getCountry());
+    assertSame(table.lookup("340000000000009"), table.lookup("370000000000002"));
+    assertSame(table.lookup("2221000000000009"), table.lookup("5105105105105100"));
+  }
+
+  @Test
+  void testLookup_ShouldReturnUnknownOutsideRangesAndForNonDigits() throws IOException {
+    BinTable table = compile("411111,411111,VISA,GB,DEBIT", "2221,2720,MASTERCARD,US,CREDIT");
+
+    assertSame(BinInfo.UNKNOWN, table.lookup("4111121111111111"));
+    assertSame(BinInfo.UNKNOWN, table.lookup("2220999999999999"));
+    assertSame(BinInfo.UNKNOWN, table.lookup("2721000000000000"));
+    assertSame(BinInfo.UNKNOWN, table.lookup("1234567890123456"));
+    assertSame(BinInfo.UNKNOWN, table.lookup("4111-1111-1111-1111"));
+    assertSame(BinInfo.UNKNOWN, table.lookup(""));
+    assertSame(BinInfo.UNKNOWN, table.lookup(null));
+    assertFalse(table.lookup("9999999999999999").isKnown());
+  }
+
+  @Test
+  void testLookup_ShouldFindEveryRangeOfLargeTable() throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (int bin = 200_000; bin < 500_000; bin += 2) {
+      lines.add(bin + "00," + bin + "49," + (bin % 4 == 0 ? "VISA" : "MASTERCARD") + ",GB,DEBIT");
+    }
+    BinTable table = compile(lines.toArray(new String[0]));
+
+    assertEquals(150_000, table.rangeCount());
+    for (int bin = 200_000; bin < 500_000; bin += 2) {
+      String scheme = bin % 4 == 0 ? "VISA" : "MASTERCARD";
+      assertEquals(scheme, table.lookup(bin + "000000000").getScheme());
+      assertEquals(scheme, table.lookup(bin + "499999999").getScheme());
+      assertFalse(table.lookup(bin + "500000000").isKnown());
+    }
+  }
+
+  @Test
+  void testCompile_ShouldRejectOverlappingAndMalformedRanges() throws IOException {
+    BinTableException overlap = assertThrows(BinTableException.class,
+        () -> compile("4,4,VISA,,", "51,55,MASTERCARD,,", "4111,4111,VISA,GB,DEBIT"));
+    assertTrue(overlap.getMessage().contains("line 3"));
+    assertTrue(overlap.getMessage().contains("line 1"));
+
+    assertThrows(BinTableException.class, () -> compile("4,4,VISA"));
+    assertThrows(BinTableException.class, () -> compile("4x,4,VISA,,"));
+    assertThrows(BinTableException.class, () -> compile("5,4,VISA,,"));
+    assertThrows(BinTableException.class, () -> compile("4,4,,,"));
+  }
+
+  @Test
+  void testReload_ShouldSwapInNewTableAndKeepItWhenFileIsBroken() throws IOException {
+    Path ranges = directory.resolve("bins.csv");
+    Files.writeString(ranges, "4,4,VISA,GB,DEBIT\n");
+    BinTableLookup lookup = new BinTableLookup(ranges);
+    Path firstTable = tableFiles().get(0);
+    assertEquals("VISA", lookup.lookup("4111111111111111").getScheme());
+    assertFalse(lookup.lookup("5555555555554444").isKnown());
+
+    Files.writeString(ranges, "4,4,VISA,GB,CREDIT\n51,55,MASTERCARD,US,CREDIT\n");
+    Files.setLastModifiedTime(ranges, FileTime.fromMillis(1_000_000));
+    assertTrue(lookup.reloadIfChanged());
+
+    assertEquals("CREDIT", lookup.lookup("4111111111111111").getFunding());
+    assertEquals("MASTERCARD", lookup.lookup("5555555555554444").getScheme());
+    assertEquals(2, lookup.rangeCount());
+    assertEquals(2, lookup.reloadCount());
+    assertFalse(Files.exists(firstTable));
+
+    Files.writeString(ranges, "not,a,range\n");
+    Files.setLastModifiedTime(ranges, FileTime.fromMillis(2_000_000));
+    assertTrue(lookup.reloadIfChanged());
+
+    assertEquals("MASTERCARD", lookup.lookup("5555555555554444").getScheme());
+    assertEquals(1, lookup.failedReloadCount());
+    lookup.close();
+  }
+
+  @Test
+  void testLookup_ShouldRequireRangeFileAtStartup() {
+    assertThrows(BinTableException.class,
+        () -> new BinTableLookup(directory.resolve("missing.csv")));
+  }
+
+  private BinTable compile(String... lines) throws IOException {
+    Path source = Files.write(directory.resolve("ranges.csv"), List.of(lines));
+    Path table = directory.resolve("ranges.tbl");
+    BinTableWriter.compile(source, table);
+    return BinTable.open(table);
+  }
+
+  private List<Path> tableFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(BinTableLookup.TABLE_SUFFIX))
+          .toList();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingAcquiringBankClientTest {
+
+  private final AtomicLong nanos = new AtomicLong(1);
+  private final Random random = new Random(42);
+
+  @Test
+  void testRouting_ShouldPreferTheFasterAcquirer() {
+    AtomicInteger fastCalls = new AtomicInteger();
+    AtomicInteger slowCalls = new AtomicInteger();
+    RoutingAcquiringBankClient router = router(
+        acquirer("fast", respondingAfter(5, fastCalls, new AtomicBoolean(true))),
+        acquirer("slow", respondingAfter(200, slowCalls, new AtomicBoolean(true))));
+
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(router.processPayment(request("GBP", "4111111111111111")).isPresent());
+    }
+
+    assertTrue(fastCalls.get() > 950, "fast acquirer got " + fastCalls.get());
+    assertTrue(slowCalls.get() > 0, "slow acquirer should still be probed");
+  }
+
+  @Test
+  void testRouting_ShouldEjectFailingAcquirerAndProbeItAfterEjection() {
+    AtomicInteger healthyCalls = new AtomicInteger();
+    AtomicInteger failingCalls = new AtomicInteger();
+    AtomicBoolean failingUp = new AtomicBoolean(false);
+    // Failing fast keeps it cheap on latency, so only the error rate steers traffic away
+    Acquirer failing = acquirer("failing", respondingAfter(1, failingCalls, failingUp));
+    RoutingAcquiringBankClient router = router(
+        acquirer("healthy", respondingAfter(50, healthyCalls, new AtomicBoolean(true))),
+        failing);
+
+    int ejectedAfter = -1;
+    for (int i = 0; i < 200 && ejectedAfter < 0; i++) {
+      router.processPayment(request("GBP", "4111111111111111"));
+      if (failing.isEjected(nanos.get())) {
+        ejectedAfter = failingCalls.get();
+      }
+    }
+    assertTrue(ejectedAfter > 0 && ejectedAfter <= 5, "ejected after " + ejectedAfter);
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(router.processPayment(request("GBP", "4111111111111111")).isPresent());
+    }
+    assertEquals(ejectedAfter, failingCalls.get());
+
+    failingUp.set(true);
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+    for (int i = 0; i < 200; i++) {
+      assertTrue(router.processPayment(request("GBP", "4111111111111111")).isPresent());
+    }
+    assertTrue(failingCalls.get() > ejectedAfter, "recovered acquirer should be probed again");
+  }
+
+  @Test
+  void testRouting_ShouldOnlyUseAcquirersAcceptingCurrencyAndBin() {
+    AtomicInteger ukCalls = new AtomicInteger();
+    AtomicInteger visaCalls = new AtomicInteger();
+    AtomicBoolean up = new AtomicBoolean(true);
+    RoutingAcquiringBankClient router = router(
+        new Acquirer("uk", respondingAfter(5, ukCalls, up), Set.of("GBP"), List.of()),
+        new Acquirer("visa", respondingAfter(5, visaCalls, up), Set.of(), List.of("4")));
+
+    for (int i = 0; i < 20; i++) {
+      router.processPayment(request("GBP", "2222405343248877"));
+    }
+    assertEquals(20, ukCalls.get());
+    for (int i = 0; i < 20; i++) {
+      router.processPayment(request("USD", "4111111111111111"));
+    }
+    assertEquals(20, visaCalls.get());
+
+    assertNull(router.select(request("USD", "2222405343248877")));
+    assertFalse(router.processPayment(request("USD", "2222405343248877")).isPresent());
+  }
+
+  @Test
+  void testRouting_ShouldOnlyUseAcquirersAcceptingCardScheme() {
+    AtomicInteger amexCalls = new AtomicInteger();
+    AtomicBoolean up = new AtomicBoolean(true);
+    RoutingAcquiringBankClient router = router(
+        new Acquirer("amex", respondingAfter(5, amexCalls, up), Set.of(), List.of(),
+            Set.of("AMEX")));
+    AcquiringBankPaymentRequest amex = request("USD", "378282246310005");
+    amex.setCardScheme("AMEX");
+    AcquiringBankPaymentRequest visa = request("USD", "4111111111111111");
+    visa.setCardScheme("VISA");
+
+    assertTrue(router.processPayment(amex).isPresent());
+    assertEquals(1, amexCalls.get());
+    assertNull(router.select(visa));
+    assertNull(router.select(request("USD", "4111111111111111")));
+  }
+
+  @Test
+  void testRouting_ShouldStillTryAnEjectedAcquirerWhenItIsTheOnlyOne() {
+    AtomicInteger calls = new AtomicInteger();
+    AtomicBoolean up = new AtomicBoolean(false);
+    Acquirer only = acquirer("only", respondingAfter(5, calls, up));
+    RoutingAcquiringBankClient router = router(only);
+
+    for (int i = 0; i < 10; i++) {
+      router.processPayment(request("GBP", "4111111111111111"));
+    }
+
+    assertTrue(only.isEjected(nanos.get()));
+    assertEquals(10, calls.get());
+  }
+
+  private RoutingAcquiringBankClient router(Acquirer... acquirers) {
+    return new RoutingAcquiringBankClient(List.of(acquirers), 0.5, 10_000, 10_000, nanos::get,
+        () -> random);
+  }
+
+  private Acquirer acquirer(String name, AcquiringBankClient client) {
+    return new Acquirer(name, client, Set.of(), List.of());
+  }
+
+  private AcquiringBankClient respondingAfter(long millis, AtomicInteger calls,
+      AtomicBoolean up) {
+    return request -> {
+      calls.incrementAndGet();
+      nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+      if (!up.get()) {
+        return Optional.empty();
+      }
+      AcquiringBankPaymentResponse response = new AcquiringBankPaymentResponse();
+      response.setAuthorized(true);
+      return Optional.of(response);
+    };
+  }
+
+  private AcquiringBankPaymentRequest request(String currency, String cardNumber) {
+    AcquiringBankPaymentRequest request = new AcquiringBankPaymentRequest();
+    request.setCurrency(currency);
+    request.setCardNumber(cardNumber);
+    return request;
+  }
+}
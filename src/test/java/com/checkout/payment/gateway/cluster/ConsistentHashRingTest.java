@@ -0,0 +1,87 @@
+package com.checkout.payment.gateway.cluster;
+
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+  private static final ClusterNode NODE_A = new ClusterNode("http://localhost:8090");
+  private static final ClusterNode NODE_B = new ClusterNode("http://localhost:8091");
+  private static final ClusterNode NODE_C = new ClusterNode("http://localhost:8092/");
+
+  @Test
+  void testOwnerOf_ShouldBeDeterministicAcrossRingInstances() {
+    ConsistentHashRing first = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), 64);
+    ConsistentHashRing second = new ConsistentHashRing(List.of(NODE_C, NODE_B, NODE_A), 64);
+
+    for (int i = 0; i < 1000; i++) {
+      UUID id = UUID.randomUUID();
+      assertEquals(first.ownerOf(id), second.ownerOf(id));
+    }
+  }
+
+  @Test
+  void testOwnerOf_WithTimeOrderedIds_ShouldSpreadEvenly() {
+    ConsistentHashRing ring = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), 128);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(1);
+    Map<ClusterNode, Integer> counts = new HashMap<>();
+
+    for (int i = 0; i < 30_000; i++) {
+      counts.merge(ring.ownerOf(generator.nextId()), 1, Integer::sum);
+    }
+
+    assertEquals(3, counts.size());
+    counts.values().forEach(count -> assertTrue(count > 7_000 && count < 13_000,
+        "uneven distribution: " + counts));
+  }
+
+  @Test
+  void testWithNode_ShouldOnlyMoveIdsToTheJoiningNode() {
+    ConsistentHashRing before = new ConsistentHashRing(List.of(NODE_A, NODE_B), 128);
+    ConsistentHashRing after = before.withNode(NODE_C);
+    int moved = 0;
+
+    for (int i = 0; i < 10_000; i++) {
+      UUID id = UUID.randomUUID();
+      ClusterNode oldOwner = before.ownerOf(id);
+      ClusterNode newOwner = after.ownerOf(id);
+      if (!oldOwner.equals(newOwner)) {
+        assertEquals(NODE_C, newOwner);
+        moved++;
+      }
+    }
+
+    assertTrue(moved > 2_000 && moved < 4_700, "unexpected number of moved ids: " + moved);
+  }
+
+  @Test
+  void testWithNode_WhenAlreadyMember_ShouldReturnSameRing() {
+    ConsistentHashRing ring = new ConsistentHashRing(List.of(NODE_A, NODE_B), 16);
+
+    assertSame(ring, ring.withNode(new ClusterNode("http://localhost:8091/")));
+  }
+
+  @Test
+  void testWithoutNode_ShouldReassignItsIds() {
+    ConsistentHashRing ring = new ConsistentHashRing(List.of(NODE_A, NODE_B), 16);
+    ConsistentHashRing remaining = ring.withoutNode(NODE_B);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(NODE_A, remaining.ownerOf(UUID.randomUUID()));
+    }
+  }
+
+  @Test
+  void testConstructor_WithNoNodes_ShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+  }
+}
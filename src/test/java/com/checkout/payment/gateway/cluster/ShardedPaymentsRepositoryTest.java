@@ -0,0 +1,198 @@
+package com.checkout.payment.gateway.cluster;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ClusterException;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedPaymentsRepositoryTest {
+
+  private static final ClusterNode SELF = new ClusterNode("http://localhost:8090");
+  private static final ClusterNode NODE_B = new ClusterNode("http://localhost:8091");
+  private static final ClusterNode NODE_C = new ClusterNode("http://localhost:8092");
+
+  @Mock
+  private ClusterClient clusterClient;
+
+  private final InMemoryPaymentsRepository localRepository = new InMemoryPaymentsRepository();
+  private ConsistentHashRing ring;
+  private ShardedPaymentsRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    ClusterMembership membership = new ClusterMembership(SELF,
+        new ConsistentHashRing(List.of(NODE_B, NODE_C), 64), localRepository, clusterClient);
+    ring = membership.ring();
+    repository = new ShardedPaymentsRepository(localRepository, membership, clusterClient);
+  }
+
+  @Test
+  void testAdd_WithLocalOwner_ShouldStoreLocally() {
+    PaymentResponse payment = payment(idOwnedBy(SELF));
+
+    repository.add(payment);
+
+    assertSame(payment, localRepository.get(payment.getId()).orElseThrow());
+    assertSame(payment, repository.get(payment.getId()).orElseThrow());
+    verifyNoInteractions(clusterClient);
+  }
+
+  @Test
+  void testAdd_WithRemoteOwner_ShouldStoreOnOwner() {
+    PaymentResponse payment = payment(idOwnedBy(NODE_B));
+
+    repository.add(payment);
+
+    verify(clusterClient).store(NODE_B, payment);
+    assertFalse(localRepository.get(payment.getId()).isPresent());
+  }
+
+  @Test
+  void testAdd_WhenOwnerUnavailable_ShouldKeepPaymentLocally() {
+    PaymentResponse payment = payment(idOwnedBy(NODE_B));
+    doThrow(new ClusterException("connection refused")).when(clusterClient)
+        .store(NODE_B, payment);
+
+    repository.add(payment);
+
+    assertSame(payment, localRepository.get(payment.getId()).orElseThrow());
+  }
+
+  @Test
+  void testGet_WithRemoteOwner_ShouldFetchFromOwner() {
+    PaymentResponse payment = payment(idOwnedBy(NODE_B));
+    when(clusterClient.fetch(NODE_B, payment.getId())).thenReturn(Optional.of(payment));
+
+    assertSame(payment, repository.get(payment.getId()).orElseThrow());
+  }
+
+  @Test
+  void testGet_WhenOwnerUnavailableOrWithoutPayment_ShouldFallBackToLocalStore() {
+    PaymentResponse keptLocally = payment(idOwnedBy(NODE_B));
+    PaymentResponse notHandedOff = payment(idOwnedBy(NODE_C));
+    localRepository.add(keptLocally);
+    localRepository.add(notHandedOff);
+    when(clusterClient.fetch(NODE_B, keptLocally.getId()))
+        .thenThrow(new ClusterException("timed out"));
+    when(clusterClient.fetch(NODE_C, notHandedOff.getId())).thenReturn(Optional.empty());
+
+    assertSame(keptLocally, repository.get(keptLocally.getId()).orElseThrow());
+    assertSame(notHandedOff, repository.get(notHandedOff.getId()).orElseThrow());
+  }
+
+  @Test
+  void testGetAll_ShouldSendOneRequestPerOwnerAndReadLocalShardDirectly() {
+    PaymentResponse local = payment(idOwnedBy(SELF));
+    PaymentResponse firstOfB = payment(idOwnedBy(NODE_B));
+    PaymentResponse secondOfB = payment(idOwnedBy(NODE_B));
+    PaymentResponse ofC = payment(idOwnedBy(NODE_C));
+    localRepository.add(local);
+    when(clusterClient.fetchAll(NODE_B, List.of(firstOfB.getId(), secondOfB.getId())))
+        .thenReturn(List.of(firstOfB, secondOfB));
+    when(clusterClient.fetchAll(NODE_C, List.of(ofC.getId()))).thenReturn(List.of(ofC));
+
+    Map<UUID, PaymentResponse> found = repository.getAll(List.of(firstOfB.getId(),
+        local.getId(), ofC.getId(), secondOfB.getId()));
+
+    assertEquals(Map.of(local.getId(), local, firstOfB.getId(), firstOfB,
+        secondOfB.getId(), secondOfB, ofC.getId(), ofC), found);
+    verify(clusterClient).fetchAll(NODE_B, List.of(firstOfB.getId(), secondOfB.getId()));
+    verify(clusterClient).fetchAll(NODE_C, List.of(ofC.getId()));
+    verifyNoMoreInteractions(clusterClient);
+  }
+
+  @Test
+  void testGetAll_WithPartialRemoteResults_ShouldLookForTheRestLocally() {
+    PaymentResponse onOwner = payment(idOwnedBy(NODE_B));
+    PaymentResponse keptLocally = payment(idOwnedBy(NODE_B));
+    UUID unknownId = idOwnedBy(NODE_B);
+    localRepository.add(keptLocally);
+    List<UUID> ids = List.of(onOwner.getId(), keptLocally.getId(), unknownId);
+    when(clusterClient.fetchAll(NODE_B, ids)).thenReturn(List.of(onOwner));
+
+    Map<UUID, PaymentResponse> found = repository.getAll(ids);
+
+    assertEquals(Map.of(onOwner.getId(), onOwner, keptLocally.getId(), keptLocally), found);
+  }
+
+  @Test
+  void testGetAll_WhenOwnerUnavailable_ShouldFallBackToLocalStore() {
+    PaymentResponse keptLocally = payment(idOwnedBy(NODE_B));
+    PaymentResponse ofC = payment(idOwnedBy(NODE_C));
+    localRepository.add(keptLocally);
+    when(clusterClient.fetchAll(NODE_B, List.of(keptLocally.getId())))
+        .thenThrow(new ClusterException("connection refused"));
+    when(clusterClient.fetchAll(NODE_C, List.of(ofC.getId()))).thenReturn(List.of(ofC));
+
+    Map<UUID, PaymentResponse> found = repository.getAll(List.of(keptLocally.getId(),
+        ofC.getId()));
+
+    assertEquals(Map.of(keptLocally.getId(), keptLocally, ofC.getId(), ofC), found);
+  }
+
+  @Test
+  void testRemove_ShouldRemoveLocallyAndFromRemoteOwner() {
+    PaymentResponse local = payment(idOwnedBy(SELF));
+    PaymentResponse remote = payment(idOwnedBy(NODE_B));
+    localRepository.add(local);
+    localRepository.add(remote);
+
+    repository.remove(local.getId());
+    repository.remove(remote.getId());
+
+    assertTrue(localRepository.get(local.getId()).isEmpty());
+    assertTrue(localRepository.get(remote.getId()).isEmpty());
+    verify(clusterClient).remove(NODE_B, remote.getId());
+    verifyNoMoreInteractions(clusterClient);
+  }
+
+  @Test
+  void testRemove_WhenOwnerUnavailable_ShouldStillRemoveLocally() {
+    PaymentResponse keptLocally = payment(idOwnedBy(NODE_B));
+    localRepository.add(keptLocally);
+    doThrow(new ClusterException("connection refused"))
+        .when(clusterClient).remove(NODE_B, keptLocally.getId());
+
+    repository.remove(keptLocally.getId());
+
+    assertTrue(localRepository.get(keptLocally.getId()).isEmpty());
+  }
+
+  private UUID idOwnedBy(ClusterNode node) {
+    while (true) {
+      UUID id = UUID.randomUUID();
+      if (ring.ownerOf(id).equals(node)) {
+        return id;
+      }
+    }
+  }
+
+  private static PaymentResponse payment(UUID id) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCurrency("GBP");
+    payment.setAmount(1000);
+    return payment;
+  }
+}
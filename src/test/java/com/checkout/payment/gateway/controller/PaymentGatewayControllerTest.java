@@ -1,14 +1,32 @@
 package com.checkout.payment.gateway.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.checkout.payment.gateway.admission.ExecutionLane;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.CommonExceptionHandler;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
 import com.checkout.payment.gateway.model.PaymentRequest;
 import com.checkout.payment.gateway.model.PaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentLookup;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +34,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -55,6 +76,28 @@ class PaymentGatewayControllerTest {
                 .andExpect(jsonPath("$.amount").value(payment.getAmount()));
     }
 
+    @Test
+    void testGetEndPointWithPreSerializedPayment_ReturnsStoredBytes() throws Exception {
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(UUID.randomUUID());
+        payment.setStatus(PaymentStatus.AUTHORIZED);
+        payment.setAmount(10);
+        byte[] json = objectMapper.writeValueAsBytes(payment);
+        payment.setSerializedJson(json);
+        // Changed after encoding: the response must come from the stored bytes, not the object
+        payment.setAmount(20);
+
+        paymentsRepository.add(payment);
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/v1/payment/" + payment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().longValue("Content-Length", json.length))
+                .andExpect(content().bytes(json))
+                .andExpect(jsonPath("$.amount").value(10))
+                .andExpect(jsonPath("$.serializedJson").doesNotExist());
+    }
+
     @Test
     void testGetEndpointWithNonExistingId_404Returned() throws Exception {
         mvc.perform(MockMvcRequestBuilders.get("/api/v1/payment/" + UUID.randomUUID()))
@@ -92,9 +135,7 @@ class PaymentGatewayControllerTest {
         int currentYear = YearMonth.now().getYear();
         int nextYear = currentYear + 1;
 
-        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+        submitPayment(objectMapper.writeValueAsString(request))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").exists())
                 .andExpect(jsonPath("$.status").exists())
@@ -116,19 +157,183 @@ class PaymentGatewayControllerTest {
         request.setAmount(1000);
         request.setCvv("123");
 
-        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+        submitPayment(objectMapper.writeValueAsString(request))
                 .andExpect(status().isBadRequest()) // should return 400 Bad Request
                 .andExpect(jsonPath("$.status").value("Rejected"));
     }
 
     @Test
     void testPOSTEndPointWithNullRequest_ReturnedRejectedStatus() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content("{}"))
+        submitPayment("{}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("Rejected"));
+    }
+
+    @Test
+    void testPOSTEndPointWithMalformedJson_ReturnsRejectedStatus() throws Exception {
+        submitPayment("{\"amount\":12,,}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("Rejected"));
+    }
+
+    @Test
+    void testPOSTEndPointWithOversizedBody_ReturnsRejectedStatus() throws Exception {
+        submitPayment("{\"reference\":\"" + "x".repeat(10_000) + "\"}")
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status").value("Rejected"));
     }
+
+    @Test
+    void testCaptureAndRefundEndPoints_ReturnUpdatedPayment() throws Exception {
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(UUID.randomUUID());
+        payment.setStatus(PaymentStatus.AUTHORIZED);
+        payment.setCurrency("GBP");
+        payment.setAmount(1000);
+        paymentsRepository.add(payment);
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/" + payment.getId() + "/capture")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":600}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Partially Captured"))
+                .andExpect(jsonPath("$.capturedAmount").value(600))
+                .andExpect(jsonPath("$.actions[0].type").value("Capture"));
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/" + payment.getId() + "/refund"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Refunded"))
+                .andExpect(jsonPath("$.refundedAmount").value(600))
+                .andExpect(jsonPath("$.actions.length()").value(2));
+        mvc.perform(MockMvcRequestBuilders.get("/api/v1/payment/" + payment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Refunded"));
+    }
+
+    @Test
+    void testVoidEndPoint_RefusesActionsTheStateDoesNotAllow() throws Exception {
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(UUID.randomUUID());
+        payment.setStatus(PaymentStatus.AUTHORIZED);
+        payment.setCurrency("GBP");
+        payment.setAmount(1000);
+        paymentsRepository.add(payment);
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/" + payment.getId() + "/void"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Voided"));
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/" + payment.getId() + "/capture"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Payment is Voided and cannot be captured"));
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/" + payment.getId() + "/refund")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":-5}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/" + UUID.randomUUID() + "/void"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Payment not found"));
+    }
+
+    @Test
+    void testLookupEndPoint_ReturnsFoundPaymentsAndMissingIds() throws Exception {
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(UUID.randomUUID());
+        payment.setStatus(PaymentStatus.AUTHORIZED);
+        payment.setCurrency("GBP");
+        payment.setAmount(1000);
+        paymentsRepository.add(payment);
+        UUID unknownId = UUID.randomUUID();
+
+        lookupPayments("{\"ids\":[\"" + payment.getId() + "\",\"" + unknownId + "\"]}")
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.payments.length()").value(1))
+                .andExpect(jsonPath("$.payments[0].id").value(payment.getId().toString()))
+                .andExpect(jsonPath("$.payments[0].status").value("Authorized"))
+                .andExpect(jsonPath("$.missing[0]").value(unknownId.toString()));
+    }
+
+    @Test
+    void testLookupEndPointWithNoIdsOrMalformedJson_Returns400() throws Exception {
+        lookupPayments("{\"ids\":[]}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("ids must list between 1 and 10000 payment ids"));
+        mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[\"not-a-uuid\""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Request body is malformed"));
+    }
+
+    @Test
+    void testLookupEndPointWhenFirstBatchFails_Returns500() throws Exception {
+        PaymentGatewayService service = mock(PaymentGatewayService.class);
+        PaymentsRepository failing = mock(PaymentsRepository.class);
+        UUID id = UUID.randomUUID();
+        when(failing.getAll(any())).thenThrow(new IllegalStateException("store unavailable"));
+        when(service.lookupPayments(List.of(id)))
+                .thenReturn(new PaymentLookup(List.of(id), failing, 1));
+
+        standaloneMvc(service).perform(MockMvcRequestBuilders.post("/api/v1/payment/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[\"" + id + "\"]}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Internal server error occurred"));
+    }
+
+    @Test
+    void testLookupEndPointWhenLaterBatchFails_AbortsResponse() throws Exception {
+        PaymentGatewayService service = mock(PaymentGatewayService.class);
+        PaymentsRepository failing = mock(PaymentsRepository.class);
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(UUID.randomUUID());
+        payment.setStatus(PaymentStatus.AUTHORIZED);
+        UUID unreadableId = UUID.randomUUID();
+        List<UUID> ids = List.of(payment.getId(), unreadableId);
+        when(failing.getAll(List.of(payment.getId()))).thenReturn(Map.of(payment.getId(), payment));
+        when(failing.getAll(List.of(unreadableId)))
+                .thenThrow(new IllegalStateException("store unavailable"));
+        when(service.lookupPayments(ids)).thenReturn(new PaymentLookup(ids, failing, 1));
+        MockMvc standalone = standaloneMvc(service);
+
+        MvcResult result = standalone.perform(MockMvcRequestBuilders.post("/api/v1/payment/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[\"" + payment.getId() + "\",\"" + unreadableId + "\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Already committed with 200, so the failure must reach the container to abort it
+        assertThrows(Exception.class, () -> standalone.perform(asyncDispatch(result)));
+        String body = result.getResponse().getContentAsString();
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(body.startsWith("{\"payments\":[{\"id\":\"" + payment.getId()));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(body));
+    }
+
+    private ResultActions lookupPayments(String body) throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result));
+    }
+
+    private MockMvc standaloneMvc(PaymentGatewayService service) {
+        return MockMvcBuilders.standaloneSetup(new PaymentGatewayController(service,
+                        mock(PaymentLifecycle.class), objectMapper, mock(ExecutionLane.class)))
+                .setControllerAdvice(new CommonExceptionHandler(1))
+                .build();
+    }
+
+    // Submissions complete on the bank lane, after the request thread has returned
+    private ResultActions submitPayment(String body) throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/api/v1/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result));
+    }
 }
@@ -0,0 +1,83 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.admission.ExecutionLane;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.lifecycle.PaymentLifecycle;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Read-heavy throughput of {@code GET /api/v1/payment/{id}} with and without pre-serialized
+ * response bytes. Run with {@code ./gradlew benchmark}; it is excluded from {@code test}.
+ */
+@Tag("benchmark")
+class PaymentLookupBenchmark {
+
+  private static final int WARMUP_READS = 50_000;
+  private static final int MEASURED_READS = 200_000;
+
+  @Test
+  void benchmarkGetPayment() throws Exception {
+    PaymentResponse mapped = createPayment();
+    PaymentResponse preSerialized = createPayment();
+    preSerialized.setSerializedJson(new ObjectMapper().writeValueAsBytes(preSerialized));
+
+    double mappedRate = readsPerSecond(mapped);
+    double preSerializedRate = readsPerSecond(preSerialized);
+
+    System.out.printf("GET /api/v1/payment/{id}: object mapping %.0f reads/s, "
+            + "pre-serialized %.0f reads/s (%.2fx)%n", mappedRate, preSerializedRate,
+        preSerializedRate / mappedRate);
+  }
+
+  private double readsPerSecond(PaymentResponse payment) throws Exception {
+    PaymentGatewayService service = mock(PaymentGatewayService.class);
+    when(service.findPaymentById(payment.getId())).thenReturn(Optional.of(payment));
+    MockMvc mvc = MockMvcBuilders.standaloneSetup(
+        new PaymentGatewayController(service, mock(PaymentLifecycle.class),
+            new ObjectMapper(), mock(ExecutionLane.class))).build();
+    String path = "/api/v1/payment/" + payment.getId();
+
+    for (int i = 0; i < WARMUP_READS; i++) {
+      read(mvc, path);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_READS; i++) {
+      read(mvc, path);
+    }
+    long elapsed = System.nanoTime() - start;
+    return MEASURED_READS * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+  }
+
+  private void read(MockMvc mvc, String path) throws Exception {
+    int status = mvc.perform(MockMvcRequestBuilders.get(path)).andReturn().getResponse()
+        .getStatus();
+    assertEquals(200, status);
+  }
+
+  private PaymentResponse createPayment() {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setLastFourDigits("8877");
+    payment.setCardExpiryDate("04/30");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(1050);
+    return payment;
+  }
+}
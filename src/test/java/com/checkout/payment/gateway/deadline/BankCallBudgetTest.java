@@ -0,0 +1,70 @@
+package com.checkout.payment.gateway.deadline;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BankCallBudgetTest {
+
+  private final BankCallBudget budget = new BankCallBudget(2000, 10_000, 200);
+
+  @AfterEach
+  void tearDown() {
+    RequestDeadline.clear();
+  }
+
+  @Test
+  void testWithoutDeadline_ShouldUseConfiguredTimeouts() {
+    assertFalse(budget.isExhausted());
+    assertEquals(2000, budget.connectTimeoutMillis());
+    assertEquals(10_000, budget.readTimeoutMillis());
+    assertEquals(0, budget.savedMillis());
+  }
+
+  @Test
+  void testWithCloseDeadline_ShouldCutTimeoutsAndCountSavedWait() {
+    RequestDeadline.set(System.nanoTime() + TimeUnit.SECONDS.toNanos(1), true);
+
+    assertFalse(budget.isExhausted());
+    assertTrue(budget.connectTimeoutMillis() <= 1000);
+    int readTimeout = budget.readTimeoutMillis();
+
+    assertTrue(readTimeout > 0 && readTimeout <= 1000);
+    assertEquals(1, budget.shortenedCount());
+    assertEquals(10_000 - readTimeout, budget.savedMillis());
+  }
+
+  @Test
+  void testWithServerMaximumDeadline_ShouldCutTimeoutWithoutCountingIt() {
+    // A request without the timeout header gets the server maximum, here just under the timeout
+    RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(9_990), false);
+
+    int readTimeout = budget.readTimeoutMillis();
+
+    assertTrue(readTimeout < 10_000);
+    assertEquals(0, budget.shortenedCount());
+    assertEquals(0, budget.savedMillis());
+  }
+
+  @Test
+  void testWithDeadlineUnderMinimumBudget_ShouldBeExhausted() {
+    RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertTrue(budget.isExhausted());
+    assertEquals(1, budget.skippedCount());
+    assertEquals(10_000, budget.savedMillis());
+  }
+
+  @Test
+  void testWithPassedDeadline_ShouldNeverDisableTimeouts() {
+    RequestDeadline.set(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+
+    assertTrue(RequestDeadline.isExpired());
+    assertEquals(1, budget.connectTimeoutMillis());
+    assertEquals(1, budget.readTimeoutMillis());
+  }
+}
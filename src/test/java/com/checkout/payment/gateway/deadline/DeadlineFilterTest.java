@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.deadline;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineFilterTest {
+
+  private final DeadlineFilter filter = new DeadlineFilter(5000);
+  private final AtomicBoolean fromClient = new AtomicBoolean();
+
+  @Test
+  void testHeader_ShouldSetDeadlineForTheRequestOnly() throws Exception {
+    long remaining = remainingDuringRequest("1500");
+
+    assertTrue(remaining > TimeUnit.MILLISECONDS.toNanos(1000));
+    assertTrue(remaining <= TimeUnit.MILLISECONDS.toNanos(1500));
+    assertTrue(fromClient.get());
+    assertEquals(Long.MAX_VALUE, RequestDeadline.remainingNanos());
+    assertFalse(RequestDeadline.isFromClient());
+  }
+
+  @Test
+  void testHeader_ShouldBeCappedAtServerMaximum() throws Exception {
+    long remaining = remainingDuringRequest("60000");
+
+    assertTrue(remaining <= TimeUnit.MILLISECONDS.toNanos(5000));
+    assertFalse(fromClient.get());
+  }
+
+  @Test
+  void testMissingOrInvalidHeader_ShouldUseServerMaximum() throws Exception {
+    for (String header : new String[]{null, "soon", "-1"}) {
+      long remaining = remainingDuringRequest(header);
+
+      assertTrue(remaining > TimeUnit.MILLISECONDS.toNanos(4000));
+      assertTrue(remaining <= TimeUnit.MILLISECONDS.toNanos(5000));
+      assertFalse(fromClient.get());
+    }
+  }
+
+  private long remainingDuringRequest(String header) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payment");
+    if (header != null) {
+      request.addHeader(DeadlineFilter.TIMEOUT_HEADER, header);
+    }
+    AtomicLong remaining = new AtomicLong();
+    filter.doFilter(request, new MockHttpServletResponse(),
+        new MockFilterChain(new HttpServlet() {
+          @Override
+          protected void service(HttpServletRequest req, HttpServletResponse res) {
+            remaining.set(RequestDeadline.remainingNanos());
+            fromClient.set(RequestDeadline.isFromClient());
+          }
+        }));
+    return remaining.get();
+  }
+}
@@ -1,13 +1,21 @@
 package com.checkout.payment.gateway.exception;
 
 import com.checkout.payment.gateway.model.ErrorResponse;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CommonExceptionHandlerTest {
 
@@ -15,7 +23,7 @@ class CommonExceptionHandlerTest {
 
   @BeforeEach
   void setUp() {
-    exceptionHandler = new CommonExceptionHandler();
+    exceptionHandler = new CommonExceptionHandler(2);
   }
 
   @Test
@@ -58,6 +66,69 @@ class CommonExceptionHandlerTest {
     assertEquals("Payment not found", body.getMessage());
   }
 
+  @Test
+  void testEventProcessingException_ShouldShareBodyAndCaptureNoStackTrace() {
+    EventProcessingException exception = new EventProcessingException("Invalid ID");
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleEventProcessingException(exception);
+
+    assertSame(ErrorResponse.PAYMENT_NOT_FOUND, response.getBody());
+    assertEquals(0, exception.getStackTrace().length);
+  }
+
+  @Test
+  void testBankServiceException_ReturnsServiceUnavailableWithSharedBody() {
+    BankServiceException exception = new BankServiceException(
+        ErrorResponse.BANK_UNAVAILABLE.getMessage(), 503);
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleBankServiceException(exception);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertSame(ErrorResponse.BANK_UNAVAILABLE, response.getBody());
+  }
+
+  @Test
+  void testBankServiceException_WithDeadlineExceeded_ReturnsGatewayTimeout() {
+    BankServiceException exception = new BankServiceException(
+        ErrorResponse.DEADLINE_EXCEEDED.getMessage(), 504);
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleBankServiceException(exception);
+
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+    assertSame(ErrorResponse.DEADLINE_EXCEEDED, response.getBody());
+  }
+
+  @Test
+  void testPaymentActionException_ReturnsConflictOrBadRequest() {
+    ResponseEntity<ErrorResponse> conflict = exceptionHandler.handlePaymentActionException(
+        new PaymentActionException("A Declined payment cannot be captured", 409));
+    ResponseEntity<ErrorResponse> badRequest = exceptionHandler.handlePaymentActionException(
+        new PaymentActionException("Amount must be positive", 400));
+
+    assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+    assertEquals("A Declined payment cannot be captured", conflict.getBody().getMessage());
+    assertEquals(HttpStatus.BAD_REQUEST, badRequest.getStatusCode());
+  }
+
+  @Test
+  void testRejectedExecution_ReturnsServiceUnavailableWithSharedBody() {
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleRejectedExecution(
+        new RejectedExecutionException("bank lane is full"));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertSame(ErrorResponse.OVERLOADED, response.getBody());
+  }
+
+  @Test
+  void testClusterException_ReturnsServiceUnavailable() {
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleClusterException(
+        new ClusterException("Node http://localhost:8091 is unreachable"));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("Node http://localhost:8091 is unreachable", response.getBody().getMessage());
+  }
+
   @Test
   void testGeneric_WithRuntimeException_ReturnsInternalServerError() {
 
@@ -120,5 +191,20 @@ class CommonExceptionHandlerTest {
     assertNotNull(body);
     assertEquals("Internal server error occurred", body.getMessage());
   }
-}
 
+  @Test
+  void testGeneric_AfterResponseCommitted_ShouldRethrowToAbortTheResponse() {
+    MockHttpServletResponse committed = new MockHttpServletResponse();
+    committed.setCommitted(true);
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest(), committed));
+    try {
+      IllegalStateException exception = new IllegalStateException("store unavailable");
+
+      assertSame(exception, assertThrows(IllegalStateException.class,
+          () -> exceptionHandler.handleGeneric(exception)));
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.fx;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrencyConverterTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testConvert_ShouldConvertIntoSettlementCurrency() throws IOException {
+    Path rates = Files.writeString(directory.resolve("rates.properties"),
+        "base=USD\nGBP=0.8\nJPY=150\n");
+    CurrencyConverter converter = new CurrencyConverter("GBP", rates);
+
+    FxConversion conversion = converter.convert("JPY", 15000);
+
+    assertEquals("GBP", conversion.getCurrency());
+    assertEquals(8000, conversion.getAmount());
+    assertEquals(new BigDecimal("0.0053333333"), conversion.getRate());
+    assertTrue(converter.canConvert("JPY"));
+    assertFalse(converter.canConvert("CHF"));
+    assertNull(converter.convert("CHF", 100));
+  }
+
+  @Test
+  void testReload_ShouldSwapInNewRatesAndKeepThemWhenFileIsBroken() throws IOException {
+    Path rates = Files.writeString(directory.resolve("rates.properties"),
+        "base=USD\nJPY=150\n");
+    CurrencyConverter converter = new CurrencyConverter("USD", rates);
+    assertEquals(100, converter.convert("JPY", 150).getAmount());
+
+    Files.writeString(rates, "base=USD\nJPY=100\nCHF=0.9\n");
+    Files.setLastModifiedTime(rates, FileTime.fromMillis(1_000_000));
+    converter.reloadIfChanged();
+
+    assertEquals(150, converter.convert("JPY", 150).getAmount());
+    assertEquals(1000, converter.convert("CHF", 900).getAmount());
+    assertEquals(3, converter.currencyCount());
+    assertEquals(2, converter.reloadCount());
+
+    Files.writeString(rates, "JPY=100\n");
+    Files.setLastModifiedTime(rates, FileTime.fromMillis(2_000_000));
+    converter.reloadIfChanged();
+
+    assertEquals(150, converter.convert("JPY", 150).getAmount());
+    assertEquals(1, converter.failedReloadCount());
+  }
+
+  @Test
+  void testConvert_ShouldConvertNothingWithoutRatesFile() {
+    CurrencyConverter converter = new CurrencyConverter("USD", null);
+
+    assertFalse(converter.canConvert("JPY"));
+    assertNull(converter.convert("JPY", 100));
+    assertEquals(0, converter.currencyCount());
+  }
+}
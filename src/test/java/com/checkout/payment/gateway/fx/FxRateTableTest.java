@@ -0,0 +1,81 @@
+package com.checkout.payment.gateway.fx;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FxRateTableTest {
+
+  @Test
+  void testConvert_ShouldConvertBetweenMinorUnitsOfEveryPair() throws IOException {
+    FxRateTable table = read("base=USD", "GBP=0.8", "JPY=150", "KWD=0.308");
+    int usd = table.numberOf("USD");
+    int gbp = table.numberOf("GBP");
+    int jpy = table.numberOf("JPY");
+    int kwd = table.numberOf("KWD");
+
+    assertEquals(4, table.currencyCount());
+    // 150 JPY (no minor unit) is 1.00 USD
+    assertEquals(100, table.convert(150, jpy, usd));
+    assertEquals(15000, table.convert(10000, usd, jpy));
+    // 1.000 KWD (3 minor digits) is 1/0.308 USD
+    assertEquals(325, table.convert(1000, kwd, usd));
+    // Cross rate through the base: 1.00 GBP is 187.5 JPY
+    assertEquals(188, table.convert(100, gbp, jpy));
+    assertEquals(new BigDecimal("187.5"), table.rate(gbp, jpy));
+    assertEquals(new BigDecimal("1.25"), table.rate(gbp, usd));
+    assertEquals(BigDecimal.ONE, table.rate(usd, usd));
+    assertEquals(12345, table.convert(12345, gbp, gbp));
+  }
+
+  @Test
+  void testConvert_ShouldRoundHalfEven() throws IOException {
+    FxRateTable table = read("base=EUR", "JPY=10000");
+    int eur = table.numberOf("EUR");
+    int jpy = table.numberOf("JPY");
+
+    // 100 yen is exactly 1 cent; 2.5 and 3.5 cents round to the even cent
+    assertEquals(2, table.convert(250, jpy, eur));
+    assertEquals(4, table.convert(350, jpy, eur));
+    assertEquals(3, table.convert(251, jpy, eur));
+    assertEquals(-2, table.convert(-250, jpy, eur));
+  }
+
+  @Test
+  void testConvert_ShouldNotOverflowForHugeAmounts() throws IOException {
+    FxRateTable table = read("base=USD", "IDR=16000");
+    long amount = Long.MAX_VALUE / 100_000;
+
+    assertEquals(amount * 16000,
+        table.convert(amount, table.numberOf("USD"), table.numberOf("IDR")));
+  }
+
+  @Test
+  void testNumberOf_ShouldReturnMinusOneForUnlistedOrMalformedCodes() throws IOException {
+    FxRateTable table = read("base=USD", "jpy=150");
+
+    assertEquals(1, table.numberOf("JPY"));
+    assertEquals(-1, table.numberOf("CHF"));
+    assertEquals(-1, table.numberOf("jpy"));
+    assertEquals(-1, table.numberOf("US"));
+    assertEquals(-1, table.numberOf(null));
+    assertEquals(-1, FxRateTable.EMPTY.numberOf("USD"));
+  }
+
+  @Test
+  void testRead_ShouldRejectMalformedRates() {
+    assertThrows(IllegalArgumentException.class, () -> read("JPY=150"));
+    assertThrows(IllegalArgumentException.class, () -> read("base=USD", "JPY=0"));
+    assertThrows(IllegalArgumentException.class, () -> read("base=USD", "JPY=abc"));
+    assertThrows(IllegalArgumentException.class, () -> read("base=USD", "XYZ=1"));
+    assertThrows(IllegalArgumentException.class, () -> read("base=USD", "usd=1"));
+  }
+
+  private FxRateTable read(String... lines) throws IOException {
+    return FxRateTable.read(new StringReader(String.join("\n", lines)));
+  }
+}
@@ -0,0 +1,96 @@
+package com.checkout.payment.gateway.id;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedPaymentIdGeneratorTest {
+
+  @Test
+  void testNextId_ShouldEncodeTimestampNodeAndVersion() {
+    TimeOrderedPaymentIdGenerator generator =
+        new TimeOrderedPaymentIdGenerator(42, () -> 1_700_000_000_000L);
+
+    UUID id = generator.nextId();
+
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+    assertEquals(1_700_000_000_000L, TimeOrderedPaymentIdGenerator.timestampOf(id));
+    assertEquals(42, TimeOrderedPaymentIdGenerator.nodeIdOf(id));
+    assertEquals(id, UUID.fromString(id.toString()));
+  }
+
+  @Test
+  void testNextId_ShouldBeStrictlyIncreasingWithinThread() {
+    AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(1, clock::get);
+
+    UUID previous = generator.nextId();
+    for (int i = 0; i < 50_000; i++) {
+      if (i % 1000 == 0) {
+        clock.incrementAndGet();
+      }
+      UUID next = generator.nextId();
+      assertTrue(next.compareTo(previous) > 0, "ids must increase: " + previous + " " + next);
+      assertTrue(next.toString().compareTo(previous.toString()) > 0);
+      previous = next;
+    }
+  }
+
+  @Test
+  void testNextId_WhenClockMovesBackwards_ShouldStayMonotonic() {
+    AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(1, clock::get);
+
+    UUID first = generator.nextId();
+    clock.addAndGet(-5_000);
+    UUID second = generator.nextId();
+
+    assertTrue(second.compareTo(first) > 0);
+  }
+
+  @Test
+  void testNextId_AcrossThreads_ShouldBeUnique() {
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(3);
+    Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+    IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(generator.nextId()));
+
+    assertEquals(200_000, ids.size());
+  }
+
+  @Test
+  void testHelpers_WithRandomUuid_ShouldReturnMinusOne() {
+    UUID random = UUID.randomUUID();
+
+    assertFalse(TimeOrderedPaymentIdGenerator.isTimeOrdered(random));
+    assertEquals(-1, TimeOrderedPaymentIdGenerator.timestampOf(random));
+    assertEquals(-1, TimeOrderedPaymentIdGenerator.nodeIdOf(random));
+  }
+
+  @Test
+  void testConstructor_WithOutOfRangeNodeId_ShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new TimeOrderedPaymentIdGenerator(4096));
+    assertThrows(IllegalArgumentException.class, () -> new TimeOrderedPaymentIdGenerator(-1));
+  }
+
+  @Test
+  void testRandomGenerator_ShouldProduceVersion4Ids() {
+    Set<UUID> ids = new HashSet<>();
+    RandomPaymentIdGenerator generator = new RandomPaymentIdGenerator();
+    for (int i = 0; i < 100; i++) {
+      ids.add(generator.nextId());
+    }
+    assertEquals(100, ids.size());
+    assertEquals(4, ids.iterator().next().version());
+  }
+}
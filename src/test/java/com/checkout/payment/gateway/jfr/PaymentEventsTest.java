@@ -0,0 +1,143 @@
+package com.checkout.payment.gateway.jfr;
+
+import com.checkout.payment.gateway.client.AcquiringBankClientImpl;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
+import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.FlightRecordedPaymentsRepository;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentEventsTest {
+
+  private static final List<String> EVENTS = List.of(PaymentProcessedEvent.NAME,
+      BankCallEvent.NAME, ValidationRejectedEvent.NAME, RepositoryWriteEvent.NAME);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testEvents_ShouldBeRecordedWithTheirFields() throws IOException {
+    UUID paymentId = UUID.randomUUID();
+    List<RecordedEvent> events = record(() -> {
+      PaymentProcessedEvent processed = new PaymentProcessedEvent();
+      processed.begin();
+      processed.record(paymentId, PaymentStatus.AUTHORIZED);
+      PaymentProcessedEvent failed = new PaymentProcessedEvent();
+      failed.begin();
+      failed.record(paymentId, null);
+      ValidationRejectedEvent.record(ValidationRule.CVV);
+    });
+
+    List<RecordedEvent> processed = named(events, PaymentProcessedEvent.NAME);
+    assertEquals(2, processed.size());
+    assertEquals(paymentId.toString(), processed.get(0).getString("paymentId"));
+    assertEquals("AUTHORIZED", processed.get(0).getString("status"));
+    assertEquals(PaymentProcessedEvent.FAILED, processed.get(1).getString("status"));
+    assertEquals("cvv", named(events, ValidationRejectedEvent.NAME).get(0).getString("rule"));
+  }
+
+  @Test
+  void testBankCall_ShouldBeRecordedWithOutcomeAndStatus() throws IOException {
+    RestTemplate restTemplate = mock(RestTemplate.class);
+    AcquiringBankPaymentResponse answer = new AcquiringBankPaymentResponse();
+    when(restTemplate.postForEntity(eq("http://bank"), any(),
+        eq(AcquiringBankPaymentResponse.class)))
+        .thenReturn(new ResponseEntity<>(answer, HttpStatus.OK))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+        .thenThrow(new ResourceAccessException("Connection refused"));
+    AcquiringBankClientImpl client = new AcquiringBankClientImpl(restTemplate, "http://bank");
+
+    List<RecordedEvent> events = record(() -> {
+      for (int i = 0; i < 3; i++) {
+        client.processPayment(new AcquiringBankPaymentRequest());
+      }
+    });
+
+    List<RecordedEvent> calls = named(events, BankCallEvent.NAME);
+    assertEquals(3, calls.size());
+    assertEquals(BankCallEvent.ANSWERED, calls.get(0).getString("outcome"));
+    assertEquals(200, calls.get(0).getInt("httpStatus"));
+    assertEquals(BankCallEvent.REFUSED, calls.get(1).getString("outcome"));
+    assertEquals(503, calls.get(1).getInt("httpStatus"));
+    assertEquals(BankCallEvent.FAILED, calls.get(2).getString("outcome"));
+    assertEquals(0, calls.get(2).getInt("httpStatus"));
+  }
+
+  @Test
+  void testRepositoryWrite_ShouldBeRecordedWithSize() throws IOException {
+    FlightRecordedPaymentsRepository repository =
+        new FlightRecordedPaymentsRepository(new InMemoryPaymentsRepository());
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setSerializedJson(new byte[42]);
+
+    List<RecordedEvent> events = record(() -> repository.add(payment));
+
+    assertTrue(repository.get(payment.getId()).isPresent());
+    assertEquals(42, named(events, RepositoryWriteEvent.NAME).get(0).getLong("size"));
+  }
+
+  @Test
+  void testSettingsFile_ShouldEnableEveryEvent() throws IOException, ParseException {
+    Configuration configuration;
+    try (Reader reader = new InputStreamReader(
+        getClass().getResourceAsStream("/jfr/payment-gateway.jfc"), StandardCharsets.UTF_8)) {
+      configuration = Configuration.create(reader);
+    }
+
+    Map<String, String> settings = configuration.getSettings();
+    for (String event : EVENTS) {
+      assertEquals("true", settings.get(event + "#enabled"), event);
+    }
+    assertFalse(settings.containsKey(ValidationRejectedEvent.NAME + "#threshold"));
+  }
+
+  private List<RecordedEvent> record(Runnable action) throws IOException {
+    Path file = directory.resolve("events.jfr");
+    try (Recording recording = new Recording()) {
+      for (String event : EVENTS) {
+        recording.enable(event).withoutThreshold();
+      }
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file);
+  }
+
+  private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+    return events.stream().filter(event -> event.getEventType().getName().equals(name))
+        .toList();
+  }
+}
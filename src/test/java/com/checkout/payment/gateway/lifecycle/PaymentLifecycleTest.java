@@ -0,0 +1,330 @@
+package com.checkout.payment.gateway.lifecycle;
+
+import com.checkout.payment.gateway.cluster.ClusterClient;
+import com.checkout.payment.gateway.cluster.ClusterMembership;
+import com.checkout.payment.gateway.cluster.ClusterNode;
+import com.checkout.payment.gateway.cluster.ConsistentHashRing;
+import com.checkout.payment.gateway.cluster.ShardedPaymentsRepository;
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.PaymentActionException;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentLifecycleTest {
+
+  private final InMemoryPaymentsRepository repository = new InMemoryPaymentsRepository();
+  private final List<String> published = new ArrayList<>();
+  private PaymentLifecycle lifecycle;
+
+  @BeforeEach
+  void setUp() {
+    lifecycle = new PaymentLifecycle(repository,
+        new PaymentResponseEncoder(new ObjectMapper(), true),
+        (merchantId, payment) -> {
+          synchronized (published) {
+            published.add(merchantId + ":" + payment.getStatus());
+          }
+        });
+  }
+
+  @Test
+  void testCapture_ShouldCapturePartiallyThenTheRest() {
+    PaymentResponse payment = store(PaymentStatus.AUTHORIZED, 1000);
+
+    PaymentResponse partial = lifecycle.capture(payment.getId(), 400, "merchant-1");
+    PaymentResponse full = lifecycle.capture(payment.getId(), null, "merchant-1");
+
+    assertEquals(PaymentStatus.PARTIALLY_CAPTURED, partial.getStatus());
+    assertEquals(400, partial.getCapturedAmount());
+    assertEquals(PaymentStatus.CAPTURED, full.getStatus());
+    assertEquals(1000, full.getCapturedAmount());
+    assertEquals(2, full.getActions().size());
+    assertEquals(PaymentActionType.CAPTURE, full.getActions().get(1).getType());
+    assertEquals(600, full.getActions().get(1).getAmount());
+    assertSame(full, repository.get(payment.getId()).orElseThrow());
+    assertTrue(new String(full.getSerializedJson(), StandardCharsets.UTF_8)
+        .contains("\"status\":\"Captured\""));
+    assertEquals(PaymentStatus.AUTHORIZED, payment.getStatus());
+    assertEquals(List.of("merchant-1:PARTIALLY_CAPTURED", "merchant-1:CAPTURED"), published);
+    assertEquals(0, lifecycle.cellCount());
+  }
+
+  @Test
+  void testRefund_ShouldRefundUpToTheCapturedAmount() {
+    PaymentResponse payment = store(PaymentStatus.AUTHORIZED, 1000);
+    lifecycle.capture(payment.getId(), 800, null);
+
+    PaymentResponse partial = lifecycle.refund(payment.getId(), 300, null);
+    PaymentActionException tooMuch = assertThrows(PaymentActionException.class,
+        () -> lifecycle.refund(payment.getId(), 600, null));
+    PaymentResponse full = lifecycle.refund(payment.getId(), null, null);
+
+    assertEquals(PaymentStatus.PARTIALLY_REFUNDED, partial.getStatus());
+    assertEquals(409, tooMuch.getHttpStatus());
+    assertEquals("Cannot refund 600, only 500 is left to refund", tooMuch.getMessage());
+    assertEquals(PaymentStatus.REFUNDED, full.getStatus());
+    assertEquals(800, full.getRefundedAmount());
+    assertEquals(3, full.getActions().size());
+    assertThrows(PaymentActionException.class,
+        () -> lifecycle.capture(payment.getId(), 200, null));
+    assertThrows(PaymentActionException.class, () -> lifecycle.refund(payment.getId(), 1, null));
+    assertEquals(0, lifecycle.cellCount());
+  }
+
+  @Test
+  void testActions_ShouldBeRefusedOnArchivedPayments() {
+    PaymentResponse payment = store(PaymentStatus.AUTHORIZED, 1000);
+    payment.setArchived(true);
+
+    PaymentActionException refused = assertThrows(PaymentActionException.class,
+        () -> lifecycle.capture(payment.getId(), null, null));
+    assertThrows(PaymentActionException.class, () -> lifecycle.voidPayment(payment.getId(), null));
+
+    assertEquals(409, refused.getHttpStatus());
+    assertEquals("Payment is archived and can no longer be changed", refused.getMessage());
+    assertSame(payment, repository.get(payment.getId()).orElseThrow());
+    assertTrue(published.isEmpty());
+    assertEquals(0, lifecycle.cellCount());
+  }
+
+  @Test
+  void testVoid_ShouldOnlyReleaseAnAuthorizationNothingWasCapturedFrom() {
+    PaymentResponse voidable = store(PaymentStatus.AUTHORIZED, 1000);
+    PaymentResponse captured = store(PaymentStatus.AUTHORIZED, 1000);
+    lifecycle.capture(captured.getId(), 100, null);
+
+    PaymentResponse voided = lifecycle.voidPayment(voidable.getId(), null);
+    PaymentActionException refused = assertThrows(PaymentActionException.class,
+        () -> lifecycle.voidPayment(captured.getId(), null));
+
+    assertEquals(PaymentStatus.VOIDED, voided.getStatus());
+    assertEquals(1000, voided.getActions().get(0).getAmount());
+    assertEquals("Payment is Partially Captured and cannot be voided", refused.getMessage());
+    assertThrows(PaymentActionException.class,
+        () -> lifecycle.capture(voidable.getId(), null, null));
+    assertEquals(0, lifecycle.cellCount());
+  }
+
+  @Test
+  void testActions_ShouldRefuseUnknownDeclinedAndInvalidRequests() {
+    PaymentResponse declined = store(PaymentStatus.DECLINED, 1000);
+    PaymentResponse rejected = store(PaymentStatus.REJECTED, 1000);
+    PaymentResponse authorized = store(PaymentStatus.AUTHORIZED, 1000);
+
+    assertEquals(409, assertThrows(PaymentActionException.class,
+        () -> lifecycle.capture(declined.getId(), null, null)).getHttpStatus());
+    assertEquals(409, assertThrows(PaymentActionException.class,
+        () -> lifecycle.capture(authorized.getId(), 1001, null)).getHttpStatus());
+    assertEquals(409, assertThrows(PaymentActionException.class,
+        () -> lifecycle.refund(authorized.getId(), null, null)).getHttpStatus());
+    assertEquals(400, assertThrows(PaymentActionException.class,
+        () -> lifecycle.capture(authorized.getId(), 0, null)).getHttpStatus());
+    assertThrows(EventProcessingException.class,
+        () -> lifecycle.capture(rejected.getId(), null, null));
+    assertThrows(EventProcessingException.class,
+        () -> lifecycle.voidPayment(UUID.randomUUID(), null));
+    assertSame(authorized, repository.get(authorized.getId()).orElseThrow());
+    assertEquals(0, lifecycle.cellCount());
+  }
+
+  @Test
+  void testCapture_ShouldNeverCaptureMoreThanAuthorizedUnderContention() throws Exception {
+    PaymentResponse payment = store(PaymentStatus.AUTHORIZED, 10_000);
+    int threads = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger captures = new AtomicInteger();
+    AtomicInteger refusals = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < 10; i++) {
+          try {
+            lifecycle.capture(payment.getId(), 100, null);
+            captures.incrementAndGet();
+          } catch (PaymentActionException ex) {
+            refusals.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    PaymentResponse stored = repository.get(payment.getId()).orElseThrow();
+    assertEquals(100, captures.get());
+    assertEquals(60, refusals.get());
+    assertEquals(PaymentStatus.CAPTURED, stored.getStatus());
+    assertEquals(10_000, stored.getCapturedAmount());
+    assertEquals(100, stored.getActions().size());
+    assertEquals(0, lifecycle.cellCount());
+  }
+
+  @Test
+  void testActions_ShouldNotWaitForTheLoadOfAnotherPayment() throws Exception {
+    PaymentResponse slow = store(PaymentStatus.AUTHORIZED, 1000);
+    PaymentResponse other = store(PaymentStatus.AUTHORIZED, 1000);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PaymentLifecycle blockingLifecycle = new PaymentLifecycle(new InMemoryPaymentsRepository() {
+      @Override
+      public Optional<PaymentResponse> get(UUID id) {
+        if (id.equals(slow.getId())) {
+          loading.countDown();
+          awaitUninterruptibly(release);
+        }
+        return repository.get(id);
+      }
+
+      @Override
+      public void add(PaymentResponse payment) {
+        repository.add(payment);
+      }
+    }, new PaymentResponseEncoder(new ObjectMapper(), true), (merchantId, payment) -> {
+    });
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    Future<PaymentResponse> first = executor.submit(
+        () -> blockingLifecycle.capture(slow.getId(), 100, null));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    Future<PaymentResponse> second = executor.submit(
+        () -> blockingLifecycle.capture(slow.getId(), 200, null));
+
+    PaymentResponse captured = blockingLifecycle.capture(other.getId(), null, null);
+    release.countDown();
+
+    assertEquals(PaymentStatus.CAPTURED, captured.getStatus());
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    executor.shutdown();
+    assertEquals(300, repository.get(slow.getId()).orElseThrow().getCapturedAmount());
+    assertEquals(0, blockingLifecycle.cellCount());
+  }
+
+  @Test
+  void testActions_InClusterMode_ShouldOnlyBeAppliedByTheOwner() throws Exception {
+    ClusterNode nodeA = new ClusterNode("http://localhost:8090");
+    ClusterNode nodeB = new ClusterNode("http://localhost:8091");
+    ConsistentHashRing ring = new ConsistentHashRing(List.of(nodeA, nodeB), 64);
+    Map<ClusterNode, InMemoryPaymentsRepository> stores =
+        Map.of(nodeA, new InMemoryPaymentsRepository(), nodeB, new InMemoryPaymentsRepository());
+    Map<ClusterNode, PaymentLifecycle> lifecycles = new HashMap<>();
+    // The client calls straight into the other node
+    ClusterClient clusterClient = mock(ClusterClient.class);
+    doAnswer(invocation -> {
+      stores.get(invocation.<ClusterNode>getArgument(0)).add(invocation.getArgument(1));
+      return null;
+    }).when(clusterClient).store(any(), any());
+    when(clusterClient.fetch(any(), any())).thenAnswer(invocation ->
+        stores.get(invocation.<ClusterNode>getArgument(0)).get(invocation.getArgument(1)));
+    when(clusterClient.apply(any(), any(), any(), any(), any())).thenAnswer(invocation ->
+        lifecycles.get(invocation.<ClusterNode>getArgument(0)).applyLocally(
+            invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3),
+            invocation.getArgument(4)));
+    for (ClusterNode node : List.of(nodeA, nodeB)) {
+      ClusterMembership membership = new ClusterMembership(node, ring, stores.get(node),
+          clusterClient);
+      lifecycles.put(node, new PaymentLifecycle(
+          new ShardedPaymentsRepository(stores.get(node), membership, clusterClient),
+          new PaymentResponseEncoder(new ObjectMapper(), true), (merchantId, payment) -> {
+          }, membership, clusterClient));
+    }
+    UUID id = UUID.randomUUID();
+    while (!ring.ownerOf(id).equals(nodeB)) {
+      id = UUID.randomUUID();
+    }
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCurrency("GBP");
+    payment.setAmount(10_000);
+    stores.get(nodeB).add(payment);
+    int threads = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger captures = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      PaymentLifecycle node = lifecycles.get(t % 2 == 0 ? nodeA : nodeB);
+      UUID paymentId = id;
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < 10; i++) {
+          try {
+            node.capture(paymentId, 100, null);
+            captures.incrementAndGet();
+          } catch (PaymentActionException ex) {
+            // Refused once everything is captured
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    PaymentResponse stored = stores.get(nodeB).get(id).orElseThrow();
+    assertEquals(100, captures.get());
+    assertEquals(10_000, stored.getCapturedAmount());
+    assertEquals(100, stored.getActions().size());
+    assertTrue(stores.get(nodeA).get(id).isEmpty());
+    assertEquals(0, lifecycles.get(nodeA).cellCount());
+    assertEquals(0, lifecycles.get(nodeB).cellCount());
+  }
+
+  private PaymentResponse store(PaymentStatus status, int amount) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setLastFourDigits("8877");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(amount);
+    repository.add(payment);
+    return payment;
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.checkout.payment.gateway.ratelimit;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MerchantRateLimiterTest {
+
+  private static final RateLimit DEFAULT_LIMIT = new RateLimit(3, 1);
+
+  @TempDir
+  Path directory;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  @Test
+  void testBucket_ShouldAllowBurstThenRefillOverTime() {
+    MerchantRateLimiter limiter = limiter(null, 100);
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire("acme").isAllowed());
+    }
+    RateLimitDecision limited = limiter.tryAcquire("acme");
+
+    assertFalse(limited.isAllowed());
+    assertEquals(0, limited.getRemaining());
+    assertEquals(TimeUnit.SECONDS.toNanos(1), limited.getNanosUntilNextToken());
+
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertTrue(limiter.tryAcquire("acme").isAllowed());
+    assertFalse(limiter.tryAcquire("acme").isAllowed());
+  }
+
+  @Test
+  void testMerchants_ShouldHaveIndependentBuckets() {
+    MerchantRateLimiter limiter = limiter(null, 100);
+
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("noisy");
+    }
+
+    assertFalse(limiter.tryAcquire("noisy").isAllowed());
+    assertTrue(limiter.tryAcquire("quiet").isAllowed());
+  }
+
+  @Test
+  void testConcurrentRequests_ShouldNeverSpendMoreThanCapacity() throws Exception {
+    MerchantRateLimiter limiter = new MerchantRateLimiter(new RateLimit(1000, 0.001), null, 100,
+        60_000, nanos::get);
+    AtomicInteger allowed = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < 500; i++) {
+          if (limiter.tryAcquire("acme").isAllowed()) {
+            allowed.incrementAndGet();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(1000, allowed.get());
+  }
+
+  @Test
+  void testFullMap_ShouldSendNewMerchantsToOverflowBucket() {
+    MerchantRateLimiter limiter = limiter(null, 2);
+    limiter.tryAcquire("first");
+    limiter.tryAcquire("second");
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire("third-" + i).isAllowed());
+    }
+
+    assertFalse(limiter.tryAcquire("fourth").isAllowed());
+    assertEquals(2, limiter.trackedMerchants());
+  }
+
+  @Test
+  void testAnonymousRequests_ShouldOnlyBeLimitedWhenConfigured() {
+    MerchantRateLimiter unlimited = limiter(null, 100);
+    MerchantRateLimiter limited = new MerchantRateLimiter(DEFAULT_LIMIT, new RateLimit(1, 1),
+        null, 100, 60_000, nanos::get);
+
+    assertNull(unlimited.tryAcquireAnonymous());
+    assertTrue(limited.tryAcquireAnonymous().isAllowed());
+    assertFalse(limited.tryAcquireAnonymous().isAllowed());
+    assertTrue(limited.tryAcquire("anonymous").isAllowed());
+    assertEquals(1, limited.trackedMerchants());
+  }
+
+  @Test
+  void testIdleBuckets_ShouldBeEvicted() {
+    MerchantRateLimiter limiter = limiter(null, 100);
+    limiter.tryAcquire("idle");
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    limiter.tryAcquire("active");
+
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(40));
+    limiter.evictIdle();
+
+    assertEquals(1, limiter.trackedMerchants());
+  }
+
+  @Test
+  void testLimitsFile_ShouldBeReloadedWhenChanged() throws Exception {
+    Path limits = directory.resolve("limits.properties");
+    Files.writeString(limits, "acme=1,1\n");
+    MerchantRateLimiter limiter = limiter(limits, 100);
+
+    assertTrue(limiter.tryAcquire("acme").isAllowed());
+    assertFalse(limiter.tryAcquire("acme").isAllowed());
+    assertEquals(3, limiter.tryAcquire("other").getLimit());
+
+    Files.writeString(limits, "acme=5,1\ndefault=10,5\n");
+    Files.setLastModifiedTime(limits, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+    limiter.reloadIfChanged();
+
+    assertEquals(5, limiter.tryAcquire("acme").getLimit());
+    assertEquals(10, limiter.tryAcquire("newcomer").getLimit());
+  }
+
+  @Test
+  void testInvalidLimitsFile_ShouldKeepCurrentLimits() throws Exception {
+    Path limits = directory.resolve("limits.properties");
+    Files.writeString(limits, "acme=1,1\n");
+    MerchantRateLimiter limiter = limiter(limits, 100);
+
+    Files.writeString(limits, "acme=lots\n");
+    Files.setLastModifiedTime(limits, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+    limiter.reloadIfChanged();
+
+    assertEquals(1, limiter.tryAcquire("acme").getLimit());
+  }
+
+  private MerchantRateLimiter limiter(Path limitsFile, int maxMerchants) {
+    return new MerchantRateLimiter(DEFAULT_LIMIT, limitsFile, maxMerchants, 60_000, nanos::get);
+  }
+}
@@ -0,0 +1,261 @@
+package com.checkout.payment.gateway.replication;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.ReplicationRole;
+import com.checkout.payment.gateway.exception.ReplicationException;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicationLeaderFollowerTest {
+
+  private static final String LEADER_URL = "http://leader";
+  private static final String FOLLOWER_URL = "http://follower";
+
+  private InMemoryPaymentsRepository leaderStore;
+  private InMemoryPaymentsRepository followerStore;
+  private ReplicationFollower follower;
+  private ReplicationSettings settings;
+  private final List<ReplicationLeader> leaders = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    leaderStore = new InMemoryPaymentsRepository();
+    followerStore = new InMemoryPaymentsRepository();
+    follower = new ReplicationFollower(followerStore);
+    settings = new ReplicationSettings();
+    settings.setHeartbeatMs(20);
+    settings.setBatchSize(2);
+    settings.setRetryBackoffMs(20);
+  }
+
+  @AfterEach
+  void tearDown() {
+    leaders.forEach(ReplicationLeader::stop);
+  }
+
+  @Test
+  void testNewFollower_ShouldBeRebuiltFromSnapshot() {
+    PaymentResponse first = createPayment();
+    PaymentResponse second = createPayment();
+    PaymentResponse third = createPayment();
+    leaderStore.add(first);
+    leaderStore.add(second);
+    leaderStore.add(third);
+
+    leaderNode();
+
+    awaitCondition(() -> followerStore.get(third.getId()).isPresent());
+    assertTrue(followerStore.get(first.getId()).isPresent());
+    assertTrue(followerStore.get(second.getId()).isPresent());
+  }
+
+  @Test
+  void testWritesOnLeader_ShouldBeShippedToFollower() {
+    ReplicatingPaymentsRepository repository =
+        new ReplicatingPaymentsRepository(leaderStore, leaderNode());
+    PaymentResponse kept = createPayment();
+    PaymentResponse removed = createPayment();
+
+    repository.add(kept);
+    repository.add(removed);
+    repository.remove(removed.getId());
+
+    awaitCondition(() -> follower.getAppliedSequence() == 3);
+    assertTrue(followerStore.get(kept.getId()).isPresent());
+    assertFalse(followerStore.get(removed.getId()).isPresent());
+  }
+
+  @Test
+  void testSyncAckMode_ShouldReturnOnlyOnceFollowerApplied() {
+    settings.setSync(true);
+    settings.setSyncTimeoutMs(5000);
+    ReplicatingPaymentsRepository repository =
+        new ReplicatingPaymentsRepository(leaderStore, leaderNode());
+    awaitCondition(() -> follower.getAppliedSequence() >= 0);
+    PaymentResponse payment = createPayment();
+
+    repository.add(payment);
+
+    assertTrue(followerStore.get(payment.getId()).isPresent());
+  }
+
+  @Test
+  void testBatchWithGap_ShouldRequestSnapshot() {
+    ReplicationBatch snapshot = batch(1L, 5, true);
+    snapshot.setSnapshotComplete(true);
+    follower.apply(snapshot);
+
+    ReplicationEntry entry = ReplicationEntry.add(createPayment());
+    entry.setSequence(8);
+    ReplicationBatch gap = batch(1L, 8, false);
+    gap.setEntries(List.of(entry));
+    ReplicationAck ack = follower.apply(gap);
+
+    assertTrue(ack.isSnapshotRequired());
+    assertEquals(5, ack.getAppliedSequence());
+    assertFalse(followerStore.get(entry.getPaymentId()).isPresent());
+  }
+
+  @Test
+  void testBatchFromNewEpoch_ShouldRequestSnapshot() {
+    ReplicationBatch snapshot = batch(1L, 5, true);
+    snapshot.setSnapshotComplete(true);
+    follower.apply(snapshot);
+
+    ReplicationAck ack = follower.apply(batch(2L, 5, false));
+
+    assertTrue(ack.isSnapshotRequired());
+  }
+
+  @Test
+  void testStaleness_ShouldBeUnboundedUntilFirstCatchUp() {
+    assertEquals(Long.MAX_VALUE, follower.stalenessMillis());
+
+    ReplicationBatch snapshot = batch(1L, 0, true);
+    snapshot.setSnapshotComplete(true);
+    follower.apply(snapshot);
+
+    assertTrue(follower.stalenessMillis() < 1000);
+  }
+
+  @Test
+  void testStaleness_ShouldStayBoundedWhileWritesKeepArriving() throws Exception {
+    settings.setBatchSize(100);
+    // Every ship is slower than a write, so the log's head has always moved on when it returns
+    ReplicationTransport slowTransport = (url, batch) -> {
+      sleep(5);
+      return follower.apply(batch);
+    };
+    ReplicatingPaymentsRepository repository = new ReplicatingPaymentsRepository(leaderStore,
+        new ReplicationNode(ReplicationRole.LEADER, null,
+            () -> track(new ReplicationLeader(LEADER_URL, List.of(FOLLOWER_URL), leaderStore,
+                slowTransport, settings))));
+    awaitCondition(() -> follower.stalenessMillis() < 1000);
+
+    long maxStaleness = 0;
+    long end = System.currentTimeMillis() + 1000;
+    while (System.currentTimeMillis() < end) {
+      repository.add(createPayment());
+      maxStaleness = Math.max(maxStaleness, follower.stalenessMillis());
+      sleep(1);
+    }
+
+    assertTrue(maxStaleness < 500, "staleness reached " + maxStaleness + "ms");
+  }
+
+  @Test
+  void testSnapshot_ShouldDiscardPaymentsTheLeaderNoLongerHas() {
+    PaymentResponse removedOnLeader = createPayment();
+    ReplicationBatch oldSnapshot = batch(1L, 1, true);
+    oldSnapshot.setSnapshotStart(true);
+    oldSnapshot.setSnapshotComplete(true);
+    oldSnapshot.setEntries(List.of(ReplicationEntry.add(removedOnLeader)));
+    follower.apply(oldSnapshot);
+
+    PaymentResponse kept = createPayment();
+    ReplicationBatch first = batch(2L, 7, true);
+    first.setSnapshotStart(true);
+    first.setEntries(List.of(ReplicationEntry.add(kept)));
+    follower.apply(first);
+
+    assertFalse(followerStore.get(removedOnLeader.getId()).isPresent());
+    assertEquals(Long.MAX_VALUE, follower.stalenessMillis());
+
+    ReplicationBatch last = batch(2L, 7, true);
+    last.setSnapshotComplete(true);
+    follower.apply(last);
+
+    assertTrue(followerStore.get(kept.getId()).isPresent());
+    assertEquals(7, follower.getAppliedSequence());
+    assertTrue(follower.stalenessMillis() < 1000);
+  }
+
+  @Test
+  void testFollower_ShouldRefuseWritesUntilPromoted() {
+    ReplicationNode node = new ReplicationNode(ReplicationRole.FOLLOWER, follower,
+        () -> track(new ReplicationLeader(FOLLOWER_URL, List.of(), followerStore,
+            (url, batch) -> new ReplicationAck(), settings)));
+    ReplicatingPaymentsRepository repository =
+        new ReplicatingPaymentsRepository(followerStore, node);
+    PaymentResponse payment = createPayment();
+
+    assertThrows(ReplicationException.class, () -> repository.add(payment));
+    assertFalse(followerStore.get(payment.getId()).isPresent());
+
+    node.promote();
+    repository.add(payment);
+
+    assertEquals(ReplicationRole.LEADER, node.role());
+    assertTrue(followerStore.get(payment.getId()).isPresent());
+  }
+
+  private ReplicationNode leaderNode() {
+    ReplicationTransport transport = (url, batch) -> follower.apply(batch);
+    return new ReplicationNode(ReplicationRole.LEADER, null,
+        () -> track(new ReplicationLeader(LEADER_URL, List.of(FOLLOWER_URL), leaderStore,
+            transport, settings)));
+  }
+
+  private ReplicationLeader track(ReplicationLeader leader) {
+    leaders.add(leader);
+    return leader;
+  }
+
+  private ReplicationBatch batch(long epoch, long leaderSequence, boolean snapshot) {
+    ReplicationBatch batch = new ReplicationBatch();
+    batch.setLeaderUrl(LEADER_URL);
+    batch.setEpoch(epoch);
+    batch.setLeaderSequence(leaderSequence);
+    batch.setSnapshot(snapshot);
+    batch.setEntries(List.of());
+    return batch;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError("Interrupted while waiting", ex);
+    }
+  }
+
+  private void awaitCondition(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("Condition not met within 5s");
+      }
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new AssertionError("Interrupted while waiting", ex);
+      }
+    }
+  }
+
+  private PaymentResponse createPayment() {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setLastFourDigits("8877");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(100);
+    return payment;
+  }
+}
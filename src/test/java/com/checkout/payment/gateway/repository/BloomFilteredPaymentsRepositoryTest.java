@@ -0,0 +1,89 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class BloomFilteredPaymentsRepositoryTest {
+
+  @Test
+  void testGet_ShouldAnswerUnknownIdWithoutStore() {
+    InMemoryPaymentsRepository store = spy(new InMemoryPaymentsRepository());
+    BloomFilteredPaymentsRepository repository = new BloomFilteredPaymentsRepository(store,
+        new ScalableBloomFilter(1000, 0.01));
+    UUID unknown = UUID.randomUUID();
+
+    assertFalse(repository.get(unknown).isPresent());
+
+    verify(store, never()).get(unknown);
+    assertEquals(1, repository.filteredMissCount());
+  }
+
+  @Test
+  void testGet_ShouldFindAddedAndPreexistingPayments() {
+    InMemoryPaymentsRepository store = new InMemoryPaymentsRepository();
+    PaymentResponse preexisting = createPayment();
+    store.add(preexisting);
+    BloomFilteredPaymentsRepository repository = new BloomFilteredPaymentsRepository(store,
+        new ScalableBloomFilter(1000, 0.01));
+    PaymentResponse added = createPayment();
+
+    repository.add(added);
+
+    assertTrue(repository.get(preexisting.getId()).isPresent());
+    assertTrue(repository.get(added.getId()).isPresent());
+    assertEquals(2, repository.hitCount());
+  }
+
+  @Test
+  void testGet_ShouldCountRemovedPaymentAsFalsePositive() {
+    BloomFilteredPaymentsRepository repository = new BloomFilteredPaymentsRepository(
+        new InMemoryPaymentsRepository(), new ScalableBloomFilter(1000, 0.01));
+    PaymentResponse payment = createPayment();
+    repository.add(payment);
+    repository.remove(payment.getId());
+
+    assertFalse(repository.get(payment.getId()).isPresent());
+    assertFalse(repository.get(UUID.randomUUID()).isPresent());
+
+    assertEquals(1, repository.falsePositiveCount());
+    assertEquals(0.5, repository.observedFalsePositiveRate(), 1e-9);
+  }
+
+  @Test
+  void testGetAll_ShouldOnlyPassPossiblyStoredIdsToStore() {
+    InMemoryPaymentsRepository store = spy(new InMemoryPaymentsRepository());
+    BloomFilteredPaymentsRepository repository = new BloomFilteredPaymentsRepository(store,
+        new ScalableBloomFilter(1000, 0.01));
+    PaymentResponse payment = createPayment();
+    repository.add(payment);
+    UUID unknown = UUID.randomUUID();
+
+    Map<UUID, PaymentResponse> found = repository.getAll(List.of(payment.getId(), unknown));
+
+    assertEquals(Set.of(payment.getId()), found.keySet());
+    verify(store).getAll(List.of(payment.getId()));
+    assertEquals(1, repository.filteredMissCount());
+    assertEquals(1, repository.hitCount());
+  }
+
+  private PaymentResponse createPayment() {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setAmount(100);
+    payment.setCurrency("GBP");
+    return payment;
+  }
+}
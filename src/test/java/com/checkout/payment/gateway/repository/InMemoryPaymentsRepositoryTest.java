@@ -11,13 +11,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-class PaymentsRepositoryTest {
+class InMemoryPaymentsRepositoryTest {
 
-  private PaymentsRepository repository;
+  private InMemoryPaymentsRepository repository;
 
   @BeforeEach
   void setUp() {
-    repository = new PaymentsRepository();
+    repository = new InMemoryPaymentsRepository();
   }
 
   @Test
@@ -0,0 +1,232 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentActionType;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentAction;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcPaymentsRepositoryTest {
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+  private JdbcPaymentsRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .addScript("schema.sql")
+        .build();
+    jdbcTemplate = new JdbcTemplate(database);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (repository != null) {
+      repository.close();
+    }
+    database.shutdown();
+  }
+
+  @Test
+  void testGet_ShouldReturnPaymentBeforeItIsWritten() {
+    // Nothing is flushed before the interval or a full batch
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 100, 50, 60_000, 100);
+    PaymentResponse payment = createPayment(1050);
+
+    repository.add(payment);
+
+    assertEquals(0, rowCount());
+    assertTrue(repository.get(payment.getId()).isPresent());
+    assertEquals(1050, repository.get(payment.getId()).get().getAmount());
+  }
+
+  @Test
+  void testAdd_ShouldWriteFullBatchWithoutWaitingForInterval() throws InterruptedException {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 100, 60_000, 100);
+    for (int i = 0; i < 100; i++) {
+      repository.add(createPayment(i + 1));
+    }
+
+    awaitRowCount(100);
+  }
+
+  @Test
+  void testAdd_ShouldWritePartialBatchAfterInterval() throws InterruptedException {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 100, 20, 100);
+    PaymentResponse payment = createPayment(700);
+
+    repository.add(payment);
+    awaitRowCount(1);
+
+    PaymentResponse stored = jdbcTemplate.query("SELECT id, amount, status FROM payments",
+        (resultSet, row) -> {
+          PaymentResponse read = new PaymentResponse();
+          read.setId(resultSet.getObject("id", UUID.class));
+          read.setAmount(resultSet.getInt("amount"));
+          read.setStatus(PaymentStatus.valueOf(resultSet.getString("status")));
+          return read;
+        }).get(0);
+    assertEquals(payment.getId(), stored.getId());
+    assertEquals(700, stored.getAmount());
+    assertEquals(PaymentStatus.AUTHORIZED, stored.getStatus());
+  }
+
+  @Test
+  void testRemove_ShouldHidePaymentAndDeleteRow() throws InterruptedException {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 100, 20, 100);
+    PaymentResponse kept = createPayment(1);
+    PaymentResponse removed = createPayment(2);
+    repository.add(kept);
+    repository.add(removed);
+    awaitRowCount(2);
+
+    repository.remove(removed.getId());
+
+    assertFalse(repository.get(removed.getId()).isPresent());
+    awaitRowCount(1);
+    assertFalse(repository.get(removed.getId()).isPresent());
+    assertTrue(repository.get(kept.getId()).isPresent());
+  }
+
+  @Test
+  void testForEach_ShouldVisitWrittenAndPendingPaymentsOnce() throws InterruptedException {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 2, 60_000, 100);
+    repository.add(createPayment(1));
+    repository.add(createPayment(2));
+    awaitRowCount(2);
+    repository.add(createPayment(3));
+
+    List<Integer> amounts = new ArrayList<>();
+    repository.forEach(payment -> amounts.add(payment.getAmount()));
+
+    amounts.sort(Integer::compare);
+    assertEquals(List.of(1, 2, 3), amounts);
+  }
+
+  @Test
+  void testClose_ShouldWriteQueuedPayments() {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 100, 60_000, 100);
+    for (int i = 0; i < 10; i++) {
+      repository.add(createPayment(i + 1));
+    }
+
+    repository.close();
+
+    assertEquals(10, rowCount());
+    assertEquals(0, repository.pendingCount());
+  }
+
+  @Test
+  void testGet_ShouldReadBackCapturesAndRefunds() {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 100, 60_000, 100);
+    PaymentResponse payment = createPayment(1000);
+    payment.setStatus(PaymentStatus.PARTIALLY_REFUNDED);
+    payment.setCapturedAmount(800);
+    payment.setRefundedAmount(300);
+    payment.setActions(List.of(
+        new PaymentAction(PaymentActionType.CAPTURE, 800, "2030-01-01T10:00:00Z"),
+        new PaymentAction(PaymentActionType.REFUND, 300, "2030-01-02T10:00:00.125Z")));
+    repository.add(payment);
+    repository.close();
+
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 100, 60_000, 100);
+    PaymentResponse stored = repository.get(payment.getId()).orElseThrow();
+
+    assertEquals(PaymentStatus.PARTIALLY_REFUNDED, stored.getStatus());
+    assertEquals(800, stored.getCapturedAmount());
+    assertEquals(300, stored.getRefundedAmount());
+    assertEquals(2, stored.getActions().size());
+    assertEquals(PaymentActionType.REFUND, stored.getActions().get(1).getType());
+    assertEquals(300, stored.getActions().get(1).getAmount());
+    assertEquals("2030-01-02T10:00:00.125Z", stored.getActions().get(1).getProcessedOn());
+  }
+
+  @Test
+  void testGetAll_ShouldReadWrittenAndPendingPaymentsTogether() throws InterruptedException {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1000, 2, 60_000, 100);
+    PaymentResponse written = createPayment(1);
+    PaymentResponse alsoWritten = createPayment(2);
+    repository.add(written);
+    repository.add(alsoWritten);
+    awaitRowCount(2);
+    PaymentResponse pending = createPayment(3);
+    repository.add(pending);
+    UUID unknownId = UUID.randomUUID();
+
+    Map<UUID, PaymentResponse> found = repository.getAll(
+        List.of(written.getId(), pending.getId(), unknownId, alsoWritten.getId()));
+
+    assertEquals(3, found.size());
+    assertEquals(1, found.get(written.getId()).getAmount());
+    assertEquals(2, found.get(alsoWritten.getId()).getAmount());
+    assertEquals(3, found.get(pending.getId()).getAmount());
+    assertFalse(found.containsKey(unknownId));
+  }
+
+  @Test
+  void testAdd_WhenQueueIsFull_ShouldNotBeOvertakenByOlderQueuedChange() {
+    repository = new JdbcPaymentsRepository(jdbcTemplate, 1, 1, 60_000, 200);
+    PaymentResponse authorized = createPayment(1000);
+    PaymentResponse captured = createPayment(1000);
+    captured.setId(authorized.getId());
+    captured.setStatus(PaymentStatus.CAPTURED);
+    captured.setCapturedAmount(1000);
+
+    // Holding the repository's monitor stalls the writer the way a slow database would, so the
+    // second add fills the queue and the capture is written synchronously ahead of the first
+    synchronized (repository) {
+      repository.add(authorized);
+      repository.add(createPayment(1));
+      repository.add(captured);
+    }
+    repository.close();
+
+    PaymentResponse stored = repository.get(authorized.getId()).orElseThrow();
+    assertEquals(PaymentStatus.CAPTURED, stored.getStatus());
+    assertEquals(1000, stored.getCapturedAmount());
+    assertEquals(2, rowCount());
+  }
+
+  private void awaitRowCount(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (rowCount() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, rowCount());
+  }
+
+  private int rowCount() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments", Integer.class);
+  }
+
+  private PaymentResponse createPayment(int amount) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setLastFourDigits("8877");
+    payment.setCardExpiryDate("04/30");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(amount);
+    return payment;
+  }
+}
@@ -0,0 +1,93 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalableBloomFilterTest {
+
+  @Test
+  void testMightContain_ShouldFindEveryIdAcrossGrowth() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+    List<UUID> ids = timeOrderedIds(50_000);
+
+    ids.forEach(filter::put);
+
+    assertTrue(filter.stageCount() > 1);
+    for (UUID id : ids) {
+      assertTrue(filter.mightContain(id));
+    }
+  }
+
+  @Test
+  void testMightContain_ShouldKeepFalsePositivesUnderConfiguredRate() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+    timeOrderedIds(50_000).forEach(filter::put);
+
+    int falsePositives = 0;
+    int probes = 100_000;
+    for (UUID unknown : timeOrderedIds(probes)) {
+      if (filter.mightContain(unknown)) {
+        falsePositives++;
+      }
+    }
+
+    double rate = (double) falsePositives / probes;
+    assertTrue(rate < 0.01, "false-positive rate " + rate);
+    assertTrue(filter.expectedFalsePositiveRate() < 0.01);
+  }
+
+  @Test
+  void testPut_ShouldBeSafeFromConcurrentThreads() throws InterruptedException {
+    ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+    int threads = 8;
+    List<List<UUID>> idsPerThread = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      idsPerThread.add(timeOrderedIds(20_000));
+    }
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> writers = new ArrayList<>();
+    for (List<UUID> ids : idsPerThread) {
+      Thread writer = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException ex) {
+          return;
+        }
+        ids.forEach(filter::put);
+      });
+      writer.start();
+      writers.add(writer);
+    }
+
+    start.countDown();
+    for (Thread writer : writers) {
+      writer.join();
+    }
+
+    long missing = idsPerThread.stream().flatMap(List::stream)
+        .filter(id -> !filter.mightContain(id))
+        .count();
+    assertEquals(0, missing);
+  }
+
+  private List<UUID> timeOrderedIds(int count) {
+    AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(1, now::get);
+    List<UUID> ids = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      if (i % 100 == 0) {
+        now.incrementAndGet();
+      }
+      ids.add(generator.nextId());
+    }
+    return ids;
+  }
+}
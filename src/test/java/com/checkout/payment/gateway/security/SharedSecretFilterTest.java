@@ -0,0 +1,77 @@
+package com.checkout.payment.gateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedSecretFilterTest {
+
+  private final SharedSecretFilter filter = new SharedSecretFilter("s3cret", new ObjectMapper());
+
+  @Test
+  void testRequestWithoutSecret_ShouldBeRefused() throws Exception {
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest("POST", "/internal/v1/cluster/nodes"), response,
+        chain);
+
+    assertEquals(403, response.getStatus());
+    assertTrue(response.getContentAsString().contains("shared secret"));
+    assertNull(chain.getRequest());
+  }
+
+  @Test
+  void testRequestWithWrongSecret_ShouldBeRefused() throws Exception {
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("DELETE", "/internal/v1/cluster/payments/1");
+    request.addHeader(SharedSecretFilter.SECRET_HEADER, "s3cre");
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(403, response.getStatus());
+    assertNull(chain.getRequest());
+  }
+
+  @Test
+  void testPromotionWithoutSecret_ShouldBeRefused() throws Exception {
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest("POST", "/internal/v1/replication/promote"),
+        response, chain);
+
+    assertEquals(403, response.getStatus());
+    assertNull(chain.getRequest());
+  }
+
+  @Test
+  void testRequestWithSecret_ShouldPassThrough() throws Exception {
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("POST", "/internal/v1/cluster/payments");
+    request.addHeader(SharedSecretFilter.SECRET_HEADER, "s3cret");
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(200, response.getStatus());
+    assertNotNull(chain.getRequest());
+  }
+
+  @Test
+  void testMissingSecret_ShouldFailAtStartup() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SharedSecretFilter(" ", new ObjectMapper()));
+  }
+}
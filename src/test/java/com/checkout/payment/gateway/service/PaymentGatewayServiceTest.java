@@ -1,31 +1,53 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.bin.BinInfo;
 import com.checkout.payment.gateway.client.AcquiringBankClient;
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.deadline.RequestDeadline;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.ValidationRule;
 import com.checkout.payment.gateway.exception.BankServiceException;
 import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.fx.FxConversion;
+import com.checkout.payment.gateway.id.PaymentIdGenerator;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
 import com.checkout.payment.gateway.model.AcquiringBankPaymentRequest;
 import com.checkout.payment.gateway.model.AcquiringBankPaymentResponse;
 import com.checkout.payment.gateway.model.PaymentRequest;
 import com.checkout.payment.gateway.model.PaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.validation.CardBinValidator;
 import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.checkout.payment.gateway.validation.ValidationFailure;
+import com.checkout.payment.gateway.velocity.CardVelocityCheck;
+import com.checkout.payment.gateway.webhook.PaymentEventPublisher;
+import java.math.BigDecimal;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +55,9 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class PaymentGatewayServiceTest {
 
+  private static final BinInfo VISA = new BinInfo("VISA", "GB", "DEBIT");
+  private static final BinInfo AMEX = new BinInfo("AMEX", "US", "CREDIT");
+
   @Mock
   private AcquiringBankClient acquiringBankClient;
 
@@ -42,6 +67,33 @@ class PaymentGatewayServiceTest {
   @Mock
   private PaymentRequestValidator paymentRequestValidator;
 
+  @Mock
+  private PaymentStatistics paymentStatistics;
+
+  @Spy
+  private PaymentIdGenerator paymentIdGenerator = new TimeOrderedPaymentIdGenerator(1);
+
+  @Mock
+  private PaymentResponseEncoder paymentResponseEncoder;
+
+  @Mock
+  private BankCallBudget bankCallBudget;
+
+  @Mock
+  private PaymentEventPublisher paymentEventPublisher;
+
+  @Spy
+  private CardBinValidator cardBinValidator = new CardBinValidator(
+      cardNumber -> cardNumber.toString().startsWith("37") ? AMEX
+          : cardNumber.toString().startsWith("4") ? VISA : BinInfo.UNKNOWN,
+      Set.of("VISA", "MASTERCARD"), Set.of(), false);
+
+  @Mock
+  private CurrencyConverter currencyConverter;
+
+  @Mock
+  private CardVelocityCheck cardVelocityCheck;
+
   @InjectMocks
   private PaymentGatewayService paymentGatewayService;
 
@@ -61,7 +113,7 @@ class PaymentGatewayServiceTest {
   @Test
   void testProcessPaymentWithValidRequest_ShouldReturnsAuthorized() {
 
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
     bankResponse.setAuthorized(true);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
@@ -73,12 +125,27 @@ class PaymentGatewayServiceTest {
     assertEquals(PaymentStatus.AUTHORIZED, response.getStatus());
     assertEquals("USD", response.getCurrency());
     assertEquals(1000, response.getAmount());
+    assertEquals(1, TimeOrderedPaymentIdGenerator.nodeIdOf(response.getId()));
     verify(paymentsRepository).add(response);
   }
 
+  @Test
+  void testProcessPayment_ShouldEncodeResponseBeforeStoringIt() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
+    bankResponse.setAuthorized(true);
+    when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    InOrder inOrder = inOrder(paymentResponseEncoder, paymentsRepository);
+    inOrder.verify(paymentResponseEncoder).encode(response);
+    inOrder.verify(paymentsRepository).add(response);
+  }
+
   @Test
   void testProcessPaymentWithValidRequest_ShouldReturnsDeclined() {
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
     bankResponse.setAuthorized(false);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
@@ -95,7 +162,8 @@ class PaymentGatewayServiceTest {
   void testProcessPaymentWithInvalidRequest_ShouldReturnRejectedResponse() {
 
     String validationError = "Card number is required but was null or empty";
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(validationError);
+    when(paymentRequestValidator.validate(any()))
+        .thenReturn(new ValidationFailure(ValidationRule.CARD_NUMBER, validationError));
 
     PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
 
@@ -104,12 +172,135 @@ class PaymentGatewayServiceTest {
     assertEquals(PaymentStatus.REJECTED, response.getStatus());
     verify(acquiringBankClient, never()).processPayment(any());
     verify(paymentsRepository, never()).add(any());
+    verify(paymentStatistics).recordRejection(ValidationRule.CARD_NUMBER);
+  }
+
+  @Test
+  void testProcessPaymentWithUnsupportedCardScheme_ShouldReturnRejectedResponse() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    validPaymentRequest.setCardNumber("378282246310005");
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals(PaymentStatus.REJECTED, response.getStatus());
+    verify(acquiringBankClient, never()).processPayment(any());
+    verify(paymentStatistics).recordRejection(ValidationRule.CARD_BIN);
+  }
+
+  @Test
+  void testProcessPayment_ShouldPassCardSchemeToBankClientForRouting() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    validPaymentRequest.setCardNumber("4111111111111111");
+    AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
+    bankResponse.setAuthorized(true);
+    ArgumentCaptor<AcquiringBankPaymentRequest> bankRequest =
+        ArgumentCaptor.forClass(AcquiringBankPaymentRequest.class);
+    when(acquiringBankClient.processPayment(bankRequest.capture()))
+        .thenReturn(Optional.of(bankResponse));
+
+    paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals("VISA", bankRequest.getValue().getCardScheme());
+  }
+
+  @Test
+  void testProcessPaymentInOtherCurrency_ShouldSendSettlementAmountToBankAndRecordRate() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    validPaymentRequest.setCurrency("jpy");
+    validPaymentRequest.setAmount(15137);
+    when(currencyConverter.convert("JPY", 15137))
+        .thenReturn(new FxConversion("USD", 10000, new BigDecimal("0.0066063289")));
+    AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
+    bankResponse.setAuthorized(true);
+    ArgumentCaptor<AcquiringBankPaymentRequest> bankRequest =
+        ArgumentCaptor.forClass(AcquiringBankPaymentRequest.class);
+    when(acquiringBankClient.processPayment(bankRequest.capture()))
+        .thenReturn(Optional.of(bankResponse));
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals("USD", bankRequest.getValue().getCurrency());
+    assertEquals(10000, bankRequest.getValue().getAmount());
+    assertEquals(PaymentStatus.AUTHORIZED, response.getStatus());
+    assertEquals("JPY", response.getCurrency());
+    assertEquals(15137, response.getAmount());
+    assertEquals("USD", response.getSettlementCurrency());
+    assertEquals(10000, response.getSettlementAmount());
+    assertEquals(new BigDecimal("0.0066063289"), response.getFxRate());
+    verify(cardVelocityCheck).check(validPaymentRequest.getCardNumber(), 10000);
+  }
+
+  @Test
+  void testProcessPaymentInSettlementCurrency_ShouldNotConvert() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
+    bankResponse.setAuthorized(true);
+    when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    verify(currencyConverter, never()).convert(any(), anyInt());
+    assertNull(response.getSettlementCurrency());
+    assertNull(response.getFxRate());
+  }
+
+  @Test
+  void testProcessPaymentInCurrencyWithoutRate_ShouldRejectWithoutCallingBank() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    validPaymentRequest.setCurrency("CHF");
+    when(currencyConverter.convert("CHF", 1000)).thenReturn(null);
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals(PaymentStatus.REJECTED, response.getStatus());
+    verify(acquiringBankClient, never()).processPayment(any());
+    verify(paymentStatistics).recordRejection(ValidationRule.CURRENCY);
+  }
+
+  @Test
+  void testProcessPaymentOverCardVelocity_ShouldRejectWithoutCallingBank() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    when(cardVelocityCheck.check(validPaymentRequest.getCardNumber(), 1000)).thenReturn(
+        new ValidationFailure(ValidationRule.VELOCITY, "Card exceeded 20 payment attempts"));
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals(PaymentStatus.REJECTED, response.getStatus());
+    verify(acquiringBankClient, never()).processPayment(any());
+    verify(paymentsRepository, never()).add(any());
+    verify(paymentStatistics).recordRejection(ValidationRule.VELOCITY);
+  }
+
+  @Test
+  void testProcessPaymentWithParseFailure_ShouldRejectWithoutValidatingAgain() {
+    validPaymentRequest.setParseFailure(
+        new ValidationFailure(ValidationRule.AMOUNT, "Field amount has an invalid type"));
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals(PaymentStatus.REJECTED, response.getStatus());
+    verify(paymentRequestValidator, never()).validate(any());
+    verify(acquiringBankClient, never()).processPayment(any());
+    verify(paymentStatistics).recordRejection(ValidationRule.AMOUNT);
+  }
+
+  @Test
+  void testProcessPaymentWithRequestValidatedWhileParsing_ShouldSkipValidator() {
+    validPaymentRequest.setValidated(true);
+    AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
+    bankResponse.setAuthorized(true);
+    when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
+
+    PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
+
+    assertEquals(PaymentStatus.AUTHORIZED, response.getStatus());
+    verify(paymentRequestValidator, never()).validate(any());
   }
 
   @Test
   void testProcessPaymentWhenBankCallFails_ShouldThrowBankServiceException() {
 
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.empty());
 
     BankServiceException exception = assertThrows(BankServiceException.class,
@@ -118,11 +309,47 @@ class PaymentGatewayServiceTest {
     assertEquals(503, exception.getHttpStatus());
     assertTrue(exception.getMessage().contains("unavailable"));
     verify(paymentsRepository, never()).add(any());
+    verify(paymentStatistics).recordBankFailure();
+  }
+
+  @Test
+  void testProcessPaymentWhenDeadlineTooClose_ShouldSkipBankCall() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    when(bankCallBudget.isExhausted()).thenReturn(true);
+
+    BankServiceException exception = assertThrows(BankServiceException.class,
+        () -> paymentGatewayService.processPayment(validPaymentRequest));
+
+    assertEquals(504, exception.getHttpStatus());
+    verify(acquiringBankClient, never()).processPayment(any());
+    verify(paymentsRepository, never()).add(any());
+    verify(bankCallBudget).recordExceeded();
+  }
+
+  @Test
+  void testProcessPaymentWhenDeadlinePassesDuringBankCall_ShouldThrowGatewayTimeout() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    when(acquiringBankClient.processPayment(any())).thenAnswer(invocation -> {
+      RequestDeadline.set(System.nanoTime() - 1);
+      return Optional.empty();
+    });
+
+    try {
+      BankServiceException exception = assertThrows(BankServiceException.class,
+          () -> paymentGatewayService.processPayment(validPaymentRequest));
+
+      assertEquals(504, exception.getHttpStatus());
+      verify(bankCallBudget).recordExceeded();
+      verify(paymentStatistics, never()).recordBankFailure();
+    } finally {
+      RequestDeadline.clear();
+    }
   }
 
   @Test
   void testProcessPayment_ShouldNotStoreRejectedPayment() {
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn("Invalid request");
+    when(paymentRequestValidator.validate(any()))
+        .thenReturn(new ValidationFailure(ValidationRule.REQUEST, "Invalid request"));
 
     PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
 
@@ -133,7 +360,7 @@ class PaymentGatewayServiceTest {
   @Test
   void testProcessPayment_ShouldStoreAuthorizedPayment() {
 
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
     bankResponse.setAuthorized(true);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
@@ -142,12 +369,13 @@ class PaymentGatewayServiceTest {
 
     assertEquals(PaymentStatus.AUTHORIZED, response.getStatus());
     verify(paymentsRepository).add(response);
+    verify(paymentStatistics).recordPayment(PaymentStatus.AUTHORIZED, "USD", 1000);
   }
 
   @Test
   void testProcessPayment_ShouldStoreDeclinePayments() {
 
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
     bankResponse.setAuthorized(false);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
@@ -158,6 +386,31 @@ class PaymentGatewayServiceTest {
     verify(paymentsRepository).add(response);
   }
 
+  @Test
+  void testProcessPayment_ShouldPublishOutcomeToMerchantAfterStoring() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
+    bankResponse.setAuthorized(false);
+    when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
+
+    PaymentResponse response =
+        paymentGatewayService.processPayment(validPaymentRequest, "merchant-1");
+
+    InOrder inOrder = inOrder(paymentsRepository, paymentEventPublisher);
+    inOrder.verify(paymentsRepository).add(response);
+    inOrder.verify(paymentEventPublisher).publish("merchant-1", response);
+  }
+
+  @Test
+  void testProcessPaymentWithValidationFailure_ShouldNotPublish() {
+    when(paymentRequestValidator.validate(any()))
+        .thenReturn(new ValidationFailure(ValidationRule.REQUEST, "Invalid request"));
+
+    paymentGatewayService.processPayment(validPaymentRequest, "merchant-1");
+
+    verify(paymentEventPublisher, never()).publish(any(), any());
+  }
+
   @Test
   void testGetPaymentByIdForValidId_ShouldReturnResponse() {
 
@@ -199,10 +452,91 @@ class PaymentGatewayServiceTest {
     assertTrue(exception.getMessage().contains(paymentId.toString()));
   }
 
+  @Test
+  void testFindPaymentByIdWithUnknownOrRejectedId_ShouldReturnEmpty() {
+    UUID unknownId = UUID.randomUUID();
+    UUID rejectedId = UUID.randomUUID();
+    PaymentResponse rejectedPayment = new PaymentResponse();
+    rejectedPayment.setId(rejectedId);
+    rejectedPayment.setStatus(PaymentStatus.REJECTED);
+    when(paymentsRepository.get(unknownId)).thenReturn(Optional.empty());
+    when(paymentsRepository.get(rejectedId)).thenReturn(Optional.of(rejectedPayment));
+
+    assertTrue(paymentGatewayService.findPaymentById(unknownId).isEmpty());
+    assertTrue(paymentGatewayService.findPaymentById(rejectedId).isEmpty());
+  }
+
+  @Test
+  void testLookupPayments_ShouldResolveFoundInOrderAndReportMissing() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID unknownId = UUID.randomUUID();
+    UUID rejectedId = UUID.randomUUID();
+    PaymentResponse firstPayment = new PaymentResponse();
+    firstPayment.setId(first);
+    firstPayment.setStatus(PaymentStatus.AUTHORIZED);
+    PaymentResponse secondPayment = new PaymentResponse();
+    secondPayment.setId(second);
+    secondPayment.setStatus(PaymentStatus.CAPTURED);
+    PaymentResponse rejectedPayment = new PaymentResponse();
+    rejectedPayment.setId(rejectedId);
+    rejectedPayment.setStatus(PaymentStatus.REJECTED);
+    List<UUID> ids = List.of(second, unknownId, first, rejectedId, second);
+    when(paymentsRepository.getAll(List.of(second, unknownId, first, rejectedId)))
+        .thenReturn(Map.of(first, firstPayment, second, secondPayment,
+            rejectedId, rejectedPayment));
+    PaymentLookup lookup = paymentGatewayService.lookupPayments(ids);
+
+    verify(paymentsRepository, never()).getAll(any());
+    assertEquals(List.of(secondPayment, firstPayment), lookup.nextBatch());
+    assertNull(lookup.nextBatch());
+    assertEquals(List.of(unknownId, rejectedId), lookup.getMissing());
+    verify(paymentsRepository, never()).get(any());
+  }
+
+  @Test
+  void testLookupPayments_ShouldReadOneBatchAtATime() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+    PaymentResponse firstPayment = new PaymentResponse();
+    firstPayment.setId(first);
+    firstPayment.setStatus(PaymentStatus.AUTHORIZED);
+    PaymentResponse thirdPayment = new PaymentResponse();
+    thirdPayment.setId(third);
+    thirdPayment.setStatus(PaymentStatus.DECLINED);
+    when(paymentsRepository.getAll(List.of(first, second)))
+        .thenReturn(Map.of(first, firstPayment));
+    when(paymentsRepository.getAll(List.of(third))).thenReturn(Map.of(third, thirdPayment));
+    PaymentLookup lookup = new PaymentLookup(List.of(first, second, third), paymentsRepository,
+        2);
+
+    assertEquals(List.of(firstPayment), lookup.nextBatch());
+    assertEquals(List.of(second), lookup.getMissing());
+    verify(paymentsRepository, never()).getAll(List.of(third));
+    assertEquals(List.of(thirdPayment), lookup.nextBatch());
+    assertNull(lookup.nextBatch());
+    assertEquals(List.of(second), lookup.getMissing());
+  }
+
+  @Test
+  void testProcessPaymentWhenBankCallFails_ShouldReuseStacklessException() {
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
+    when(acquiringBankClient.processPayment(any())).thenReturn(Optional.empty());
+
+    BankServiceException first = assertThrows(BankServiceException.class,
+        () -> paymentGatewayService.processPayment(validPaymentRequest));
+    BankServiceException second = assertThrows(BankServiceException.class,
+        () -> paymentGatewayService.processPayment(validPaymentRequest));
+
+    assertSame(first, second);
+    assertEquals(0, first.getStackTrace().length);
+  }
+
   @Test
   void testProcessPayment_CurrencyShouldHaveBeenNormalizedToUppercase() {
     validPaymentRequest.setCurrency("usd");
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
     bankResponse.setAuthorized(true);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
@@ -222,7 +556,7 @@ class PaymentGatewayServiceTest {
     AcquiringBankPaymentResponse bankResponse = new AcquiringBankPaymentResponse();
     bankResponse.setAuthorized(true);
 
-    when(paymentRequestValidator.validatePaymentRequest(any())).thenReturn(null);
+    when(paymentRequestValidator.validate(any())).thenReturn(null);
     when(acquiringBankClient.processPayment(any())).thenReturn(Optional.of(bankResponse));
     PaymentResponse response = paymentGatewayService.processPayment(validPaymentRequest);
 
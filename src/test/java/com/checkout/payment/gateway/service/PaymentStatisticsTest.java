@@ -0,0 +1,115 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.model.PaymentStatisticsResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PaymentStatisticsTest {
+
+  private MutableClock clock;
+  private PaymentStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    statistics = new PaymentStatistics(clock);
+  }
+
+  @Test
+  void testRecordPayment_ShouldAggregateByCurrencyAndStatus() {
+    statistics.recordPayment(PaymentStatus.AUTHORIZED, "USD", 1000);
+    statistics.recordPayment(PaymentStatus.AUTHORIZED, "USD", 500);
+    statistics.recordPayment(PaymentStatus.DECLINED, "GBP", 200);
+
+    PaymentStatisticsResponse snapshot = statistics.snapshot();
+
+    assertEquals(2, snapshot.getByCurrency().get("USD").getCount());
+    assertEquals(1500, snapshot.getByCurrency().get("USD").getAmount());
+    assertEquals(1, snapshot.getByCurrency().get("GBP").getCount());
+    assertEquals(2, snapshot.getByStatus().get("Authorized").getCount());
+    assertEquals(200, snapshot.getByStatus().get("Declined").getAmount());
+    assertEquals(0, snapshot.getByStatus().get("Rejected").getCount());
+  }
+
+  @Test
+  void testRecordRejection_ShouldCountByRuleWithoutCurrencyOrAmount() {
+    statistics.recordRejection(ValidationRule.CVV);
+    statistics.recordRejection(ValidationRule.CVV);
+    statistics.recordPayment(PaymentStatus.REJECTED, "XXX", 100);
+
+    PaymentStatisticsResponse snapshot = statistics.snapshot();
+
+    assertEquals(2, snapshot.getRejectionsByRule().get("cvv"));
+    assertEquals(0, snapshot.getRejectionsByRule().get("amount"));
+    assertEquals(1, snapshot.getByStatus().get("Rejected").getCount());
+    assertEquals(0, snapshot.getByStatus().get("Rejected").getAmount());
+    assertEquals(1, snapshot.getWindows().get("1m").getByStatus().get("Rejected").getCount());
+    assertEquals(0, snapshot.getWindows().get("1m").getByStatus().get("Rejected").getAmount());
+    assertFalse(snapshot.getByCurrency().containsKey("XXX"));
+  }
+
+  @Test
+  void testWindows_ShouldOnlyIncludeRecentPayments() {
+    statistics.recordPayment(PaymentStatus.AUTHORIZED, "USD", 100);
+    clock.advance(Duration.ofMinutes(2));
+    statistics.recordPayment(PaymentStatus.AUTHORIZED, "USD", 200);
+    statistics.recordBankFailure();
+
+    PaymentStatisticsResponse snapshot = statistics.snapshot();
+
+    assertEquals(1, snapshot.getWindows().get("1m").getByStatus().get("Authorized").getCount());
+    assertEquals(200, snapshot.getWindows().get("1m").getByStatus().get("Authorized").getAmount());
+    assertEquals(2, snapshot.getWindows().get("5m").getByStatus().get("Authorized").getCount());
+    assertEquals(1, snapshot.getWindows().get("1h").getBankFailures());
+  }
+
+  @Test
+  void testWindows_ShouldRecycleSlotsAfterAnHour() {
+    statistics.recordPayment(PaymentStatus.DECLINED, "EUR", 100);
+    clock.advance(Duration.ofHours(1));
+    statistics.recordPayment(PaymentStatus.DECLINED, "EUR", 300);
+
+    PaymentStatisticsResponse snapshot = statistics.snapshot();
+
+    assertEquals(1, snapshot.getWindows().get("1h").getByStatus().get("Declined").getCount());
+    assertEquals(300, snapshot.getWindows().get("1h").getByStatus().get("Declined").getAmount());
+    assertEquals(2, snapshot.getByStatus().get("Declined").getCount());
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
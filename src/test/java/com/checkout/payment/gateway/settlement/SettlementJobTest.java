@@ -0,0 +1,148 @@
+package com.checkout.payment.gateway.settlement;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.SettlementException;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.checkout.payment.gateway.model.SettlementReport;
+import com.checkout.payment.gateway.model.SettlementTotal;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettlementJobTest {
+
+  private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+  @TempDir
+  Path directory;
+
+  private final AtomicLong now = new AtomicLong();
+  private InMemoryPaymentsRepository repository;
+  private TimeOrderedPaymentIdGenerator generator;
+  private SettlementJob job;
+
+  @BeforeEach
+  void setUp() {
+    repository = new InMemoryPaymentsRepository();
+    generator = new TimeOrderedPaymentIdGenerator(1, now::get);
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(dayStart(2)), ZoneOffset.UTC);
+    job = new SettlementJob(repository, directory, 4, Duration.ofMinutes(15), clock);
+  }
+
+  @AfterEach
+  void tearDown() {
+    job.stop();
+  }
+
+  @Test
+  void testSettle_ShouldWriteTotalsAndOrderedItemsForTheDayOnly() throws IOException {
+    now.set(dayStart(0) - 1);
+    repository.add(createPayment("GBP", PaymentStatus.AUTHORIZED, 5));
+    // More than two partitions, so the items come from several part files
+    int payments = 150_000;
+    long expectedGbpAuthorized = 0;
+    for (int i = 0; i < payments; i++) {
+      now.set(dayStart(0) + i / 2);
+      boolean gbp = i % 3 != 0;
+      PaymentStatus status = i % 4 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED;
+      repository.add(createPayment(gbp ? "GBP" : "EUR", status, i % 100 + 1));
+      if (gbp && status == PaymentStatus.AUTHORIZED) {
+        expectedGbpAuthorized += i % 100 + 1;
+      }
+    }
+    now.set(dayStart(1));
+    repository.add(createPayment("GBP", PaymentStatus.AUTHORIZED, 7));
+    PaymentResponse randomId = createPayment("GBP", PaymentStatus.AUTHORIZED, 9);
+    randomId.setId(UUID.randomUUID());
+    repository.add(randomId);
+
+    SettlementReport report = job.settle(DAY);
+
+    assertEquals(payments, report.getPaymentCount());
+    assertEquals(4, report.getTotals().size());
+    assertEquals(payments, report.getTotals().stream().mapToLong(SettlementTotal::getCount).sum());
+    SettlementTotal gbpAuthorized = report.getTotals().stream()
+        .filter(total -> "GBP".equals(total.getCurrency())
+            && total.getStatus() == PaymentStatus.AUTHORIZED)
+        .findFirst().orElseThrow();
+    assertEquals(expectedGbpAuthorized, gbpAuthorized.getAmount());
+
+    List<String> items = Files.readAllLines(Path.of(report.getItemsFile()));
+    assertEquals(payments + 1, items.size());
+    assertTrue(items.get(0).startsWith("id,created_at,"));
+    UUID previous = null;
+    for (String item : items.subList(1, items.size())) {
+      UUID id = UUID.fromString(item.substring(0, item.indexOf(',')));
+      assertTrue(previous == null || previous.compareTo(id) < 0);
+      previous = id;
+    }
+
+    List<String> totals = Files.readAllLines(Path.of(report.getTotalsFile()));
+    assertEquals(5, totals.size());
+    assertTrue(totals.contains("GBP,Authorized," + gbpAuthorized.getCount() + ","
+        + expectedGbpAuthorized));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  @Test
+  void testSettle_ShouldWriteLineItemFields() throws IOException {
+    now.set(dayStart(0) + 1000);
+    PaymentResponse payment = createPayment("USD", PaymentStatus.DECLINED, 1050);
+
+    repository.add(payment);
+    SettlementReport report = job.settle(DAY);
+
+    List<String> items = Files.readAllLines(Path.of(report.getItemsFile()));
+    assertEquals(payment.getId() + ",2026-03-01T00:00:01Z,Declined,USD,1050,8877,4,2030",
+        items.get(1));
+  }
+
+  @Test
+  void testSettle_ShouldRefuseDayThatIsNotClosed() {
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(dayStart(1) + 60_000), ZoneOffset.UTC);
+    SettlementJob early = new SettlementJob(repository, directory, 1, Duration.ofMinutes(15),
+        clock);
+
+    assertFalse(early.isClosed(DAY));
+    assertThrows(SettlementException.class, () -> early.settle(DAY));
+    early.stop();
+  }
+
+  private long dayStart(int day) {
+    return DAY.plusDays(day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  private PaymentResponse createPayment(String currency, PaymentStatus status, int amount) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(generator.nextId());
+    payment.setStatus(status);
+    payment.setCurrency(currency);
+    payment.setAmount(amount);
+    payment.setLastFourDigits("8877");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    return payment;
+  }
+}
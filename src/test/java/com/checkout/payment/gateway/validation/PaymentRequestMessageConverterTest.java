@@ -0,0 +1,146 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.model.PaymentRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentRequestMessageConverterTest {
+
+  private static final int NEXT_YEAR = YearMonth.now().getYear() + 1;
+
+  private final PaymentRequestMessageConverter converter =
+      new PaymentRequestMessageConverter(new JsonFactory(), 512);
+
+  @Test
+  void testRead_ShouldReadAndValidateCompleteRequest() throws IOException {
+    PaymentRequest request = read("{\"card_number\":\"2222405343248877\",\"expiry_month\":4,"
+        + "\"expiry_year\":" + NEXT_YEAR + ",\"currency\":\"GBP\",\"amount\":100,"
+        + "\"cvv\":\"123\",\"reference\":{\"ignored\":[1,2]}}");
+
+    assertNull(request.getParseFailure());
+    assertTrue(request.isValidated());
+    assertEquals("2222405343248877", request.getCardNumber());
+    assertEquals(4, request.getExpiryMonth());
+    assertEquals(NEXT_YEAR, request.getExpiryYear());
+    assertEquals("GBP", request.getCurrency());
+    assertEquals(100, request.getAmount());
+    assertEquals("123", request.getCvv());
+  }
+
+  @Test
+  void testRead_ShouldLeaveIncompleteRequestToTheValidator() throws IOException {
+    PaymentRequest request = read("{\"card_number\":\"2222405343248877\",\"amount\":100}");
+
+    assertNull(request.getParseFailure());
+    assertFalse(request.isValidated());
+  }
+
+  @Test
+  void testRead_ShouldStopAtFirstViolation() throws IOException {
+    // The body is cut off after the amount: nothing after the violation is read
+    PaymentRequest request = read("{\"currency\":\"GBP\",\"amount\":-5,\"cvv\":\"123\",\"card_");
+
+    assertEquals(ValidationRule.AMOUNT, request.getParseFailure().getRule());
+    assertEquals(PaymentRequestValidator.validateAmount(-5),
+        request.getParseFailure().getReason());
+    assertEquals("GBP", request.getCurrency());
+    assertNull(request.getCvv());
+  }
+
+  @Test
+  void testRead_ShouldRejectCardNumberWithSameReasonAsValidator() throws IOException {
+    PaymentRequest request = read("{\"card_number\":\"2222 4053 4324\"}");
+
+    assertEquals(ValidationRule.CARD_NUMBER, request.getParseFailure().getRule());
+    assertEquals(PaymentRequestValidator.validateCardNumber("2222 4053 4324"),
+        request.getParseFailure().getReason());
+    assertNull(request.getCardNumber());
+  }
+
+  @Test
+  void testRead_ShouldCheckExpiryDateOnceMonthAndYearAreKnown() throws IOException {
+    int lastYear = YearMonth.now().getYear() - 1;
+
+    PaymentRequest request = read("{\"expiry_year\":" + lastYear + ",\"expiry_month\":6}");
+
+    assertEquals(ValidationRule.EXPIRY_DATE, request.getParseFailure().getRule());
+  }
+
+  @Test
+  void testRead_ShouldRejectFieldOfWrongType() throws IOException {
+    PaymentRequest request = read("{\"amount\":{\"value\":100}}");
+
+    assertEquals(ValidationRule.AMOUNT, request.getParseFailure().getRule());
+  }
+
+  @Test
+  void testRead_ShouldRejectMalformedBodies() throws IOException {
+    for (String body : new String[]{"not json", "[1,2]", "{\"amount\":12,,}", ""}) {
+      PaymentRequest request = read(body);
+
+      assertEquals(ValidationRule.REQUEST, request.getParseFailure().getRule(), body);
+    }
+  }
+
+  @Test
+  void testRead_ShouldRejectOversizedBodyWithoutReadingIt() throws IOException {
+    byte[] body = ("{\"reference\":\"" + "x".repeat(100_000) + "\"}")
+        .getBytes(StandardCharsets.UTF_8);
+    AtomicInteger consumed = new AtomicInteger();
+    InputStream counting = new ByteArrayInputStream(body) {
+      @Override
+      public synchronized int read(byte[] buffer, int offset, int length) {
+        int count = super.read(buffer, offset, length);
+        consumed.addAndGet(Math.max(count, 0));
+        return count;
+      }
+    };
+
+    PaymentRequest request = converter.read(PaymentRequest.class, json(counting));
+
+    assertEquals(ValidationRule.REQUEST, request.getParseFailure().getRule());
+    assertEquals("Payment request body exceeds 512 bytes", request.getParseFailure().getReason());
+    assertTrue(consumed.get() <= 513);
+  }
+
+  @Test
+  void testRead_ShouldRejectDeclaredOversizedBodyOnFirstRead() throws IOException {
+    MockHttpInputMessage message = json(new ByteArrayInputStream("{}".getBytes()));
+    message.getHeaders().setContentLength(10_000);
+
+    PaymentRequest request = converter.read(PaymentRequest.class, message);
+
+    assertEquals(ValidationRule.REQUEST, request.getParseFailure().getRule());
+  }
+
+  @Test
+  void testCanWrite_ShouldBeFalse() {
+    assertTrue(converter.canRead(PaymentRequest.class, MediaType.APPLICATION_JSON));
+    assertFalse(converter.canWrite(PaymentRequest.class, MediaType.APPLICATION_JSON));
+  }
+
+  private PaymentRequest read(String body) throws IOException {
+    return converter.read(PaymentRequest.class,
+        json(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+  }
+
+  private static MockHttpInputMessage json(InputStream body) {
+    MockHttpInputMessage message = new MockHttpInputMessage(body);
+    message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    return message;
+  }
+}
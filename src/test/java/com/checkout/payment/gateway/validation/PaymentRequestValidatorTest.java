@@ -218,6 +218,17 @@ class PaymentRequestValidatorTest {
     assertTrue(result.contains("JPY"));
   }
 
+  @Test
+  void testValidatingCurrencyWithConvertibleCurrency_ShouldReturnNull() {
+    validator = new PaymentRequestValidator("JPY"::equals);
+    validRequest.setCurrency("jpy");
+
+    assertNull(validator.validatePaymentRequest(validRequest));
+    validRequest.setCurrency("CHF");
+    assertTrue(validator.validatePaymentRequest(validRequest)
+        .contains("Currency is not supported"));
+  }
+
   @Test
   void testValidatingCurrencyWithTooShortCurrency_ShouldReturnError() {
     validRequest.setCurrency("US"); // 2 characters
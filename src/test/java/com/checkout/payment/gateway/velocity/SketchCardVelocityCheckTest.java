@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.velocity;
+
+import com.checkout.payment.gateway.enums.ValidationRule;
+import com.checkout.payment.gateway.validation.ValidationFailure;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SketchCardVelocityCheckTest {
+
+  private static final String CARD = "2222405343248877";
+
+  private final AtomicLong millis = new AtomicLong(1_000_000);
+
+  @Test
+  void testCheck_ShouldRejectCardOverMaxAttemptsOnly() {
+    SketchCardVelocityCheck check = check(3, 1_000_000);
+
+    for (int i = 0; i < 3; i++) {
+      assertNull(check.check(CARD, 100));
+    }
+    ValidationFailure failure = check.check(CARD, 100);
+
+    assertNotNull(failure);
+    assertEquals(ValidationRule.VELOCITY, failure.getRule());
+    assertTrue(failure.getReason().contains("3 payment attempts in 600 seconds"));
+    assertNotNull(check.check("2222 4053 4324 8877", 100));
+    assertNull(check.check("2222405343248878", 100));
+    assertEquals(2, check.flaggedAttemptsCount());
+  }
+
+  @Test
+  void testCheck_ShouldRejectCardOverMaxAmount() {
+    SketchCardVelocityCheck check = check(100, 10_000);
+
+    assertNull(check.check(CARD, 6_000));
+    assertNull(check.check(CARD, 4_000));
+    ValidationFailure failure = check.check(CARD, 1);
+
+    assertEquals(ValidationRule.VELOCITY, failure.getRule());
+    assertTrue(failure.getReason().contains("amount of 10000"));
+    assertEquals(1, check.flaggedAmountsCount());
+  }
+
+  @Test
+  void testCheck_ShouldAcceptCardAgainOnceItsAttemptsLeftTheWindow() {
+    SketchCardVelocityCheck check = check(2, 1_000_000);
+    assertNull(check.check(CARD, 100));
+    millis.addAndGet(300_000);
+    assertNull(check.check(CARD, 100));
+
+    // The first attempt is out of the window, so this is the second of two again
+    millis.addAndGet(330_000);
+
+    assertNull(check.check(CARD, 100));
+    assertNotNull(check.check(CARD, 100));
+  }
+
+  @Test
+  void testWithoutHistory_ShouldKeepLimitsButForgetCards() {
+    SketchCardVelocityCheck check = check(1, 1_000_000);
+    check.check(CARD, 100);
+    assertNotNull(check.check(CARD, 100));
+
+    CardVelocityCheck fresh = check.withoutHistory();
+
+    assertNull(fresh.check(CARD, 100));
+    assertNotNull(fresh.check(CARD, 100));
+    assertNull(CardVelocityCheck.NONE.check(CARD, Long.MAX_VALUE));
+  }
+
+  private SketchCardVelocityCheck check(long maxAttempts, long maxAmount) {
+    return new SketchCardVelocityCheck(600_000, 10, 4, 4096, maxAttempts, maxAmount,
+        millis::get);
+  }
+}
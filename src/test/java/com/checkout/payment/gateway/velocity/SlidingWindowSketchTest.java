@@ -0,0 +1,97 @@
+package com.checkout.payment.gateway.velocity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowSketchTest {
+
+  @Test
+  void testEstimate_ShouldCountAttemptsAndAmountsPerKey() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(60_000, 6, 4, 1024);
+
+    sketch.add(0x1234_5678_9abc_def0L, 500, 1_000);
+    sketch.add(0x1234_5678_9abc_def0L, 700, 2_000);
+    sketch.add(0x0fed_cba9_8765_4321L, 100, 3_000);
+
+    assertEquals(2, sketch.estimateCount(0x1234_5678_9abc_def0L, 4_000));
+    assertEquals(1200, sketch.estimateAmount(0x1234_5678_9abc_def0L, 4_000));
+    assertEquals(1, sketch.estimateCount(0x0fed_cba9_8765_4321L, 4_000));
+    assertEquals(0, sketch.estimateCount(0x1111_2222_3333_4444L, 4_000));
+  }
+
+  @Test
+  void testEstimate_ShouldDropBucketsThatLeftTheWindow() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(60_000, 6, 4, 1024);
+    long key = 42L * 0x9e3779b97f4a7c15L;
+
+    sketch.add(key, 100, 0);
+    sketch.add(key, 200, 30_000);
+
+    assertEquals(2, sketch.estimateCount(key, 59_999));
+    assertEquals(1, sketch.estimateCount(key, 60_000));
+    assertEquals(200, sketch.estimateAmount(key, 60_000));
+    assertEquals(0, sketch.estimateCount(key, 90_000));
+
+    // The bucket of the first attempt is cleared when it is reused
+    sketch.add(key, 300, 120_000);
+    assertEquals(1, sketch.estimateCount(key, 120_000));
+    assertEquals(300, sketch.estimateAmount(key, 120_000));
+  }
+
+  @Test
+  void testEstimate_ShouldNeverUnderstateInACrowdedSketch() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(60_000, 6, 4, 64);
+    SplittableRandom random = new SplittableRandom(7);
+    long[] keys = new long[10_000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextLong();
+      for (int j = 0; j <= i % 3; j++) {
+        sketch.add(keys[i], 10, 1_000);
+      }
+    }
+
+    for (int i = 0; i < keys.length; i++) {
+      assertTrue(sketch.estimateCount(keys[i], 1_000) >= i % 3 + 1);
+      assertTrue(sketch.estimateAmount(keys[i], 1_000) >= 10L * (i % 3 + 1));
+    }
+    assertEquals(2 * 6 * 4 * 64, sketch.counterCount());
+  }
+
+  @Test
+  void testAdd_ShouldNotLoseConcurrentUpdatesWithinABucket() throws Exception {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(60_000, 6, 4, 1024);
+    sketch.add(7L, 0, 1_000);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < 8; thread++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          sketch.add(7L, 3, 1_000);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertEquals(80_001, sketch.estimateCount(7L, 1_000));
+    assertEquals(240_000, sketch.estimateAmount(7L, 1_000));
+  }
+
+  @Test
+  void testConstructor_ShouldRejectEmptyDimensions() {
+    assertThrows(IllegalArgumentException.class, () -> new SlidingWindowSketch(60_000, 0, 4, 64));
+    assertThrows(IllegalArgumentException.class, () -> new SlidingWindowSketch(60_000, 6, 0, 64));
+    assertThrows(IllegalArgumentException.class, () -> new SlidingWindowSketch(5, 6, 4, 64));
+  }
+}
@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.warmup;
+
+import com.checkout.payment.gateway.bin.BinLookup;
+import com.checkout.payment.gateway.deadline.BankCallBudget;
+import com.checkout.payment.gateway.fx.CurrencyConverter;
+import com.checkout.payment.gateway.id.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentStatisticsResponse;
+import com.checkout.payment.gateway.service.PaymentResponseEncoder;
+import com.checkout.payment.gateway.validation.CardBinValidator;
+import com.checkout.payment.gateway.validation.PaymentRequestMessageConverter;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.checkout.payment.gateway.velocity.SketchCardVelocityCheck;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JitWarmupTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void testRun_ShouldPushEveryPaymentThroughThePipeline() {
+    JitWarmup warmup = new JitWarmup(objectMapper,
+        new PaymentRequestMessageConverter(objectMapper.getFactory(), 4096),
+        new PaymentRequestValidator(), new TimeOrderedPaymentIdGenerator(0),
+        new PaymentResponseEncoder(objectMapper, true), new BankCallBudget(1000, 1000, 0),
+        new CardBinValidator(BinLookup.NONE, Set.of(), Set.of(), false),
+        new CurrencyConverter("USD", null),
+        new SketchCardVelocityCheck(600_000, 10, 4, 4096, 20, 10_000_000));
+
+    PaymentStatisticsResponse outcome = warmup.run(1000);
+
+    // Cards end in the payment's last digit: 1, 3, 5 and 7 authorized, even digits declined,
+    // and 9 has a CVV too short to pass validation. No card is used twice, so none is stopped
+    // for velocity
+    assertEquals(400, outcome.getByStatus().get("Authorized").getCount());
+    assertEquals(500, outcome.getByStatus().get("Declined").getCount());
+    assertEquals(100, outcome.getByStatus().get("Rejected").getCount());
+    assertEquals(100, outcome.getRejectionsByRule().get("cvv"));
+    assertEquals(0, outcome.getRejectionsByRule().get("velocity"));
+    assertEquals(3, outcome.getByCurrency().size());
+    assertEquals(0, outcome.getBankFailures());
+  }
+}
@@ -0,0 +1,229 @@
+package com.checkout.payment.gateway.webhook;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookDispatcherTest {
+
+  private static final byte[] SECRET = "whsec-test".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir
+  Path directory;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<Received> received = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failuresLeft = new AtomicInteger();
+  private final CountDownLatch releaseReceiver = new CountDownLatch(1);
+  private volatile boolean receiverStalled;
+  private HttpServer receiver;
+  private WebhookSettings settings;
+  private WebhookDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    receiver.createContext("/webhooks", exchange -> {
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      if (receiverStalled) {
+        try {
+          releaseReceiver.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      received.add(new Received(exchange.getRequestHeaders().getFirst(
+          WebhookDispatcher.BATCH_HEADER), exchange.getRequestHeaders().getFirst(
+          WebhookDispatcher.SIGNATURE_HEADER), body));
+      int status = failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0 ? 500 : 204;
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+    });
+    receiver.start();
+    settings = new WebhookSettings();
+    settings.setBatchSize(5);
+    settings.setLingerMs(50);
+    settings.setTimeoutMs(2000);
+    settings.setMaxAttempts(3);
+    settings.setInitialBackoffMs(20);
+    settings.setMaxBackoffMs(40);
+    settings.setDeadLetterFile(directory.resolve("dead-letter.jsonl"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseReceiver.countDown();
+    if (dispatcher != null) {
+      dispatcher.close();
+    }
+    receiver.stop(0);
+  }
+
+  @Test
+  void testPublish_ShouldDeliverFullBatchSigned() throws Exception {
+    dispatcher = createDispatcher();
+
+    for (int i = 0; i < 5; i++) {
+      dispatcher.publish("merchant-1", createPayment(PaymentStatus.AUTHORIZED));
+    }
+
+    await(() -> dispatcher.deliveredCount() == 5);
+    assertEquals(1, received.size());
+    Received request = received.get(0);
+    JsonNode batch = objectMapper.readTree(request.body);
+    assertEquals(request.batchId, batch.get("id").asText());
+    assertEquals(5, batch.get("events").size());
+    assertEquals("payment.authorized", batch.get("events").get(0).get("type").asText());
+    String timestamp = request.signature.substring(2, request.signature.indexOf(','));
+    assertEquals(WebhookDispatcher.sign(SECRET, Long.parseLong(timestamp), request.body),
+        request.signature);
+  }
+
+  @Test
+  void testPublish_ShouldSendPartialBatchAfterLinger() throws Exception {
+    dispatcher = createDispatcher();
+
+    dispatcher.publish("merchant-1", createPayment(PaymentStatus.DECLINED));
+    dispatcher.publish("merchant-1", createPayment(PaymentStatus.AUTHORIZED));
+
+    await(() -> dispatcher.deliveredCount() == 2);
+    assertEquals(1, received.size());
+    assertEquals(2, objectMapper.readTree(received.get(0).body).get("events").size());
+  }
+
+  @Test
+  void testPublish_ShouldIgnoreMerchantsWithoutSubscription() throws Exception {
+    dispatcher = createDispatcher();
+
+    dispatcher.publish("merchant-2", createPayment(PaymentStatus.AUTHORIZED));
+    dispatcher.publish(null, createPayment(PaymentStatus.AUTHORIZED));
+    Thread.sleep(200);
+
+    assertTrue(received.isEmpty());
+    assertEquals(0, dispatcher.queuedCount());
+  }
+
+  @Test
+  void testFailedDelivery_ShouldBeRetriedWithTheSameBatchId() throws Exception {
+    failuresLeft.set(2);
+    dispatcher = createDispatcher();
+
+    dispatcher.publish("merchant-1", createPayment(PaymentStatus.AUTHORIZED));
+
+    await(() -> dispatcher.deliveredCount() == 1);
+    assertEquals(3, received.size());
+    assertEquals(1, received.stream().map(request -> request.batchId).distinct().count());
+    assertEquals(2, dispatcher.retriedCount());
+    assertFalse(Files.exists(settings.getDeadLetterFile()));
+  }
+
+  @Test
+  void testFailedDelivery_ShouldBeDeadLetteredAfterMaxAttempts() throws Exception {
+    failuresLeft.set(Integer.MAX_VALUE);
+    dispatcher = createDispatcher();
+    PaymentResponse payment = createPayment(PaymentStatus.DECLINED);
+
+    dispatcher.publish("merchant-1", payment);
+
+    await(() -> dispatcher.deadLetteredCount() == 1);
+    assertEquals(3, received.size());
+    List<String> lines = Files.readAllLines(settings.getDeadLetterFile());
+    assertEquals(1, lines.size());
+    JsonNode deadLetter = objectMapper.readTree(lines.get(0));
+    assertEquals("merchant-1", deadLetter.get("merchantId").asText());
+    assertEquals(3, deadLetter.get("attempts").asInt());
+    assertEquals("HTTP 500", deadLetter.get("reason").asText());
+    assertEquals(payment.getId().toString(),
+        deadLetter.get("batch").get("events").get(0).get("payment").get("id").asText());
+  }
+
+  @Test
+  void testPublish_WhenQueueIsFull_ShouldDeadLetterInTheBackground() throws Exception {
+    receiverStalled = true;
+    settings.setQueueCapacity(1);
+    settings.setBatchSize(1);
+    settings.setMaxInFlight(1);
+    dispatcher = createDispatcher();
+    // The first event is stuck at the receiver, the second waits for a free slot, the third
+    // fills the queue
+    dispatcher.publish("merchant-1", createPayment(PaymentStatus.AUTHORIZED));
+    await(() -> received.isEmpty() && dispatcher.queuedCount() == 0);
+    dispatcher.publish("merchant-1", createPayment(PaymentStatus.AUTHORIZED));
+    await(() -> dispatcher.queuedCount() == 0);
+    dispatcher.publish("merchant-1", createPayment(PaymentStatus.AUTHORIZED));
+    PaymentResponse overflow = createPayment(PaymentStatus.DECLINED);
+
+    dispatcher.publish("merchant-1", overflow);
+
+    await(() -> dispatcher.deadLetteredCount() == 1);
+    JsonNode deadLetter = objectMapper.readTree(
+        Files.readAllLines(settings.getDeadLetterFile()).get(0));
+    assertEquals("queue full", deadLetter.get("reason").asText());
+    assertEquals(overflow.getId().toString(),
+        deadLetter.get("batch").get("events").get(0).get("payment").get("id").asText());
+    assertEquals(0, dispatcher.droppedCount());
+    releaseReceiver.countDown();
+    await(() -> dispatcher.deliveredCount() == 3);
+  }
+
+  private WebhookDispatcher createDispatcher() {
+    URI url = URI.create("http://127.0.0.1:" + receiver.getAddress().getPort() + "/webhooks");
+    return new WebhookDispatcher(List.of(new WebhookEndpoint("merchant-1", url, SECRET)),
+        settings, objectMapper);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  private static PaymentResponse createPayment(PaymentStatus status) {
+    PaymentResponse payment = new PaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setLastFourDigits("8877");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(1050);
+    return payment;
+  }
+
+  private static final class Received {
+    private final String batchId;
+    private final String signature;
+    private final byte[] body;
+
+    private Received(String batchId, String signature, byte[] body) {
+      this.batchId = batchId;
+      this.signature = signature;
+      this.body = body;
+    }
+  }
+}